@@ -71,7 +71,7 @@ router.get('/search', async (req, res, next) => {
   if (cached) return res.json({ ok: true, data: cached, error: null });
 
   try {
-    const { data } = await spring.get(`/api/search`, { params: { query } });
+    const { data, headers } = await spring.get(`/api/search`, { params: { query } });
 
     const processed = Array.isArray(data)
       ? data.map(item => {
@@ -83,7 +83,8 @@ router.get('/search', async (req, res, next) => {
         })
       : [];
 
-    cache.set(cacheKey, processed);
+    // partial results (a source missed the backend deadline) are served but not cached
+    if (headers['x-search-partial'] !== 'true') cache.set(cacheKey, processed);
     res.json({ ok: true, data: processed, error: null });
   } catch (err) {
     next(err);
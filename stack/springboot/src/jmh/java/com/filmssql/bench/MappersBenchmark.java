@@ -0,0 +1,87 @@
+package com.filmssql.bench;
+
+import com.filmssql.domain.entity.ActorInfo;
+import com.filmssql.domain.entity.Movie;
+import com.filmssql.domain.entity.OscarAward;
+import com.filmssql.domain.entity.ReviewMovie;
+import com.filmssql.util.ActorInfoMapper;
+import com.filmssql.util.Mappers;
+import com.filmssql.web.dto.MovieDTO;
+import com.filmssql.web.dto.OscarAwardDTO;
+import com.filmssql.web.dto.ReviewMovieDTO;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and allocation of the entity to DTO mappers on realistic graph sizes.
+ * <p>
+ * Run with: {@code mvn -Pjmh compile exec:exec} (adds {@code -prof gc} by default,
+ * override with {@code -Djmh.args="MappersBenchmark -prof gc -f 1"}).
+ * Each {@code legacy*} benchmark runs the mapping its counterpart replaced (see {@link LegacyMappers}).
+ * {@code actorInfoToDto} has none: {@code ActorInfoMapper} keeps its builder, which the JIT scalar-replaces.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappersBenchmark {
+
+    // cast/crew/releases/themes/reviews/awards per movie: a typical title and a large ensemble production
+    @Param({"20/30/10/5/10/2", "300/400/60/40/500/40"})
+    public String shape;
+
+    private Movie movie;
+    private List<ReviewMovie> reviews;
+    private List<OscarAward> awards;
+    private List<ActorInfo> actorInfos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] s = shape.split("/");
+        movie = MovieGraphFixtures.movie(Integer.parseInt(s[0]), Integer.parseInt(s[1]),
+                Integer.parseInt(s[2]), Integer.parseInt(s[3]));
+        reviews = MovieGraphFixtures.reviews(movie, Integer.parseInt(s[4]));
+        awards = MovieGraphFixtures.awards(movie, Integer.parseInt(s[5]));
+        actorInfos = MovieGraphFixtures.actorInfos(100);
+    }
+
+    @Benchmark
+    public MovieDTO toDTO() {
+        return Mappers.toDTO(movie);
+    }
+
+    @Benchmark
+    public MovieDTO legacyToDTO() {
+        return LegacyMappers.toDTO(movie);
+    }
+
+    @Benchmark
+    public List<ReviewMovieDTO> toReviewMovieDTOs() {
+        return Mappers.toReviewMovieDTOs(reviews);
+    }
+
+    @Benchmark
+    public List<ReviewMovieDTO> legacyToReviewMovieDTOs() {
+        return LegacyMappers.toReviewMovieDTOs(reviews);
+    }
+
+    @Benchmark
+    public List<OscarAwardDTO> toOscarAwardDTOs() {
+        return Mappers.toOscarAwardDTOs(awards);
+    }
+
+    @Benchmark
+    public List<OscarAwardDTO> legacyToOscarAwardDTOs() {
+        return LegacyMappers.toOscarAwardDTOs(awards);
+    }
+
+    @Benchmark
+    public void actorInfoToDto(Blackhole bh) {
+        for (ActorInfo ai : actorInfos) bh.consume(ActorInfoMapper.toDto(ai));
+    }
+}
@@ -0,0 +1,99 @@
+package com.filmssql.bench;
+
+import com.filmssql.domain.entity.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Detached entity graphs shaped like real catalog rows, built once per benchmark trial.
+ */
+final class MovieGraphFixtures {
+    private MovieGraphFixtures() {}
+
+    static Movie movie(int cast, int crew, int releases, int themes) {
+        Movie m = Movie.builder()
+                .id(1_000_048L)
+                .name("Inception")
+                .date(2010)
+                .tagline("Your mind is the scene of the crime.")
+                .description("Cobb, a skilled thief who commits corporate espionage by infiltrating the subconscious...")
+                .minute(148)
+                .rating(4.2)
+                .themes(new LinkedHashSet<>())
+                .cast(new LinkedHashSet<>())
+                .crew(new LinkedHashSet<>())
+                .releases(new LinkedHashSet<>())
+                .genres(new LinkedHashSet<>())
+                .studios(new LinkedHashSet<>())
+                .countries(new LinkedHashSet<>())
+                .languages(new LinkedHashSet<>())
+                .build();
+        m.setPoster(Poster.builder().id(1L).link("https://a.ltrbxd.com/resized/film-poster/1/0/0/0/4/8/1000048-inception-0-230-0-345-crop.jpg").movie(m).build());
+
+        for (int i = 0; i < themes; i++) {
+            m.getThemes().add(Theme.builder().id((long) i).movie(m).theme("Theme number " + i).build());
+        }
+        for (int i = 0; i < cast; i++) {
+            Actor a = Actor.builder().id(10_000L + i).name("Actor Name " + i).build();
+            a.setInfo(ActorInfo.builder().actorId(a.getId()).actor(a).imagePath("/actors/" + a.getId() + ".jpg").build());
+            m.getCast().add(ActorMovie.builder().id(20_000L + i).movie(m).actor(a).role("Character " + i).build());
+        }
+        Role[] roles = new Role[12];
+        for (int i = 0; i < roles.length; i++) roles[i] = Role.builder().id((long) i).role("Role " + i).build();
+        for (int i = 0; i < crew; i++) {
+            Person p = Person.builder().id(30_000L + i).name("Crew Person " + i).build();
+            m.getCrew().add(MovieRolePerson.builder().id(40_000L + i).movie(m).role(roles[i % roles.length]).person(p).build());
+        }
+        List<Country> countries = countries(40);
+        for (int i = 0; i < releases; i++) {
+            m.getReleases().add(ReleaseMovie.builder().id(50_000L + i).movie(m).country(countries.get(i % countries.size()))
+                    .releaseDate(LocalDate.of(2010, 1 + i % 12, 1 + i % 28)).releaseType("Theatrical").rating("PG-13").build());
+        }
+        for (int i = 0; i < 4; i++) m.getGenres().add(Genre.builder().id((long) i).genre("Genre " + i).build());
+        for (int i = 0; i < 3; i++) m.getStudios().add(Studio.builder().id((long) i).name("Studio " + i).build());
+        m.getCountries().addAll(countries.subList(0, 2));
+        for (int i = 0; i < 3; i++) m.getLanguages().add(Language.builder().id((long) i).language("Language " + i).build());
+        return m;
+    }
+
+    static List<ReviewMovie> reviews(Movie movie, int n) {
+        List<ReviewMovie> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            out.add(ReviewMovie.builder().id((long) i).movie(movie).critic_name("Critic " + i).top_critic(i % 5 == 0)
+                    .publisher_name("Publisher " + i % 40).review_type(i % 3 == 0 ? "Rotten" : "Fresh").review_score("3/4")
+                    .review_date(LocalDate.of(2010, 7, 1 + i % 28))
+                    .review_content("A dazzling, layered heist movie that rewards attention; number " + i).build());
+        }
+        return out;
+    }
+
+    static List<OscarAward> awards(Movie movie, int n) {
+        List<OscarAward> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Actor a = Actor.builder().id(10_000L + i).name("Actor Name " + i).build();
+            out.add(OscarAward.builder().id((long) i).yearFilm("2010").yearCeremony("2011").category("CATEGORY " + i % 24)
+                    .name("Nominee " + i).film("Inception").winner(i % 4 == 0).actor(a).movie(movie).build());
+        }
+        return out;
+    }
+
+    static List<ActorInfo> actorInfos(int n) {
+        List<ActorInfo> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            out.add(ActorInfo.builder().actorId((long) i).biography("Born in a small town, actor " + i + " began acting on stage...")
+                    .placeOfBirth("London, England, UK").birthday(LocalDate.of(1970, 1 + i % 12, 1 + i % 28))
+                    .infoName("Actor Name " + i).gender(i % 3).popularity(1.0 + i % 50).imagePath("/actors/" + i + ".jpg").build());
+        }
+        return out;
+    }
+
+    private static List<Country> countries(int n) {
+        List<Country> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) out.add(Country.builder().id((long) i).country("Country " + i).build());
+        return out;
+    }
+
+}
@@ -0,0 +1,128 @@
+package com.filmssql.config;
+
+import com.filmssql.domain.event.MovieChangedEvent;
+import com.filmssql.domain.event.MoviesChangedEvent;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+// Read-only transactions (@Transactional(readOnly = true), read-only TransactionTemplates) go to the
+// replicas in app.datasource.routing.replica-urls, everything else to spring.datasource. The lazy proxy
+// fetches the real connection only when the first statement runs, after the transaction set read-only.
+// Open-in-view is turned off with routing (RoutingEnvironmentPostProcessor): its request-wide session would
+// keep the first transaction's connection, replica or primary, for every later transaction of the request.
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRouter replicaRouter(HikariDataSource primaryDataSource,
+                                       @Value("${app.datasource.routing.replica-urls}") List<String> replicaUrls,
+                                       @Value("${app.datasource.routing.max-lag:10s}") Duration maxLag,
+                                       @Value("${app.datasource.routing.connection-timeout:2s}") Duration connectionTimeout,
+                                       MeterRegistry registry) {
+        return new ReplicaRouter(primaryDataSource, replicaUrls, maxLag, connectionTimeout, registry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRouter replicaRouter, MeterRegistry registry) {
+        Counter writes = ReplicaRouter.connections(registry, "read-write", "primary");
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy();
+        proxy.setTargetDataSource(new DelegatingDataSource(primaryDataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                writes.increment();
+                return super.getConnection();
+            }
+        });
+        proxy.setReadOnlyDataSource(replicaRouter);
+        // PostgreSQL defaults; otherwise the proxy opens a connection at startup to find them out
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return proxy;
+    }
+
+    // after a commit, read-only transactions of the same thread stay on the primary for a while. Set before
+    // the commit: after-commit event listeners (cache and index reloads) run before afterCommit callbacks.
+    @Bean
+    public TransactionExecutionListener readYourWritesListener(
+            @Value("${app.datasource.routing.read-your-writes:5s}") Duration window) {
+        return new TransactionExecutionListener() {
+            @Override
+            public void beforeCommit(TransactionExecution transaction) {
+                if (!transaction.isReadOnly()) ReadYourWrites.markWritten(window);
+            }
+        };
+    }
+
+    // shared caches reload a changed movie from the primary until the replicas have caught up with the write
+    @Bean
+    public MovieWriteWindow movieWriteWindow(@Value("${app.datasource.routing.max-lag:10s}") Duration maxLag) {
+        ReadYourWrites.enableMovieWindow(maxLag);
+        return new MovieWriteWindow();
+    }
+
+    public static class MovieWriteWindow {
+
+        @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+        public void onMovieChanged(MovieChangedEvent event) {
+            ReadYourWrites.moviesWritten(Collections.singleton(event.movieId()));
+        }
+
+        @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+        public void onMoviesChanged(MoviesChangedEvent event) {
+            ReadYourWrites.moviesWritten(event.movieIds());
+        }
+    }
+
+    // ... and at most until the end of the request, so pooled server threads don't carry it over
+    @Bean
+    public OncePerRequestFilter readYourWritesFilter() {
+        return new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                            FilterChain chain) throws ServletException, IOException {
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    ReadYourWrites.clear();
+                }
+            }
+        };
+    }
+}
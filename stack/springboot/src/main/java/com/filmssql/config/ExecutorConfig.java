@@ -0,0 +1,42 @@
+package com.filmssql.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    // Every task holds a DB connection while it runs: keep the pool size below
+    // spring.datasource.hikari.maximum-pool-size. When saturated the caller runs the task itself.
+    @Bean
+    @ConditionalOnProperty(name = "app.movies.detail-loader", havingValue = "parallel")
+    public ThreadPoolTaskExecutor movieDetailExecutor(
+            @Value("${app.movies.detail-loader.pool-size:6}") int poolSize,
+            @Value("${app.movies.detail-loader.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("movie-detail-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    // Search sources run here so that their latencies overlap; a rejected task is reported as rejected.
+    @Bean
+    public ThreadPoolTaskExecutor searchExecutor(
+            @Value("${app.search.pool-size:8}") int poolSize,
+            @Value("${app.search.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("search-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        return executor;
+    }
+}
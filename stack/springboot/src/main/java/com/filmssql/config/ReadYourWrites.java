@@ -0,0 +1,101 @@
+package com.filmssql.config;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Keeps read-only transactions on the primary when replicas could miss a recent write.
+ * <p>
+ * Per thread: a read-write transaction about to commit opens a short window (the rest of the
+ * request, which the request filter ends, or {@code app.datasource.routing.read-your-writes} on
+ * other threads); {@link #onPrimary} forces it for a block of code.
+ * <p>
+ * Per movie, for every thread: shared caches reload a changed movie on whatever thread asks next,
+ * so for {@code max-lag} after a movie write their loads go through {@link #onPrimaryIfWritten}
+ * and cannot cache what a lagging replica still holds.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Long> PRIMARY_UNTIL = new ThreadLocal<>();
+    private static final ThreadLocal<Integer> FORCED = ThreadLocal.withInitial(() -> 0);
+
+    // expired entries are dropped once the map holds this many
+    private static final int PURGE_SIZE = 4096;
+    private static final Map<Long, Long> MOVIE_PRIMARY_UNTIL = new ConcurrentHashMap<>();
+    private static volatile long movieWindowNanos;
+
+    private ReadYourWrites() {}
+
+    /** Runs {@code task} with every read-only transaction it opens routed to the primary. */
+    public static <T> T onPrimary(Supplier<T> task) {
+        FORCED.set(FORCED.get() + 1);
+        try {
+            return task.get();
+        } finally {
+            FORCED.set(FORCED.get() - 1);
+        }
+    }
+
+    /** {@link #onPrimary} when the movie was written less than the movie window ago, else just {@code task}. */
+    public static <T> T onPrimaryIfWritten(Long movieId, Supplier<T> task) {
+        return recentlyWritten(movieId) ? onPrimary(task) : task.get();
+    }
+
+    /** As {@link #onPrimaryIfWritten(Long, Supplier)}, when any of the movies was written recently. */
+    public static <T> T onPrimaryIfWritten(Collection<? extends Long> movieIds, Supplier<T> task) {
+        if (!MOVIE_PRIMARY_UNTIL.isEmpty()) {
+            for (Long id : movieIds) {
+                if (recentlyWritten(id)) return onPrimary(task);
+            }
+        }
+        return task.get();
+    }
+
+    /** Wraps {@code task} so that it keeps this thread's routing when run on another thread. */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        if (!isPinned()) return task;
+        return () -> onPrimary(task);
+    }
+
+    public static boolean isPinned() {
+        if (FORCED.get() > 0) return true;
+        Long until = PRIMARY_UNTIL.get();
+        if (until == null) return false;
+        if (System.nanoTime() - until < 0) return true;
+        PRIMARY_UNTIL.remove();
+        return false;
+    }
+
+    static void markWritten(Duration window) {
+        PRIMARY_UNTIL.set(System.nanoTime() + window.toNanos());
+    }
+
+    static void clear() {
+        PRIMARY_UNTIL.remove();
+    }
+
+    static void enableMovieWindow(Duration window) {
+        movieWindowNanos = window.toNanos();
+    }
+
+    static void moviesWritten(Collection<Long> movieIds) {
+        long window = movieWindowNanos;
+        if (window == 0) return;
+        long now = System.nanoTime();
+        if (MOVIE_PRIMARY_UNTIL.size() >= PURGE_SIZE) {
+            MOVIE_PRIMARY_UNTIL.values().removeIf(until -> now - until >= 0);
+        }
+        for (Long id : movieIds) {
+            if (id != null) MOVIE_PRIMARY_UNTIL.put(id, now + window);
+        }
+    }
+
+    private static boolean recentlyWritten(Long movieId) {
+        if (movieId == null) return false;
+        Long until = MOVIE_PRIMARY_UNTIL.get(movieId);
+        return until != null && System.nanoTime() - until < 0;
+    }
+}
@@ -0,0 +1,170 @@
+package com.filmssql.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Connections for read-only transactions: from the least loaded healthy replica (active plus
+ * waiting connections over pool size), else from the primary.
+ * <p>
+ * A replica is left out after a failed connection or health check, or while its replay lag is
+ * above {@code maxLag}; the periodic health check brings it back. Threads pinned by
+ * {@link ReadYourWrites} always get the primary. Counters {@code datasource.routing.connections}
+ * (route, target) and {@code datasource.routing.fallbacks} (reason) show the read/write split.
+ */
+@Slf4j
+public class ReplicaRouter extends AbstractDataSource implements AutoCloseable {
+
+    // 0 when the replica has replayed all it received, otherwise seconds since the last replayed commit
+    private static final String LAG_QUERY = """
+            select case when not pg_is_in_recovery() or pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                        else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0) end""";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Duration maxLag;
+    private final Counter primaryReads;
+    private final Counter pinned;
+    private final Counter unavailable;
+
+    public ReplicaRouter(HikariDataSource primary, List<String> urls, Duration maxLag, Duration connectionTimeout,
+                         MeterRegistry registry) {
+        this.primary = primary;
+        this.maxLag = maxLag;
+        for (int i = 0; i < urls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            primary.copyStateTo(config);
+            config.setPoolName("replica-" + (i + 1));
+            config.setJdbcUrl(urls.get(i));
+            config.setReadOnly(true);
+            config.setConnectionTimeout(connectionTimeout.toMillis());
+            // start even when the replica is down; it joins once the health check succeeds
+            config.setInitializationFailTimeout(-1);
+            config.setMetricRegistry(null);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            replicas.add(new Replica(config.getPoolName(), new HikariDataSource(config), registry));
+        }
+        primaryReads = connections(registry, "read-only", "primary");
+        pinned = Counter.builder("datasource.routing.fallbacks").tag("reason", "read-your-writes").register(registry);
+        unavailable = Counter.builder("datasource.routing.fallbacks").tag("reason", "no-healthy-replica").register(registry);
+        log.info("Read-only transactions routed to {} replica(s), max lag {}", replicas.size(), maxLag);
+    }
+
+    static Counter connections(MeterRegistry registry, String route, String target) {
+        return Counter.builder("datasource.routing.connections")
+                .description("Connections handed out, by transaction type and database")
+                .tag("route", route).tag("target", target)
+                .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (ReadYourWrites.isPinned()) {
+            pinned.increment();
+            return fromPrimary();
+        }
+        List<Replica> candidates = new ArrayList<>(replicas.size());
+        for (Replica r : replicas) {
+            if (r.healthy) candidates.add(r);
+        }
+        candidates.sort(Comparator.comparingDouble(Replica::load));
+        for (Replica r : candidates) {
+            try {
+                Connection con = r.dataSource.getConnection();
+                r.reads.increment();
+                return con;
+            } catch (SQLException e) {
+                r.down(e.getMessage());
+            }
+        }
+        unavailable.increment();
+        return fromPrimary();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Replica connections use the configured credentials");
+    }
+
+    private Connection fromPrimary() throws SQLException {
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    @Scheduled(initialDelayString = "${app.datasource.routing.health-interval:5s}",
+            fixedDelayString = "${app.datasource.routing.health-interval:5s}")
+    public void checkHealth() {
+        for (Replica r : replicas) {
+            try (Connection con = r.dataSource.getConnection();
+                 Statement st = con.createStatement()) {
+                st.setQueryTimeout(5);
+                try (ResultSet rs = st.executeQuery(LAG_QUERY)) {
+                    rs.next();
+                    r.lagSeconds = rs.getDouble(1);
+                }
+                if (r.lagSeconds > maxLag.toMillis() / 1000.0) r.down("replication lag " + r.lagSeconds + "s");
+                else r.up();
+            } catch (SQLException e) {
+                r.down(e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(r -> r.dataSource.close());
+    }
+
+    private static final class Replica {
+        final String name;
+        final HikariDataSource dataSource;
+        final Counter reads;
+        volatile boolean healthy = true;
+        volatile double lagSeconds;
+
+        Replica(String name, HikariDataSource dataSource, MeterRegistry registry) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.reads = connections(registry, "read-only", name);
+            Gauge.builder("datasource.routing.replica.healthy", this, r -> r.healthy ? 1 : 0)
+                    .tag("replica", name).register(registry);
+            Gauge.builder("datasource.routing.replica.lag", this, r -> r.lagSeconds)
+                    .tag("replica", name).baseUnit("seconds").register(registry);
+        }
+
+        double load() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            if (pool == null) return 0;
+            return (double) (pool.getActiveConnections() + pool.getThreadsAwaitingConnection())
+                    / dataSource.getMaximumPoolSize();
+        }
+
+        void down(String reason) {
+            if (healthy) log.warn("Replica {} left out of read routing: {}", name, reason);
+            healthy = false;
+        }
+
+        void up() {
+            if (!healthy) log.info("Replica {} back in read routing", name);
+            healthy = true;
+        }
+    }
+}
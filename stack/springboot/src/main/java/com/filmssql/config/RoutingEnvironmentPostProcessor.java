@@ -0,0 +1,24 @@
+package com.filmssql.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+/**
+ * With read/write routing on, forces {@code spring.jpa.open-in-view=false}. Hibernate holds a
+ * session's connection until the session ends, so with open-in-view the first transaction of a
+ * request would pick the database for all the others.
+ */
+public class RoutingEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (environment.getProperty("app.datasource.routing.enabled", Boolean.class, false)) {
+            environment.getPropertySources().addFirst(
+                    new MapPropertySource("dataSourceRouting", Map.of("spring.jpa.open-in-view", "false")));
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.filmssql.domain.event;
+
+/**
+ * Published by the movie write paths; listeners drop or refresh whatever they hold for the movie.
+ */
+public record MovieChangedEvent(Long movieId) {}
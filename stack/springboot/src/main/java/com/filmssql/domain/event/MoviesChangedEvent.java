@@ -0,0 +1,9 @@
+package com.filmssql.domain.event;
+
+import java.util.Set;
+
+/**
+ * Published once per committed batch by the bulk write path, in place of one {@link MovieChangedEvent}
+ * per movie, so listeners can refresh many movies with one query or a single rebuild.
+ */
+public record MoviesChangedEvent(Set<Long> movieIds) {}
@@ -0,0 +1,3 @@
+package com.filmssql.domain.repository;
+
+public record ActorBiographyRow(Long actorId, String biography) {}
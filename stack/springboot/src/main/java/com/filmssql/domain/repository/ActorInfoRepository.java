@@ -1,11 +1,51 @@
 package com.filmssql.domain.repository;
 
 import com.filmssql.domain.entity.ActorInfo;
+import com.filmssql.web.dto.ActorInfoSummaryDTO;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ActorInfoRepository extends JpaRepository<ActorInfo, Long>
 {
+    @Query("""
+            select new com.filmssql.web.dto.ActorInfoSummaryDTO(
+                i.actorId, i.infoName, i.gender, i.popularity, i.birthday, i.deathday, i.placeOfBirth, i.imagePath
+            )
+            from ActorInfo i
+            where i.actorId > :afterId
+            order by i.actorId
+            """)
+    List<ActorInfoSummaryDTO> findSummariesAfterId(@Param("afterId") long afterId, Pageable pageable);
+
+    // rows without popularity sort last (as -1); ties are broken by actorId. The "<=" bound lets
+    // idx_actor_infos_popularity (db/indexes.sql, created by the ingestion runner) seek to the cursor
+    // instead of scanning every row before it.
+    @Query("""
+            select new com.filmssql.web.dto.ActorInfoSummaryDTO(
+                i.actorId, i.infoName, i.gender, i.popularity, i.birthday, i.deathday, i.placeOfBirth, i.imagePath
+            )
+            from ActorInfo i
+            where coalesce(i.popularity, -1) <= :popularity
+              and (coalesce(i.popularity, -1) < :popularity or i.actorId > :afterId)
+            order by coalesce(i.popularity, -1) desc, i.actorId asc
+            """)
+    List<ActorInfoSummaryDTO> findSummariesByPopularityAfter(@Param("popularity") double popularity,
+                                                             @Param("afterId") long afterId,
+                                                             Pageable pageable);
+
+    @Query("select new com.filmssql.domain.repository.ActorBiographyRow(i.actorId, i.biography) from ActorInfo i where i.actorId in :ids")
+    List<ActorBiographyRow> findBiographies(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select new com.filmssql.domain.repository.IdNameRow(i.actorId, i.infoName)
+            from ActorInfo i
+            where i.actorId > :afterId
+            order by i.actorId
+            """)
+    List<IdNameRow> findIdNamesAfterId(@Param("afterId") long afterId, Pageable pageable);
 }
@@ -0,0 +1,54 @@
+package com.filmssql.domain.repository;
+
+import com.filmssql.domain.entity.ActorMovie;
+import com.filmssql.web.dto.FilmographyItemDTO;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Filmography pages as constructor projections over {@code actors_movies}, {@code movies} and
+ * {@code posters}: no entity is loaded. Movies without a year or a rating sort last (as -1);
+ * ties are broken by the credit id.
+ */
+public interface ActorMovieRepository extends JpaRepository<ActorMovie, Long> {
+
+    @Query("""
+            select new com.filmssql.web.dto.FilmographyItemDTO(
+                am.id, m.id, m.name, m.date, m.rating, am.role,
+                new com.filmssql.web.dto.PosterDTO(p.id, p.link)
+            )
+            from ActorMovie am
+            join am.movie m
+            left join m.poster p
+            where am.actor.id = :actorId
+              and (coalesce(m.date, -1) < :date
+                   or (coalesce(m.date, -1) = :date and am.id > :afterId))
+            order by coalesce(m.date, -1) desc, am.id asc
+            """)
+    List<FilmographyItemDTO> findFilmographyByYear(@Param("actorId") long actorId,
+                                                   @Param("date") int date,
+                                                   @Param("afterId") long afterId,
+                                                   Pageable pageable);
+
+    @Query("""
+            select new com.filmssql.web.dto.FilmographyItemDTO(
+                am.id, m.id, m.name, m.date, m.rating, am.role,
+                new com.filmssql.web.dto.PosterDTO(p.id, p.link)
+            )
+            from ActorMovie am
+            join am.movie m
+            left join m.poster p
+            where am.actor.id = :actorId
+              and (coalesce(m.rating, -1) < :rating
+                   or (coalesce(m.rating, -1) = :rating and am.id > :afterId))
+            order by coalesce(m.rating, -1) desc, am.id asc
+            """)
+    List<FilmographyItemDTO> findFilmographyByRating(@Param("actorId") long actorId,
+                                                     @Param("rating") double rating,
+                                                     @Param("afterId") long afterId,
+                                                     Pageable pageable);
+}
@@ -14,4 +14,21 @@ public interface ActorRepository extends JpaRepository<Actor, Long>
     List<Actor> searchByName(@Param("query") String query, Pageable pageable);
 
     List<Actor> findByNameContainingIgnoreCase(String name, Pageable pageable);
+
+    @Query("""
+            select new com.filmssql.domain.repository.NameIndexRow(a.id, a.name, i.popularity, i.imagePath)
+            from Actor a
+            left join a.info i
+            where a.id > :afterId
+            order by a.id
+            """)
+    List<NameIndexRow> findNameIndexRows(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("""
+            select new com.filmssql.domain.repository.IdNameRow(a.id, a.name)
+            from Actor a
+            where a.id > :afterId
+            order by a.id
+            """)
+    List<IdNameRow> findIdNamesAfterId(@Param("afterId") long afterId, Pageable pageable);
 }
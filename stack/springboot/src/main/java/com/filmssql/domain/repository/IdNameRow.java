@@ -0,0 +1,4 @@
+package com.filmssql.domain.repository;
+
+/** Id and name only, read in keyset pages to build in-memory name indexes. */
+public record IdNameRow(Long id, String name) {}
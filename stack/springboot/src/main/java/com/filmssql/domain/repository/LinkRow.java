@@ -0,0 +1,6 @@
+package com.filmssql.domain.repository;
+
+/**
+ * One row of a movie join table, e.g. (movie_id, genre_id) of {@code genres_movies}.
+ */
+public record LinkRow(long movieId, long targetId) {}
@@ -0,0 +1,80 @@
+package com.filmssql.domain.repository;
+
+import com.filmssql.web.dto.MovieBulkItemDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Batched JDBC writes of movie rows for the bulk write path; joins the surrounding transaction.
+ */
+@Repository
+public class MovieBulkRepository {
+
+    /** A bulk item with the id it is written under (preallocated for new movies). */
+    public record Row(long id, MovieBulkItemDTO item) {}
+
+    private final JdbcTemplate jdbc;
+    private final int batchSize;
+
+    public MovieBulkRepository(JdbcTemplate jdbc,
+                               @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.jdbc = jdbc;
+        this.batchSize = batchSize;
+    }
+
+    /** The ids among {@code ids} that exist, locked until the end of the transaction. */
+    public Set<Long> lockExisting(Collection<Long> ids) {
+        Set<Long> existing = new HashSet<>();
+        if (ids.isEmpty()) return existing;
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement("select id from movies where id = any(?) order by id for update");
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        }, rs -> {
+            existing.add(rs.getLong(1));
+        });
+        return existing;
+    }
+
+    /** Draws {@code count} ids from the movies sequence in one round trip. */
+    public List<Long> nextIds(int count) {
+        if (count == 0) return List.of();
+        return jdbc.queryForList("select nextval(pg_get_serial_sequence('movies', 'id')) from generate_series(1, ?)",
+                Long.class, count);
+    }
+
+    public void insert(List<Row> rows) {
+        if (rows.isEmpty()) return;
+        jdbc.batchUpdate("insert into movies (name, date, tagline, description, minute, rating, id) "
+                + "values (?, ?, ?, ?, ?, ?, ?)", rows, batchSize, MovieBulkRepository::bind);
+    }
+
+    /** Overwrites the columns given in each item; null fields keep their current value. */
+    public void update(List<Row> rows) {
+        if (rows.isEmpty()) return;
+        jdbc.batchUpdate("update movies set name = coalesce(?, name), date = coalesce(?, date), "
+                + "tagline = coalesce(?, tagline), description = coalesce(?, description), "
+                + "minute = coalesce(?, minute), rating = coalesce(?, rating) where id = ?",
+                rows, batchSize, MovieBulkRepository::bind);
+    }
+
+    private static void bind(PreparedStatement ps, Row row) throws SQLException {
+        MovieBulkItemDTO m = row.item();
+        ps.setObject(1, m.name(), Types.VARCHAR);
+        ps.setObject(2, m.date(), Types.INTEGER);
+        ps.setObject(3, m.tagline(), Types.VARCHAR);
+        ps.setObject(4, m.description(), Types.VARCHAR);
+        ps.setObject(5, m.minute(), Types.INTEGER);
+        ps.setObject(6, m.rating(), Types.DOUBLE);
+        ps.setLong(7, row.id());
+    }
+}
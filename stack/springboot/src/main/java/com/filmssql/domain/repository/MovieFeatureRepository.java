@@ -0,0 +1,90 @@
+package com.filmssql.domain.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+
+/**
+ * Streams the per-movie rows the in-memory indexes are built from (related movies, facets,
+ * analytics): movie columns, join table links, themes, top-billed cast and directors. Rows are
+ * passed to a visitor as they are read, with a fetch size, so whole tables never sit in memory as
+ * entities or lists; call it inside a read-only transaction so the driver can use a cursor.
+ */
+@Repository
+public class MovieFeatureRepository {
+
+    private static final int FETCH_SIZE = 10_000;
+
+    public interface MovieVisitor {
+        void accept(long movieId, double rating);
+    }
+
+    public interface MovieColumnsVisitor {
+        void accept(long movieId, Integer date, Integer minute, Double rating);
+    }
+
+    public interface LinkVisitor {
+        void accept(long movieId, long targetId);
+    }
+
+    public interface ThemeVisitor {
+        void accept(long movieId, String theme);
+    }
+
+    private final JdbcTemplate jdbc;
+
+    public MovieFeatureRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** Every movie id with its rating, 0 when unrated. */
+    public void forEachMovie(MovieVisitor visitor) {
+        stream("select id, coalesce(rating, 0) from movies", rs -> visitor.accept(rs.getLong(1), rs.getDouble(2)));
+    }
+
+    public void forEachMovieColumns(MovieColumnsVisitor visitor) {
+        stream("select id, date, minute, rating from movies", rs -> visitor.accept(rs.getLong(1),
+                rs.getObject(2, Integer.class), rs.getObject(3, Integer.class), rs.getObject(4, Double.class)));
+    }
+
+    public void forEachLink(MovieLink link, LinkVisitor visitor) {
+        stream("select movie_id, " + link.targetColumn() + " from " + link.joinTable(),
+                rs -> visitor.accept(rs.getLong(1), rs.getLong(2)));
+    }
+
+    public void forEachTheme(ThemeVisitor visitor) {
+        stream("select movie_id, theme from themes where movie_id is not null",
+                rs -> visitor.accept(rs.getLong(1), rs.getString(2)));
+    }
+
+    /** The first {@code perMovie} actors of each movie in credit order (the dataset lists top billing first). */
+    public void forEachTopCast(int perMovie, LinkVisitor visitor) {
+        stream("select movie_id, actor_id from (select movie_id, actor_id, "
+                        + "row_number() over (partition by movie_id order by id) as billing from actors_movies) c "
+                        + "where billing <= " + perMovie,
+                rs -> visitor.accept(rs.getLong(1), rs.getLong(2)));
+    }
+
+    /** People credited in the crew with the given role name (case-insensitive), e.g. directors. */
+    public void forEachCrew(String role, LinkVisitor visitor) {
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement("select mrp.movie_id, mrp.person_id from movie_role_person mrp "
+                    + "join role r on r.id = mrp.role_id where lower(r.role) = lower(?)");
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setString(1, role);
+            return ps;
+        }, rs -> {
+            visitor.accept(rs.getLong(1), rs.getLong(2));
+        });
+    }
+
+    private void stream(String sql, RowCallbackHandler handler) {
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setFetchSize(FETCH_SIZE);
+            return ps;
+        }, handler);
+    }
+}
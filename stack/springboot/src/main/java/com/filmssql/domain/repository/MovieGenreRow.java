@@ -0,0 +1,3 @@
+package com.filmssql.domain.repository;
+
+public record MovieGenreRow(Long movieId, String genre) {}
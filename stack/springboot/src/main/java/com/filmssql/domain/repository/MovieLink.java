@@ -0,0 +1,39 @@
+package com.filmssql.domain.repository;
+
+/**
+ * The many-to-many associations of a movie, with the join table and target table behind each one.
+ */
+public enum MovieLink {
+    GENRES("genres_movies", "genre_id", "genre", "genre"),
+    STUDIOS("studios_movies", "studio_id", "studio", "name"),
+    COUNTRIES("countries_movies", "country_id", "country", "country"),
+    LANGUAGES("languages_movies", "language_id", "language", "language");
+
+    private final String joinTable;
+    private final String targetColumn;
+    private final String targetTable;
+    private final String labelColumn;
+
+    MovieLink(String joinTable, String targetColumn, String targetTable, String labelColumn) {
+        this.joinTable = joinTable;
+        this.targetColumn = targetColumn;
+        this.targetTable = targetTable;
+        this.labelColumn = labelColumn;
+    }
+
+    public String joinTable() {
+        return joinTable;
+    }
+
+    public String targetColumn() {
+        return targetColumn;
+    }
+
+    public String targetTable() {
+        return targetTable;
+    }
+
+    public String labelColumn() {
+        return labelColumn;
+    }
+}
@@ -0,0 +1,112 @@
+package com.filmssql.domain.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Row-level access to the movie join tables ({@link MovieLink}), so a change to one association
+ * touches only the rows that differ instead of rewriting the whole collection through the entity.
+ * Joins the surrounding JPA transaction.
+ */
+@Repository
+public class MovieLinkRepository {
+
+    private final JdbcTemplate jdbc;
+    private final int batchSize;
+
+    public MovieLinkRepository(JdbcTemplate jdbc,
+                               @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.jdbc = jdbc;
+        this.batchSize = batchSize;
+    }
+
+    /** Locks the movie row until the end of the transaction; false when the movie does not exist. */
+    public boolean lockMovie(long movieId) {
+        return !jdbc.queryForList("select id from movies where id = ? for update", Long.class, movieId).isEmpty();
+    }
+
+    public Set<Long> findLinkedIds(MovieLink link, long movieId) {
+        return new HashSet<>(jdbc.queryForList(
+                "select " + link.targetColumn() + " from " + link.joinTable() + " where movie_id = ?",
+                Long.class, movieId));
+    }
+
+    /** Target ids linked to each of {@code movieIds}; movies without links are absent. */
+    public Map<Long, Set<Long>> findLinkedIds(MovieLink link, Collection<Long> movieIds) {
+        Map<Long, Set<Long>> linked = new HashMap<>();
+        if (movieIds.isEmpty()) return linked;
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement("select movie_id, " + link.targetColumn() + " from "
+                    + link.joinTable() + " where movie_id = any(?)");
+            ps.setArray(1, con.createArrayOf("bigint", movieIds.toArray()));
+            return ps;
+        }, rs -> {
+            linked.computeIfAbsent(rs.getLong(1), k -> new HashSet<>()).add(rs.getLong(2));
+        });
+        return linked;
+    }
+
+    /** Label of every target that exists among {@code ids}, keyed and ordered by id. */
+    public Map<Long, String> findTargets(MovieLink link, Collection<Long> ids) {
+        Map<Long, String> targets = new LinkedHashMap<>();
+        if (ids.isEmpty()) return targets;
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement("select id, " + link.labelColumn() + " from "
+                    + link.targetTable() + " where id = any(?) order by id");
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        }, rs -> {
+            targets.put(rs.getLong(1), rs.getString(2));
+        });
+        return targets;
+    }
+
+    /** Label of every target of the association, keyed by id. */
+    public Map<Long, String> findAllTargets(MovieLink link) {
+        Map<Long, String> targets = new HashMap<>();
+        jdbc.query("select id, " + link.labelColumn() + " from " + link.targetTable(), rs -> {
+            targets.put(rs.getLong(1), rs.getString(2));
+        });
+        return targets;
+    }
+
+    public void insert(MovieLink link, long movieId, Collection<Long> targetIds) {
+        batch("insert into " + link.joinTable() + " (movie_id, " + link.targetColumn() + ") values (?, ?)",
+                movieId, targetIds);
+    }
+
+    public void delete(MovieLink link, long movieId, Collection<Long> targetIds) {
+        batch("delete from " + link.joinTable() + " where movie_id = ? and " + link.targetColumn() + " = ?",
+                movieId, targetIds);
+    }
+
+    public void insert(MovieLink link, List<LinkRow> rows) {
+        batch("insert into " + link.joinTable() + " (movie_id, " + link.targetColumn() + ") values (?, ?)", rows);
+    }
+
+    public void delete(MovieLink link, List<LinkRow> rows) {
+        batch("delete from " + link.joinTable() + " where movie_id = ? and " + link.targetColumn() + " = ?", rows);
+    }
+
+    private void batch(String sql, long movieId, Collection<Long> targetIds) {
+        batch(sql, targetIds.stream().map(targetId -> new LinkRow(movieId, targetId)).toList());
+    }
+
+    private void batch(String sql, List<LinkRow> rows) {
+        if (rows.isEmpty()) return;
+        jdbc.batchUpdate(sql, rows, batchSize, (ps, row) -> {
+            ps.setLong(1, row.movieId());
+            ps.setLong(2, row.targetId());
+        });
+    }
+}
@@ -0,0 +1,3 @@
+package com.filmssql.domain.repository;
+
+public record MovieRankRow(Long id, Double rating, Integer date) {}
@@ -6,6 +6,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +23,9 @@ public interface MovieRepository extends JpaRepository<Movie, Long>
             """)
     Optional<Movie> findBaseById(@Param("id") Long id);
 
+    @Query("select m from Movie m left join fetch m.poster where m.id = :id")
+    Optional<Movie> findWithPosterById(@Param("id") Long id);
+
     @Query("select distinct m from Movie m left join fetch m.studios where m.id = :id")
     Optional<Movie> fetchStudios(@Param("id") Long id);
 
@@ -63,6 +67,31 @@ public interface MovieRepository extends JpaRepository<Movie, Long>
             """)
     List<Movie> findByNameContainingIgnoreCase(@Param("name") String name, Pageable pageable);
 
+    @Query("""
+            select new com.filmssql.domain.repository.NameIndexRow(m.id, m.name, m.rating, p.link)
+            from Movie m
+            left join m.poster p
+            where m.id > :afterId
+            order by m.id
+            """)
+    List<NameIndexRow> findNameIndexRows(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("""
+            select new com.filmssql.domain.repository.NameIndexRow(m.id, m.name, m.rating, p.link)
+            from Movie m
+            left join m.poster p
+            where m.id = :id
+            """)
+    Optional<NameIndexRow> findNameIndexRow(@Param("id") Long id);
+
+    @Query("""
+            select new com.filmssql.domain.repository.NameIndexRow(m.id, m.name, m.rating, p.link)
+            from Movie m
+            left join m.poster p
+            where m.id in :ids
+            """)
+    List<NameIndexRow> findNameIndexRowsByIds(@Param("ids") Collection<Long> ids);
+
     @Query("""
     select new com.filmssql.web.dto.MoviePreviewDTO(
         m.id, m.name, m.date, m.description, m.rating,
@@ -74,6 +103,17 @@ public interface MovieRepository extends JpaRepository<Movie, Long>
 """)
     Optional<MoviePreviewDTO> findPreviewById(@Param("id") Long id);
 
+    @Query("""
+    select new com.filmssql.web.dto.MoviePreviewDTO(
+        m.id, m.name, m.date, m.description, m.rating,
+        new com.filmssql.web.dto.PosterDTO(p.id, p.link)
+    )
+    from Movie m
+    left join m.poster p
+    where m.id in :ids
+""")
+    List<MoviePreviewDTO> findPreviewsByIds(@Param("ids") Collection<Long> ids);
+
     @Query("select count(m) from Movie m")
     long countAllMovies();
 
@@ -110,4 +150,22 @@ public interface MovieRepository extends JpaRepository<Movie, Long>
     @Query(value = "SELECT m.id FROM Movie m WHERE m.rating > 4 ORDER BY m.id ASC OFFSET :offset ROWS FETCH NEXT 1 ROWS ONLY")
     Long findHighRatedIdByOffset(long offset);
 
+    @Query("select new com.filmssql.domain.repository.MovieYearRow(m.id, m.date) from Movie m where m.rating > 4 order by m.id")
+    List<MovieYearRow> findHighRatedYears();
+
+    @Query("""
+            select new com.filmssql.domain.repository.MovieGenreRow(m.id, lower(g.genre))
+            from Movie m
+            join m.genres g
+            where m.rating > 4
+            order by m.id
+            """)
+    List<MovieGenreRow> findHighRatedGenres();
+
+    @Query("select new com.filmssql.domain.repository.MovieRankRow(m.id, m.rating, m.date) from Movie m")
+    List<MovieRankRow> findRankRows();
+
+    @Query("select new com.filmssql.domain.repository.MovieRankRow(m.id, m.rating, m.date) from Movie m where m.id in :ids")
+    List<MovieRankRow> findRankRowsByIds(@Param("ids") Collection<Long> ids);
+
 }
\ No newline at end of file
@@ -0,0 +1,3 @@
+package com.filmssql.domain.repository;
+
+public record MovieYearRow(Long movieId, Integer year) {}
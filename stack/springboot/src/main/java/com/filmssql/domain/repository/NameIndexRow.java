@@ -0,0 +1,7 @@
+package com.filmssql.domain.repository;
+
+/**
+ * Slim projection used to (re)build the in-memory name search index.
+ * {@code rank} is the movie rating or the actor popularity.
+ */
+public record NameIndexRow(Long id, String name, Double rank, String image) {}
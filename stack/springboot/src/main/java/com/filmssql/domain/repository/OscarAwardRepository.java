@@ -1,11 +1,24 @@
 package com.filmssql.domain.repository;
 
 import com.filmssql.domain.entity.OscarAward;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface OscarAwardRepository extends JpaRepository<OscarAward, Long> {
     List<OscarAward> findAllByActorId(Long actorId);
     List<OscarAward> findAllByMovieId(Long movieId);
+
+    @Query("""
+            select new com.filmssql.domain.repository.OscarStatRow(
+                o.id, o.actor.id, o.movie.id, o.category, o.yearCeremony, o.winner, o.name, o.film
+            )
+            from OscarAward o
+            where o.id > :afterId
+            order by o.id
+            """)
+    List<OscarStatRow> findStatRowsAfterId(@Param("afterId") long afterId, Pageable pageable);
 }
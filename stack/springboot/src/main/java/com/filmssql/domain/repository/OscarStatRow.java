@@ -0,0 +1,5 @@
+package com.filmssql.domain.repository;
+
+/** The columns of an Oscar nomination that feed the in-memory statistics. */
+public record OscarStatRow(Long id, Long actorId, Long movieId, String category, String yearCeremony,
+                           Boolean winner, String name, String film) {}
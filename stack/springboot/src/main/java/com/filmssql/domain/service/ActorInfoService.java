@@ -0,0 +1,71 @@
+package com.filmssql.domain.service;
+
+import com.filmssql.domain.repository.ActorBiographyRow;
+import com.filmssql.domain.repository.ActorInfoRepository;
+import com.filmssql.util.Cursors;
+import com.filmssql.web.dto.ActorInfoSummaryDTO;
+import com.filmssql.web.dto.CursorPageDTO;
+import com.filmssql.web.exception.BadRequestException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class ActorInfoService {
+
+    private final ActorInfoRepository actorInfoRepository;
+
+    /**
+     * Keyset page of actor infos ordered by {@code actorId} (ascending) or {@code popularity}
+     * (descending). No count query is issued; the biography column is read only when asked for.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ActorInfoSummaryDTO> scroll(String cursor, int size, String sort, boolean withBiography) {
+        PageRequest limit = PageRequest.of(0, size);
+        List<ActorInfoSummaryDTO> items;
+        boolean byPopularity;
+
+        switch (sort) {
+            case "actorId" -> {
+                byPopularity = false;
+                long afterId = cursor == null ? Long.MIN_VALUE : Cursors.parseLong(Cursors.decode(cursor, 1)[0]);
+                items = actorInfoRepository.findSummariesAfterId(afterId, limit);
+            }
+            case "popularity" -> {
+                byPopularity = true;
+                double popularity = Double.MAX_VALUE;
+                long afterId = Long.MIN_VALUE;
+                if (cursor != null) {
+                    String[] parts = Cursors.decode(cursor, 2);
+                    popularity = Cursors.parseDouble(parts[0]);
+                    afterId = Cursors.parseLong(parts[1]);
+                }
+                items = actorInfoRepository.findSummariesByPopularityAfter(popularity, afterId, limit);
+            }
+            default -> throw new BadRequestException("Unsupported sort '%s', use actorId or popularity".formatted(sort));
+        }
+
+        if (withBiography && !items.isEmpty()) {
+            Map<Long, String> bios = new HashMap<>();
+            for (ActorBiographyRow row : actorInfoRepository.findBiographies(items.stream().map(ActorInfoSummaryDTO::actorId).toList())) {
+                bios.put(row.actorId(), row.biography());
+            }
+            items = items.stream().map(i -> i.withBiography(bios.get(i.actorId()))).toList();
+        }
+
+        String next = null;
+        if (items.size() == size) {
+            ActorInfoSummaryDTO last = items.get(items.size() - 1);
+            next = byPopularity
+                    ? Cursors.encode(last.popularity() != null ? last.popularity() : -1.0, last.actorId())
+                    : Cursors.encode(last.actorId());
+        }
+        return new CursorPageDTO<>(items, next);
+    }
+}
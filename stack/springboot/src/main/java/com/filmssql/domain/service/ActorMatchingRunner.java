@@ -0,0 +1,52 @@
+package com.filmssql.domain.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs {@link ActorMatchingService} once at startup and exits:
+ * <pre>
+ * java -jar filmsql.jar --app.actors.matching.enabled=true --spring.main.web-application-type=none
+ * </pre>
+ * The run holds every actor name in memory and keeps the cores busy, so it is not served over HTTP.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.actors.matching.enabled", havingValue = "true")
+public class ActorMatchingRunner implements ApplicationRunner {
+
+    private final ActorMatchingService actorMatchingService;
+    private final ConfigurableApplicationContext context;
+    private final boolean exitWhenDone;
+
+    public ActorMatchingRunner(ActorMatchingService actorMatchingService,
+                               ConfigurableApplicationContext context,
+                               @Value("${app.actors.matching.exit-when-done:true}") boolean exitWhenDone) {
+        this.actorMatchingService = actorMatchingService;
+        this.context = context;
+        this.exitWhenDone = exitWhenDone;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int status = 0;
+        try {
+            ActorMatchingService.Report report = actorMatchingService.run();
+            log.info("Actor matching report: {} confirmed, {} reassigned, by method {}; matches in {}, audit in {}",
+                    report.confirmed(), report.reassigned(), report.byMethod(), report.matchesFile(), report.auditFile());
+        } catch (RuntimeException e) {
+            log.error("Actor matching failed", e);
+            status = 1;
+        }
+        if (exitWhenDone) {
+            int code = status;
+            System.exit(SpringApplication.exit(context, () -> code));
+        }
+    }
+}
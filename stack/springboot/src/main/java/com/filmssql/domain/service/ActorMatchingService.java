@@ -0,0 +1,181 @@
+package com.filmssql.domain.service;
+
+import com.filmssql.domain.repository.ActorInfoRepository;
+import com.filmssql.domain.repository.ActorRepository;
+import com.filmssql.domain.repository.IdNameRow;
+import com.filmssql.util.NameMatcher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Re-matches every {@code actor_infos} row (the TMDB name) to an {@code actor} with the rules of
+ * {@code pythonexamples/actorinfo.py}, see {@link NameMatcher}.
+ * <p>
+ * Names are read in keyset pages; the matcher is built once and the info names are resolved on a
+ * fork/join pool of {@code app.actors.matching.parallelism} workers. The run writes two CSVs to
+ * {@code app.actors.matching.report-dir}: the matches (stored actor id, matched actor id) and an
+ * audit line per info with status, method and candidates. Nothing in the database is changed.
+ * It runs from {@link ActorMatchingRunner}, not from a request.
+ */
+@Slf4j
+@Service
+public class ActorMatchingService {
+
+    public record Report(
+            int actors,                      // reference names indexed
+            int infos,                       // actor_infos rows resolved
+            int matched,
+            int confirmed,                   // matched to the actor they are already stored under
+            int reassigned,                  // matched to a different actor
+            int ambiguous,
+            int unmatched,
+            Map<String, Integer> byMethod,   // matched rows per method: EXACT, TOKEN_SET, JACCARD
+            long elapsedMs,
+            Path matchesFile,
+            Path auditFile
+    ) {}
+
+    private static final int PAGE_SIZE = 10_000;
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final ActorRepository actorRepository;
+    private final ActorInfoRepository actorInfoRepository;
+    private final double threshold;
+    private final int parallelism;
+    private final Path reportDir;
+
+    public ActorMatchingService(ActorRepository actorRepository,
+                                ActorInfoRepository actorInfoRepository,
+                                @Value("${app.actors.matching.threshold:0.90}") double threshold,
+                                @Value("${app.actors.matching.parallelism:0}") int parallelism,
+                                @Value("${app.actors.matching.report-dir:${java.io.tmpdir}}") Path reportDir) {
+        this.actorRepository = actorRepository;
+        this.actorInfoRepository = actorInfoRepository;
+        this.threshold = threshold;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.reportDir = reportDir;
+    }
+
+    public Report run() {
+        long started = System.nanoTime();
+        List<IdNameRow> actors = readAll(actorRepository::findIdNamesAfterId);
+        List<NameMatcher.Entry> entries = new ArrayList<>(actors.size());
+        for (IdNameRow a : actors) entries.add(new NameMatcher.Entry(a.id(), a.name()));
+        NameMatcher matcher = NameMatcher.build(entries, threshold);
+        long indexed = System.nanoTime();
+
+        List<IdNameRow> infos = readAll(actorInfoRepository::findIdNamesAfterId);
+        List<String> names = infos.stream().map(IdNameRow::name).toList();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        NameMatcher.Match[] matches;
+        try {
+            matches = matcher.resolveAll(names, pool);
+        } finally {
+            pool.shutdown();
+        }
+        long resolved = System.nanoTime();
+
+        int matched = 0, confirmed = 0, ambiguous = 0, unmatched = 0;
+        Map<NameMatcher.Method, Integer> byMethod = new EnumMap<>(NameMatcher.Method.class);
+        for (int i = 0; i < matches.length; i++) {
+            NameMatcher.Match m = matches[i];
+            switch (m.status()) {
+                case MATCHED -> {
+                    matched++;
+                    if (m.id().equals(infos.get(i).id())) confirmed++;
+                    byMethod.merge(m.method(), 1, Integer::sum);
+                }
+                case AMBIGUOUS -> ambiguous++;
+                case UNMATCHED -> unmatched++;
+            }
+        }
+
+        String stamp = LocalDateTime.now().format(FILE_STAMP);
+        Path matchesFile = reportDir.resolve("actor_matches-" + stamp + ".csv");
+        Path auditFile = reportDir.resolve("actor_matches_audit-" + stamp + ".csv");
+        try {
+            Files.createDirectories(reportDir);
+            writeMatches(matchesFile, infos, matches);
+            writeAudit(auditFile, infos, matches);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write the matching report to " + reportDir, e);
+        }
+
+        log.info("Actor matching: {} actors indexed in {} ms, {} infos resolved in {} ms on {} workers "
+                        + "({} matched, {} ambiguous, {} unmatched)",
+                actors.size(), (indexed - started) / 1_000_000, infos.size(), (resolved - indexed) / 1_000_000,
+                parallelism, matched, ambiguous, unmatched);
+
+        Map<String, Integer> methods = new LinkedHashMap<>();
+        byMethod.forEach((method, count) -> methods.put(method.name(), count));
+        return new Report(actors.size(), infos.size(), matched, confirmed, matched - confirmed,
+                ambiguous, unmatched, methods, (System.nanoTime() - started) / 1_000_000, matchesFile, auditFile);
+    }
+
+    private static List<IdNameRow> readAll(BiFunction<Long, PageRequest, List<IdNameRow>> page) {
+        List<IdNameRow> rows = new ArrayList<>();
+        long afterId = Long.MIN_VALUE;
+        while (true) {
+            List<IdNameRow> batch = page.apply(afterId, PageRequest.of(0, PAGE_SIZE));
+            rows.addAll(batch);
+            if (batch.size() < PAGE_SIZE) return rows;
+            afterId = batch.get(batch.size() - 1).id();
+        }
+    }
+
+    private static void writeMatches(Path file, List<IdNameRow> infos, NameMatcher.Match[] matches) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("actor_id,matched_actor_id,name,method,score\n");
+            for (int i = 0; i < matches.length; i++) {
+                NameMatcher.Match m = matches[i];
+                if (m.status() != NameMatcher.Status.MATCHED) continue;
+                out.write(infos.get(i).id() + "," + m.id() + "," + csv(infos.get(i).name()) + ","
+                        + m.method() + "," + String.format(Locale.ROOT, "%.3f", m.score()) + "\n");
+            }
+        }
+    }
+
+    private static void writeAudit(Path file, List<IdNameRow> infos, NameMatcher.Match[] matches) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("name,original_id,new_id,status,method,candidates\n");
+            for (int i = 0; i < matches.length; i++) {
+                NameMatcher.Match m = matches[i];
+                String candidates = LongStream.of(m.candidates()).mapToObj(Long::toString)
+                        .collect(Collectors.joining("|"));
+                out.write(csv(infos.get(i).name()) + "," + infos.get(i).id() + "," + (m.id() != null ? m.id() : "")
+                        + "," + m.status().name().toLowerCase(Locale.ROOT) + ","
+                        + (m.method() == NameMatcher.Method.NONE ? "" : m.method().name().toLowerCase(Locale.ROOT))
+                        + "," + candidates + "\n");
+            }
+        }
+    }
+
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
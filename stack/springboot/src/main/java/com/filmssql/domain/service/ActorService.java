@@ -2,9 +2,16 @@ package com.filmssql.domain.service;
 
 import com.filmssql.domain.entity.Actor;
 import com.filmssql.web.dto.SearchResultDTO;
+import com.filmssql.domain.repository.ActorMovieRepository;
 import com.filmssql.domain.repository.ActorRepository;
+import com.filmssql.util.Cursors;
+import com.filmssql.web.dto.CursorPageDTO;
+import com.filmssql.web.dto.FilmographyItemDTO;
+import com.filmssql.web.exception.BadRequestException;
+import com.filmssql.web.exception.NotFoundException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 
 import java.util.List;
@@ -14,6 +21,7 @@ import java.util.List;
 public class ActorService {
 
     private final ActorRepository actorRepository;
+    private final ActorMovieRepository actorMovieRepository;
 
     public List<SearchResultDTO> searchPreview(String query, int limit) {
         return actorRepository.findByNameContainingIgnoreCase(query, PageRequest.of(0, limit))
@@ -28,4 +36,54 @@ public class ActorService {
                 ))
                 .toList();
     }
+
+    /**
+     * Keyset page of an actor's credits, newest ({@code year}) or best rated ({@code rating}) first.
+     * One projection query per page; the actor is looked up only when the page comes back empty.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<FilmographyItemDTO> getFilmography(long actorId, String cursor, int size, String sort) {
+        PageRequest limit = PageRequest.of(0, size);
+        List<FilmographyItemDTO> items;
+        boolean byRating;
+
+        switch (sort) {
+            case "year" -> {
+                byRating = false;
+                int date = Integer.MAX_VALUE;
+                long afterId = Long.MIN_VALUE;
+                if (cursor != null) {
+                    String[] parts = Cursors.decode(cursor, 2);
+                    date = (int) Cursors.parseLong(parts[0]);
+                    afterId = Cursors.parseLong(parts[1]);
+                }
+                items = actorMovieRepository.findFilmographyByYear(actorId, date, afterId, limit);
+            }
+            case "rating" -> {
+                byRating = true;
+                double rating = Double.MAX_VALUE;
+                long afterId = Long.MIN_VALUE;
+                if (cursor != null) {
+                    String[] parts = Cursors.decode(cursor, 2);
+                    rating = Cursors.parseDouble(parts[0]);
+                    afterId = Cursors.parseLong(parts[1]);
+                }
+                items = actorMovieRepository.findFilmographyByRating(actorId, rating, afterId, limit);
+            }
+            default -> throw new BadRequestException("Unsupported sort '%s', use year or rating".formatted(sort));
+        }
+
+        if (items.isEmpty() && cursor == null && !actorRepository.existsById(actorId)) {
+            throw new NotFoundException("Actor %d not found".formatted(actorId));
+        }
+
+        String next = null;
+        if (items.size() == size) {
+            FilmographyItemDTO last = items.get(items.size() - 1);
+            next = byRating
+                    ? Cursors.encode(last.rating() != null ? last.rating() : -1.0, last.creditId())
+                    : Cursors.encode(last.date() != null ? last.date() : -1, last.creditId());
+        }
+        return new CursorPageDTO<>(items, next);
+    }
 }
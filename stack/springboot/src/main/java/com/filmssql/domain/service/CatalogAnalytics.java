@@ -0,0 +1,369 @@
+package com.filmssql.domain.service;
+
+import com.filmssql.domain.repository.MovieFeatureRepository;
+import com.filmssql.domain.repository.MovieLink;
+import com.filmssql.domain.repository.MovieLinkRepository;
+import com.filmssql.util.LongIntHashMap;
+import com.filmssql.web.dto.AnalyticsDTO;
+import com.filmssql.web.dto.AnalyticsRatingDTO;
+import com.filmssql.web.dto.AnalyticsYearCountDTO;
+import com.filmssql.web.dto.RuntimeBucketDTO;
+import com.filmssql.web.dto.RuntimeDistributionDTO;
+import com.filmssql.web.exception.ServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Catalog aggregates for dashboards (movies per year per genre, average rating by country, runtime
+ * distribution), computed on a columnar snapshot instead of GROUP BYs on the live tables.
+ * <p>
+ * The snapshot holds {@code date}, {@code minute} and {@code rating} of every movie as primitive
+ * arrays indexed by a dense ordinal, and each association as sorted target codes per movie (CSR).
+ * An aggregation splits the ordinals into chunks, folds each chunk into its own partial result on a
+ * parallel stream and merges the partials. The snapshot is only replaced by the scheduled refresh;
+ * a request never loads anything and gets a 503 until the first snapshot exists.
+ */
+@Slf4j
+@Service
+public class CatalogAnalytics {
+
+    private static final int MISSING = Integer.MIN_VALUE;
+    private static final int CHUNK = 1 << 16;
+    // longer runtimes are counted in this last minute
+    private static final int MAX_MINUTE = 1_000;
+
+    private final MovieFeatureRepository movieFeatureRepository;
+    private final MovieLinkRepository movieLinkRepository;
+    private final TransactionTemplate readTx;
+
+    private volatile Snapshot snapshot;
+
+    public CatalogAnalytics(MovieFeatureRepository movieFeatureRepository,
+                            MovieLinkRepository movieLinkRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.movieFeatureRepository = movieFeatureRepository;
+        this.movieLinkRepository = movieLinkRepository;
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+    }
+
+    /** Movies per (year, value of {@code by}), for the {@code top} values with the most movies overall. */
+    public AnalyticsDTO<List<AnalyticsYearCountDTO>> moviesPerYear(MovieLink by, Integer yearFrom, Integer yearTo, int top) {
+        Snapshot s = current();
+        Facet f = s.facets.get(by);
+        LongIntHashMap counts = aggregate(s.size, LongIntHashMap::new, (m, from, to) -> {
+            for (int o = from; o < to; o++) {
+                int year = s.years[o];
+                if (year == MISSING || !inRange(year, yearFrom, yearTo)) continue;
+                for (int i = f.start[o]; i < f.start[o + 1]; i++) {
+                    long key = (long) year << 32 | f.values[i];
+                    m.put(key, m.get(key, 0) + 1);
+                }
+            }
+        }, CatalogAnalytics::merge);
+
+        long[] totals = new long[f.ids.length];
+        counts.forEach((key, count) -> totals[(int) key] += count);
+        boolean[] kept = new boolean[f.ids.length];
+        topCodes(totals, top).forEach(code -> kept[code] = true);
+
+        List<AnalyticsYearCountDTO> rows = new ArrayList<>();
+        counts.forEach((key, count) -> {
+            int code = (int) key;
+            if (kept[code]) rows.add(new AnalyticsYearCountDTO((int) (key >> 32), f.ids[code], f.labels[code], count));
+        });
+        rows.sort(Comparator.comparingInt(AnalyticsYearCountDTO::year)
+                .thenComparing(Comparator.comparingInt(AnalyticsYearCountDTO::count).reversed())
+                .thenComparingLong(AnalyticsYearCountDTO::id));
+        return new AnalyticsDTO<>(s.builtAt, s.size, rows);
+    }
+
+    /** Average movie rating per value of {@code by}, best first, for values with at least {@code minMovies} rated. */
+    public AnalyticsDTO<List<AnalyticsRatingDTO>> ratingBy(MovieLink by, int minMovies, int limit) {
+        Snapshot s = current();
+        Facet f = s.facets.get(by);
+        int codes = f.ids.length;
+        RatingSums sums = aggregate(s.size, () -> new RatingSums(codes), (acc, from, to) -> {
+            for (int o = from; o < to; o++) {
+                float rating = s.ratings[o];
+                for (int i = f.start[o]; i < f.start[o + 1]; i++) {
+                    int code = f.values[i];
+                    acc.movies[code]++;
+                    if (!Float.isNaN(rating)) {
+                        acc.rated[code]++;
+                        acc.sum[code] += rating;
+                    }
+                }
+            }
+        }, RatingSums::merge);
+
+        List<AnalyticsRatingDTO> rows = new ArrayList<>();
+        for (int code = 0; code < codes; code++) {
+            if (sums.movies[code] == 0 || sums.rated[code] < minMovies) continue;
+            Double average = sums.rated[code] > 0 ? sums.sum[code] / sums.rated[code] : null;
+            rows.add(new AnalyticsRatingDTO(f.ids[code], f.labels[code], sums.movies[code], sums.rated[code], average));
+        }
+        rows.sort(Comparator.comparing(AnalyticsRatingDTO::averageRating, Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparing(Comparator.comparingLong(AnalyticsRatingDTO::rated).reversed())
+                .thenComparingLong(AnalyticsRatingDTO::id));
+        return new AnalyticsDTO<>(s.builtAt, s.size, rows.subList(0, Math.min(limit, rows.size())));
+    }
+
+    /** Runtime histogram and percentiles of the movies linked to every id of {@code filters}. */
+    public AnalyticsDTO<RuntimeDistributionDTO> runtime(Map<MovieLink, Long> filters, Integer yearFrom, Integer yearTo,
+                                                        int bucket) {
+        Snapshot s = current();
+        List<Facet> facets = new ArrayList<>();
+        List<Integer> codes = new ArrayList<>();
+        for (Map.Entry<MovieLink, Long> e : filters.entrySet()) {
+            Facet f = s.facets.get(e.getKey());
+            int code = f.codes.get(e.getValue(), -1);
+            if (code < 0) return new AnalyticsDTO<>(s.builtAt, s.size, distribution(new long[MAX_MINUTE + 1], 0, bucket));
+            facets.add(f);
+            codes.add(code);
+        }
+
+        // minutes 0..MAX_MINUTE, then the sum of the exact runtimes
+        long[] histogram = aggregate(s.size, () -> new long[MAX_MINUTE + 2], (h, from, to) -> {
+            for (int o = from; o < to; o++) {
+                int minute = s.minutes[o];
+                if (minute == MISSING || minute < 0) continue;
+                if (yearFrom != null || yearTo != null) {
+                    if (s.years[o] == MISSING || !inRange(s.years[o], yearFrom, yearTo)) continue;
+                }
+                if (!linkedToAll(facets, codes, o)) continue;
+                h[Math.min(minute, MAX_MINUTE)]++;
+                h[MAX_MINUTE + 1] += minute;
+            }
+        }, (a, b) -> {
+            for (int i = 0; i < a.length; i++) a[i] += b[i];
+            return a;
+        });
+        return new AnalyticsDTO<>(s.builtAt, s.size, distribution(histogram, histogram[MAX_MINUTE + 1], bucket));
+    }
+
+    @Scheduled(initialDelayString = "${app.analytics.initial-delay:10s}",
+            fixedDelayString = "${app.analytics.refresh-interval:15m}")
+    public void refresh() {
+        try {
+            long start = System.nanoTime();
+            Snapshot s = readTx.execute(status -> load());
+            snapshot = s;
+            log.info("Analytics snapshot taken: {} movies in {}ms", s.size, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } catch (RuntimeException e) {
+            log.warn("Analytics snapshot refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (s == null) throw new ServiceUnavailableException("Analytics snapshot is not ready yet");
+        return s;
+    }
+
+    private Snapshot load() {
+        LongIntHashMap ordinals = new LongIntHashMap(1 << 16);
+        Columns c = new Columns();
+        movieFeatureRepository.forEachMovieColumns((id, date, minute, rating) -> {
+            if (ordinals.containsKey(id)) return;
+            ordinals.put(id, c.size);
+            c.add(date != null ? date : MISSING, minute != null ? minute : MISSING,
+                    rating != null ? rating.floatValue() : Float.NaN);
+        });
+        Map<MovieLink, Facet> facets = new EnumMap<>(MovieLink.class);
+        for (MovieLink link : MovieLink.values()) {
+            facets.put(link, Facet.load(link, c.size, ordinals, movieFeatureRepository, movieLinkRepository));
+        }
+        return new Snapshot(c.size, Arrays.copyOf(c.years, c.size), Arrays.copyOf(c.minutes, c.size),
+                Arrays.copyOf(c.ratings, c.size), facets, Instant.now());
+    }
+
+    private static boolean inRange(int year, Integer from, Integer to) {
+        return (from == null || year >= from) && (to == null || year <= to);
+    }
+
+    private static boolean linkedToAll(List<Facet> facets, List<Integer> codes, int ordinal) {
+        for (int i = 0; i < facets.size(); i++) {
+            Facet f = facets.get(i);
+            if (Arrays.binarySearch(f.values, f.start[ordinal], f.start[ordinal + 1], codes.get(i)) < 0) return false;
+        }
+        return true;
+    }
+
+    private static List<Integer> topCodes(long[] totals, int top) {
+        List<Integer> codes = new ArrayList<>();
+        for (int code = 0; code < totals.length; code++) {
+            if (totals[code] > 0) codes.add(code);
+        }
+        codes.sort((a, b) -> totals[a] != totals[b] ? Long.compare(totals[b], totals[a]) : Integer.compare(a, b));
+        return codes.subList(0, Math.min(top, codes.size()));
+    }
+
+    private static RuntimeDistributionDTO distribution(long[] histogram, long sum, int bucket) {
+        long movies = 0;
+        int min = -1, max = -1;
+        for (int m = 0; m <= MAX_MINUTE; m++) {
+            if (histogram[m] == 0) continue;
+            movies += histogram[m];
+            if (min < 0) min = m;
+            max = m;
+        }
+        if (movies == 0) return new RuntimeDistributionDTO(0, null, null, null, null, null, List.of());
+
+        List<RuntimeBucketDTO> buckets = new ArrayList<>();
+        for (int from = min / bucket * bucket; from <= max; from += bucket) {
+            long count = 0;
+            for (int m = from; m < from + bucket && m <= MAX_MINUTE; m++) count += histogram[m];
+            buckets.add(new RuntimeBucketDTO(from, from + bucket, count));
+        }
+        return new RuntimeDistributionDTO(movies, (double) sum / movies, percentile(histogram, movies, 0.25),
+                percentile(histogram, movies, 0.5), percentile(histogram, movies, 0.75), percentile(histogram, movies, 0.9),
+                buckets);
+    }
+
+    // nearest-rank percentile
+    private static int percentile(long[] histogram, long movies, double p) {
+        long rank = Math.max(1, (long) Math.ceil(p * movies));
+        long seen = 0;
+        for (int m = 0; m <= MAX_MINUTE; m++) {
+            seen += histogram[m];
+            if (seen >= rank) return m;
+        }
+        return MAX_MINUTE;
+    }
+
+    /** Folds ordinals {@code [from, to)} into a partial result. */
+    private interface RangeAccumulator<A> {
+        void accept(A partial, int from, int to);
+    }
+
+    private static <A> A aggregate(int size, Supplier<A> create, RangeAccumulator<A> accumulator, BinaryOperator<A> merge) {
+        int chunks = (size + CHUNK - 1) / CHUNK;
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> {
+                    A partial = create.get();
+                    accumulator.accept(partial, c * CHUNK, Math.min(size, (c + 1) * CHUNK));
+                    return partial;
+                })
+                .reduce(merge)
+                .orElseGet(create);
+    }
+
+    private static LongIntHashMap merge(LongIntHashMap a, LongIntHashMap b) {
+        LongIntHashMap into = a.size() >= b.size() ? a : b;
+        LongIntHashMap from = into == a ? b : a;
+        from.forEach((key, count) -> into.put(key, into.get(key, 0) + count));
+        return into;
+    }
+
+    private record Snapshot(int size, int[] years, int[] minutes, float[] ratings, Map<MovieLink, Facet> facets,
+                            Instant builtAt) {}
+
+    /** Growable columns, only used while loading. */
+    private static final class Columns {
+        int[] years = new int[1024];
+        int[] minutes = new int[1024];
+        float[] ratings = new float[1024];
+        int size;
+
+        void add(int year, int minute, float rating) {
+            if (size == years.length) {
+                years = Arrays.copyOf(years, size * 2);
+                minutes = Arrays.copyOf(minutes, size * 2);
+                ratings = Arrays.copyOf(ratings, size * 2);
+            }
+            years[size] = year;
+            minutes[size] = minute;
+            ratings[size] = rating;
+            size++;
+        }
+    }
+
+    /** One association: target codes per movie ordinal in {@code values[start[o]..start[o + 1])}, sorted. */
+    private static final class Facet {
+        final long[] ids;
+        final String[] labels;
+        final LongIntHashMap codes;
+        final int[] start;
+        final int[] values;
+
+        private Facet(long[] ids, String[] labels, LongIntHashMap codes, int[] start, int[] values) {
+            this.ids = ids;
+            this.labels = labels;
+            this.codes = codes;
+            this.start = start;
+            this.values = values;
+        }
+
+        static Facet load(MovieLink link, int size, LongIntHashMap ordinals,
+                          MovieFeatureRepository features, MovieLinkRepository links) {
+            Map<Long, String> targets = links.findAllTargets(link);
+            long[] ids = targets.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            String[] labels = new String[ids.length];
+            LongIntHashMap codes = new LongIntHashMap(ids.length);
+            for (int code = 0; code < ids.length; code++) {
+                codes.put(ids[code], code);
+                labels[code] = targets.get(ids[code]);
+            }
+
+            // (ordinal, code) pairs, sorted into CSR
+            long[][] pairs = {new long[1024]};
+            int[] count = {0};
+            features.forEachLink(link, (movieId, targetId) -> {
+                int o = ordinals.get(movieId, -1);
+                int code = codes.get(targetId, -1);
+                if (o < 0 || code < 0) return;
+                if (count[0] == pairs[0].length) pairs[0] = Arrays.copyOf(pairs[0], count[0] * 2);
+                pairs[0][count[0]++] = (long) o << 32 | code;
+            });
+            long[] sorted = Arrays.copyOf(pairs[0], count[0]);
+            Arrays.parallelSort(sorted);
+            int[] start = new int[size + 1];
+            int[] values = new int[sorted.length];
+            int n = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i > 0 && sorted[i] == sorted[i - 1]) continue;
+                start[(int) (sorted[i] >>> 32) + 1]++;
+                values[n++] = (int) sorted[i];
+            }
+            for (int o = 0; o < size; o++) start[o + 1] += start[o];
+            return new Facet(ids, labels, codes, start, Arrays.copyOf(values, n));
+        }
+    }
+
+    private static final class RatingSums {
+        final long[] movies;
+        final long[] rated;
+        final double[] sum;
+
+        RatingSums(int codes) {
+            movies = new long[codes];
+            rated = new long[codes];
+            sum = new double[codes];
+        }
+
+        static RatingSums merge(RatingSums a, RatingSums b) {
+            for (int i = 0; i < a.movies.length; i++) {
+                a.movies[i] += b.movies[i];
+                a.rated[i] += b.rated[i];
+                a.sum[i] += b.sum[i];
+            }
+            return a;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.filmssql.domain.service;
+
+import com.filmssql.domain.event.MoviesChangedEvent;
+import com.filmssql.domain.repository.LinkRow;
+import com.filmssql.domain.repository.MovieBulkRepository;
+import com.filmssql.domain.repository.MovieLink;
+import com.filmssql.domain.repository.MovieLinkRepository;
+import com.filmssql.web.dto.MovieBulkItemDTO;
+import com.filmssql.web.dto.MovieBulkResponseDTO;
+import com.filmssql.web.dto.MovieBulkResultDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Creates and updates many movies, with their genre, studio, country and language links, in a few
+ * batched statements per chunk instead of one transaction per movie.
+ * <p>
+ * Every chunk of {@code app.movies.bulk.chunk-size} items is one transaction: items are validated,
+ * referenced ids are checked with one query per association, new ids are drawn from the sequence
+ * in one round trip, then rows and link deltas are written with JDBC batches. An invalid item fails
+ * on its own; a database error fails its whole chunk. Listeners get one {@link MoviesChangedEvent}
+ * per committed chunk.
+ */
+@Slf4j
+@Service
+public class MovieBulkService {
+
+    private final MovieBulkRepository movieBulkRepository;
+    private final MovieLinkRepository movieLinkRepository;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate writeTx;
+    private final int chunkSize;
+
+    public MovieBulkService(MovieBulkRepository movieBulkRepository,
+                            MovieLinkRepository movieLinkRepository,
+                            ApplicationEventPublisher events,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.movies.bulk.chunk-size:1000}") int chunkSize) {
+        this.movieBulkRepository = movieBulkRepository;
+        this.movieLinkRepository = movieLinkRepository;
+        this.events = events;
+        this.writeTx = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    public MovieBulkResponseDTO write(List<MovieBulkItemDTO> items) {
+        MovieBulkResultDTO[] results = new MovieBulkResultDTO[items.size()];
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            int start = from;
+            int end = Math.min(items.size(), from + chunkSize);
+            try {
+                writeTx.executeWithoutResult(status -> writeChunk(items, start, end, results));
+            } catch (RuntimeException e) {
+                String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                log.warn("Bulk write of items {}..{} rolled back: {}", start, end - 1, cause);
+                for (int i = start; i < end; i++) {
+                    if (results[i] != null && results[i].status() == MovieBulkResultDTO.Status.FAILED) continue;
+                    results[i] = MovieBulkResultDTO.failed(i, items.get(i).id(), "Batch rolled back: " + cause);
+                }
+            }
+        }
+
+        int created = 0, updated = 0, failed = 0;
+        for (MovieBulkResultDTO r : results) {
+            switch (r.status()) {
+                case CREATED -> created++;
+                case UPDATED -> updated++;
+                case FAILED -> failed++;
+            }
+        }
+        return new MovieBulkResponseDTO(created, updated, failed, List.of(results));
+    }
+
+    private void writeChunk(List<MovieBulkItemDTO> items, int start, int end, MovieBulkResultDTO[] results) {
+        List<Pending> pending = validate(items, start, end, results);
+        rejectUnknownTargets(pending, results);
+
+        // updates: the movie must exist; it stays locked until commit
+        Set<Long> requested = new HashSet<>();
+        for (Pending p : pending) {
+            if (p.item.id() != null) requested.add(p.item.id());
+        }
+        Set<Long> existing = movieBulkRepository.lockExisting(requested);
+        for (Iterator<Pending> it = pending.iterator(); it.hasNext(); ) {
+            Pending p = it.next();
+            if (p.item.id() != null && !existing.contains(p.item.id())) {
+                results[p.index] = MovieBulkResultDTO.failed(p.index, p.item.id(), "Movie %d not found".formatted(p.item.id()));
+                it.remove();
+            }
+        }
+
+        List<MovieBulkRepository.Row> inserts = new ArrayList<>();
+        List<MovieBulkRepository.Row> updates = new ArrayList<>();
+        Iterator<Long> newIds = movieBulkRepository.nextIds(
+                (int) pending.stream().filter(p -> p.item.id() == null).count()).iterator();
+        for (Pending p : pending) {
+            if (p.item.id() == null) {
+                p.id = newIds.next();
+                inserts.add(new MovieBulkRepository.Row(p.id, p.item));
+            } else {
+                p.id = p.item.id();
+                updates.add(new MovieBulkRepository.Row(p.id, p.item));
+            }
+        }
+        movieBulkRepository.insert(inserts);
+        movieBulkRepository.update(updates);
+        for (MovieLink link : MovieLink.values()) writeLinks(link, pending);
+
+        Set<Long> changed = new LinkedHashSet<>();
+        for (Pending p : pending) {
+            boolean create = p.item.id() == null;
+            results[p.index] = new MovieBulkResultDTO(p.index, p.id,
+                    create ? MovieBulkResultDTO.Status.CREATED : MovieBulkResultDTO.Status.UPDATED, null);
+            changed.add(p.id);
+        }
+        if (!changed.isEmpty()) events.publishEvent(new MoviesChangedEvent(Collections.unmodifiableSet(changed)));
+    }
+
+    private static List<Pending> validate(List<MovieBulkItemDTO> items, int start, int end, MovieBulkResultDTO[] results) {
+        List<Pending> pending = new ArrayList<>(end - start);
+        Set<Long> seen = new HashSet<>();
+        for (int i = start; i < end; i++) {
+            MovieBulkItemDTO item = items.get(i);
+            String error = item == null ? "Item is null" : check(item, seen);
+            if (error != null) results[i] = MovieBulkResultDTO.failed(i, item != null ? item.id() : null, error);
+            else pending.add(new Pending(i, item));
+        }
+        return pending;
+    }
+
+    private static String check(MovieBulkItemDTO item, Set<Long> seenIds) {
+        if (item.id() == null && (item.name() == null || item.name().isBlank())) return "name is required for a new movie";
+        if (item.name() != null && item.name().isBlank()) return "name must not be blank";
+        if (item.rating() != null && (item.rating() < 0 || item.rating() > 5)) return "rating must be between 0 and 5";
+        if (item.minute() != null && item.minute() < 0) return "minute must not be negative";
+        for (Set<Long> ids : List.of(nullToEmpty(item.genreIds()), nullToEmpty(item.studioIds()),
+                nullToEmpty(item.countryIds()), nullToEmpty(item.languageIds()))) {
+            for (Long id : ids) {
+                if (id == null) return "association ids must not be null";
+            }
+        }
+        if (item.id() != null && !seenIds.add(item.id())) return "Movie %d appears more than once in the batch".formatted(item.id());
+        return null;
+    }
+
+    private static Set<Long> nullToEmpty(Set<Long> ids) {
+        return ids != null ? ids : Set.of();
+    }
+
+    // one lookup per association for the whole chunk
+    private void rejectUnknownTargets(List<Pending> pending, MovieBulkResultDTO[] results) {
+        Map<MovieLink, Set<Long>> known = new EnumMap<>(MovieLink.class);
+        for (MovieLink link : MovieLink.values()) {
+            Set<Long> requested = new HashSet<>();
+            for (Pending p : pending) {
+                Set<Long> ids = p.targets(link);
+                if (ids != null) requested.addAll(ids);
+            }
+            known.put(link, movieLinkRepository.findTargets(link, requested).keySet());
+        }
+        for (Iterator<Pending> it = pending.iterator(); it.hasNext(); ) {
+            Pending p = it.next();
+            for (MovieLink link : MovieLink.values()) {
+                Set<Long> ids = p.targets(link);
+                if (ids == null) continue;
+                Set<Long> unknown = new TreeSet<>();
+                for (Long id : ids) {
+                    if (!known.get(link).contains(id)) unknown.add(id);
+                }
+                if (!unknown.isEmpty()) {
+                    results[p.index] = MovieBulkResultDTO.failed(p.index, p.item.id(),
+                            "Unknown %s ids %s".formatted(link.targetTable(), unknown));
+                    it.remove();
+                    break;
+                }
+            }
+        }
+    }
+
+    private void writeLinks(MovieLink link, List<Pending> pending) {
+        List<Long> updatedIds = new ArrayList<>();
+        for (Pending p : pending) {
+            if (p.targets(link) != null && p.item.id() != null) updatedIds.add(p.id);
+        }
+        Map<Long, Set<Long>> current = movieLinkRepository.findLinkedIds(link, updatedIds);
+
+        List<LinkRow> removed = new ArrayList<>();
+        List<LinkRow> added = new ArrayList<>();
+        for (Pending p : pending) {
+            Set<Long> wanted = p.targets(link);
+            if (wanted == null) continue;
+            Set<Long> now = current.getOrDefault(p.id, Set.of());
+            for (Long t : now) {
+                if (!wanted.contains(t)) removed.add(new LinkRow(p.id, t));
+            }
+            for (Long t : wanted) {
+                if (!now.contains(t)) added.add(new LinkRow(p.id, t));
+            }
+        }
+        movieLinkRepository.delete(link, removed);
+        movieLinkRepository.insert(link, added);
+    }
+
+    private static final class Pending {
+        final int index;
+        final MovieBulkItemDTO item;
+        long id;
+
+        Pending(int index, MovieBulkItemDTO item) {
+            this.index = index;
+            this.item = item;
+        }
+
+        Set<Long> targets(MovieLink link) {
+            return switch (link) {
+                case GENRES -> item.genreIds();
+                case STUDIOS -> item.studioIds();
+                case COUNTRIES -> item.countryIds();
+                case LANGUAGES -> item.languageIds();
+            };
+        }
+    }
+}
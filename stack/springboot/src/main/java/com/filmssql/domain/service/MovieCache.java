@@ -0,0 +1,127 @@
+package com.filmssql.domain.service;
+
+import com.filmssql.config.ReadYourWrites;
+import com.filmssql.domain.event.MovieChangedEvent;
+import com.filmssql.domain.event.MoviesChangedEvent;
+import com.filmssql.web.dto.CacheStatsDTO;
+import com.filmssql.web.dto.MovieDTO;
+import com.filmssql.web.dto.MoviePreviewDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache for movie details and previews.
+ * Details are weighed by the number of nested rows they carry, previews are bounded by count.
+ * Entries are dropped after commit of every {@link MovieChangedEvent}; with read/write routing the
+ * next load of a changed movie reads the primary (see {@link ReadYourWrites}).
+ * Hit, miss and eviction counts are also published as {@code cache.*} meters.
+ */
+@Component
+public class MovieCache implements MeterBinder {
+
+    private final boolean enabled;
+    private final Cache<Long, MovieDTO> details;
+    private final Cache<Long, MoviePreviewDTO> previews;
+
+    public MovieCache(@Value("${app.movies.cache.enabled:true}") boolean enabled,
+                      @Value("${app.movies.cache.max-weight:200000}") long maxWeight,
+                      @Value("${app.movies.cache.preview-max-size:50000}") long previewMaxSize,
+                      @Value("${app.movies.cache.ttl:30m}") Duration ttl) {
+        this.enabled = enabled;
+        this.details = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Long id, MovieDTO dto) -> weigh(dto))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.previews = Caffeine.newBuilder()
+                .maximumSize(previewMaxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public MovieDTO getDto(Long id, Function<Long, MovieDTO> loader) {
+        Function<Long, MovieDTO> load = k -> ReadYourWrites.onPrimaryIfWritten(k, () -> loader.apply(k));
+        return enabled ? details.get(id, load) : load.apply(id);
+    }
+
+    /** Cached full DTO, or null; never loads. */
+    public MovieDTO peekDto(Long id) {
+        return enabled ? details.getIfPresent(id) : null;
+    }
+
+    public MoviePreviewDTO getPreview(Long id, Function<Long, MoviePreviewDTO> loader) {
+        Function<Long, MoviePreviewDTO> load = k -> ReadYourWrites.onPrimaryIfWritten(k, () -> loader.apply(k));
+        return enabled ? previews.get(id, load) : load.apply(id);
+    }
+
+    /** Cached previews for {@code ids}; the misses are resolved with one call to {@code loader}. Unknown ids are absent. */
+    public Map<Long, MoviePreviewDTO> getPreviews(Collection<Long> ids,
+                                                  Function<Set<? extends Long>, Map<Long, MoviePreviewDTO>> loader) {
+        Function<Set<? extends Long>, Map<Long, MoviePreviewDTO>> load =
+                misses -> ReadYourWrites.onPrimaryIfWritten(misses, () -> loader.apply(misses));
+        return enabled ? previews.getAll(ids, load) : load.apply(new LinkedHashSet<>(ids));
+    }
+
+    public void invalidate(Long id) {
+        if (id == null) return;
+        details.invalidate(id);
+        previews.invalidate(id);
+    }
+
+    // Runs after commit so a concurrent reader cannot re-cache the pre-write state;
+    // writes outside a transaction (repository save/delete) are handled immediately.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        invalidate(event.movieId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMoviesChanged(MoviesChangedEvent event) {
+        details.invalidateAll(event.movieIds());
+        previews.invalidateAll(event.movieIds());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, details, "movie-details");
+        CaffeineCacheMetrics.monitor(registry, previews, "movie-previews");
+    }
+
+    public List<CacheStatsDTO> stats() {
+        return List.of(
+                toStats("movie-details", details.estimatedSize(), details.stats()),
+                toStats("movie-previews", previews.estimatedSize(), previews.stats())
+        );
+    }
+
+    private static CacheStatsDTO toStats(String name, long size, CacheStats s) {
+        return new CacheStatsDTO(name, size, s.hitCount(), s.missCount(), s.hitRate(),
+                s.evictionCount(), s.evictionWeight());
+    }
+
+    private static int weigh(MovieDTO dto) {
+        return 1 + size(dto.themes()) + size(dto.cast()) + size(dto.crew()) + size(dto.releases())
+                + size(dto.genres()) + size(dto.studios()) + size(dto.countries()) + size(dto.languages());
+    }
+
+    private static int size(Set<?> set) {
+        return set == null ? 0 : set.size();
+    }
+}
@@ -0,0 +1,20 @@
+package com.filmssql.domain.service;
+
+import com.filmssql.web.dto.MovieDTO;
+import com.filmssql.web.dto.MovieInclude;
+
+import java.util.Set;
+
+/**
+ * Strategy used by {@link MovieService#getDto(Long)} to assemble a {@link MovieDTO}.
+ * The active implementation is selected with {@code app.movies.detail-loader}.
+ */
+public interface MovieDetailLoader {
+
+    /** Loads the base fields plus the requested collections only; the others are left null. */
+    MovieDTO load(Long id, Set<MovieInclude> include);
+
+    default MovieDTO load(Long id) {
+        return load(id, MovieInclude.ALL);
+    }
+}
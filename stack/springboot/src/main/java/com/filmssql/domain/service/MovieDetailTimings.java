@@ -0,0 +1,72 @@
+package com.filmssql.domain.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request stage timings of a {@link MovieDetailLoader}, recorded as {@code movies.detail.stage}
+ * and {@code movies.detail.load} timers and reported at debug level.
+ * Safe to record from several threads.
+ */
+@Slf4j
+class MovieDetailTimings {
+
+    /** The timers of one loader, registered once and shared by all of its requests. */
+    static final class Meters {
+        private final MeterRegistry registry;
+        private final String loader;
+        private final Timer load;
+        private final Map<String, Timer> stages = new ConcurrentHashMap<>();
+
+        Meters(MeterRegistry registry, String loader) {
+            this.registry = registry;
+            this.loader = loader;
+            this.load = Timer.builder("movies.detail.load")
+                    .tag("loader", loader)
+                    .register(registry);
+        }
+
+        private Timer stage(String stage) {
+            Timer timer = stages.get(stage);
+            if (timer != null) return timer;
+            return stages.computeIfAbsent(stage, s -> Timer.builder("movies.detail.stage")
+                    .tag("loader", loader)
+                    .tag("stage", s)
+                    .register(registry));
+        }
+    }
+
+    private final Meters meters;
+    private final Long movieId;
+    private final long startedAt = System.nanoTime();
+    private final Map<String, Long> stages = new ConcurrentHashMap<>();
+
+    MovieDetailTimings(Meters meters, Long movieId) {
+        this.meters = meters;
+        this.movieId = movieId;
+    }
+
+    /** Records the stage as ended now and returns the current time, so stages can be chained. */
+    long record(String stage, long stageStart) {
+        long now = System.nanoTime();
+        stages.put(stage, now - stageStart);
+        meters.stage(stage).record(now - stageStart, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    void report() {
+        long total = System.nanoTime() - startedAt;
+        meters.load.record(total, TimeUnit.NANOSECONDS);
+        if (!log.isDebugEnabled()) return;
+        StringJoiner sj = new StringJoiner(" ");
+        stages.forEach((stage, nanos) -> sj.add(stage + "=" + TimeUnit.NANOSECONDS.toMicros(nanos) + "us"));
+        log.debug("movie {} loaded by {} loader in {}us [{}]", movieId, meters.loader,
+                TimeUnit.NANOSECONDS.toMicros(total), sj);
+    }
+}
@@ -0,0 +1,607 @@
+package com.filmssql.domain.service;
+
+import com.filmssql.domain.event.MovieChangedEvent;
+import com.filmssql.domain.event.MoviesChangedEvent;
+import com.filmssql.domain.repository.MovieFeatureRepository;
+import com.filmssql.domain.repository.MovieLink;
+import com.filmssql.domain.repository.MovieLinkRepository;
+import com.filmssql.domain.repository.MovieRankRow;
+import com.filmssql.domain.repository.MovieRepository;
+import com.filmssql.util.Cursors;
+import com.filmssql.util.LongIntHashMap;
+import com.filmssql.web.dto.FacetValueDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Faceted browse of the catalog by genre, country, language, studio, year and rating, on one
+ * compressed (Roaring) bitmap of movie ids per facet value, built from the join tables.
+ * <p>
+ * Values of one facet are OR-ed, or AND-ed when {@code matchAll}; facets are AND-ed. The count of a
+ * facet value is taken with the filters of every other facet, so a selected value keeps showing its
+ * alternatives. Pages are keyset-paginated by rating or year: a small result is sorted on the spot,
+ * a large one is read along an id order precomputed for each sort, re-sorted in the background
+ * after writes.
+ * <p>
+ * A changed movie is removed from every bitmap and added back from its current rows, so the
+ * {@code attach*} writes and small bulk writes are visible right after their commit; the committing
+ * thread never waits for a rebuild. A bulk write of many movies only marks the index dirty, and the
+ * scheduled refresh rebuilds it; a periodic full rebuild picks up changes made outside the
+ * application. Movie ids must fit in an int.
+ */
+@Slf4j
+@Service
+public class MovieFacets {
+
+    public enum Sort { RATING, YEAR }
+
+    /** Target ids per association; empty or missing associations do not filter. */
+    public record Filter(Map<MovieLink, Set<Long>> links, boolean matchAll,
+                         Integer yearFrom, Integer yearTo, Double ratingMin, Double ratingMax) {}
+
+    public record Result(List<Long> ids, String nextCursor, int total, Map<String, List<FacetValueDTO>> facets) {}
+
+    private static final int MISSING = -1;
+    private static final int RATING_BUCKETS = 501;      // hundredths of a star, 0.00 .. 5.00
+    private static final int YEAR_DIMENSION = 4;
+    private static final int RATING_DIMENSION = 5;
+    private static final int DIMENSIONS = 6;
+    // sort keys are below this; (KEY_LIMIT - key) << 32 | id orders by key desc, id asc
+    private static final long KEY_LIMIT = 1 << 20;
+    // results up to this size are sorted per request instead of walking the precomputed order
+    private static final int SORT_IN_PLACE = 20_000;
+    private static final int BULK_REBUILD_THRESHOLD = 5_000;
+    // up to this many movies, year and rating counts read the keys of each movie instead of every bucket
+    private static final int COUNT_BY_KEY = 4_096;
+    // up to this many movies, link counts walk the values of each movie instead of AND-ing every value bitmap
+    private static final int COUNT_BY_MOVIE = 50_000;
+
+    private final MovieRepository movieRepository;
+    private final MovieLinkRepository movieLinkRepository;
+    private final MovieFeatureRepository movieFeatureRepository;
+    private final TransactionTemplate readTx;
+    private final Duration rebuildInterval;
+    private final int facetLimit;
+
+    // bitmaps are updated in place: queries hold the read lock, updates the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // orders updates, and hands the ids written during a rebuild over to its new state
+    private final Object updates = new Object();
+    private Set<Long> changedDuringRebuild;
+    private volatile State state;
+    private volatile boolean ordersStale;
+    private volatile boolean dirty;
+
+    public MovieFacets(MovieRepository movieRepository,
+                       MovieLinkRepository movieLinkRepository,
+                       MovieFeatureRepository movieFeatureRepository,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${app.movies.facets.rebuild-interval:6h}") Duration rebuildInterval,
+                       @Value("${app.movies.facets.values-per-facet:20}") int facetLimit) {
+        this.movieRepository = movieRepository;
+        this.movieLinkRepository = movieLinkRepository;
+        this.movieFeatureRepository = movieFeatureRepository;
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+        this.rebuildInterval = rebuildInterval;
+        this.facetLimit = facetLimit;
+    }
+
+    public Result browse(Filter filter, Sort sort, String cursor, int limit, boolean withFacets) {
+        State s = ensureBuilt();
+        lock.readLock().lock();
+        try {
+            RoaringBitmap[] dimensions = new RoaringBitmap[DIMENSIONS];
+            MovieLink[] links = MovieLink.values();
+            for (int d = 0; d < links.length; d++) {
+                Set<Long> values = filter.links() != null ? filter.links().get(links[d]) : null;
+                if (values != null && !values.isEmpty()) dimensions[d] = s.linkFilter(links[d], values, filter.matchAll());
+            }
+            dimensions[YEAR_DIMENSION] = s.yearFilter(filter.yearFrom(), filter.yearTo());
+            dimensions[RATING_DIMENSION] = s.ratingFilter(filter.ratingMin(), filter.ratingMax());
+
+            RoaringBitmap result = s.intersect(dimensions, -1);
+            Result page = s.page(result, sort, cursor, limit);
+            return withFacets ? new Result(page.ids(), page.nextCursor(), page.total(), facets(s, dimensions)) : page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (event.movieId() == null) return;
+        apply(List.of(event.movieId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMoviesChanged(MoviesChangedEvent event) {
+        if (event.movieIds().isEmpty()) return;
+        if (event.movieIds().size() > BULK_REBUILD_THRESHOLD) {
+            dirty = true;
+            return;
+        }
+        apply(event.movieIds());
+    }
+
+    /**
+     * Patches the published state, without waiting for a rebuild in progress: ids changed while one
+     * loads are also recorded, and re-applied to the new state before it is published.
+     */
+    private void apply(Collection<Long> movieIds) {
+        List<Long> ids = movieIds.stream().filter(id -> id != null && id >= 0 && id <= Integer.MAX_VALUE).toList();
+        if (ids.isEmpty()) return;
+        synchronized (updates) {
+            if (changedDuringRebuild != null) changedDuringRebuild.addAll(ids);
+            State s = state;
+            if (s == null) return;
+            try {
+                update(s, ids);
+            } catch (RuntimeException e) {
+                log.warn("Facet index update for movies {} failed: {}", ids, e.getMessage());
+            }
+        }
+    }
+
+    // under the updates monitor, so rows read by two updates of one movie are applied in order
+    private void update(State s, Collection<Long> ids) {
+        List<MovieRankRow> rows = movieRepository.findRankRowsByIds(ids);
+        Map<MovieLink, Map<Long, Set<Long>>> linked = new EnumMap<>(MovieLink.class);
+        for (MovieLink link : MovieLink.values()) {
+            Map<Long, Set<Long>> targets = movieLinkRepository.findLinkedIds(link, ids);
+            linked.put(link, targets);
+            Set<Long> unlabeled = new HashSet<>();
+            targets.values().forEach(t -> t.forEach(id -> {
+                if (!s.labels.get(link).containsKey(id)) unlabeled.add(id);
+            }));
+            if (!unlabeled.isEmpty()) s.labels.get(link).putAll(movieLinkRepository.findTargets(link, unlabeled));
+        }
+
+        RoaringBitmap changed = new RoaringBitmap();
+        ids.forEach(id -> changed.add(id.intValue()));
+        lock.writeLock().lock();
+        try {
+            s.remove(changed);
+            for (MovieRankRow r : rows) s.put(r.id().intValue(), r.rating(), r.date());
+            linked.forEach((link, targets) -> targets.forEach((movieId, t) -> {
+                if (s.all.contains(movieId.intValue())) t.forEach(target -> s.link(link, movieId.intValue(), target));
+            }));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ordersStale = true;
+    }
+
+    @Scheduled(initialDelayString = "${app.movies.facets.initial-delay:20s}",
+            fixedDelayString = "${app.movies.facets.refresh-check:15s}")
+    public void refresh() {
+        try {
+            State s = state;
+            if (s == null || dirty || System.currentTimeMillis() - s.builtAt > rebuildInterval.toMillis()) {
+                rebuild();
+            } else if (ordersStale) {
+                ordersStale = false;
+                lock.readLock().lock();
+                try {
+                    s.sortOrders();
+                } finally {
+                    lock.readLock().unlock();
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Facet index refresh failed: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void rebuild() {
+        dirty = false;
+        long start = System.nanoTime();
+        synchronized (updates) {
+            changedDuringRebuild = new HashSet<>();
+        }
+        State s;
+        try {
+            s = readTx.execute(status -> load());
+        } catch (RuntimeException e) {
+            synchronized (updates) {
+                changedDuringRebuild = null;
+            }
+            throw e;
+        }
+        s.sortOrders();
+        s.builtAt = System.currentTimeMillis();
+        synchronized (updates) {
+            // the loaded rows may predate these writes; their rows read now are at least as recent
+            Set<Long> changed = changedDuringRebuild;
+            changedDuringRebuild = null;
+            if (changed.size() > BULK_REBUILD_THRESHOLD) {
+                dirty = true;
+            } else if (!changed.isEmpty()) {
+                try {
+                    update(s, changed);
+                } catch (RuntimeException e) {
+                    log.warn("Facet index update for movies {} failed, rebuilding again: {}", changed, e.getMessage());
+                    dirty = true;
+                }
+            }
+            state = s;
+            ordersStale = !changed.isEmpty();
+        }
+        log.info("Facet index built: {} movies, {} genres, {} countries, {} languages, {} studios in {}ms",
+                s.all.getCardinality(), s.links.get(MovieLink.GENRES).size(), s.links.get(MovieLink.COUNTRIES).size(),
+                s.links.get(MovieLink.LANGUAGES).size(), s.links.get(MovieLink.STUDIOS).size(),
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private State load() {
+        State s = new State();
+        int skipped = 0;
+        for (MovieRankRow r : movieRepository.findRankRows()) {
+            if (r.id() > Integer.MAX_VALUE) {
+                skipped++;
+                continue;
+            }
+            s.put(r.id().intValue(), r.rating(), r.date());
+        }
+        if (skipped > 0) log.warn("Facet index: {} movies with an id above {} left out", skipped, Integer.MAX_VALUE);
+        for (MovieLink link : MovieLink.values()) {
+            movieFeatureRepository.forEachLink(link, (movieId, target) -> {
+                if (movieId <= Integer.MAX_VALUE && s.all.contains((int) movieId)) s.link(link, (int) movieId, target);
+            });
+            s.labels.put(link, new ConcurrentHashMap<>(movieLinkRepository.findAllTargets(link)));
+        }
+        s.indexCodes();
+        s.runOptimize();
+        return s;
+    }
+
+    private State ensureBuilt() {
+        State s = state;
+        if (s != null) return s;
+        synchronized (this) {
+            if (state == null) rebuild();
+            return state;
+        }
+    }
+
+    private Map<String, List<FacetValueDTO>> facets(State s, RoaringBitmap[] dimensions) {
+        Map<String, List<FacetValueDTO>> facets = new LinkedHashMap<>();
+        MovieLink[] links = MovieLink.values();
+        Map<MovieLink, List<FacetValueDTO>> byLink = new EnumMap<>(MovieLink.class);
+        for (int d = 0; d < links.length; d++) byLink.put(links[d], s.linkCounts(links[d], s.intersect(dimensions, d), facetLimit));
+        facets.put("genre", byLink.get(MovieLink.GENRES));
+        facets.put("country", byLink.get(MovieLink.COUNTRIES));
+        facets.put("language", byLink.get(MovieLink.LANGUAGES));
+        facets.put("studio", byLink.get(MovieLink.STUDIOS));
+        facets.put("decade", s.decadeCounts(s.intersect(dimensions, YEAR_DIMENSION)));
+        facets.put("rating", s.ratingCounts(s.intersect(dimensions, RATING_DIMENSION)));
+        return facets;
+    }
+
+    private static int ratingKey(double rating) {
+        return (int) Math.max(0, Math.min(RATING_BUCKETS - 1, Math.round(rating * 100)));
+    }
+
+    private static long pack(int key, int id) {
+        return (KEY_LIMIT - key) << 32 | id;
+    }
+
+    /** Position of the first packed entry after {@code after}; 0 without a cursor. */
+    private static int after(long[] packed, long after) {
+        if (after < 0) return 0;
+        int i = Arrays.binarySearch(packed, after);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    private static final class State {
+        final RoaringBitmap all = new RoaringBitmap();
+        final Map<MovieLink, Map<Long, RoaringBitmap>> links = new EnumMap<>(MovieLink.class);
+        final Map<MovieLink, Map<Long, String>> labels = new EnumMap<>(MovieLink.class);
+        final Map<MovieLink, Codes> codes = new EnumMap<>(MovieLink.class);
+        final Map<Integer, RoaringBitmap> years = new HashMap<>();
+        final RoaringBitmap[] ratings = new RoaringBitmap[RATING_BUCKETS];
+        final LongIntHashMap ratingKeys = new LongIntHashMap();
+        final LongIntHashMap yearKeys = new LongIntHashMap();
+        volatile long[] byRating = new long[0];
+        volatile long[] byYear = new long[0];
+        long builtAt;
+
+        State() {
+            for (MovieLink link : MovieLink.values()) {
+                links.put(link, new HashMap<>());
+                labels.put(link, new ConcurrentHashMap<>());
+                codes.put(link, new Codes());
+            }
+            for (int i = 0; i < RATING_BUCKETS; i++) ratings[i] = new RoaringBitmap();
+        }
+
+        void put(int id, Double rating, Integer year) {
+            all.add(id);
+            int r = rating != null ? ratingKey(rating) : MISSING;
+            ratingKeys.put(id, r);
+            if (r != MISSING) ratings[r].add(id);
+            int y = year != null && year >= 0 && year < KEY_LIMIT ? year : MISSING;
+            yearKeys.put(id, y);
+            if (y != MISSING) years.computeIfAbsent(y, k -> new RoaringBitmap()).add(id);
+        }
+
+        void link(MovieLink link, int id, long target) {
+            links.get(link).computeIfAbsent(target, k -> new RoaringBitmap()).add(id);
+            codes.get(link).add(id, target);
+        }
+
+        void remove(RoaringBitmap ids) {
+            all.andNot(ids);
+            codes.values().forEach(c -> c.clear(ids));
+            for (Map<Long, RoaringBitmap> byTarget : links.values()) byTarget.values().forEach(b -> remove(b, ids));
+            years.values().forEach(b -> remove(b, ids));
+            for (RoaringBitmap b : ratings) remove(b, ids);
+        }
+
+        private static void remove(RoaringBitmap bitmap, RoaringBitmap ids) {
+            if (RoaringBitmap.intersects(bitmap, ids)) bitmap.andNot(ids);
+        }
+
+        // once every movie is linked; later writes are kept as changes over it
+        void indexCodes() {
+            codes.forEach((link, c) -> c.index(all, links.get(link)));
+        }
+
+        void runOptimize() {
+            all.runOptimize();
+            links.values().forEach(m -> m.values().forEach(RoaringBitmap::runOptimize));
+            years.values().forEach(RoaringBitmap::runOptimize);
+            for (RoaringBitmap b : ratings) b.runOptimize();
+        }
+
+        RoaringBitmap linkFilter(MovieLink link, Set<Long> values, boolean matchAll) {
+            Map<Long, RoaringBitmap> byTarget = links.get(link);
+            RoaringBitmap[] bitmaps = values.stream()
+                    .map(v -> byTarget.getOrDefault(v, new RoaringBitmap()))
+                    .toArray(RoaringBitmap[]::new);
+            if (bitmaps.length == 1) return bitmaps[0];
+            return matchAll ? FastAggregation.and(bitmaps) : FastAggregation.or(bitmaps);
+        }
+
+        RoaringBitmap yearFilter(Integer from, Integer to) {
+            if (from == null && to == null) return null;
+            List<RoaringBitmap> matching = new ArrayList<>();
+            years.forEach((year, b) -> {
+                if ((from == null || year >= from) && (to == null || year <= to)) matching.add(b);
+            });
+            return FastAggregation.or(matching.iterator());
+        }
+
+        RoaringBitmap ratingFilter(Double min, Double max) {
+            if (min == null && max == null) return null;
+            int from = min != null ? (int) Math.max(0, Math.ceil(min * 100 - 1e-9)) : 0;
+            int to = max != null ? (int) Math.min(RATING_BUCKETS - 1, Math.floor(max * 100 + 1e-9)) : RATING_BUCKETS - 1;
+            if (from > to) return new RoaringBitmap();
+            return FastAggregation.or(Arrays.copyOfRange(ratings, from, to + 1));
+        }
+
+        /** All movies restricted by every dimension but {@code skip}; may be a live bitmap, do not modify. */
+        RoaringBitmap intersect(RoaringBitmap[] dimensions, int skip) {
+            List<RoaringBitmap> parts = new ArrayList<>(DIMENSIONS);
+            for (int d = 0; d < dimensions.length; d++) {
+                if (d != skip && dimensions[d] != null) parts.add(dimensions[d]);
+            }
+            if (parts.isEmpty()) return all;
+            parts.add(all);
+            return FastAggregation.and(parts.toArray(RoaringBitmap[]::new));
+        }
+
+        Result page(RoaringBitmap result, Sort sort, String cursor, int limit) {
+            LongIntHashMap keys = sort == Sort.RATING ? ratingKeys : yearKeys;
+            long cursorKey = -1;
+            if (cursor != null && !cursor.isBlank()) {
+                String[] parts = Cursors.decode(cursor, 2);
+                cursorKey = pack((int) Cursors.parseLong(parts[0]), (int) Cursors.parseLong(parts[1]));
+            }
+
+            int total = result.getCardinality();
+            List<Long> ids = new ArrayList<>(limit);
+            boolean more;
+            if (total <= SORT_IN_PLACE) {
+                long[] packed = new long[total];
+                int[] n = {0};
+                result.forEach((int id) -> packed[n[0]++] = pack(keys.get(id, MISSING), id));
+                Arrays.sort(packed);
+                int from = after(packed, cursorKey);
+                int to = Math.min(packed.length, from + limit);
+                for (int i = from; i < to; i++) ids.add(packed[i] & 0xFFFFFFFFL);
+                more = to < packed.length;
+            } else {
+                long[] order = sort == Sort.RATING ? byRating : byYear;
+                int i = after(order, cursorKey);
+                for (; i < order.length && ids.size() < limit; i++) {
+                    if (result.contains((int) order[i])) ids.add(order[i] & 0xFFFFFFFFL);
+                }
+                more = i < order.length;
+            }
+            String next = null;
+            if (more && !ids.isEmpty()) {
+                long last = ids.get(ids.size() - 1);
+                next = Cursors.encode(keys.get(last, MISSING), last);
+            }
+            return new Result(ids, next, total, null);
+        }
+
+        void sortOrders() {
+            int n = all.getCardinality();
+            long[] rating = new long[n];
+            long[] year = new long[n];
+            int[] at = {0};
+            all.forEach((int id) -> {
+                rating[at[0]] = pack(ratingKeys.get(id, MISSING), id);
+                year[at[0]++] = pack(yearKeys.get(id, MISSING), id);
+            });
+            Arrays.sort(rating);
+            Arrays.sort(year);
+            byRating = rating;
+            byYear = year;
+        }
+
+        List<FacetValueDTO> linkCounts(MovieLink link, RoaringBitmap base, int limit) {
+            List<long[]> counts = new ArrayList<>();
+            if (base != all && base.getCardinality() <= COUNT_BY_MOVIE) {
+                Codes c = codes.get(link);
+                int[] byCode = c.count(base);
+                for (int code = 0; code < byCode.length; code++) {
+                    if (byCode[code] > 0) counts.add(new long[]{c.targets[code], byCode[code]});
+                }
+            } else links.get(link).forEach((target, b) -> {
+                int c = base == all ? b.getCardinality() : RoaringBitmap.andCardinality(base, b);
+                if (c > 0) counts.add(new long[]{target, c});
+            });
+            counts.sort((x, y) -> x[1] != y[1] ? Long.compare(y[1], x[1]) : Long.compare(x[0], y[0]));
+            List<FacetValueDTO> values = new ArrayList<>(Math.min(limit, counts.size()));
+            for (long[] c : counts.subList(0, Math.min(limit, counts.size()))) {
+                values.add(new FacetValueDTO(Long.toString(c[0]), labels.get(link).get(c[0]), (int) c[1]));
+            }
+            return values;
+        }
+
+        List<FacetValueDTO> decadeCounts(RoaringBitmap base) {
+            Map<Integer, Integer> byDecade = new TreeMap<>();
+            if (base != all && base.getCardinality() <= COUNT_BY_KEY) {
+                base.forEach((int id) -> {
+                    int year = yearKeys.get(id, MISSING);
+                    if (year != MISSING) byDecade.merge(Math.floorDiv(year, 10) * 10, 1, Integer::sum);
+                });
+            } else years.forEach((year, b) -> {
+                int c = base == all ? b.getCardinality() : RoaringBitmap.andCardinality(base, b);
+                if (c > 0) byDecade.merge(Math.floorDiv(year, 10) * 10, c, Integer::sum);
+            });
+            List<FacetValueDTO> values = new ArrayList<>(byDecade.size());
+            byDecade.forEach((decade, c) -> values.add(new FacetValueDTO(decade.toString(), decade + "s", c)));
+            return values;
+        }
+
+        // half-star bands; the last one includes 5.0
+        List<FacetValueDTO> ratingCounts(RoaringBitmap base) {
+            int[] bands = new int[10];
+            if (base != all && base.getCardinality() <= COUNT_BY_KEY) {
+                base.forEach((int id) -> {
+                    int r = ratingKeys.get(id, MISSING);
+                    if (r != MISSING) bands[Math.min(9, r / 50)]++;
+                });
+            } else {
+                for (int r = 0; r < RATING_BUCKETS; r++) {
+                    int c = base == all ? ratings[r].getCardinality() : RoaringBitmap.andCardinality(base, ratings[r]);
+                    bands[Math.min(9, r / 50)] += c;
+                }
+            }
+            List<FacetValueDTO> values = new ArrayList<>();
+            for (int band = 0; band < bands.length; band++) {
+                if (bands[band] == 0) continue;
+                String from = "%d.%d".formatted(band / 2, band % 2 * 5);
+                String to = "%d.%d".formatted((band + 1) / 2, (band + 1) % 2 * 5);
+                values.add(new FacetValueDTO(from, from + "-" + to, bands[band]));
+            }
+            return values;
+        }
+    }
+
+    /**
+     * Value codes of one facet per movie, so a small result is counted in one walk over its movies:
+     * a CSR taken when the index is built, overridden by the full value list of every movie written
+     * since. Read under the read lock, changed under the write lock.
+     */
+    private static final class Codes {
+        private static final int[] NONE = new int[0];
+
+        final LongIntHashMap byTarget = new LongIntHashMap();
+        long[] targets = new long[64];
+        int size;
+        LongIntHashMap rows;
+        int[] start;
+        int[] values;
+        final Map<Integer, int[]> changed = new HashMap<>();
+
+        void index(RoaringBitmap all, Map<Long, RoaringBitmap> bitmaps) {
+            int n = all.getCardinality();
+            LongIntHashMap r = new LongIntHashMap(n);
+            int[] next = {0};
+            all.forEach((int id) -> r.put(id, next[0]++));
+            int[] st = new int[n + 1];
+            bitmaps.forEach((target, b) -> b.forEach((int id) -> {
+                int row = r.get(id, -1);
+                if (row >= 0) st[row + 1]++;
+            }));
+            for (int i = 0; i < n; i++) st[i + 1] += st[i];
+            int[] vals = new int[st[n]];
+            int[] fill = Arrays.copyOf(st, n);
+            bitmaps.forEach((target, b) -> {
+                int code = code(target);
+                b.forEach((int id) -> {
+                    int row = r.get(id, -1);
+                    if (row >= 0) vals[fill[row]++] = code;
+                });
+            });
+            rows = r;
+            start = st;
+            values = vals;
+            changed.clear();
+        }
+
+        // before index() the CSR is taken from the bitmaps instead
+        void add(int id, long target) {
+            if (rows == null) return;
+            int[] current = changed.getOrDefault(id, NONE);
+            int[] codes = Arrays.copyOf(current, current.length + 1);
+            codes[current.length] = code(target);
+            changed.put(id, codes);
+        }
+
+        void clear(RoaringBitmap ids) {
+            if (rows != null) ids.forEach((int id) -> changed.put(id, NONE));
+        }
+
+        int[] count(RoaringBitmap base) {
+            int[] counts = new int[size];
+            base.forEach((int id) -> {
+                int[] codes = changed.isEmpty() ? null : changed.get(id);
+                if (codes != null) {
+                    for (int code : codes) counts[code]++;
+                    return;
+                }
+                int row = rows.get(id, -1);
+                if (row < 0) return;
+                for (int i = start[row]; i < start[row + 1]; i++) counts[values[i]]++;
+            });
+            return counts;
+        }
+
+        private int code(long target) {
+            int code = byTarget.get(target, -1);
+            if (code >= 0) return code;
+            if (size == targets.length) targets = Arrays.copyOf(targets, size * 2);
+            targets[size] = target;
+            byTarget.put(target, size);
+            return size++;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.filmssql.domain.service;
+
+import com.filmssql.domain.event.MovieChangedEvent;
+import com.filmssql.domain.event.MoviesChangedEvent;
+import com.filmssql.domain.repository.MovieRankRow;
+import com.filmssql.domain.repository.MovieRepository;
+import com.filmssql.util.Cursors;
+import com.filmssql.util.LongIntHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Materialized top-rated and latest movie rankings, held as parallel primitive arrays
+ * sorted by (key desc, id asc), with keyset (cursor) pagination.
+ * <p>
+ * A page is a binary search for the cursor plus a copy of {@code limit} ids, whatever the depth.
+ * Changed movies are applied as a batch: their rows are read with one query and each ranking is
+ * rebuilt into new arrays in a single merge pass (changed ids dropped, their new positions merged
+ * in). A bulk write of many movies only marks the rankings dirty for the scheduled check to rebuild,
+ * so the listener does not reload every movie on the committing thread. A full rebuild also runs
+ * periodically to pick up changes made outside the application.
+ */
+@Slf4j
+@Component
+public class MovieLeaderboards {
+
+    public record IdPage(List<Long> ids, String nextCursor) {}
+
+    // above this many changed movies one full rebuild is cheaper than moving each of them
+    private static final int BULK_REBUILD_THRESHOLD = 100;
+
+    private final MovieRepository movieRepository;
+    private final Duration rebuildInterval;
+
+    private volatile Ranking topRated;
+    private volatile Ranking latest;
+    private volatile long builtAt;
+    private volatile boolean dirty;
+
+    public MovieLeaderboards(MovieRepository movieRepository,
+                             @Value("${app.movies.leaderboard.rebuild-interval:30m}") Duration rebuildInterval) {
+        this.movieRepository = movieRepository;
+        this.rebuildInterval = rebuildInterval;
+    }
+
+    public IdPage topRated(String cursor, int limit) {
+        ensureBuilt();
+        return topRated.page(cursor, limit);
+    }
+
+    public IdPage latest(String cursor, int limit) {
+        ensureBuilt();
+        return latest.page(cursor, limit);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (topRated == null || event.movieId() == null) return;
+        update(List.of(event.movieId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMoviesChanged(MoviesChangedEvent event) {
+        if (topRated == null || event.movieIds().isEmpty()) return;
+        if (event.movieIds().size() > BULK_REBUILD_THRESHOLD) {
+            dirty = true;
+            return;
+        }
+        update(event.movieIds());
+    }
+
+    private void update(Collection<Long> movieIds) {
+        try {
+            Map<Long, MovieRankRow> rows = new HashMap<>();
+            for (MovieRankRow r : movieRepository.findRankRowsByIds(movieIds)) rows.put(r.id(), r);
+            // a null key takes the movie out of the ranking (deleted, or no rating / date any more)
+            Map<Long, Double> ratings = new HashMap<>();
+            Map<Long, Double> dates = new HashMap<>();
+            for (Long id : movieIds) {
+                MovieRankRow row = rows.get(id);
+                ratings.put(id, row != null ? row.rating() : null);
+                dates.put(id, row != null && row.date() != null ? row.date().doubleValue() : null);
+            }
+            synchronized (this) {
+                topRated = topRated.with(ratings);
+                latest = latest.with(dates);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Leaderboard update for movies {} failed: {}", movieIds, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.movies.leaderboard.refresh-check:60s}")
+    public void rebuildIfStale() {
+        if (topRated == null || !dirty && System.currentTimeMillis() - builtAt < rebuildInterval.toMillis()) return;
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Leaderboard rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void rebuild() {
+        dirty = false;
+        List<MovieRankRow> rows = movieRepository.findRankRows();
+        topRated = Ranking.of(rows, MovieRankRow::rating);
+        latest = Ranking.of(rows, r -> r.date() != null ? r.date().doubleValue() : null);
+        builtAt = System.currentTimeMillis();
+        log.debug("Leaderboards rebuilt: {} rated, {} dated", topRated.ids.length, latest.ids.length);
+    }
+
+    private void ensureBuilt() {
+        if (topRated != null) return;
+        synchronized (this) {
+            if (topRated == null) rebuild();
+        }
+    }
+
+    private record Cursor(double key, long id) {}
+
+    private record Entry(long id, double key) {}
+
+    /**
+     * Immutable ranking; updates return a copy. {@code positions} (id -> index, -1 once dropped) is
+     * carried over and patched by each update, so it is only valid for the latest copy and only
+     * read under the {@link MovieLeaderboards} lock.
+     */
+    private static final class Ranking {
+        final long[] ids;
+        final double[] keys;
+        private final LongIntHashMap positions;
+
+        Ranking(long[] ids, double[] keys, LongIntHashMap positions) {
+            this.ids = ids;
+            this.keys = keys;
+            this.positions = positions;
+        }
+
+        static Ranking of(List<MovieRankRow> rows, Function<MovieRankRow, Double> key) {
+            List<MovieRankRow> ranked = new ArrayList<>(rows.size());
+            for (MovieRankRow r : rows) {
+                if (key.apply(r) != null) ranked.add(r);
+            }
+            ranked.sort((a, b) -> compare(key.apply(a), a.id(), key.apply(b), b.id()));
+            long[] ids = new long[ranked.size()];
+            double[] keys = new double[ranked.size()];
+            LongIntHashMap positions = new LongIntHashMap(ranked.size());
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = ranked.get(i).id();
+                keys[i] = key.apply(ranked.get(i));
+                positions.put(ids[i], i);
+            }
+            return new Ranking(ids, keys, positions);
+        }
+
+        IdPage page(String cursor, int limit) {
+            int from = 0;
+            if (cursor != null && !cursor.isBlank()) {
+                Cursor c = decode(cursor);
+                from = insertionPoint(c.key(), c.id());
+                if (from < ids.length && ids[from] == c.id() && keys[from] == c.key()) from++;
+            }
+            int to = Math.min(ids.length, from + limit);
+            List<Long> page = new ArrayList<>(Math.max(0, to - from));
+            for (int i = from; i < to; i++) page.add(ids[i]);
+            String next = to < ids.length && to > from ? encode(keys[to - 1], ids[to - 1]) : null;
+            return new IdPage(page, next);
+        }
+
+        /** Copy with every id of {@code changes} moved to the position of its key, or removed when the key is null. */
+        Ranking with(Map<Long, Double> changes) {
+            int[] drop = new int[changes.size()];
+            int dropped = 0;
+            List<Entry> added = new ArrayList<>(changes.size());
+            for (Map.Entry<Long, Double> c : changes.entrySet()) {
+                int at = positions.get(c.getKey(), -1);
+                if (at >= 0) drop[dropped++] = at;
+                if (c.getValue() != null) added.add(new Entry(c.getKey(), c.getValue()));
+                else if (at >= 0) positions.put(c.getKey(), -1);
+            }
+            if (dropped == 0 && added.isEmpty()) return this;
+            Arrays.sort(drop, 0, dropped);
+            added.sort((a, b) -> compare(a.key(), a.id(), b.key(), b.id()));
+
+            long[] nIds = new long[ids.length - dropped + added.size()];
+            double[] nKeys = new double[nIds.length];
+            int i = 0, d = 0, a = 0;
+            for (int o = 0; o < nIds.length; o++) {
+                while (d < dropped && i == drop[d]) { i++; d++; }
+                if (a == added.size() || (i < ids.length && compare(keys[i], ids[i], added.get(a).key(), added.get(a).id()) < 0)) {
+                    nIds[o] = ids[i];
+                    nKeys[o] = keys[i++];
+                } else {
+                    nIds[o] = added.get(a).id();
+                    nKeys[o] = added.get(a++).key();
+                }
+                positions.put(nIds[o], o);
+            }
+            return new Ranking(nIds, nKeys, positions);
+        }
+
+        /** First position whose (key, id) does not rank before the given pair. */
+        private int insertionPoint(double key, long id) {
+            int lo = 0, hi = ids.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (compare(keys[mid], ids[mid], key, id) < 0) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        private static int compare(double k1, long id1, double k2, long id2) {
+            int c = Double.compare(k2, k1);
+            return c != 0 ? c : Long.compare(id1, id2);
+        }
+
+        private static String encode(double key, long id) {
+            return Cursors.encode(key, id);
+        }
+
+        private static Cursor decode(String cursor) {
+            String[] parts = Cursors.decode(cursor, 2);
+            return new Cursor(Cursors.parseDouble(parts[0]), Cursors.parseLong(parts[1]));
+        }
+    }
+}
@@ -1,55 +1,82 @@
 package com.filmssql.domain.service;
 
 import com.filmssql.domain.entity.*;
+import com.filmssql.domain.event.MovieChangedEvent;
 import com.filmssql.domain.repository.*;
 import com.filmssql.util.Mappers;
+import com.filmssql.web.dto.CursorPageDTO;
+import com.filmssql.web.dto.MovieBrowseDTO;
 import com.filmssql.web.dto.MovieDTO;
+import com.filmssql.web.dto.MovieInclude;
+import com.filmssql.web.dto.MoviePreviewBatchDTO;
 import com.filmssql.web.dto.MoviePreviewDTO;
 import com.filmssql.web.dto.SearchResultDTO;
+import com.filmssql.web.exception.BadRequestException;
 import com.filmssql.web.exception.NotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class MovieService {
 
     private final MovieRepository movieRepository;
-    private final GenreRepository genreRepository;
-    private final StudioRepository studioRepository;
-    private final CountryRepository countryRepository;
-    private final LanguageRepository languageRepository;
+    private final MovieLinkRepository movieLinkRepository;
+    private final MovieDetailLoader movieDetailLoader;
+    private final MovieCache movieCache;
+    private final RandomMoviePicker randomMoviePicker;
+    private final MovieLeaderboards movieLeaderboards;
+    private final RelatedMovies relatedMovies;
+    private final MovieFacets movieFacets;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate writeTx;
 
     public MovieService(MovieRepository movieRepository,
-                        GenreRepository genreRepository,
-                        StudioRepository studioRepository,
-                        CountryRepository countryRepository,
-                        LanguageRepository languageRepository) {
+                        MovieLinkRepository movieLinkRepository,
+                        MovieDetailLoader movieDetailLoader,
+                        MovieCache movieCache,
+                        RandomMoviePicker randomMoviePicker,
+                        MovieLeaderboards movieLeaderboards,
+                        RelatedMovies relatedMovies,
+                        MovieFacets movieFacets,
+                        ApplicationEventPublisher events,
+                        PlatformTransactionManager transactionManager) {
         this.movieRepository = movieRepository;
-        this.genreRepository = genreRepository;
-        this.studioRepository = studioRepository;
-        this.countryRepository = countryRepository;
-        this.languageRepository = languageRepository;
+        this.movieLinkRepository = movieLinkRepository;
+        this.movieDetailLoader = movieDetailLoader;
+        this.movieCache = movieCache;
+        this.randomMoviePicker = randomMoviePicker;
+        this.movieLeaderboards = movieLeaderboards;
+        this.relatedMovies = relatedMovies;
+        this.movieFacets = movieFacets;
+        this.events = events;
+        this.writeTx = new TransactionTemplate(transactionManager);
     }
 
-    @Transactional(readOnly = true)
     public MovieDTO getDto(Long id) {
-        Movie m = movieRepository.findBaseById(id)
-                .orElseThrow(() -> new NotFoundException("Movie %d not found".formatted(id)));
-
-        m = movieRepository.fetchCast(id).orElse(m);
-        m = movieRepository.fetchCrew(id).orElse(m);
-        m = movieRepository.fetchGenres(id).orElse(m);
-        m = movieRepository.fetchStudios(id).orElse(m);
-        m = movieRepository.fetchCountries(id).orElse(m);
-        m = movieRepository.fetchLanguages(id).orElse(m);
+        return movieCache.getDto(id, movieDetailLoader::load);
+    }
 
-        return Mappers.toDTO(m);
+    /**
+     * Movie restricted to the requested collections. Served from a cached full DTO when there is
+     * one, otherwise only the needed fetch queries run and the partial result is not cached.
+     */
+    public MovieDTO getDto(Long id, Set<MovieInclude> include) {
+        if (include.containsAll(MovieInclude.ALL)) return getDto(id);
+        MovieDTO cached = movieCache.peekDto(id);
+        return cached != null ? Mappers.project(cached, include) : movieDetailLoader.load(id, include);
     }
 
     @Transactional(readOnly = true)
@@ -59,47 +86,58 @@ public class MovieService {
     }
 
     public Movie save(Movie movie) {
-        return movieRepository.save(movie);
+        Movie saved = movieRepository.save(movie);
+        events.publishEvent(new MovieChangedEvent(saved.getId()));
+        return saved;
     }
 
     public void delete(Long id) {
         movieRepository.delete(getEntity(id));
+        events.publishEvent(new MovieChangedEvent(id));
     }
 
-    @Transactional
     public MovieDTO attachGenres(Long movieId, Set<Long> genreIds) {
-        Movie m = getEntity(movieId);
-        Set<Genre> gs = new HashSet<>(genreRepository.findAllById(genreIds));
-        m.getGenres().clear();
-        m.getGenres().addAll(gs);
-        return Mappers.toDTO(m);
+        return attach(movieId, MovieLink.GENRES, genreIds);
     }
 
-    @Transactional
     public MovieDTO attachStudios(Long movieId, Set<Long> studioIds) {
-        Movie m = getEntity(movieId);
-        Set<Studio> ss = new HashSet<>(studioRepository.findAllById(studioIds));
-        m.getStudios().clear();
-        m.getStudios().addAll(ss);
-        return Mappers.toDTO(m);
+        return attach(movieId, MovieLink.STUDIOS, studioIds);
     }
 
-    @Transactional
     public MovieDTO attachCountries(Long movieId, Set<Long> ids) {
-        Movie m = getEntity(movieId);
-        Set<Country> ss = new HashSet<>(countryRepository.findAllById(ids));
-        m.getCountries().clear();
-        m.getCountries().addAll(ss);
-        return Mappers.toDTO(m);
+        return attach(movieId, MovieLink.COUNTRIES, ids);
     }
 
-    @Transactional
     public MovieDTO attachLanguages(Long movieId, Set<Long> ids) {
-        Movie m = getEntity(movieId);
-        Set<Language> ss = new HashSet<>(languageRepository.findAllById(ids));
-        m.getLanguages().clear();
-        m.getLanguages().addAll(ss);
-        return Mappers.toDTO(m);
+        return attach(movieId, MovieLink.LANGUAGES, ids);
+    }
+
+    /**
+     * Makes {@code ids} the movie's {@code link} collection by deleting and inserting only the join rows
+     * that differ; unknown ids are ignored. The result is the cached DTO with the new collection when
+     * there is one, otherwise the movie is loaded once the change is committed.
+     */
+    private MovieDTO attach(Long movieId, MovieLink link, Set<Long> ids) {
+        MovieDTO patched = writeTx.execute(status -> {
+            if (!movieLinkRepository.lockMovie(movieId)) {
+                throw new NotFoundException("Movie %d not found".formatted(movieId));
+            }
+            Map<Long, String> targets = movieLinkRepository.findTargets(link,
+                    ids.stream().filter(Objects::nonNull).toList());
+            Set<Long> current = movieLinkRepository.findLinkedIds(link, movieId);
+
+            List<Long> removed = current.stream().filter(id -> !targets.containsKey(id)).toList();
+            List<Long> added = targets.keySet().stream().filter(id -> !current.contains(id)).toList();
+            movieLinkRepository.delete(link, movieId, removed);
+            movieLinkRepository.insert(link, movieId, added);
+            if (!removed.isEmpty() || !added.isEmpty()) {
+                events.publishEvent(new MovieChangedEvent(movieId));
+            }
+            // read before commit: the change event drops the cached entry
+            MovieDTO cached = movieCache.peekDto(movieId);
+            return cached != null ? Mappers.withLinks(cached, link, targets) : null;
+        });
+        return patched != null ? patched : getDto(movieId);
     }
 
     public List<SearchResultDTO> searchPreview(String query, int limit) {
@@ -114,33 +152,99 @@ public class MovieService {
                 .toList();
     }
 
-    @Transactional(readOnly = true)
     public MoviePreviewDTO getPreviewDto(Long id) {
-        return movieRepository.findPreviewById(id)
-                .orElseThrow(() -> new NotFoundException("Movie %d not found".formatted(id)));
+        return movieCache.getPreview(id, key -> movieRepository.findPreviewById(key)
+                .orElseThrow(() -> new NotFoundException("Movie %d not found".formatted(key))));
     }
 
-    @Transactional(readOnly = true)
-    public MoviePreviewDTO getRandomPreviewDto() {
-        long total = movieRepository.countAllMoviesWithHighRating();
-        if (total <= 0) throw new NotFoundException("No high-rated movies available");
+    public MoviePreviewDTO getRandomPreviewDto(String genre, Integer decade) {
+        // the snapshot may briefly list a movie deleted outside the app: retry and schedule a rebuild
+        for (int attempt = 0; attempt < 3; attempt++) {
+            long id = randomMoviePicker.pick(genre, decade);
+            try {
+                return getPreviewDto(id);
+            } catch (NotFoundException e) {
+                randomMoviePicker.markDirty();
+            }
+        }
+        throw new NotFoundException("No high-rated movies available");
+    }
 
-        long off = ThreadLocalRandom.current().nextLong(total);
-        Long id = movieRepository.findHighRatedIdByOffset(off);
+    // unbounded like the queries they replaced, which rejected a limit below 1 (PageRequest)
+    public List<MoviePreviewDTO> getTopRated(int limit) {
+        return getTopRatedPage(null, requirePositive(limit)).items();
+    }
 
-        if (id == null) id = movieRepository.findHighRatedIdByOffset(Math.max(0, total - 1));
-        return getPreviewDto(id);
+    public List<MoviePreviewDTO> getLatest(int limit) {
+        return getLatestPage(null, requirePositive(limit)).items();
     }
 
+    public CursorPageDTO<MoviePreviewDTO> getTopRatedPage(String cursor, int limit) {
+        return toPreviewPage(movieLeaderboards.topRated(cursor, limit));
+    }
 
-    @Transactional(readOnly = true)
-    public List<MoviePreviewDTO> getTopRated(int limit) {
-        return movieRepository.findTopRated(PageRequest.of(0, limit));
+    public CursorPageDTO<MoviePreviewDTO> getLatestPage(String cursor, int limit) {
+        return toPreviewPage(movieLeaderboards.latest(cursor, limit));
     }
 
-    @Transactional(readOnly = true)
-    public List<MoviePreviewDTO> getLatest(int limit) {
-        return movieRepository.findLatest(PageRequest.of(0, limit));
+    private static int requirePositive(int limit) {
+        if (limit < 1) throw new BadRequestException("limit must be at least 1, got " + limit);
+        return limit;
+    }
+
+    // facet counts come with the first page only
+    public MovieBrowseDTO browse(MovieFacets.Filter filter, MovieFacets.Sort sort, String cursor, int limit) {
+        boolean firstPage = cursor == null || cursor.isBlank();
+        MovieFacets.Result result = movieFacets.browse(filter, sort, cursor, limit, firstPage);
+        Map<Long, MoviePreviewDTO> previews = getPreviewMap(result.ids());
+        List<MoviePreviewDTO> items = result.ids().stream()
+                .map(previews::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new MovieBrowseDTO(items, result.nextCursor(), result.total(), result.facets());
+    }
+
+    /** Previews for {@code ids} keyed by id, served from the cache and completed with one query. */
+    public Map<Long, MoviePreviewDTO> getPreviewMap(Collection<Long> ids) {
+        if (ids.isEmpty()) return Map.of();
+        return movieCache.getPreviews(ids, missing -> movieRepository.findPreviewsByIds(List.copyOf(missing)).stream()
+                .collect(Collectors.toMap(MoviePreviewDTO::id, Function.identity())));
+    }
+
+    // a movie created after the last index build has no neighbours yet, but still has to exist
+    public List<MoviePreviewDTO> getRelated(Long id, int limit) {
+        List<Long> ids = relatedMovies.related(id, limit).orElse(null);
+        if (ids == null) {
+            getPreviewDto(id);
+            return List.of();
+        }
+        Map<Long, MoviePreviewDTO> previews = getPreviewMap(ids);
+        return ids.stream()
+                .map(previews::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    public MoviePreviewBatchDTO getPreviewBatch(List<Long> ids) {
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Long, MoviePreviewDTO> previews = getPreviewMap(distinct);
+        List<MoviePreviewDTO> items = new ArrayList<>(distinct.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : distinct) {
+            MoviePreviewDTO p = previews.get(id);
+            if (p != null) items.add(p);
+            else missing.add(id);
+        }
+        return new MoviePreviewBatchDTO(items, missing);
+    }
+
+    private CursorPageDTO<MoviePreviewDTO> toPreviewPage(MovieLeaderboards.IdPage page) {
+        Map<Long, MoviePreviewDTO> previews = getPreviewMap(page.ids());
+        List<MoviePreviewDTO> items = page.ids().stream()
+                .map(previews::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new CursorPageDTO<>(items, page.nextCursor());
     }
 
 }
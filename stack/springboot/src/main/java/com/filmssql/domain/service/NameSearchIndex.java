@@ -0,0 +1,154 @@
+package com.filmssql.domain.service;
+
+import com.filmssql.domain.event.MovieChangedEvent;
+import com.filmssql.domain.event.MoviesChangedEvent;
+import com.filmssql.domain.repository.ActorRepository;
+import com.filmssql.domain.repository.MovieRepository;
+import com.filmssql.domain.repository.NameIndexRow;
+import com.filmssql.util.LiveTrigramIndex;
+import com.filmssql.util.TrigramIndex;
+import com.filmssql.web.dto.SearchResultDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * In-memory trigram index over movie and actor names, used by {@link SearchService}
+ * when {@code app.search.engine=index}.
+ * <p>
+ * The first refresh loads everything; later refreshes only pick up rows with a higher id,
+ * movie writes are applied through {@link MovieChangedEvent}, and a periodic full rebuild
+ * catches renames done outside the application.
+ */
+@Slf4j
+@Service
+public class NameSearchIndex {
+
+    private static final int LOAD_BATCH = 20_000;
+
+    private final MovieRepository movieRepository;
+    private final ActorRepository actorRepository;
+    private final boolean enabled;
+    private final Duration rebuildInterval;
+
+    private final LiveTrigramIndex movies;
+    private final LiveTrigramIndex actors;
+    private volatile long lastFullBuild;
+
+    public NameSearchIndex(MovieRepository movieRepository,
+                           ActorRepository actorRepository,
+                           @Value("${app.search.engine:sql}") String engine,
+                           @Value("${app.search.index.rebuild-interval:6h}") Duration rebuildInterval,
+                           @Value("${app.search.index.merge-threshold:5000}") int mergeThreshold,
+                           @Value("${app.search.index.min-similarity:0.3}") double minSimilarity) {
+        this.movieRepository = movieRepository;
+        this.actorRepository = actorRepository;
+        this.enabled = "index".equalsIgnoreCase(engine);
+        this.rebuildInterval = rebuildInterval;
+        this.movies = new LiveTrigramIndex(mergeThreshold, minSimilarity);
+        this.actors = new LiveTrigramIndex(mergeThreshold, minSimilarity);
+    }
+
+    public boolean isReady() {
+        return enabled && movies.isReady() && actors.isReady();
+    }
+
+    public Optional<List<SearchResultDTO>> searchMovies(String query, int limit) {
+        if (!isReady()) return Optional.empty();
+        return Optional.of(toResults(movies.search(query, limit), "movie"));
+    }
+
+    public Optional<List<SearchResultDTO>> searchActors(String query, int limit) {
+        if (!isReady()) return Optional.empty();
+        return Optional.of(toResults(actors.search(query, limit), "actor"));
+    }
+
+    @Scheduled(initialDelayString = "${app.search.index.initial-delay:5s}",
+            fixedDelayString = "${app.search.index.refresh-interval:60s}")
+    public void refresh() {
+        if (!enabled) return;
+        try {
+            boolean full = !isReady() || System.currentTimeMillis() - lastFullBuild > rebuildInterval.toMillis();
+            if (full) {
+                rebuild();
+            } else {
+                movies.upsert(toEntries(load(movieRepository::findNameIndexRows, movies.maxId())));
+                actors.upsert(toEntries(load(actorRepository::findNameIndexRows, actors.maxId())));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Name search index refresh failed: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        movies.replaceAll(toEntries(load(movieRepository::findNameIndexRows, 0)));
+        actors.replaceAll(toEntries(load(actorRepository::findNameIndexRows, 0)));
+        lastFullBuild = System.currentTimeMillis();
+        log.info("Name search index built: {} movies, {} actors in {}ms",
+                movies.size(), actors.size(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (!isReady() || event.movieId() == null) return;
+        try {
+            movieRepository.findNameIndexRow(event.movieId()).ifPresentOrElse(
+                    row -> movies.upsert(toEntries(List.of(row))),
+                    () -> movies.remove(event.movieId()));
+        } catch (RuntimeException e) {
+            log.warn("Name search index update for movie {} failed: {}", event.movieId(), e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMoviesChanged(MoviesChangedEvent event) {
+        if (!isReady() || event.movieIds().isEmpty()) return;
+        try {
+            List<NameIndexRow> rows = movieRepository.findNameIndexRowsByIds(event.movieIds());
+            movies.upsert(toEntries(rows));
+            Set<Long> found = new HashSet<>();
+            for (NameIndexRow row : rows) found.add(row.id());
+            for (Long id : event.movieIds()) {
+                if (!found.contains(id)) movies.remove(id);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Name search index update for {} movies failed: {}", event.movieIds().size(), e.getMessage());
+        }
+    }
+
+    private static List<NameIndexRow> load(BiFunction<Long, PageRequest, List<NameIndexRow>> query, long afterId) {
+        List<NameIndexRow> rows = new ArrayList<>();
+        long cursor = afterId;
+        while (true) {
+            List<NameIndexRow> batch = query.apply(cursor, PageRequest.of(0, LOAD_BATCH));
+            rows.addAll(batch);
+            if (batch.size() < LOAD_BATCH) return rows;
+            cursor = batch.get(batch.size() - 1).id();
+        }
+    }
+
+    private static List<TrigramIndex.Entry> toEntries(List<NameIndexRow> rows) {
+        return rows.stream()
+                .filter(r -> r.name() != null)
+                .map(r -> new TrigramIndex.Entry(r.id(), r.name(), r.rank() != null ? r.rank() : 0, r.image()))
+                .toList();
+    }
+
+    private static List<SearchResultDTO> toResults(List<TrigramIndex.Hit> hits, String type) {
+        return hits.stream()
+                .map(h -> new SearchResultDTO(h.id(), type, h.name(), h.image(), h.similarity()))
+                .toList();
+    }
+}
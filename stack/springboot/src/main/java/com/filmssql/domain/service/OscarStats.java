@@ -0,0 +1,282 @@
+package com.filmssql.domain.service;
+
+import com.filmssql.domain.repository.OscarAwardRepository;
+import com.filmssql.domain.repository.OscarStatRow;
+import com.filmssql.util.LongIntHashMap;
+import com.filmssql.web.dto.OscarCategoryCountDTO;
+import com.filmssql.web.dto.OscarLeaderboardEntryDTO;
+import com.filmssql.web.dto.OscarSummaryDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Oscar nominations and wins per actor and per movie, by category, aggregated in memory from
+ * {@code oscar_awards}.
+ * <p>
+ * Each side keeps a {@link LongIntHashMap} from id to a dense slot and primitive counters per slot;
+ * category counts are short {@code [category, nominations, wins]} triples. The state is an immutable
+ * snapshot: a refresh copies the outer arrays, appends the rows with a higher id, re-sorts the
+ * leaderboards and publishes the copy. A periodic full rebuild picks up edited or deleted rows.
+ */
+@Slf4j
+@Service
+public class OscarStats {
+
+    public enum Ranking { WINS, NOMINATIONS }
+
+    private static final int LOAD_BATCH = 20_000;
+
+    private final OscarAwardRepository oscarAwardRepository;
+    private final Duration rebuildInterval;
+
+    private volatile State state;
+    private volatile long builtAt;
+
+    public OscarStats(OscarAwardRepository oscarAwardRepository,
+                      @Value("${app.oscars.stats.rebuild-interval:6h}") Duration rebuildInterval) {
+        this.oscarAwardRepository = oscarAwardRepository;
+        this.rebuildInterval = rebuildInterval;
+    }
+
+    public Optional<OscarSummaryDTO> actorSummary(long actorId) {
+        State s = ensureBuilt();
+        return s.actors.summary(actorId, s.categories);
+    }
+
+    public Optional<OscarSummaryDTO> movieSummary(long movieId) {
+        State s = ensureBuilt();
+        return s.movies.summary(movieId, s.categories);
+    }
+
+    public List<OscarLeaderboardEntryDTO> topActors(Ranking ranking, int limit) {
+        return ensureBuilt().actors.top(ranking, limit);
+    }
+
+    public List<OscarLeaderboardEntryDTO> topMovies(Ranking ranking, int limit) {
+        return ensureBuilt().movies.top(ranking, limit);
+    }
+
+    @Scheduled(initialDelayString = "${app.oscars.stats.initial-delay:5s}",
+            fixedDelayString = "${app.oscars.stats.refresh-interval:60s}")
+    public void refresh() {
+        try {
+            if (state == null || System.currentTimeMillis() - builtAt > rebuildInterval.toMillis()) {
+                rebuild();
+            } else {
+                append();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Oscar statistics refresh failed: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        State s = new State(new Side(), new Side(), new ArrayList<>(), new HashMap<>(), 0);
+        state = s.with(load(0));
+        builtAt = System.currentTimeMillis();
+        log.info("Oscar statistics built: {} actors, {} movies, {} categories in {}ms",
+                state.actors.size, state.movies.size, state.categories.size(),
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private synchronized void append() {
+        State s = state;
+        List<OscarStatRow> rows = load(s.maxId);
+        if (!rows.isEmpty()) state = s.with(rows);
+    }
+
+    private State ensureBuilt() {
+        State s = state;
+        if (s != null) return s;
+        synchronized (this) {
+            if (state == null) rebuild();
+            return state;
+        }
+    }
+
+    private List<OscarStatRow> load(long afterId) {
+        List<OscarStatRow> rows = new ArrayList<>();
+        long cursor = afterId;
+        while (true) {
+            List<OscarStatRow> batch = oscarAwardRepository.findStatRowsAfterId(cursor, PageRequest.of(0, LOAD_BATCH));
+            rows.addAll(batch);
+            if (batch.size() < LOAD_BATCH) return rows;
+            cursor = batch.get(batch.size() - 1).id();
+        }
+    }
+
+    // "1928" or "1927/28" style years; 0 when absent
+    private static int year(String s) {
+        if (s == null || s.length() < 4) return 0;
+        try {
+            return Integer.parseInt(s.substring(0, 4));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private record State(Side actors, Side movies, List<String> categories, Map<String, Integer> categoryCodes,
+                         long maxId) {
+
+        State with(List<OscarStatRow> rows) {
+            Side a = actors.copy();
+            Side m = movies.copy();
+            List<String> names = new ArrayList<>(categories);
+            Map<String, Integer> codes = new HashMap<>(categoryCodes);
+            long max = maxId;
+            for (OscarStatRow r : rows) {
+                max = Math.max(max, r.id());
+                String category = r.category() != null ? r.category() : "";
+                Integer code = codes.get(category);
+                if (code == null) {
+                    code = names.size();
+                    names.add(category);
+                    codes.put(category, code);
+                }
+                boolean won = Boolean.TRUE.equals(r.winner());
+                int year = year(r.yearCeremony());
+                if (r.actorId() != null) a.add(r.actorId(), r.name(), code, won, year);
+                if (r.movieId() != null) m.add(r.movieId(), r.film(), code, won, year);
+            }
+            a.rank();
+            m.rank();
+            return new State(a, m, List.copyOf(names), codes, max);
+        }
+    }
+
+    /** Counters of one side (actors or movies); mutated only before it is published. */
+    private static final class Side {
+        LongIntHashMap slots;
+        long[] ids;
+        String[] names;
+        int[] nominations;
+        int[] wins;
+        int[] firstYear;
+        int[] lastYear;
+        int[][] categories;     // per slot: category, nominations, wins, category, ...
+        int size;
+        int[] byWins;           // slots in leaderboard order
+        int[] byNominations;
+
+        Side() {
+            slots = new LongIntHashMap();
+            ids = new long[16];
+            names = new String[16];
+            nominations = new int[16];
+            wins = new int[16];
+            firstYear = new int[16];
+            lastYear = new int[16];
+            categories = new int[16][];
+            byWins = new int[0];
+            byNominations = new int[0];
+        }
+
+        Side copy() {
+            Side c = new Side();
+            c.slots = slots.copy();
+            c.ids = ids.clone();
+            c.names = names.clone();
+            c.nominations = nominations.clone();
+            c.wins = wins.clone();
+            c.firstYear = firstYear.clone();
+            c.lastYear = lastYear.clone();
+            // rows are replaced, never written in place, so sharing them with the old snapshot is safe
+            c.categories = categories.clone();
+            c.size = size;
+            return c;
+        }
+
+        void add(long id, String name, int category, boolean won, int year) {
+            int s = slots.get(id, -1);
+            if (s < 0) {
+                s = size++;
+                if (s == ids.length) grow();
+                slots.put(id, s);
+                ids[s] = id;
+                categories[s] = new int[0];
+            }
+            if (name != null) names[s] = name;
+            nominations[s]++;
+            if (won) wins[s]++;
+            if (year > 0) {
+                if (firstYear[s] == 0 || year < firstYear[s]) firstYear[s] = year;
+                if (year > lastYear[s]) lastYear[s] = year;
+            }
+
+            int[] old = categories[s];
+            int at = 0;
+            while (at < old.length && old[at] != category) at += 3;
+            int[] t = Arrays.copyOf(old, at < old.length ? old.length : old.length + 3);
+            t[at] = category;
+            t[at + 1]++;
+            if (won) t[at + 2]++;
+            categories[s] = t;
+        }
+
+        void rank() {
+            byWins = order(Comparator.<Integer>comparingInt(s -> -wins[s])
+                    .thenComparingInt(s -> -nominations[s]).thenComparingLong(s -> ids[s]));
+            byNominations = order(Comparator.<Integer>comparingInt(s -> -nominations[s])
+                    .thenComparingInt(s -> -wins[s]).thenComparingLong(s -> ids[s]));
+        }
+
+        private int[] order(Comparator<Integer> comparator) {
+            Integer[] slotOrder = new Integer[size];
+            for (int i = 0; i < size; i++) slotOrder[i] = i;
+            Arrays.sort(slotOrder, comparator);
+            int[] result = new int[size];
+            for (int i = 0; i < size; i++) result[i] = slotOrder[i];
+            return result;
+        }
+
+        Optional<OscarSummaryDTO> summary(long id, List<String> categoryNames) {
+            int s = slots.get(id, -1);
+            if (s < 0) return Optional.empty();
+            int[] t = categories[s];
+            List<OscarCategoryCountDTO> perCategory = new ArrayList<>(t.length / 3);
+            for (int i = 0; i < t.length; i += 3) {
+                perCategory.add(new OscarCategoryCountDTO(categoryNames.get(t[i]), t[i + 1], t[i + 2]));
+            }
+            perCategory.sort(Comparator.comparingInt(OscarCategoryCountDTO::nominations).reversed()
+                    .thenComparing(Comparator.comparingInt(OscarCategoryCountDTO::wins).reversed())
+                    .thenComparing(OscarCategoryCountDTO::category));
+            return Optional.of(new OscarSummaryDTO(id, names[s], nominations[s], wins[s],
+                    firstYear[s] > 0 ? firstYear[s] : null, lastYear[s] > 0 ? lastYear[s] : null, perCategory));
+        }
+
+        List<OscarLeaderboardEntryDTO> top(Ranking ranking, int limit) {
+            int[] order = ranking == Ranking.WINS ? byWins : byNominations;
+            int n = Math.min(limit, order.length);
+            List<OscarLeaderboardEntryDTO> top = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                int s = order[i];
+                top.add(new OscarLeaderboardEntryDTO(i + 1, ids[s], names[s], wins[s], nominations[s]));
+            }
+            return top;
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            names = Arrays.copyOf(names, capacity);
+            nominations = Arrays.copyOf(nominations, capacity);
+            wins = Arrays.copyOf(wins, capacity);
+            firstYear = Arrays.copyOf(firstYear, capacity);
+            lastYear = Arrays.copyOf(lastYear, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.filmssql.domain.service;
+
+import com.filmssql.config.ReadYourWrites;
+import com.filmssql.domain.repository.MovieRepository;
+import com.filmssql.util.Mappers;
+import com.filmssql.web.dto.MovieDTO;
+import com.filmssql.web.dto.MovieInclude;
+import com.filmssql.web.exception.NotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Runs the base query and every collection fetch concurrently, each one in its own short
+ * read-only transaction, and maps each piece to DTOs before its transaction closes.
+ * Wall time becomes the slowest query instead of the sum of all of them.
+ */
+@Component
+@ConditionalOnProperty(name = "app.movies.detail-loader", havingValue = "parallel")
+public class ParallelMovieDetailLoader implements MovieDetailLoader {
+
+    private final MovieRepository movieRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final Executor executor;
+    private final MovieDetailTimings.Meters meters;
+
+    public ParallelMovieDetailLoader(MovieRepository movieRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     @Qualifier("movieDetailExecutor") Executor executor,
+                                     MeterRegistry meterRegistry) {
+        this.movieRepository = movieRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.executor = executor;
+        this.meters = new MovieDetailTimings.Meters(meterRegistry, "parallel");
+    }
+
+    @Override
+    public MovieDTO load(Long id, Set<MovieInclude> include) {
+        MovieDetailTimings timings = new MovieDetailTimings(meters, id);
+        boolean themes = include.contains(MovieInclude.THEMES);
+        boolean releases = include.contains(MovieInclude.RELEASES);
+
+        var base = stage(timings, "base", repo -> (MovieInclude.needsBaseCollections(include)
+                ? repo.findBaseById(id)
+                : repo.findWithPosterById(id)).map(m -> new MovieDTO(
+                m.getId(), m.getName(), m.getDate(), m.getTagline(), m.getDescription(), m.getMinute(), m.getRating(),
+                Mappers.toPosterDTO(m.getPoster()),
+                themes ? Mappers.toThemeDTOs(m.getThemes()) : null,
+                null, null,
+                releases ? Mappers.toReleaseDTOs(m.getReleases()) : null,
+                null, null, null, null
+        )).orElse(null));
+        var cast = stage(timings, include, MovieInclude.CAST, repo -> repo.fetchCast(id).map(m -> Mappers.toCastDTOs(m.getCast())).orElse(null));
+        var crew = stage(timings, include, MovieInclude.CREW, repo -> repo.fetchCrew(id).map(m -> Mappers.toCrewDTOs(m.getCrew())).orElse(null));
+        var genres = stage(timings, include, MovieInclude.GENRES, repo -> repo.fetchGenres(id).map(m -> Mappers.toGenreDTOs(m.getGenres())).orElse(null));
+        var studios = stage(timings, include, MovieInclude.STUDIOS, repo -> repo.fetchStudios(id).map(m -> Mappers.toStudioDTOs(m.getStudios())).orElse(null));
+        var countries = stage(timings, include, MovieInclude.COUNTRIES, repo -> repo.fetchCountries(id).map(m -> Mappers.toCountryDTOs(m.getCountries())).orElse(null));
+        var languages = stage(timings, include, MovieInclude.LANGUAGES, repo -> repo.fetchLanguages(id).map(m -> Mappers.toLanguageDTOs(m.getLanguages())).orElse(null));
+
+        MovieDTO b = join(base);
+        if (b == null) throw new NotFoundException("Movie %d not found".formatted(id));
+
+        MovieDTO dto = new MovieDTO(
+                b.id(), b.name(), b.date(), b.tagline(), b.description(), b.minute(), b.rating(),
+                b.poster(),
+                b.themes(),
+                collect(cast),
+                collect(crew),
+                b.releases(),
+                collect(genres),
+                collect(studios),
+                collect(countries),
+                collect(languages)
+        );
+        timings.report();
+        return dto;
+    }
+
+    // skipped collections stay null in the DTO
+    private <T> CompletableFuture<Set<T>> stage(MovieDetailTimings timings, Set<MovieInclude> include, MovieInclude part,
+                                                Function<MovieRepository, Set<T>> query) {
+        if (!include.contains(part)) return null;
+        return stage(timings, part.name().toLowerCase(Locale.ROOT), query);
+    }
+
+    private <T> CompletableFuture<T> stage(MovieDetailTimings timings, String name,
+                                           Function<MovieRepository, T> query) {
+        // pool threads follow the caller's read/write routing (read-your-writes)
+        return CompletableFuture.supplyAsync(ReadYourWrites.propagate(() -> {
+            long start = System.nanoTime();
+            try {
+                return readOnlyTx.execute(status -> query.apply(movieRepository));
+            } finally {
+                timings.record(name, start);
+            }
+        }), executor);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    private static <T> Set<T> collect(CompletableFuture<Set<T>> future) {
+        if (future == null) return null;
+        Set<T> set = join(future);
+        return set == null ? new LinkedHashSet<>() : set;
+    }
+}
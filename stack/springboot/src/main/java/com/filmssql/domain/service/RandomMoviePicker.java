@@ -0,0 +1,167 @@
+package com.filmssql.domain.service;
+
+import com.filmssql.domain.event.MovieChangedEvent;
+import com.filmssql.domain.event.MoviesChangedEvent;
+import com.filmssql.domain.repository.MovieGenreRow;
+import com.filmssql.domain.repository.MovieRepository;
+import com.filmssql.domain.repository.MovieYearRow;
+import com.filmssql.web.exception.NotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Snapshot of the high-rated movie ids (rating > 4) as sorted {@code long[]}, whole and
+ * partitioned by genre and by decade. A pick is one random array read.
+ * <p>
+ * The snapshot is rebuilt in the background when a movie changes or when it gets too old.
+ */
+@Slf4j
+@Component
+public class RandomMoviePicker {
+
+    private static final int INTERSECTION_ATTEMPTS = 32;
+
+    private record Snapshot(long[] all, Map<String, long[]> byGenre, Map<Integer, long[]> byDecade, long builtAt) {}
+
+    private final MovieRepository movieRepository;
+    private final Duration maxAge;
+
+    private volatile Snapshot snapshot;
+    private volatile boolean dirty;
+
+    public RandomMoviePicker(MovieRepository movieRepository,
+                             @Value("${app.movies.random.max-age:10m}") Duration maxAge) {
+        this.movieRepository = movieRepository;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Random high-rated movie id, optionally restricted to a genre (name, case-insensitive)
+     * and/or a decade (e.g. 1970 for 1970-1979).
+     */
+    public long pick(String genre, Integer decade) {
+        Snapshot s = current();
+        long[] byGenre = genre != null ? s.byGenre().getOrDefault(genre.toLowerCase(Locale.ROOT), new long[0]) : null;
+        long[] byDecade = decade != null ? s.byDecade().getOrDefault(Math.floorDiv(decade, 10) * 10, new long[0]) : null;
+
+        long[] pool;
+        if (byGenre == null && byDecade == null) pool = s.all();
+        else if (byGenre == null) pool = byDecade;
+        else if (byDecade == null) pool = byGenre;
+        else return pickFromBoth(byGenre, byDecade);
+
+        if (pool.length == 0) throw new NotFoundException("No high-rated movies available");
+        return pool[ThreadLocalRandom.current().nextInt(pool.length)];
+    }
+
+    public void markDirty() {
+        dirty = true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        markDirty();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMoviesChanged(MoviesChangedEvent event) {
+        markDirty();
+    }
+
+    @Scheduled(fixedDelayString = "${app.movies.random.refresh-check:15s}")
+    public void refreshIfStale() {
+        Snapshot s = snapshot;
+        if (s == null) return;
+        if (!dirty && System.currentTimeMillis() - s.builtAt() < maxAge.toMillis()) return;
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Random movie snapshot refresh failed: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void rebuild() {
+        dirty = false;
+        List<MovieYearRow> years = movieRepository.findHighRatedYears();
+        List<MovieGenreRow> genres = movieRepository.findHighRatedGenres();
+
+        long[] all = new long[years.size()];
+        Map<Integer, LongList> byDecade = new HashMap<>();
+        for (int i = 0; i < all.length; i++) {
+            MovieYearRow r = years.get(i);
+            all[i] = r.movieId();
+            if (r.year() != null) byDecade.computeIfAbsent(Math.floorDiv(r.year(), 10) * 10, k -> new LongList()).add(r.movieId());
+        }
+        Map<String, LongList> byGenre = new HashMap<>();
+        for (MovieGenreRow r : genres) {
+            byGenre.computeIfAbsent(r.genre(), k -> new LongList()).add(r.movieId());
+        }
+
+        snapshot = new Snapshot(all, freeze(byGenre), freeze(byDecade), System.currentTimeMillis());
+        log.debug("Random movie snapshot rebuilt: {} ids, {} genres, {} decades", all.length, byGenre.size(), byDecade.size());
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (s != null) return s;
+        synchronized (this) {
+            if (snapshot == null) rebuild();
+            return snapshot;
+        }
+    }
+
+    // Sample from the smaller partition and probe the larger one; fall back to a full
+    // intersection only when the overlap is too sparse for sampling to hit.
+    private static long pickFromBoth(long[] a, long[] b) {
+        long[] small = a.length <= b.length ? a : b;
+        long[] large = small == a ? b : a;
+        if (small.length == 0) throw new NotFoundException("No high-rated movies available");
+
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        for (int i = 0; i < INTERSECTION_ATTEMPTS; i++) {
+            long id = small[rnd.nextInt(small.length)];
+            if (Arrays.binarySearch(large, id) >= 0) return id;
+        }
+        long[] both = new long[small.length];
+        int n = 0;
+        for (long id : small) {
+            if (Arrays.binarySearch(large, id) >= 0) both[n++] = id;
+        }
+        if (n == 0) throw new NotFoundException("No high-rated movies available");
+        return both[rnd.nextInt(n)];
+    }
+
+    private static <K> Map<K, long[]> freeze(Map<K, LongList> lists) {
+        Map<K, long[]> out = new HashMap<>(lists.size() * 2);
+        lists.forEach((k, v) -> out.put(k, v.toSortedArray()));
+        return Map.copyOf(out);
+    }
+
+    private static final class LongList {
+        private long[] values = new long[16];
+        private int size;
+
+        void add(long v) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = v;
+        }
+
+        long[] toSortedArray() {
+            long[] out = Arrays.copyOf(values, size);
+            Arrays.sort(out);
+            return out;
+        }
+    }
+}
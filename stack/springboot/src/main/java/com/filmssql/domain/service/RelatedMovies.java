@@ -0,0 +1,167 @@
+package com.filmssql.domain.service;
+
+import com.filmssql.domain.event.MovieChangedEvent;
+import com.filmssql.domain.event.MoviesChangedEvent;
+import com.filmssql.domain.repository.MovieFeatureRepository;
+import com.filmssql.domain.repository.MovieLink;
+import com.filmssql.util.RelatedIndex;
+import com.filmssql.util.RelatedIndex.Feature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * "More like this": the {@code size} movies most similar to a movie by shared genres, themes,
+ * top-billed cast, directors and studios, from a {@link RelatedIndex} held in memory.
+ * <p>
+ * Neighbours are cached per movie in a table next to the index, so a request is an array read once
+ * a movie has been asked for; with {@code app.movies.related.precompute=true} the whole table is
+ * filled on the pool right after each build. Writes only mark the index dirty: it is rebuilt at the
+ * next check, and the new snapshot comes with an empty table.
+ */
+@Slf4j
+@Service
+public class RelatedMovies {
+
+    private record Snapshot(RelatedIndex index, AtomicReferenceArray<int[]> neighbors, long builtAt) {}
+
+    private final MovieFeatureRepository movieFeatureRepository;
+    private final TransactionTemplate readTx;
+    private final int parallelism;
+    private final int size;
+    private final int topCast;
+    private final String directorRole;
+    private final int maxPostings;
+    private final boolean precompute;
+    private final Duration maxAge;
+    private final Map<Feature, Double> weights = new EnumMap<>(Feature.class);
+
+    private volatile Snapshot snapshot;
+    private volatile boolean dirty;
+
+    public RelatedMovies(MovieFeatureRepository movieFeatureRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${app.movies.related.size:20}") int size,
+                         @Value("${app.movies.related.top-cast:5}") int topCast,
+                         @Value("${app.movies.related.director-role:Director}") String directorRole,
+                         @Value("${app.movies.related.max-postings:5000}") int maxPostings,
+                         @Value("${app.movies.related.precompute:false}") boolean precompute,
+                         @Value("${app.movies.related.parallelism:0}") int parallelism,
+                         @Value("${app.movies.related.max-age:6h}") Duration maxAge,
+                         @Value("${app.movies.related.weight.genre:1.0}") double genreWeight,
+                         @Value("${app.movies.related.weight.theme:1.0}") double themeWeight,
+                         @Value("${app.movies.related.weight.cast:1.5}") double castWeight,
+                         @Value("${app.movies.related.weight.director:2.0}") double directorWeight,
+                         @Value("${app.movies.related.weight.studio:0.5}") double studioWeight) {
+        this.movieFeatureRepository = movieFeatureRepository;
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.size = size;
+        this.topCast = topCast;
+        this.directorRole = directorRole;
+        this.maxPostings = maxPostings;
+        this.precompute = precompute;
+        this.maxAge = maxAge;
+        weights.put(Feature.GENRE, genreWeight);
+        weights.put(Feature.THEME, themeWeight);
+        weights.put(Feature.CAST, castWeight);
+        weights.put(Feature.DIRECTOR, directorWeight);
+        weights.put(Feature.STUDIO, studioWeight);
+    }
+
+    /** Ids of the movies most similar to {@code movieId}, best first; empty when the movie is not indexed. */
+    public Optional<List<Long>> related(long movieId, int limit) {
+        Snapshot s = current();
+        int ordinal = s.index().ordinal(movieId);
+        if (ordinal < 0) return Optional.empty();
+        int[] neighbors = s.neighbors().get(ordinal);
+        if (neighbors == null) {
+            neighbors = s.index().neighbors(ordinal, size);
+            s.neighbors().set(ordinal, neighbors);
+        }
+        int n = Math.min(limit, neighbors.length);
+        List<Long> ids = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) ids.add(s.index().id(neighbors[i]));
+        return Optional.of(ids);
+    }
+
+    public void markDirty() {
+        dirty = true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        markDirty();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMoviesChanged(MoviesChangedEvent event) {
+        markDirty();
+    }
+
+    @Scheduled(initialDelayString = "${app.movies.related.initial-delay:30s}",
+            fixedDelayString = "${app.movies.related.refresh-check:10m}")
+    public void refreshIfStale() {
+        Snapshot s = snapshot;
+        if (s != null && !dirty && System.currentTimeMillis() - s.builtAt() < maxAge.toMillis()) return;
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Related movies index refresh failed: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void rebuild() {
+        dirty = false;
+        long start = System.nanoTime();
+        RelatedIndex index = readTx.execute(status -> load());
+        AtomicReferenceArray<int[]> neighbors = new AtomicReferenceArray<>(index.size());
+        long loaded = System.nanoTime();
+        if (precompute) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                index.computeAll(size, pool, neighbors::set);
+            } finally {
+                pool.shutdown();
+            }
+        }
+        snapshot = new Snapshot(index, neighbors, System.currentTimeMillis());
+        log.info("Related movies index built: {} movies, loaded in {}ms{}", index.size(),
+                Duration.ofNanos(loaded - start).toMillis(),
+                precompute ? ", neighbours in " + Duration.ofNanos(System.nanoTime() - loaded).toMillis() + "ms" : "");
+    }
+
+    private RelatedIndex load() {
+        RelatedIndex.Builder builder = new RelatedIndex.Builder();
+        movieFeatureRepository.forEachMovie(builder::movie);
+        movieFeatureRepository.forEachLink(MovieLink.GENRES, builder::genre);
+        movieFeatureRepository.forEachLink(MovieLink.STUDIOS, (movie, studio) -> builder.link(Feature.STUDIO, movie, studio));
+        movieFeatureRepository.forEachTheme(builder::theme);
+        movieFeatureRepository.forEachTopCast(topCast, (movie, actor) -> builder.link(Feature.CAST, movie, actor));
+        movieFeatureRepository.forEachCrew(directorRole, (movie, person) -> builder.link(Feature.DIRECTOR, movie, person));
+        return builder.build(weights, maxPostings);
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (s != null) return s;
+        synchronized (this) {
+            if (snapshot == null) rebuild();
+            return snapshot;
+        }
+    }
+}
@@ -1,29 +1,110 @@
 package com.filmssql.domain.service;
 
+import com.filmssql.util.TrigramIndex;
+import com.filmssql.web.dto.SearchResponseDTO;
 import com.filmssql.web.dto.SearchResultDTO;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 @Service
-@RequiredArgsConstructor
 public class SearchService {
 
     private final MovieService movieService;
     private final ActorService actorService;
+    private final NameSearchIndex nameSearchIndex;
+    private final AsyncTaskExecutor executor;
+    private final Duration timeout;
+    private final TransactionTemplate sqlTx;
 
-    public List<SearchResultDTO> search(String query, String type, int limit) {
-        List<SearchResultDTO> results = new ArrayList<>();
+    public SearchService(MovieService movieService,
+                         ActorService actorService,
+                         NameSearchIndex nameSearchIndex,
+                         @Qualifier("searchExecutor") AsyncTaskExecutor executor,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${app.search.timeout:800ms}") Duration timeout) {
+        this.movieService = movieService;
+        this.actorService = actorService;
+        this.nameSearchIndex = nameSearchIndex;
+        this.executor = executor;
+        this.timeout = timeout;
+        // Cancelling the future does not stop a running JDBC statement. The transaction timeout is set on
+        // every query as jakarta.persistence.query.timeout, so the driver cancels it on the server; JDBC
+        // counts whole seconds, hence rounded up.
+        this.sqlTx = new TransactionTemplate(transactionManager);
+        this.sqlTx.setReadOnly(true);
+        this.sqlTx.setTimeout((int) Math.max(1, (timeout.toMillis() + 999) / 1000));
+    }
 
+    /**
+     * Queries every requested source concurrently and merges the hits by score.
+     * Sources still running when the deadline expires are cancelled and reported in {@code timedOut};
+     * sources the saturated search pool did not accept are reported in {@code rejected}.
+     */
+    public SearchResponseDTO search(String query, String type, int limit) {
+        Map<String, Supplier<List<SearchResultDTO>>> sources = new LinkedHashMap<>();
+
+        // the in-memory index answers when enabled and built, otherwise fall back to SQL
         if (type.contains("movie")) {
-            results.addAll(movieService.searchPreview(query, limit));
+            sources.put("movie", () -> nameSearchIndex.searchMovies(query, limit)
+                    .orElseGet(() -> sqlTx.execute(status -> movieService.searchPreview(query, limit))));
         }
         if (type.contains("actor")) {
-            results.addAll(actorService.searchPreview(query, limit));
+            sources.put("actor", () -> nameSearchIndex.searchActors(query, limit)
+                    .orElseGet(() -> sqlTx.execute(status -> actorService.searchPreview(query, limit))));
+        }
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Map<String, Future<List<SearchResultDTO>>> running = new LinkedHashMap<>();
+        List<String> timedOut = new ArrayList<>();
+        List<String> rejected = new ArrayList<>();
+        sources.forEach((name, source) -> {
+            try {
+                running.put(name, executor.submit(source::get));
+            } catch (RejectedExecutionException e) {
+                rejected.add(name);
+            }
+        });
+
+        List<SearchResultDTO> results = new ArrayList<>();
+        running.forEach((name, future) -> {
+            try {
+                results.addAll(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                timedOut.add(name);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                timedOut.add(name);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException re) throw re;
+                throw new IllegalStateException(e.getCause());
+            }
+        });
+
+        for (SearchResultDTO r : results) {
+            if (r.getScore() == null) r.setScore(TrigramIndex.similarity(query, r.getTitle()));
         }
+        // stable sort: equal scores keep the per-source order (similarity, then rating/popularity)
+        results.sort(Comparator.comparing(SearchResultDTO::getScore).reversed());
 
-        return results;
+        return new SearchResponseDTO(results, timedOut, rejected);
     }
 }
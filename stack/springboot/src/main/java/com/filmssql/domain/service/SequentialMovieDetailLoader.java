@@ -0,0 +1,73 @@
+package com.filmssql.domain.service;
+
+import com.filmssql.domain.entity.Movie;
+import com.filmssql.domain.repository.MovieRepository;
+import com.filmssql.util.Mappers;
+import com.filmssql.web.dto.MovieDTO;
+import com.filmssql.web.dto.MovieInclude;
+import com.filmssql.web.exception.NotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+
+/**
+ * Loads the movie graph one fetch query after the other inside a single read-only transaction.
+ */
+@Component
+@ConditionalOnProperty(name = "app.movies.detail-loader", havingValue = "sequential", matchIfMissing = true)
+public class SequentialMovieDetailLoader implements MovieDetailLoader {
+
+    private final MovieRepository movieRepository;
+    private final MovieDetailTimings.Meters meters;
+
+    public SequentialMovieDetailLoader(MovieRepository movieRepository, MeterRegistry meterRegistry) {
+        this.movieRepository = movieRepository;
+        this.meters = new MovieDetailTimings.Meters(meterRegistry, "sequential");
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MovieDTO load(Long id, Set<MovieInclude> include) {
+        MovieDetailTimings timings = new MovieDetailTimings(meters, id);
+        long t = System.nanoTime();
+
+        Movie m = (MovieInclude.needsBaseCollections(include)
+                ? movieRepository.findBaseById(id)
+                : movieRepository.findWithPosterById(id))
+                .orElseThrow(() -> new NotFoundException("Movie %d not found".formatted(id)));
+        t = timings.record("base", t);
+
+        if (include.contains(MovieInclude.CAST)) {
+            m = movieRepository.fetchCast(id).orElse(m);
+            t = timings.record("cast", t);
+        }
+        if (include.contains(MovieInclude.CREW)) {
+            m = movieRepository.fetchCrew(id).orElse(m);
+            t = timings.record("crew", t);
+        }
+        if (include.contains(MovieInclude.GENRES)) {
+            m = movieRepository.fetchGenres(id).orElse(m);
+            t = timings.record("genres", t);
+        }
+        if (include.contains(MovieInclude.STUDIOS)) {
+            m = movieRepository.fetchStudios(id).orElse(m);
+            t = timings.record("studios", t);
+        }
+        if (include.contains(MovieInclude.COUNTRIES)) {
+            m = movieRepository.fetchCountries(id).orElse(m);
+            t = timings.record("countries", t);
+        }
+        if (include.contains(MovieInclude.LANGUAGES)) {
+            m = movieRepository.fetchLanguages(id).orElse(m);
+            t = timings.record("languages", t);
+        }
+
+        MovieDTO dto = Mappers.toDTO(m, include);
+        timings.record("map", t);
+        timings.report();
+        return dto;
+    }
+}
@@ -0,0 +1,503 @@
+package com.filmssql.ingest;
+
+import com.filmssql.util.NameMatcher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.filmssql.ingest.Values.bool;
+import static com.filmssql.ingest.Values.date;
+import static com.filmssql.ingest.Values.doubleValue;
+import static com.filmssql.ingest.Values.intValue;
+import static com.filmssql.ingest.Values.longValue;
+import static com.filmssql.ingest.Values.text;
+import static com.filmssql.ingest.Values.varchar;
+
+/**
+ * Loads the dataset CSVs from {@code app.ingest.dir} into the catalog tables with {@code COPY}.
+ * <pre>
+ * java -jar filmsql.jar --app.ingest.enabled=true --app.ingest.dir=/data/letterboxd \
+ *     --spring.main.web-application-type=none
+ * </pre>
+ * Stages run in three phases: {@code movies}; then every file keyed by movie id, several at a
+ * time; then {@code actor_infos} and the Oscar awards, which reference actors. Lookup values
+ * (genres, studios, countries, languages, roles, people, actors by name) are resolved through
+ * in-memory {@link Dictionary dictionaries}, and rows of unknown movies are skipped.
+ * <p>
+ * Each stage commits with a checkpoint (see {@link StageLoader}), so a failed or interrupted run
+ * is resumed by running it again; {@code app.ingest.restart=true} starts over, emptying the table of
+ * every stage whose file is present together with its checkpoint.
+ * File names can be overridden with {@code app.ingest.files.<stage>}; a missing file skips its stage.
+ * Once loaded, the indexes of {@code db/indexes.sql} are created if missing and the tables analyzed.
+ * <p>
+ * {@code actors.csv} is read as the actor table ({@code id,name}, the ids referenced by
+ * {@code actor_infos} and the Oscar output) or, when it has a {@code role} column, as cast credits
+ * ({@code id} = movie id) whose actor ids are assigned by name. {@code actor_infos} rows are
+ * attached to the actor their TMDB name resolves to with {@link NameMatcher}, falling back to their
+ * {@code id} column when the name is ambiguous or unknown.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.ingest.enabled", havingValue = "true")
+public class CatalogIngestRunner implements ApplicationRunner {
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbc;
+    private final Environment env;
+    private final ConfigurableApplicationContext context;
+    private final Path dir;
+    private final int workers;
+    private final int parallelStages;
+    private final int chunkRecords;
+    private final long commitRecords;
+    private final Duration progressInterval;
+    private final boolean restart;
+    private final boolean exitWhenDone;
+    private final double matchThreshold;
+
+    // set between phases, read by the chunk mappers of later phases
+    private volatile IdSet movieIds = IdSet.EMPTY;
+    private volatile NameMatcher actorMatcher;
+    private Dictionary genres, studios, countries, languages, roles, people, actors;
+
+    public CatalogIngestRunner(DataSource dataSource,
+                               JdbcTemplate jdbc,
+                               Environment env,
+                               ConfigurableApplicationContext context,
+                               @Value("${app.ingest.dir}") Path dir,
+                               @Value("${app.ingest.workers:0}") int workers,
+                               @Value("${app.ingest.parallel-stages:3}") int parallelStages,
+                               @Value("${app.ingest.chunk-records:5000}") int chunkRecords,
+                               @Value("${app.ingest.commit-records:500000}") long commitRecords,
+                               @Value("${app.ingest.progress-interval:10s}") Duration progressInterval,
+                               @Value("${app.ingest.restart:false}") boolean restart,
+                               @Value("${app.ingest.exit-when-done:true}") boolean exitWhenDone,
+                               @Value("${app.actors.matching.threshold:0.90}") double matchThreshold) {
+        this.dataSource = dataSource;
+        this.jdbc = jdbc;
+        this.env = env;
+        this.context = context;
+        this.dir = dir;
+        this.workers = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.parallelStages = Math.max(1, parallelStages);
+        this.chunkRecords = chunkRecords;
+        this.commitRecords = commitRecords;
+        this.progressInterval = progressInterval;
+        this.restart = restart;
+        this.exitWhenDone = exitWhenDone;
+        this.matchThreshold = matchThreshold;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int status = 0;
+        try {
+            ingest();
+        } catch (Exception e) {
+            log.error("Ingestion failed; run it again to resume from the last checkpoint", e);
+            status = 1;
+        }
+        if (exitWhenDone) {
+            int code = status;
+            System.exit(SpringApplication.exit(context, () -> code));
+        }
+    }
+
+    void ingest() throws Exception {
+        if (!Files.isDirectory(dir)) throw new IOException("app.ingest.dir is not a directory: " + dir);
+        IngestCheckpoints checkpoints = new IngestCheckpoints(jdbc);
+        checkpoints.createTable();
+        genres = new Dictionary(jdbc, "genre", "genre");
+        studios = new Dictionary(jdbc, "studio", "name");
+        countries = new Dictionary(jdbc, "country", "country");
+        languages = new Dictionary(jdbc, "language", "language");
+        roles = new Dictionary(jdbc, "role", "role");
+        people = new Dictionary(jdbc, "person", "name");
+        actors = new Dictionary(jdbc, "actor", "name");
+
+        List<IngestStage> moviePhase = List.of(movies());
+        List<IngestStage> linkPhase = List.of(
+                posters(), themes(),
+                link("genres", "genres.csv", "genre", genres, "genres_movies", "genre_id"),
+                link("studios", "studios.csv", "studio", studios, "studios_movies", "studio_id"),
+                link("countries", "countries.csv", "country", countries, "countries_movies", "country_id"),
+                link("languages", "languages.csv", "language", languages, "languages_movies", "language_id"),
+                releases(), crew(), actors(), reviews());
+        List<IngestStage> actorPhase = List.of(actorInfos(), oscars());
+        if (restart) {
+            List<IngestStage> present = new ArrayList<>();
+            for (List<IngestStage> phase : List.of(moviePhase, linkPhase, actorPhase)) {
+                for (IngestStage stage : phase) {
+                    if (Files.isRegularFile(dir.resolve(fileName(stage)))) present.add(stage);
+                }
+            }
+            log.info("Restarting {} stages: emptying their tables", present.size());
+            checkpoints.restart(present);
+        }
+
+        for (Dictionary d : List.of(genres, studios, countries, languages, roles, people, actors)) d.load();
+
+        ExecutorService parseWorkers = Executors.newFixedThreadPool(workers, daemon("ingest-parse-"));
+        ExecutorService stageThreads = Executors.newFixedThreadPool(parallelStages, daemon("ingest-stage-"));
+        StageLoader loader = new StageLoader(dataSource, checkpoints, parseWorkers,
+                chunkRecords, 2 * workers, commitRecords, progressInterval);
+        long started = System.nanoTime();
+        List<StageLoader.Result> results = new ArrayList<>();
+        Set<String> loadedTables = new LinkedHashSet<>();
+        try {
+            log.info("Ingesting {} with {} parse workers, {} stages at a time", dir, workers, parallelStages);
+            runPhase(loader, stageThreads, moviePhase, results, loadedTables);
+            movieIds = IdSet.load(jdbc, "select id from movies");
+            log.info("{} movies known", movieIds.size());
+
+            runPhase(loader, stageThreads, linkPhase, results, loadedTables);
+            actors.load();
+            List<NameMatcher.Entry> actorNames = jdbc.query("select id, name from actor",
+                    (rs, i) -> new NameMatcher.Entry(rs.getLong(1), rs.getString(2)));
+            actorMatcher = NameMatcher.build(actorNames, matchThreshold);
+
+            runPhase(loader, stageThreads, actorPhase, results, loadedTables);
+        } finally {
+            stageThreads.shutdownNow();
+            parseWorkers.shutdownNow();
+        }
+
+        for (String table : List.of("movies", "actor")) {
+            jdbc.queryForObject("select setval(pg_get_serial_sequence(?, 'id'), greatest((select max(id) from "
+                    + table + "), 1))", Long.class, table);
+        }
+        new ResourceDatabasePopulator(new ClassPathResource("db/indexes.sql")).execute(dataSource);
+        for (String table : loadedTables) jdbc.execute("analyze " + table);
+
+        long rows = results.stream().mapToLong(StageLoader.Result::rows).sum();
+        long nanos = System.nanoTime() - started;
+        log.info("Ingestion finished: {} stages, {} rows in {}s ({} rows/s)", results.size(), rows,
+                nanos / 1_000_000_000, nanos <= 0 ? 0 : rows * 1_000_000_000L / nanos);
+    }
+
+    /** Runs the stages concurrently; a failed stage does not stop the others from reaching a checkpoint. */
+    private void runPhase(StageLoader loader, ExecutorService stageThreads, List<IngestStage> stages,
+                          List<StageLoader.Result> results, Set<String> loadedTables) throws Exception {
+        List<Future<StageLoader.Result>> running = new ArrayList<>();
+        for (IngestStage stage : stages) {
+            Path file = dir.resolve(fileName(stage));
+            if (!Files.isRegularFile(file)) {
+                log.warn("{}: {} not found, stage skipped", stage.name(), file);
+                continue;
+            }
+            running.add(stageThreads.submit(() -> loader.load(stage, file)));
+        }
+        Exception failure = null;
+        for (Future<StageLoader.Result> f : running) {
+            try {
+                StageLoader.Result r = f.get();
+                if (r != null) results.add(r);
+            } catch (Exception e) {
+                if (failure == null) failure = e;
+                else failure.addSuppressed(e);
+            }
+        }
+        if (failure != null) throw failure;
+        for (IngestStage stage : stages) loadedTables.add(stage.table());
+    }
+
+    private String fileName(IngestStage stage) {
+        return env.getProperty("app.ingest.files." + stage.name(), stage.file());
+    }
+
+    // ---- stages ----
+
+    private IngestStage movies() {
+        return new IngestStage("movies", "movies.csv", "movies",
+                List.of("id", "name", "date", "tagline", "description", "minute", "rating"), false, csv -> {
+            int id = csv.column("id"), name = csv.column("name");
+            int date = csv.optionalColumn("date"), tagline = csv.optionalColumn("tagline");
+            int description = csv.optionalColumn("description"), minute = csv.optionalColumn("minute");
+            int rating = csv.optionalColumn("rating");
+            return (records, out) -> {
+                for (String[] r : records) {
+                    Long movieId = longValue(get(r, id));
+                    String movieName = varchar(get(r, name));
+                    if (movieId == null || movieName == null) {
+                        out.skip();
+                        continue;
+                    }
+                    out.add(movieId, movieName, intValue(get(r, date)), text(get(r, tagline)),
+                            text(get(r, description)), intValue(get(r, minute)), doubleValue(get(r, rating)));
+                }
+            };
+        });
+    }
+
+    private IngestStage posters() {
+        return new IngestStage("posters", "posters.csv", "posters", List.of("movie_id", "link"), true, csv -> {
+            int id = csv.column("id"), link = csv.column("link");
+            IdSet movies = movieIds;
+            return (records, out) -> {
+                for (String[] r : records) {
+                    Long movieId = longValue(get(r, id));
+                    if (movieId == null || !movies.contains(movieId)) out.skip();
+                    else out.add(movieId, varchar(get(r, link)));
+                }
+            };
+        });
+    }
+
+    private IngestStage themes() {
+        return new IngestStage("themes", "themes.csv", "themes", List.of("movie_id", "theme"), false, csv -> {
+            int id = csv.column("id"), theme = csv.column("theme");
+            IdSet movies = movieIds;
+            return (records, out) -> {
+                for (String[] r : records) {
+                    Long movieId = longValue(get(r, id));
+                    String value = varchar(get(r, theme));
+                    if (movieId == null || value == null || !movies.contains(movieId)) out.skip();
+                    else out.add(movieId, value);
+                }
+            };
+        });
+    }
+
+    /** A movie-to-lookup join table fed by an {@code id,<value>} file. */
+    private IngestStage link(String name, String file, String valueColumn, Dictionary dictionary,
+                             String table, String targetColumn) {
+        return new IngestStage(name, file, table, List.of("movie_id", targetColumn), true, csv -> {
+            int id = csv.column("id"), value = csv.column(valueColumn);
+            IdSet movies = movieIds;
+            return (records, out) -> {
+                Long[] movieOf = new Long[records.size()];
+                String[] valueOf = new String[records.size()];
+                List<String> names = new ArrayList<>(records.size());
+                for (int i = 0; i < records.size(); i++) {
+                    String[] r = records.get(i);
+                    Long movieId = longValue(get(r, id));
+                    if (movieId == null || !movies.contains(movieId)) continue;
+                    movieOf[i] = movieId;
+                    valueOf[i] = varchar(get(r, value));
+                    names.add(valueOf[i]);
+                }
+                dictionary.register(names);
+                for (int i = 0; i < records.size(); i++) {
+                    Long target = dictionary.find(valueOf[i]);
+                    if (movieOf[i] == null || target == null) out.skip();
+                    else out.add(movieOf[i], target);
+                }
+            };
+        });
+    }
+
+    private IngestStage releases() {
+        return new IngestStage("releases", "releases.csv", "releases_movies",
+                List.of("movie_id", "country_id", "release_date", "release_type", "rating"), false, csv -> {
+            int id = csv.column("id"), country = csv.column("country"), date = csv.column("date");
+            int type = csv.column("type"), rating = csv.optionalColumn("rating");
+            IdSet movies = movieIds;
+            return (records, out) -> {
+                List<String> names = new ArrayList<>(records.size());
+                for (String[] r : records) names.add(varchar(get(r, country)));
+                countries.register(names);
+                for (int i = 0; i < records.size(); i++) {
+                    String[] r = records.get(i);
+                    Long movieId = longValue(get(r, id));
+                    String releaseType = varchar(get(r, type));
+                    LocalDate releaseDate = date(get(r, date));
+                    if (movieId == null || releaseType == null || releaseDate == null || !movies.contains(movieId)) {
+                        out.skip();
+                        continue;
+                    }
+                    out.add(movieId, countries.find(names.get(i)), releaseDate, releaseType, varchar(get(r, rating)));
+                }
+            };
+        });
+    }
+
+    private IngestStage crew() {
+        return new IngestStage("crew", "crew.csv", "movie_role_person",
+                List.of("movie_id", "role_id", "person_id"), true, csv -> {
+            int id = csv.column("id"), role = csv.column("role"), name = csv.column("name");
+            IdSet movies = movieIds;
+            return (records, out) -> {
+                List<String> roleNames = new ArrayList<>(records.size());
+                List<String> personNames = new ArrayList<>(records.size());
+                for (String[] r : records) {
+                    roleNames.add(varchar(get(r, role)));
+                    personNames.add(varchar(get(r, name)));
+                }
+                roles.register(roleNames);
+                people.register(personNames);
+                for (int i = 0; i < records.size(); i++) {
+                    Long movieId = longValue(get(records.get(i), id));
+                    Long roleId = roles.find(roleNames.get(i));
+                    Long personId = people.find(personNames.get(i));
+                    if (movieId == null || roleId == null || personId == null || !movies.contains(movieId)) out.skip();
+                    else out.add(movieId, roleId, personId);
+                }
+            };
+        });
+    }
+
+    private IngestStage actors() throws IOException {
+        if (!castCredits()) {
+            return new IngestStage("actors", "actors.csv", "actor", List.of("id", "name"), true, csv -> {
+                int id = csv.column("id"), name = csv.column("name");
+                return (records, out) -> {
+                    for (String[] r : records) {
+                        Long actorId = longValue(get(r, id));
+                        String actorName = varchar(get(r, name));
+                        if (actorId == null || actorName == null) out.skip();
+                        else out.add(actorId, actorName);
+                    }
+                };
+            });
+        }
+        return new IngestStage("actors", "actors.csv", "actors_movies",
+                List.of("movie_id", "actor_id", "role"), false, csv -> {
+            int id = csv.column("id"), name = csv.column("name"), role = csv.column("role");
+            IdSet movies = movieIds;
+            return (records, out) -> {
+                List<String> names = new ArrayList<>(records.size());
+                for (String[] r : records) names.add(varchar(get(r, name)));
+                actors.register(names);
+                for (int i = 0; i < records.size(); i++) {
+                    String[] r = records.get(i);
+                    Long movieId = longValue(get(r, id));
+                    Long actorId = actors.find(names.get(i));
+                    if (movieId == null || actorId == null || !movies.contains(movieId)) out.skip();
+                    else out.add(movieId, actorId, varchar(get(r, role)));
+                }
+            };
+        });
+    }
+
+    private boolean castCredits() throws IOException {
+        Path file = dir.resolve(env.getProperty("app.ingest.files.actors", "actors.csv"));
+        if (!Files.isRegularFile(file)) return false;
+        try (CsvReader csv = new CsvReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            return csv.optionalColumn("role") >= 0;
+        }
+    }
+
+    private IngestStage reviews() {
+        return new IngestStage("reviews", "rotten_tomatoes_reviews_updated.csv", "reviews_movies",
+                List.of("movie_id", "critic_name", "top_critic", "publisher_name", "review_type",
+                        "review_score", "review_date", "review_content"), false, csv -> {
+            int id = csv.column("id"), critic = csv.optionalColumn("critic_name");
+            int top = csv.optionalColumn("top_critic"), publisher = csv.optionalColumn("publisher_name");
+            int type = csv.optionalColumn("review_type"), score = csv.optionalColumn("review_score");
+            int date = csv.optionalColumn("review_date"), content = csv.optionalColumn("review_content");
+            IdSet movies = movieIds;
+            return (records, out) -> {
+                for (String[] r : records) {
+                    Long movieId = longValue(get(r, id));
+                    if (movieId == null || !movies.contains(movieId)) {
+                        out.skip();
+                        continue;
+                    }
+                    out.add(movieId, varchar(get(r, critic)), Boolean.TRUE.equals(bool(get(r, top))),
+                            varchar(get(r, publisher)), varchar(get(r, type)), varchar(get(r, score)),
+                            date(get(r, date)), text(get(r, content)));
+                }
+            };
+        });
+    }
+
+    private IngestStage actorInfos() {
+        return new IngestStage("actor_infos", "actor_infos.csv", "actor_infos",
+                List.of("actor_id", "biography", "place_of_birth", "birthday", "name", "gender",
+                        "popularity", "deathday", "image_path"), true, csv -> {
+            int id = csv.optionalColumn("id"), name = csv.column("name");
+            int biography = csv.optionalColumn("biography"), place = csv.optionalColumn("place_of_birth");
+            int birthday = csv.optionalColumn("birthday"), gender = csv.optionalColumn("gender");
+            int popularity = csv.optionalColumn("popularity"), deathday = csv.optionalColumn("deathday");
+            int image = csv.optionalColumn("image_path");
+            NameMatcher matcher = actorMatcher;
+            return (records, out) -> {
+                for (String[] r : records) {
+                    String actorName = varchar(get(r, name));
+                    NameMatcher.Match match = matcher.resolve(actorName);
+                    Long actorId = match.status() == NameMatcher.Status.MATCHED ? match.id() : knownActor(longValue(get(r, id)));
+                    if (actorId == null) {
+                        out.skip();
+                        continue;
+                    }
+                    out.add(actorId, text(get(r, biography)), text(get(r, place)), date(get(r, birthday)),
+                            actorName, intValue(get(r, gender)), doubleValue(get(r, popularity)),
+                            date(get(r, deathday)), varchar(get(r, image)));
+                }
+            };
+        });
+    }
+
+    private IngestStage oscars() {
+        return new IngestStage("oscars", "oscar_output.csv", "oscar_awards",
+                List.of("year_film", "year_ceremony", "category", "name", "film", "winner", "actor_id", "movie_id"),
+                false, csv -> {
+            int yearFilm = csv.column("year_film"), yearCeremony = csv.column("year_ceremony");
+            int category = csv.column("category"), name = csv.column("name"), film = csv.column("film");
+            int winner = csv.column("winner");
+            int actorId = csv.optionalColumn("actor_id"), movieId = csv.optionalColumn("movie_id");
+            IdSet movies = movieIds;
+            return (records, out) -> {
+                for (String[] r : records) {
+                    String nominee = varchar(get(r, name));
+                    Long movie = longValue(get(r, movieId));
+                    out.add(varchar(intText(get(r, yearFilm))), varchar(intText(get(r, yearCeremony))),
+                            varchar(get(r, category)), nominee, varchar(get(r, film)), bool(get(r, winner)),
+                            actorId(longValue(get(r, actorId)), nominee),
+                            movie != null && movies.contains(movie) ? movie : null);
+                }
+            };
+        });
+    }
+
+    /** The given id when it is a known actor, otherwise the actor with exactly this name. */
+    private Long actorId(Long id, String name) {
+        Long known = knownActor(id);
+        return known != null ? known : actors.find(name);
+    }
+
+    private Long knownActor(Long id) {
+        return id != null && actors.containsId(id) ? id : null;
+    }
+
+    // pandas writes integer columns with missing values as floats ("1928.0")
+    private static String intText(String s) {
+        Long v = longValue(s);
+        return v != null ? v.toString() : s;
+    }
+
+    private static String get(String[] record, int column) {
+        return column >= 0 && column < record.length ? record[column] : null;
+    }
+
+    private static CustomizableThreadFactory daemon(String prefix) {
+        CustomizableThreadFactory factory = new CustomizableThreadFactory(prefix);
+        factory.setDaemon(true);
+        return factory;
+    }
+}
@@ -0,0 +1,83 @@
+package com.filmssql.ingest;
+
+import java.time.LocalDate;
+
+/**
+ * Rows encoded in PostgreSQL {@code COPY} text format, built by the parse workers and
+ * written by the stage's single COPY connection.
+ */
+final class CopyRows {
+
+    private final StringBuilder sb;
+    private final int records;
+    private final long position;
+    private int rows;
+    private int skipped;
+
+    /**
+     * @param records  source records in the chunk, including the skipped ones
+     * @param position characters of the file read when the chunk was cut, for progress reporting
+     */
+    CopyRows(int records, long position) {
+        this.sb = new StringBuilder(records * 96);
+        this.records = records;
+        this.position = position;
+    }
+
+    void add(Object... values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) sb.append('\t');
+            append(values[i]);
+        }
+        sb.append('\n');
+        rows++;
+    }
+
+    void skip() {
+        skipped++;
+    }
+
+    int records() {
+        return records;
+    }
+
+    long position() {
+        return position;
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    int skipped() {
+        return skipped;
+    }
+
+    String text() {
+        return sb.toString();
+    }
+
+    private void append(Object v) {
+        if (v == null) {
+            sb.append("\\N");
+        } else if (v instanceof String s) {
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                switch (c) {
+                    case '\\' -> sb.append("\\\\");
+                    case '\t' -> sb.append("\\t");
+                    case '\n' -> sb.append("\\n");
+                    case '\r' -> sb.append("\\r");
+                    case '\0' -> { }
+                    default -> sb.append(c);
+                }
+            }
+        } else if (v instanceof Boolean b) {
+            sb.append(b ? 't' : 'f');
+        } else if (v instanceof LocalDate d) {
+            sb.append(d);
+        } else {
+            sb.append(v);
+        }
+    }
+}
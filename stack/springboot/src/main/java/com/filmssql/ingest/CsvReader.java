@@ -0,0 +1,119 @@
+package com.filmssql.ingest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming RFC 4180 reader: quoted fields may contain separators, doubled quotes and line breaks.
+ * The first record is the header; a UTF-8 BOM before it is skipped.
+ */
+final class CsvReader implements Closeable {
+
+    private final Reader in;
+    private final char[] buf = new char[1 << 16];
+    private int pos;
+    private int len;
+    private long charsRead;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final StringBuilder field = new StringBuilder(256);
+
+    CsvReader(Reader in) throws IOException {
+        this.in = in;
+        String[] header = next();
+        if (header == null) throw new IOException("CSV file is empty");
+        if (!header[0].isEmpty() && header[0].charAt(0) == '﻿') header[0] = header[0].substring(1);
+        for (int i = 0; i < header.length; i++) columns.putIfAbsent(header[i].trim().toLowerCase(Locale.ROOT), i);
+    }
+
+    /** Index of the named column (case-insensitive). */
+    int column(String name) throws IOException {
+        Integer i = columns.get(name.toLowerCase(Locale.ROOT));
+        if (i == null) throw new IOException("Missing column '%s', found %s".formatted(name, columns.keySet()));
+        return i;
+    }
+
+    /** Index of the named column, or -1 when the file does not have it. */
+    int optionalColumn(String name) {
+        return columns.getOrDefault(name.toLowerCase(Locale.ROOT), -1);
+    }
+
+    long charsRead() {
+        return charsRead;
+    }
+
+    /** Next record, or null at end of input. Blank lines are skipped. */
+    String[] next() throws IOException {
+        List<String> record = new ArrayList<>(16);
+        field.setLength(0);
+        boolean quoted = false;
+        boolean any = false;
+        while (true) {
+            if (pos == len && !fill()) {
+                if (!any && field.isEmpty() && record.isEmpty()) return null;
+                record.add(field.toString());
+                return record.toArray(String[]::new);
+            }
+            char c = buf[pos++];
+            if (quoted) {
+                if (c == '"') {
+                    if (pos == len && !fill()) {
+                        quoted = false;
+                        continue;
+                    }
+                    if (buf[pos] == '"') {
+                        field.append('"');
+                        pos++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+                continue;
+            }
+            switch (c) {
+                case '"' -> {
+                    quoted = true;
+                    any = true;
+                }
+                case ',' -> {
+                    record.add(field.toString());
+                    field.setLength(0);
+                    any = true;
+                }
+                case '\r' -> { }
+                case '\n' -> {
+                    if (!any && field.isEmpty() && record.isEmpty()) continue;
+                    record.add(field.toString());
+                    return record.toArray(String[]::new);
+                }
+                default -> {
+                    field.append(c);
+                    any = true;
+                }
+            }
+        }
+    }
+
+    private boolean fill() throws IOException {
+        len = in.read(buf, 0, buf.length);
+        pos = 0;
+        if (len <= 0) {
+            len = 0;
+            return false;
+        }
+        charsRead += len;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
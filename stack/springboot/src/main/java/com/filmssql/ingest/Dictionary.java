@@ -0,0 +1,87 @@
+package com.filmssql.ingest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Name to id of a lookup table ({@code genre}, {@code studio}, {@code person}, ...), preloaded from
+ * the database so a restarted run reuses the rows it already wrote.
+ * <p>
+ * Workers register the names of a whole chunk at once: the missing ones get ids from the table's
+ * sequence and are inserted in one batch, committed before the chunk's link rows are copied.
+ */
+final class Dictionary {
+
+    private final JdbcTemplate jdbc;
+    private final String table;
+    private final String column;
+    private final ConcurrentHashMap<String, Long> ids = new ConcurrentHashMap<>();
+    private final Set<Long> known = ConcurrentHashMap.newKeySet();
+
+    Dictionary(JdbcTemplate jdbc, String table, String column) {
+        this.jdbc = jdbc;
+        this.table = table;
+        this.column = column;
+    }
+
+    Dictionary load() {
+        ids.clear();
+        known.clear();
+        jdbc.query("select id, " + column + " from " + table + " order by id", rs -> {
+            long id = rs.getLong(1);
+            known.add(id);
+            String name = rs.getString(2);
+            if (name != null) ids.putIfAbsent(name, id);
+        });
+        return this;
+    }
+
+    Long find(String name) {
+        return name == null ? null : ids.get(name);
+    }
+
+    boolean containsId(long id) {
+        return known.contains(id);
+    }
+
+    int size() {
+        return known.size();
+    }
+
+    /** Makes sure every name has a row; names are expected to be trimmed already. */
+    void register(Collection<String> names) {
+        for (String n : names) {
+            if (n != null && !ids.containsKey(n)) {
+                insertMissing(names);
+                return;
+            }
+        }
+    }
+
+    private synchronized void insertMissing(Collection<String> names) {
+        Set<String> missing = new LinkedHashSet<>();
+        for (String n : names) {
+            if (n != null && !ids.containsKey(n)) missing.add(n);
+        }
+        if (missing.isEmpty()) return;
+        List<Long> newIds = jdbc.queryForList(
+                "select nextval(pg_get_serial_sequence(?, 'id')) from generate_series(1, ?)",
+                Long.class, table, missing.size());
+        List<Object[]> rows = new ArrayList<>(missing.size());
+        int i = 0;
+        for (String n : missing) rows.add(new Object[]{newIds.get(i++), n});
+        jdbc.batchUpdate("insert into " + table + " (id, " + column + ") values (?, ?)", rows);
+        i = 0;
+        for (String n : missing) {
+            long id = newIds.get(i++);
+            known.add(id);
+            ids.put(n, id);
+        }
+    }
+}
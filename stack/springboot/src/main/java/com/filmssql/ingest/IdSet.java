@@ -0,0 +1,38 @@
+package com.filmssql.ingest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+
+/** Immutable set of ids as a sorted primitive array: 8 bytes per id, binary-search lookups. */
+final class IdSet {
+
+    static final IdSet EMPTY = new IdSet(new long[0]);
+
+    private final long[] ids;
+
+    private IdSet(long[] ids) {
+        this.ids = ids;
+    }
+
+    /** Ids returned by a single-column query. */
+    static IdSet load(JdbcTemplate jdbc, String sql) {
+        long[][] buf = {new long[1 << 16]};
+        int[] size = {0};
+        jdbc.query(sql, rs -> {
+            if (size[0] == buf[0].length) buf[0] = Arrays.copyOf(buf[0], size[0] * 2);
+            buf[0][size[0]++] = rs.getLong(1);
+        });
+        long[] ids = Arrays.copyOf(buf[0], size[0]);
+        Arrays.sort(ids);
+        return new IdSet(ids);
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    int size() {
+        return ids.length;
+    }
+}
@@ -0,0 +1,124 @@
+package com.filmssql.ingest;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Progress of each stage in {@code ingest_checkpoint}: the number of source records already
+ * committed, and whether the stage finished. It is written in the same transaction as the rows,
+ * so after a crash a stage resumes exactly after its last commit.
+ */
+final class IngestCheckpoints {
+
+    record State(long records, boolean finished) {}
+
+    private final JdbcTemplate jdbc;
+
+    IngestCheckpoints(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    void createTable() {
+        jdbc.execute("""
+                create table if not exists ingest_checkpoint (
+                    stage       varchar(64) primary key,
+                    records     bigint      not null,
+                    finished    boolean     not null,
+                    updated_at  timestamptz not null default now()
+                )""");
+    }
+
+    State state(String stage) {
+        List<State> rows = jdbc.query("select records, finished from ingest_checkpoint where stage = ?",
+                (rs, i) -> new State(rs.getLong(1), rs.getBoolean(2)), stage);
+        return rows.isEmpty() ? new State(0, false) : rows.get(0);
+    }
+
+    /**
+     * Starts the stages over: empties their tables and forgets their checkpoints in one transaction,
+     * so stages that append (plain {@code COPY}) do not load their rows a second time. Empty tables
+     * referencing them are truncated along; a referencing table that still has rows makes it fail
+     * without changing anything.
+     */
+    void restart(List<IngestStage> stages) {
+        if (stages.isEmpty()) return;
+        Set<String> tables = new LinkedHashSet<>();
+        for (IngestStage stage : stages) tables.add(stage.table());
+        jdbc.execute((ConnectionCallback<Void>) con -> {
+            con.setAutoCommit(false);
+            try (Statement st = con.createStatement();
+                 PreparedStatement ps = con.prepareStatement("delete from ingest_checkpoint where stage = ?")) {
+                st.execute("truncate table " + String.join(", ", withEmptyReferrers(con, tables)));
+                for (IngestStage stage : stages) {
+                    ps.setString(1, stage.name());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                con.commit();
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
+            return null;
+        });
+    }
+
+    private static Set<String> withEmptyReferrers(Connection con, Set<String> tables) throws SQLException {
+        Set<String> all = new LinkedHashSet<>(tables);
+        Deque<String> pending = new ArrayDeque<>(tables);
+        try (PreparedStatement ps = con.prepareStatement("""
+                select distinct conrelid::regclass::text from pg_constraint
+                where contype = 'f' and confrelid = ?::regclass""")) {
+            while (!pending.isEmpty()) {
+                String table = pending.pop();
+                ps.setString(1, table);
+                List<String> referrers = new ArrayList<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) referrers.add(rs.getString(1));
+                }
+                for (String referrer : referrers) {
+                    if (!all.add(referrer)) continue;
+                    if (hasRows(con, referrer)) {
+                        throw new IllegalStateException(("Cannot restart into %s: %s references it and is not empty; "
+                                + "provide the file of its stage too, or empty it first").formatted(table, referrer));
+                    }
+                    pending.push(referrer);
+                }
+            }
+        }
+        return all;
+    }
+
+    private static boolean hasRows(Connection con, String table) throws SQLException {
+        try (Statement st = con.createStatement();
+             ResultSet rs = st.executeQuery("select exists (select 1 from " + table + ")")) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    static void save(Connection con, String stage, long records, boolean finished) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement("""
+                insert into ingest_checkpoint (stage, records, finished) values (?, ?, ?)
+                on conflict (stage) do update
+                set records = excluded.records, finished = excluded.finished, updated_at = now()""")) {
+            ps.setString(1, stage);
+            ps.setLong(2, records);
+            ps.setBoolean(3, finished);
+            ps.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.filmssql.ingest;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * One source file copied into one table.
+ *
+ * @param name        checkpoint key
+ * @param file        CSV file name, relative to {@code app.ingest.dir}
+ * @param table       target table
+ * @param columns     target columns, in the order the mapper emits values
+ * @param onConflict  rows go through a temporary table and {@code insert ... on conflict do nothing},
+ *                    for targets with a unique key the source may repeat
+ * @param binder      resolves the header into a chunk mapper
+ */
+record IngestStage(String name, String file, String table, List<String> columns, boolean onConflict,
+                   Binder binder) {
+
+    interface Binder {
+        ChunkMapper bind(CsvReader header) throws IOException;
+    }
+
+    /** Turns a chunk of records into COPY rows; runs on the parse workers and must be thread-safe. */
+    interface ChunkMapper {
+        void map(List<String[]> records, CopyRows out);
+    }
+
+    String copySql(String target) {
+        return "COPY " + target + " (" + String.join(", ", columns) + ") FROM STDIN";
+    }
+}
@@ -0,0 +1,202 @@
+package com.filmssql.ingest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Streams one {@link IngestStage} into its table.
+ * <p>
+ * A reader thread cuts the file into chunks of records and hands each to the shared parse workers;
+ * the calling thread takes the finished chunks back in file order and writes them to a single
+ * {@code COPY}. At most {@code queueCapacity} chunks are in flight, which bounds the memory of a
+ * stage whatever the file size. Every {@code commitRecords} source records the copy is committed
+ * together with the checkpoint, and a restarted stage skips the records already committed.
+ */
+@Slf4j
+final class StageLoader {
+
+    record Result(String stage, long records, long rows, long skipped, long nanos) {}
+
+    private static final CopyRows END = new CopyRows(0, 0);
+
+    private final DataSource dataSource;
+    private final IngestCheckpoints checkpoints;
+    private final ExecutorService workers;
+    private final int chunkRecords;
+    private final int queueCapacity;
+    private final long commitRecords;
+    private final Duration progressInterval;
+
+    StageLoader(DataSource dataSource, IngestCheckpoints checkpoints, ExecutorService workers,
+                int chunkRecords, int queueCapacity, long commitRecords, Duration progressInterval) {
+        this.dataSource = dataSource;
+        this.checkpoints = checkpoints;
+        this.workers = workers;
+        this.chunkRecords = chunkRecords;
+        this.queueCapacity = queueCapacity;
+        this.commitRecords = commitRecords;
+        this.progressInterval = progressInterval;
+    }
+
+    /** Loads the stage, or returns null when its checkpoint says it already finished. */
+    Result load(IngestStage stage, Path file) throws Exception {
+        IngestCheckpoints.State state = checkpoints.state(stage.name());
+        if (state.finished()) {
+            log.info("{}: already loaded ({} records), skipping", stage.name(), state.records());
+            return null;
+        }
+        long fileSize = Math.max(1, Files.size(file));
+        long started = System.nanoTime();
+
+        try (CsvReader csv = new CsvReader(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+             Connection con = dataSource.getConnection()) {
+            IngestStage.ChunkMapper mapper = stage.binder().bind(csv);
+            long records = 0;
+            while (records < state.records() && csv.next() != null) records++;
+            if (records > 0) log.info("{}: resuming after {} records", stage.name(), records);
+
+            con.setAutoCommit(false);
+            String target = stage.onConflict() ? createStaging(con, stage) : stage.table();
+            CopyManager copyManager = con.unwrap(PGConnection.class).getCopyAPI();
+
+            BlockingQueue<Future<CopyRows>> pending = new ArrayBlockingQueue<>(queueCapacity);
+            Thread reader = new Thread(() -> read(csv, mapper, pending), "ingest-read-" + stage.name());
+            reader.setDaemon(true);
+            reader.start();
+
+            CopyIn copy = null;
+            long rows = 0, skipped = 0, sinceCommit = 0;
+            long lastReport = System.nanoTime();
+            try {
+                while (true) {
+                    CopyRows chunk = take(pending);
+                    if (chunk == END) break;
+                    if (chunk.rows() > 0) {
+                        if (copy == null) copy = copyManager.copyIn(stage.copySql(target));
+                        byte[] bytes = chunk.text().getBytes(StandardCharsets.UTF_8);
+                        copy.writeToCopy(bytes, 0, bytes.length);
+                    }
+                    records += chunk.records();
+                    rows += chunk.rows();
+                    skipped += chunk.skipped();
+                    sinceCommit += chunk.records();
+                    if (sinceCommit >= commitRecords) {
+                        commit(con, stage, copy, target, records, false);
+                        copy = null;
+                        sinceCommit = 0;
+                    }
+                    long now = System.nanoTime();
+                    if (now - lastReport >= progressInterval.toNanos()) {
+                        lastReport = now;
+                        log.info("{}: {} records ({}%), {} rows written, {} rows/s",
+                                stage.name(), records, Math.min(99, 100 * chunk.position() / fileSize),
+                                rows, perSecond(rows, now - started));
+                    }
+                }
+                commit(con, stage, copy, target, records, true);
+            } catch (Exception e) {
+                reader.interrupt();
+                for (Future<CopyRows> f : pending) f.cancel(true);
+                if (copy != null && copy.isActive()) copy.cancelCopy();
+                con.rollback();
+                throw e;
+            }
+            reader.join();
+            if (stage.onConflict()) dropStaging(con, target);
+
+            long nanos = System.nanoTime() - started;
+            log.info("{}: done, {} rows into {} ({} records skipped) in {}s, {} rows/s",
+                    stage.name(), rows, stage.table(), skipped, nanos / 1_000_000_000, perSecond(rows, nanos));
+            return new Result(stage.name(), records, rows, skipped, nanos);
+        }
+    }
+
+    private void read(CsvReader csv, IngestStage.ChunkMapper mapper, BlockingQueue<Future<CopyRows>> pending) {
+        try {
+            try {
+                while (true) {
+                    List<String[]> chunk = new ArrayList<>(chunkRecords);
+                    String[] record;
+                    while (chunk.size() < chunkRecords && (record = csv.next()) != null) chunk.add(record);
+                    if (chunk.isEmpty()) break;
+                    long position = csv.charsRead();
+                    pending.put(workers.submit(() -> {
+                        CopyRows out = new CopyRows(chunk.size(), position);
+                        mapper.map(chunk, out);
+                        return out;
+                    }));
+                    if (chunk.size() < chunkRecords) break;
+                }
+                pending.put(CompletableFuture.completedFuture(END));
+            } catch (IOException | RuntimeException e) {
+                pending.put(CompletableFuture.failedFuture(e));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static CopyRows take(BlockingQueue<Future<CopyRows>> pending) throws Exception {
+        try {
+            return pending.take().get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    private static void commit(Connection con, IngestStage stage, CopyIn copy, String target,
+                               long records, boolean finished) throws SQLException {
+        if (copy != null) copy.endCopy();
+        if (stage.onConflict()) {
+            String columns = String.join(", ", stage.columns());
+            try (Statement st = con.createStatement()) {
+                st.executeUpdate("insert into " + stage.table() + " (" + columns + ") select " + columns
+                        + " from " + target + " on conflict do nothing");
+            }
+        }
+        IngestCheckpoints.save(con, stage.name(), records, finished);
+        con.commit();
+    }
+
+    // session-local, emptied by every commit; outlives the stage only if the connection is reused
+    private static String createStaging(Connection con, IngestStage stage) throws SQLException {
+        String staging = "ingest_" + stage.table();
+        try (Statement st = con.createStatement()) {
+            st.execute("create temp table if not exists " + staging + " on commit delete rows as select "
+                    + String.join(", ", stage.columns()) + " from " + stage.table() + " with no data");
+        }
+        con.commit();
+        return staging;
+    }
+
+    private static void dropStaging(Connection con, String staging) throws SQLException {
+        try (Statement st = con.createStatement()) {
+            st.execute("drop table if exists " + staging);
+        }
+        con.commit();
+    }
+
+    private static long perSecond(long rows, long nanos) {
+        return nanos <= 0 ? 0 : rows * 1_000_000_000L / nanos;
+    }
+}
@@ -0,0 +1,72 @@
+package com.filmssql.ingest;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/** Lenient conversions of CSV fields as written by pandas ("", "nan", "2015.0", "True"). */
+final class Values {
+
+    static final int VARCHAR = 255;
+
+    private Values() {}
+
+    static String text(String s) {
+        if (s == null) return null;
+        String t = s.trim();
+        return t.isEmpty() || t.equalsIgnoreCase("nan") ? null : t;
+    }
+
+    /** Trimmed text cut to the length of a VARCHAR(255) column. */
+    static String varchar(String s) {
+        String t = text(s);
+        return t != null && t.length() > VARCHAR ? t.substring(0, VARCHAR) : t;
+    }
+
+    static Long longValue(String s) {
+        String t = text(s);
+        if (t == null) return null;
+        try {
+            return Long.parseLong(t);
+        } catch (NumberFormatException e) {
+            Double d = doubleValue(t);
+            return d != null && d == Math.rint(d) ? d.longValue() : null;
+        }
+    }
+
+    static Integer intValue(String s) {
+        Long v = longValue(s);
+        return v != null && v >= Integer.MIN_VALUE && v <= Integer.MAX_VALUE ? v.intValue() : null;
+    }
+
+    static Double doubleValue(String s) {
+        String t = text(s);
+        if (t == null) return null;
+        try {
+            double d = Double.parseDouble(t);
+            return Double.isFinite(d) ? d : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static Boolean bool(String s) {
+        String t = text(s);
+        if (t == null) return null;
+        return switch (t.toLowerCase()) {
+            case "true", "t", "1", "1.0", "yes" -> true;
+            case "false", "f", "0", "0.0", "no" -> false;
+            default -> null;
+        };
+    }
+
+    /** ISO date, ignoring a trailing time ("2012-09-24 00:00:00"). */
+    static LocalDate date(String s) {
+        String t = text(s);
+        if (t == null || t.length() < 10) return null;
+        try {
+            return LocalDate.parse(t.substring(0, 10));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.filmssql.util;
+
+import com.filmssql.web.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset-pagination cursors: the sort key values of the last row, joined and base64url-encoded.
+ */
+public final class Cursors {
+    private Cursors() {}
+
+    public static String encode(Object... values) {
+        StringBuilder sb = new StringBuilder();
+        for (Object v : values) {
+            if (!sb.isEmpty()) sb.append(':');
+            sb.append(v);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Decodes a cursor made of exactly {@code parts} values; malformed input is a {@link BadRequestException}. */
+    public static String[] decode(String cursor, int parts) {
+        try {
+            String[] values = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", -1);
+            if (values.length == parts) return values;
+        } catch (IllegalArgumentException ignored) {
+            // fall through
+        }
+        throw new BadRequestException("Invalid cursor");
+    }
+
+    public static long parseLong(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public static double parseDouble(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
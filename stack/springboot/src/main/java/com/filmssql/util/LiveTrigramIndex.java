@@ -0,0 +1,107 @@
+package com.filmssql.util;
+
+import com.filmssql.util.TrigramIndex.Entry;
+import com.filmssql.util.TrigramIndex.Hit;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link TrigramIndex} that accepts incremental changes.
+ * <p>
+ * Changes go to a small delta index, and the superseded base documents are masked out.
+ * When the delta grows past {@code mergeThreshold} it is folded into a new base, in memory.
+ * Readers always see a consistent immutable state; writers are serialized.
+ */
+public final class LiveTrigramIndex {
+
+    private record State(TrigramIndex base, BitSet baseRemoved, Map<Long, Entry> delta, TrigramIndex deltaIndex) {}
+
+    private final int mergeThreshold;
+    private final double minSimilarity;
+    private volatile State state;
+
+    public LiveTrigramIndex(int mergeThreshold, double minSimilarity) {
+        this.mergeThreshold = mergeThreshold;
+        this.minSimilarity = minSimilarity;
+    }
+
+    public boolean isReady() {
+        return state != null;
+    }
+
+    public int size() {
+        State s = state;
+        return s == null ? 0 : s.base().size() - s.baseRemoved().cardinality() + s.delta().size();
+    }
+
+    /** Highest id seen so far, used to pick up rows inserted after the last refresh. */
+    public long maxId() {
+        State s = state;
+        if (s == null) return 0;
+        return Math.max(s.base().maxId(), s.deltaIndex().maxId());
+    }
+
+    public synchronized void replaceAll(List<Entry> entries) {
+        state = new State(TrigramIndex.build(entries), new BitSet(), Map.of(), TrigramIndex.build(List.of()));
+    }
+
+    public synchronized void upsert(Collection<Entry> entries) {
+        if (entries.isEmpty()) return;
+        State s = requireState();
+        BitSet removed = (BitSet) s.baseRemoved().clone();
+        Map<Long, Entry> delta = new LinkedHashMap<>(s.delta());
+        for (Entry e : entries) {
+            int ordinal = s.base().ordinalOf(e.id());
+            if (ordinal >= 0) removed.set(ordinal);
+            delta.put(e.id(), e);
+        }
+        publish(s.base(), removed, delta);
+    }
+
+    public synchronized void remove(long id) {
+        State s = requireState();
+        int ordinal = s.base().ordinalOf(id);
+        if (ordinal < 0 && !s.delta().containsKey(id)) return;
+        BitSet removed = (BitSet) s.baseRemoved().clone();
+        if (ordinal >= 0) removed.set(ordinal);
+        Map<Long, Entry> delta = new LinkedHashMap<>(s.delta());
+        delta.remove(id);
+        publish(s.base(), removed, delta);
+    }
+
+    public List<Hit> search(String query, int limit) {
+        State s = state;
+        if (s == null) return List.of();
+        long[] grams = TrigramIndex.trigrams(query);
+        List<Hit> hits = new ArrayList<>(s.base().search(grams, limit, minSimilarity, s.baseRemoved()));
+        if (!s.delta().isEmpty()) {
+            hits.addAll(s.deltaIndex().search(grams, limit, minSimilarity, null));
+            hits.sort(TrigramIndex.BY_RELEVANCE);
+        }
+        return hits.size() > limit ? hits.subList(0, limit) : hits;
+    }
+
+    private void publish(TrigramIndex base, BitSet removed, Map<Long, Entry> delta) {
+        if (delta.size() <= mergeThreshold) {
+            state = new State(base, removed, delta, TrigramIndex.build(new ArrayList<>(delta.values())));
+            return;
+        }
+        List<Entry> merged = new ArrayList<>(base.size() - removed.cardinality() + delta.size());
+        for (int d = 0; d < base.size(); d++) {
+            if (!removed.get(d)) merged.add(base.entry(d));
+        }
+        merged.addAll(delta.values());
+        replaceAll(merged);
+    }
+
+    private State requireState() {
+        State s = state;
+        if (s == null) throw new IllegalStateException("Index has not been built yet");
+        return s;
+    }
+}
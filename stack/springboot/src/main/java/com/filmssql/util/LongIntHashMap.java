@@ -0,0 +1,103 @@
+package com.filmssql.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing {@code long -> int} map with linear probing, without boxing: two parallel arrays
+ * at a load factor of at most 1/2. {@code Long.MIN_VALUE} is reserved as the empty marker: it is
+ * never contained and cannot be put.
+ * Not thread-safe; publish a {@link #copy()} to share it with readers.
+ */
+public final class LongIntHashMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    public LongIntHashMap() {
+        this(16);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    private LongIntHashMap(long[] keys, int[] values, int size) {
+        this.keys = keys;
+        this.values = values;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean containsKey(long key) {
+        return key != EMPTY && keys[slot(key)] == key;
+    }
+
+    public int get(long key, int missing) {
+        if (key == EMPTY) return missing;
+        int s = slot(key);
+        return keys[s] == key ? values[s] : missing;
+    }
+
+    public void put(long key, int value) {
+        if (key == EMPTY) throw new IllegalArgumentException("Long.MIN_VALUE cannot be used as a key");
+        int s = slot(key);
+        if (keys[s] != key) {
+            keys[s] = key;
+            if (++size * 2 > keys.length) {
+                values[s] = value;
+                grow();
+                return;
+            }
+        }
+        values[s] = value;
+    }
+
+    public LongIntHashMap copy() {
+        return new LongIntHashMap(keys.clone(), values.clone(), size);
+    }
+
+    public interface Visitor {
+        void accept(long key, int value);
+    }
+
+    public void forEach(Visitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) visitor.accept(keys[i], values[i]);
+        }
+    }
+
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        int s = mix(key) & mask;
+        while (keys[s] != EMPTY && keys[s] != key) s = (s + 1) & mask;
+        return s;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        Arrays.fill(keys, EMPTY);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int s = slot(oldKeys[i]);
+            keys[s] = oldKeys[i];
+            values[s] = oldValues[i];
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
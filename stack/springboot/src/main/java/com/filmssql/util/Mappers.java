@@ -1,17 +1,26 @@
 package com.filmssql.util;
 
 import com.filmssql.domain.entity.*;
+import com.filmssql.domain.repository.MovieLink;
 import com.filmssql.web.dto.*;
 
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
-import java.util.Objects;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 public final class Mappers {
     private Mappers() {}
 
     public static MovieDTO toDTO(Movie m) {
+        return toDTO(m, MovieInclude.ALL);
+    }
+
+    // collections not in include are left null and never touched, so they are not lazy-loaded
+    public static MovieDTO toDTO(Movie m, Set<MovieInclude> include) {
         return new MovieDTO(
                 m.getId(),
                 m.getName(),
@@ -22,15 +31,43 @@ public final class Mappers {
                 m.getRating(),
 
                 toPosterDTO(m.getPoster()),
-                toThemeDTOs(m.getThemes()),
-                toCastDTOs(m.getCast()),
-                toCrewDTOs(m.getCrew()),
-                toReleaseDTOs(m.getReleases()),
-
-                toGenreDTOs(m.getGenres()),
-                toStudioDTOs(m.getStudios()),
-                toCountryDTOs(m.getCountries()),
-                toLanguageDTOs(m.getLanguages())
+                include.contains(MovieInclude.THEMES) ? toThemeDTOs(m.getThemes()) : null,
+                include.contains(MovieInclude.CAST) ? toCastDTOs(m.getCast()) : null,
+                include.contains(MovieInclude.CREW) ? toCrewDTOs(m.getCrew()) : null,
+                include.contains(MovieInclude.RELEASES) ? toReleaseDTOs(m.getReleases()) : null,
+
+                include.contains(MovieInclude.GENRES) ? toGenreDTOs(m.getGenres()) : null,
+                include.contains(MovieInclude.STUDIOS) ? toStudioDTOs(m.getStudios()) : null,
+                include.contains(MovieInclude.COUNTRIES) ? toCountryDTOs(m.getCountries()) : null,
+                include.contains(MovieInclude.LANGUAGES) ? toLanguageDTOs(m.getLanguages()) : null
+        );
+    }
+
+    /** Copy of a full DTO restricted to {@code include}. */
+    public static MovieDTO project(MovieDTO d, Set<MovieInclude> include) {
+        return new MovieDTO(
+                d.id(), d.name(), d.date(), d.tagline(), d.description(), d.minute(), d.rating(),
+                d.poster(),
+                include.contains(MovieInclude.THEMES) ? d.themes() : null,
+                include.contains(MovieInclude.CAST) ? d.cast() : null,
+                include.contains(MovieInclude.CREW) ? d.crew() : null,
+                include.contains(MovieInclude.RELEASES) ? d.releases() : null,
+                include.contains(MovieInclude.GENRES) ? d.genres() : null,
+                include.contains(MovieInclude.STUDIOS) ? d.studios() : null,
+                include.contains(MovieInclude.COUNTRIES) ? d.countries() : null,
+                include.contains(MovieInclude.LANGUAGES) ? d.languages() : null
+        );
+    }
+
+    /** Copy of {@code d} whose {@code link} collection is replaced by {@code targets} (id to label). */
+    public static MovieDTO withLinks(MovieDTO d, MovieLink link, Map<Long, String> targets) {
+        return new MovieDTO(
+                d.id(), d.name(), d.date(), d.tagline(), d.description(), d.minute(), d.rating(),
+                d.poster(), d.themes(), d.cast(), d.crew(), d.releases(),
+                link == MovieLink.GENRES ? mapLabels(targets, GenreDTO::new) : d.genres(),
+                link == MovieLink.STUDIOS ? mapLabels(targets, StudioDTO::new) : d.studios(),
+                link == MovieLink.COUNTRIES ? mapLabels(targets, CountryDTO::new) : d.countries(),
+                link == MovieLink.LANGUAGES ? mapLabels(targets, LanguageDTO::new) : d.languages()
         );
     }
 
@@ -48,6 +85,12 @@ public final class Mappers {
                 reviewMovie.getReview_content());
     }
 
+    public static List<ReviewMovieDTO> toReviewMovieDTOs(List<ReviewMovie> reviews) {
+        List<ReviewMovieDTO> dtos = new ArrayList<>(reviews.size());
+        for (ReviewMovie r : reviews) dtos.add(toReviewMovieDTO(r));
+        return dtos;
+    }
+
     public static OscarAwardDTO toOscarAwardDTO(OscarAward award) {
         if (award == null) return null;
         return new OscarAwardDTO(
@@ -63,85 +106,90 @@ public final class Mappers {
         );
     }
 
-    private static PosterDTO toPosterDTO(Poster p) {
+    public static List<OscarAwardDTO> toOscarAwardDTOs(List<OscarAward> awards) {
+        List<OscarAwardDTO> dtos = new ArrayList<>(awards.size());
+        for (OscarAward a : awards) dtos.add(toOscarAwardDTO(a));
+        return dtos;
+    }
+
+    public static PosterDTO toPosterDTO(Poster p) {
         if (p == null) return null;
         return new PosterDTO(p.getId(), p.getLink());
     }
 
-    private static Set<ThemeDTO> toThemeDTOs(Set<Theme> themes) {
-        return safeSet(themes).stream()
-                .map(t -> new ThemeDTO(t.getId(), t.getTheme()))
-                .collect(Collectors.toCollection(LinkedHashSet::new));
+    public static Set<ThemeDTO> toThemeDTOs(Set<Theme> themes) {
+        return mapSet(themes, t -> new ThemeDTO(t.getId(), t.getTheme()));
     }
 
-    private static Set<CastDTO> toCastDTOs(Set<ActorMovie> cast) {
-        return cast == null ? new LinkedHashSet<>() :
-                cast.stream()
-                        .map(am -> {
-                            var actor = am.getActor();
-                            var info  = actor != null ? actor.getInfo() : null;
-                            return CastDTO.builder()
-                                    .id(am.getId())
-                                    .actorId(actor != null ? actor.getId() : null)
-                                    .actorName(actor != null ? actor.getName() : null)
-                                    .role(am.getRole())
-                                    .imagePath(info != null ? info.getImagePath() : null)
-                                    .build();
-                        })
-                        .collect(java.util.stream.Collectors.toCollection(LinkedHashSet::new));
+    public static Set<CastDTO> toCastDTOs(Set<ActorMovie> cast) {
+        return mapSet(cast, am -> {
+            var actor = am.getActor();
+            var info  = actor != null ? actor.getInfo() : null;
+            return CastDTO.builder()
+                    .id(am.getId())
+                    .actorId(actor != null ? actor.getId() : null)
+                    .actorName(actor != null ? actor.getName() : null)
+                    .role(am.getRole())
+                    .imagePath(info != null ? info.getImagePath() : null)
+                    .build();
+        });
     }
 
+    public static Set<CrewCreditDTO> toCrewDTOs(Set<MovieRolePerson> crew) {
+        return mapSet(crew, c -> {
+            var person = c.getPerson();
+            var role = c.getRole();
+            return new CrewCreditDTO(
+                    person != null ? person.getId() : null,
+                    person != null ? person.getName() : null,
+                    role != null ? role.getId() : null,
+                    role != null ? role.getRole() : null
+            );
+        });
+    }
 
-    private static Set<CrewCreditDTO> toCrewDTOs(Set<MovieRolePerson> crew) {
-        return safeSet(crew).stream()
-                .map(c -> new CrewCreditDTO(
-                        c.getPerson() != null ? c.getPerson().getId() : null,
-                        c.getPerson() != null ? c.getPerson().getName() : null,
-                        c.getRole() != null ? c.getRole().getId() : null,
-                        c.getRole() != null ? c.getRole().getRole() : null
-                ))
-                .collect(Collectors.toCollection(LinkedHashSet::new));
+    public static Set<ReleaseDTO> toReleaseDTOs(Set<ReleaseMovie> releases) {
+        return mapSet(releases, r -> {
+            var country = r.getCountry();
+            return new ReleaseDTO(
+                    r.getId(),
+                    country != null ? new CountryDTO(country.getId(), country.getCountry()) : null,
+                    r.getReleaseDate(),
+                    r.getReleaseType(),
+                    r.getRating()
+            );
+        });
     }
 
-    private static Set<ReleaseDTO> toReleaseDTOs(Set<ReleaseMovie> releases) {
-        return safeSet(releases).stream()
-                .map(r -> new ReleaseDTO(
-                        r.getId(),
-                        r.getCountry() != null ? new CountryDTO(r.getCountry().getId(), r.getCountry().getCountry()) : null,
-                        r.getReleaseDate(),
-                        r.getReleaseType(),
-                        r.getRating()
-                ))
-                .collect(Collectors.toCollection(LinkedHashSet::new));
+    public static Set<GenreDTO> toGenreDTOs(Set<Genre> genres) {
+        return mapSet(genres, g -> new GenreDTO(g.getId(), g.getGenre()));
     }
 
-    private static Set<GenreDTO> toGenreDTOs(Set<Genre> genres) {
-        return safeSet(genres).stream()
-                .map(g -> new GenreDTO(g.getId(), g.getGenre()))
-                .collect(Collectors.toCollection(LinkedHashSet::new));
+    public static Set<StudioDTO> toStudioDTOs(Set<Studio> studios) {
+        return mapSet(studios, s -> new StudioDTO(s.getId(), s.getName()));
     }
 
-    private static Set<StudioDTO> toStudioDTOs(Set<Studio> studios) {
-        return safeSet(studios).stream()
-                .map(s -> new StudioDTO(s.getId(), s.getName()))
-                .collect(Collectors.toCollection(LinkedHashSet::new));
+    public static Set<CountryDTO> toCountryDTOs(Set<Country> countries) {
+        return mapSet(countries, c -> new CountryDTO(c.getId(), c.getCountry()));
     }
 
-    private static Set<CountryDTO> toCountryDTOs(Set<Country> countries) {
-        return safeSet(countries).stream()
-                .map(c -> new CountryDTO(c.getId(), c.getCountry()))
-                .collect(Collectors.toCollection(LinkedHashSet::new));
+    public static Set<LanguageDTO> toLanguageDTOs(Set<Language> languages) {
+        return mapSet(languages, l -> new LanguageDTO(l.getId(), l.getLanguage()));
     }
 
-    private static Set<LanguageDTO> toLanguageDTOs(Set<Language> languages) {
-        return safeSet(languages).stream()
-                .map(l -> new LanguageDTO(l.getId(), l.getLanguage()))
-                .collect(Collectors.toCollection(LinkedHashSet::new));
+    private static <R> Set<R> mapLabels(Map<Long, String> labels, BiFunction<Long, String, R> mapper) {
+        Set<R> out = new LinkedHashSet<>((int) (labels.size() / 0.75f) + 1);
+        labels.forEach((id, label) -> out.add(mapper.apply(id, label)));
+        return out;
     }
 
-    private static <T> Set<T> safeSet(Set<T> input) {
-        return input == null ? new LinkedHashSet<>() : input.stream()
-                .filter(Objects::nonNull)
-                .collect(Collectors.toCollection(LinkedHashSet::new));
+    // single pass into a set sized up front: no intermediate copy, no stream pipeline, no rehashing
+    private static <T, R> Set<R> mapSet(Set<T> input, Function<T, R> mapper) {
+        if (input == null || input.isEmpty()) return new LinkedHashSet<>();
+        Set<R> out = new LinkedHashSet<>((int) (input.size() / 0.75f) + 1);
+        for (T t : input) {
+            if (t != null) out.add(mapper.apply(t));
+        }
+        return out;
     }
 }
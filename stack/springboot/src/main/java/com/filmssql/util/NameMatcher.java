@@ -0,0 +1,275 @@
+package com.filmssql.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable index resolving a free-form person name to one id of a reference list, with the rules
+ * of {@code pythonexamples/actorinfo.py}: an exact normalized name, else the same set of tokens,
+ * else the best Jaccard similarity over tokens of at least {@code threshold}. Each step stops at
+ * the first candidates it finds; several candidates make the result ambiguous.
+ * <p>
+ * Reference names are indexed as written and, for "Last, First", also as "First Last".
+ * Jaccard candidates come from prefix blocking: tokens are ordered rarest first, and two token
+ * sets with similarity {@code >= t} must share a token within the first {@code |x| - ceil(t|x|) + 1}
+ * of each. Only those prefix tokens are posted, so a lookup reads a few short posting lists
+ * instead of every name; a size filter drops the rest before similarity is computed.
+ */
+public final class NameMatcher {
+
+    public enum Status { MATCHED, AMBIGUOUS, UNMATCHED }
+
+    public enum Method { EXACT, TOKEN_SET, JACCARD, NONE }
+
+    public record Entry(long id, String name) {}
+
+    /** {@code id} is set only when matched; {@code candidates} are sorted. */
+    public record Match(Status status, Long id, long[] candidates, Method method, double score) {
+
+        static final Match NONE = new Match(Status.UNMATCHED, null, new long[0], Method.NONE, 0);
+
+        static Match of(long[] candidates, Method method, double score) {
+            return candidates.length == 1
+                    ? new Match(Status.MATCHED, candidates[0], candidates, method, score)
+                    : new Match(Status.AMBIGUOUS, null, candidates, method, score);
+        }
+    }
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final String PUNCTUATION = ",.;:!?'\"()[]{}_/\\|-";
+    // below this many names a fork/join task resolves its range itself
+    private static final int SEQUENTIAL_BATCH = 256;
+
+    private final double threshold;
+    private final Map<String, long[]> byName;
+    private final Map<String, long[]> byTokens;
+
+    private final Map<String, Integer> tokenRanks;
+    private final int[][] keyRanks;
+    private final long[][] keyIds;
+    private final int[][] postings;
+
+    private NameMatcher(double threshold, List<Entry> entries) {
+        this.threshold = threshold;
+        Map<String, TreeSet<Long>> names = new HashMap<>();
+        Map<String, TreeSet<Long>> keys = new HashMap<>();
+        for (Entry e : entries) {
+            if (e.name() == null || e.name().isBlank()) continue;
+            index(e.id(), e.name(), names, keys);
+            String flipped = commaFlipped(e.name());
+            if (flipped != null) index(e.id(), flipped, names, keys);
+        }
+        byName = freeze(names);
+        byTokens = freeze(keys);
+
+        // token order: fewest keys first, so prefixes hold the most selective tokens
+        Map<String, Integer> frequency = new HashMap<>();
+        for (String key : byTokens.keySet()) {
+            for (String t : key.split(" ")) frequency.merge(t, 1, Integer::sum);
+        }
+        List<String> tokens = new ArrayList<>(frequency.keySet());
+        tokens.sort((a, b) -> {
+            int c = Integer.compare(frequency.get(a), frequency.get(b));
+            return c != 0 ? c : a.compareTo(b);
+        });
+        tokenRanks = new HashMap<>(tokens.size() * 2);
+        for (int i = 0; i < tokens.size(); i++) tokenRanks.put(tokens.get(i), i);
+
+        int n = byTokens.size();
+        keyRanks = new int[n][];
+        keyIds = new long[n][];
+        int[] postingSizes = new int[tokens.size()];
+        int k = 0;
+        for (Map.Entry<String, long[]> e : byTokens.entrySet()) {
+            String[] keyTokens = e.getKey().split(" ");
+            int[] ranks = new int[keyTokens.length];
+            for (int i = 0; i < ranks.length; i++) ranks[i] = tokenRanks.get(keyTokens[i]);
+            Arrays.sort(ranks);
+            keyRanks[k] = ranks;
+            keyIds[k] = e.getValue();
+            for (int i = 0; i < prefixLength(ranks.length); i++) postingSizes[ranks[i]]++;
+            k++;
+        }
+        postings = new int[tokens.size()][];
+        for (int t = 0; t < postings.length; t++) postings[t] = new int[postingSizes[t]];
+        int[] fill = new int[tokens.size()];
+        for (int key = 0; key < n; key++) {
+            int[] ranks = keyRanks[key];
+            for (int i = 0; i < prefixLength(ranks.length); i++) postings[ranks[i]][fill[ranks[i]]++] = key;
+        }
+    }
+
+    public static NameMatcher build(List<Entry> entries, double threshold) {
+        if (threshold <= 0 || threshold > 1) throw new IllegalArgumentException("threshold must be in (0, 1]");
+        return new NameMatcher(threshold, entries);
+    }
+
+    public int size() {
+        return byName.size();
+    }
+
+    public Match resolve(String name) {
+        String normalized = normalize(name);
+        if (normalized.isEmpty()) return Match.NONE;
+
+        long[] ids = byName.get(normalized);
+        if (ids != null) return Match.of(ids, Method.EXACT, 1);
+
+        String[] tokens = distinctSortedTokens(normalized);
+        ids = byTokens.get(String.join(" ", tokens));
+        if (ids != null) return Match.of(ids, Method.TOKEN_SET, 1);
+
+        return jaccard(tokens);
+    }
+
+    /** Resolves every name on the pool; {@code result[i]} belongs to {@code names.get(i)}. */
+    public Match[] resolveAll(List<String> names, ForkJoinPool pool) {
+        Match[] result = new Match[names.size()];
+        pool.invoke(new ResolveTask(names, result, 0, names.size()));
+        return result;
+    }
+
+    private Match jaccard(String[] tokens) {
+        int size = tokens.length;
+        int unknown = 0;
+        int[] ranks = new int[size];
+        int known = 0;
+        for (String t : tokens) {
+            Integer r = tokenRanks.get(t);
+            if (r == null) unknown++;
+            else ranks[known++] = r;
+        }
+        ranks = Arrays.copyOf(ranks, known);
+        Arrays.sort(ranks);
+
+        // tokens no reference name has come first in the order, so they take prefix slots but post nothing
+        int probe = Math.min(known, prefixLength(size) - unknown);
+        int minSize = (int) Math.ceil(threshold * size - 1e-9);
+        int maxSize = (int) Math.floor(size / threshold + 1e-9);
+
+        Map<Long, Double> scores = new HashMap<>();
+        double best = 0;
+        Set<Integer> seen = new HashSet<>();
+        for (int p = 0; p < probe; p++) {
+            for (int key : postings[ranks[p]]) {
+                int keySize = keyRanks[key].length;
+                if (keySize < minSize || keySize > maxSize) continue;
+                if (!seen.add(key)) continue;
+
+                int common = intersection(ranks, keyRanks[key]);
+                double score = (double) common / (size + keySize - common);
+                if (score < threshold - 1e-9) continue;
+                for (long id : keyIds[key]) scores.merge(id, score, Math::max);
+                best = Math.max(best, score);
+            }
+        }
+        if (scores.isEmpty()) return Match.NONE;
+        List<Long> top = new ArrayList<>();
+        for (Map.Entry<Long, Double> e : scores.entrySet()) {
+            if (e.getValue() == best) top.add(e.getKey());
+        }
+        long[] candidates = top.stream().mapToLong(Long::longValue).sorted().toArray();
+        return Match.of(candidates, Method.JACCARD, best);
+    }
+
+    private int prefixLength(int size) {
+        return size - (int) Math.ceil(threshold * size - 1e-9) + 1;
+    }
+
+    private static int intersection(int[] a, int[] b) {
+        int i = 0, j = 0, common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                common++;
+                i++;
+                j++;
+            }
+        }
+        return common;
+    }
+
+    private static void index(long id, String name, Map<String, TreeSet<Long>> names, Map<String, TreeSet<Long>> keys) {
+        String normalized = normalize(name);
+        if (normalized.isEmpty()) return;
+        names.computeIfAbsent(normalized, n -> new TreeSet<>()).add(id);
+        keys.computeIfAbsent(String.join(" ", distinctSortedTokens(normalized)), n -> new TreeSet<>()).add(id);
+    }
+
+    private static Map<String, long[]> freeze(Map<String, TreeSet<Long>> index) {
+        Map<String, long[]> frozen = new HashMap<>(index.size() * 2);
+        index.forEach((k, ids) -> frozen.put(k, ids.stream().mapToLong(Long::longValue).toArray()));
+        return frozen;
+    }
+
+    /** Accents stripped, lower case, punctuation as spaces, single spaces. */
+    public static String normalize(String name) {
+        if (name == null || name.isEmpty()) return "";
+        String s = MARKS.matcher(Normalizer.normalize(name, Normalizer.Form.NFKD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(s.length());
+        boolean space = true;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (Character.isWhitespace(c) || PUNCTUATION.indexOf(c) >= 0) {
+                if (!space) sb.append(' ');
+                space = true;
+            } else {
+                sb.append(c);
+                space = false;
+            }
+        }
+        int len = sb.length();
+        if (len > 0 && sb.charAt(len - 1) == ' ') sb.setLength(len - 1);
+        return sb.toString();
+    }
+
+    private static String[] distinctSortedTokens(String normalized) {
+        return new TreeSet<>(Arrays.asList(normalized.split(" "))).toArray(String[]::new);
+    }
+
+    /** "Last, First" as "First Last", or null. */
+    private static String commaFlipped(String name) {
+        int comma = name.indexOf(',');
+        if (comma < 0) return null;
+        String left = name.substring(0, comma).trim();
+        String right = name.substring(comma + 1).trim();
+        return left.isEmpty() || right.isEmpty() ? null : right + " " + left;
+    }
+
+    private final class ResolveTask extends RecursiveAction {
+        private final List<String> names;
+        private final Match[] result;
+        private final int from;
+        private final int to;
+
+        ResolveTask(List<String> names, Match[] result, int from, int to) {
+            this.names = names;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_BATCH) {
+                for (int i = from; i < to; i++) result[i] = resolve(names.get(i));
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ResolveTask(names, result, from, mid), new ResolveTask(names, result, mid, to));
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package com.filmssql.util;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Immutable "more like this" index over movie features, for top-k similar movies by weighted overlap.
+ * <p>
+ * Movies are dense ordinals. Genres are a 64-bit mask per movie and score as Jaccard similarity
+ * times the genre weight. Every other feature (theme, cast member, director, studio, genres past
+ * the 64th) is an int id; each movie holds its sorted feature ids in one CSR array, and a shared
+ * feature adds its type weight times {@code log(1 + n / df)}, so a rare theme or a director counts
+ * for more than a studio with thousands of films. Features of a single movie are dropped.
+ * <p>
+ * Candidates are read from the inverted lists of the features of the movie. Features with more
+ * than {@code maxPostings} movies post nothing (they are flagged in a bitset) and are checked by
+ * binary search on the candidates only; the best rated movies with the same genre mask are always
+ * candidates, so a movie with genres alone still gets neighbours. Ties go to the higher rating.
+ */
+public final class RelatedIndex {
+
+    public enum Feature { GENRE, THEME, CAST, DIRECTOR, STUDIO }
+
+    /** Receives the neighbours of one ordinal from {@link #computeAll}. */
+    public interface NeighborSink {
+        void accept(int ordinal, int[] neighbors);
+    }
+
+    // below this many movies a fork/join task computes its range itself
+    private static final int SEQUENTIAL_BATCH = 512;
+
+    private final long[] ids;
+    private final LongIntHashMap ordinals;
+    private final float[] ratings;
+    private final long[] genres;
+    private final float genreWeight;
+
+    private final int[] featureStart;
+    private final int[] features;
+    private final float[] featureWeights;
+    private final long[] frequent;
+    private final int[] postingStart;
+    private final int[] postings;
+
+    // ordinals grouped by genre mask, best rated first
+    private final LongIntHashMap maskGroups;
+    private final int[] groupStart;
+    private final int[] groupMembers;
+
+    private RelatedIndex(Builder b, Map<Feature, Double> weights, int maxPostings) {
+        int n = b.size;
+        ids = Arrays.copyOf(b.ids, n);
+        ordinals = b.ordinals;
+        ratings = Arrays.copyOf(b.ratings, n);
+        genres = Arrays.copyOf(b.genres, n);
+        genreWeight = weights.getOrDefault(Feature.GENRE, 0d).floatValue();
+
+        // (ordinal, feature) pairs sorted and deduplicated
+        long[] pairs = Arrays.copyOf(b.pairs, b.pairCount);
+        Arrays.sort(pairs);
+        int distinct = 0;
+        for (int i = 0; i < pairs.length; i++) {
+            if (i == 0 || pairs[i] != pairs[i - 1]) pairs[distinct++] = pairs[i];
+        }
+        int[] df = new int[b.featureCount];
+        for (int i = 0; i < distinct; i++) df[(int) pairs[i]]++;
+
+        featureWeights = new float[b.featureCount];
+        frequent = new long[(b.featureCount + 63) >>> 6];
+        int[] postingSizes = new int[b.featureCount];
+        for (int f = 0; f < b.featureCount; f++) {
+            if (df[f] < 2) continue;
+            Feature type = Feature.values()[b.featureTypes[f]];
+            featureWeights[f] = (float) (weights.getOrDefault(type, 0d) * Math.log(1 + (double) n / df[f]));
+            if (df[f] > maxPostings) frequent[f >>> 6] |= 1L << f;
+            else postingSizes[f] = df[f];
+        }
+
+        featureStart = new int[n + 1];
+        int kept = 0;
+        for (int i = 0; i < distinct; i++) {
+            if (df[(int) pairs[i]] >= 2) {
+                featureStart[(int) (pairs[i] >>> 32) + 1]++;
+                kept++;
+            }
+        }
+        for (int o = 0; o < n; o++) featureStart[o + 1] += featureStart[o];
+        features = new int[kept];
+        int at = 0;
+        for (int i = 0; i < distinct; i++) {
+            if (df[(int) pairs[i]] >= 2) features[at++] = (int) pairs[i];
+        }
+
+        postingStart = new int[b.featureCount + 1];
+        for (int f = 0; f < b.featureCount; f++) postingStart[f + 1] = postingStart[f] + postingSizes[f];
+        postings = new int[postingStart[b.featureCount]];
+        int[] fill = Arrays.copyOf(postingStart, b.featureCount);
+        for (int o = 0; o < n; o++) {
+            for (int i = featureStart[o]; i < featureStart[o + 1]; i++) {
+                int f = features[i];
+                if (postingSizes[f] > 0) postings[fill[f]++] = o;
+            }
+        }
+
+        Integer[] byMask = new Integer[n];
+        for (int o = 0; o < n; o++) byMask[o] = o;
+        Arrays.sort(byMask, (x, y) -> {
+            int c = Long.compare(genres[x], genres[y]);
+            if (c == 0) c = Float.compare(ratings[y], ratings[x]);
+            return c != 0 ? c : Long.compare(ids[x], ids[y]);
+        });
+        maskGroups = new LongIntHashMap();
+        int[] starts = new int[16];
+        int groups = 0;
+        groupMembers = new int[n];
+        for (int i = 0; i < n; i++) {
+            groupMembers[i] = byMask[i];
+            if (i == 0 || genres[byMask[i]] != genres[byMask[i - 1]]) {
+                if (groups + 1 >= starts.length) starts = Arrays.copyOf(starts, starts.length * 2);
+                maskGroups.put(genres[byMask[i]], groups);
+                starts[groups++] = i;
+            }
+        }
+        starts[groups] = n;
+        groupStart = Arrays.copyOf(starts, groups + 1);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /** Dense ordinal of the movie, or -1 when it is not indexed. */
+    public int ordinal(long movieId) {
+        return ordinals.get(movieId, -1);
+    }
+
+    public long id(int ordinal) {
+        return ids[ordinal];
+    }
+
+    /** Up to {@code k} ordinals most similar to {@code ordinal}, best first. */
+    public int[] neighbors(int ordinal, int k) {
+        return neighbors(ordinal, k, new Scratch());
+    }
+
+    private int[] neighbors(int ordinal, int k, Scratch s) {
+        int from = featureStart[ordinal], to = featureStart[ordinal + 1];
+        int group = genres[ordinal] != 0 ? maskGroups.get(genres[ordinal], -1) : -1;
+        long bound = group >= 0 ? Math.min(groupStart[group + 1] - groupStart[group], k + 1) : 0;
+        for (int i = from; i < to; i++) {
+            int f = features[i];
+            if (featureWeights[f] != 0) bound += postingStart[f + 1] - postingStart[f];
+        }
+        s.reset((int) Math.min(bound, ids.length), k);
+
+        for (int i = from; i < to; i++) {
+            int f = features[i];
+            float w = featureWeights[f];
+            if (w == 0) continue;
+            for (int p = postingStart[f]; p < postingStart[f + 1]; p++) {
+                int o = postings[p];
+                if (o != ordinal) s.add(o, w);
+            }
+        }
+        if (group >= 0) {
+            int end = Math.min(groupStart[group + 1], groupStart[group] + k + 1);
+            for (int i = groupStart[group]; i < end; i++) {
+                int o = groupMembers[i];
+                if (o != ordinal) s.add(o, 0);
+            }
+        }
+
+        long mask = genres[ordinal];
+        for (int t = 0; t < s.touched; t++) {
+            int slot = s.candidates[t];
+            int o = s.keys[slot] - 1;
+            float score = s.values[slot];
+            s.keys[slot] = 0;
+            s.values[slot] = 0;
+            for (int i = from; i < to; i++) {
+                int f = features[i];
+                if (isFrequent(f) && Arrays.binarySearch(features, featureStart[o], featureStart[o + 1], f) >= 0) {
+                    score += featureWeights[f];
+                }
+            }
+            long union = mask | genres[o];
+            if (union != 0) score += genreWeight * Long.bitCount(mask & genres[o]) / Long.bitCount(union);
+            s.offer(o, score, ratings, ids);
+        }
+        return Arrays.copyOf(s.best, s.bestSize);
+    }
+
+    /** Neighbours of every movie, computed on the pool and handed to {@code sink} as they are ready. */
+    public void computeAll(int k, ForkJoinPool pool, NeighborSink sink) {
+        pool.invoke(new ComputeTask(k, sink, 0, ids.length));
+    }
+
+    private boolean isFrequent(int f) {
+        return (frequent[f >>> 6] & (1L << f)) != 0;
+    }
+
+    /**
+     * Scores of one query by candidate (open addressing, sized by the most candidates the query can
+     * have, emptied slot by slot after it) and its top-k buffer. A single lookup allocates its own;
+     * {@link #computeAll} reuses one per batch, so nothing of size n outlives a call.
+     */
+    private static final class Scratch {
+        int[] keys = new int[0];      // ordinal + 1, 0 = free
+        float[] values = new float[0];
+        int[] candidates = new int[256];   // used slots
+        int touched;
+        int[] best = new int[0];
+        float[] bestScores = new float[0];
+        int bestSize;
+
+        void reset(int maxCandidates, int k) {
+            int capacity = Integer.highestOneBit(Math.max(8, maxCandidates) * 2 - 1) << 1;
+            if (keys.length < capacity) {
+                keys = new int[capacity];
+                values = new float[capacity];
+            }
+            if (best.length != k) {
+                best = new int[k];
+                bestScores = new float[k];
+            }
+            touched = 0;
+            bestSize = 0;
+        }
+
+        // a candidate found only through its genre mask gets a zero score here
+        void add(int o, float w) {
+            int mask = keys.length - 1;
+            int h = o * 0x9E3779B9;
+            int slot = (h ^ (h >>> 16)) & mask;
+            while (keys[slot] != 0 && keys[slot] != o + 1) slot = (slot + 1) & mask;
+            if (keys[slot] == 0) {
+                keys[slot] = o + 1;
+                if (touched == candidates.length) candidates = Arrays.copyOf(candidates, touched * 2);
+                candidates[touched++] = slot;
+            }
+            values[slot] += w;
+        }
+
+        // keeps best[0..bestSize) sorted by score desc, rating desc, id asc
+        void offer(int o, float score, float[] ratings, long[] ids) {
+            int k = best.length;
+            if (k == 0) return;
+            if (bestSize == k && !before(o, score, best[k - 1], bestScores[k - 1], ratings, ids)) return;
+            int at = bestSize < k ? bestSize++ : k - 1;
+            while (at > 0 && before(o, score, best[at - 1], bestScores[at - 1], ratings, ids)) {
+                best[at] = best[at - 1];
+                bestScores[at] = bestScores[at - 1];
+                at--;
+            }
+            best[at] = o;
+            bestScores[at] = score;
+        }
+
+        private static boolean before(int a, float scoreA, int b, float scoreB, float[] ratings, long[] ids) {
+            if (scoreA != scoreB) return scoreA > scoreB;
+            if (ratings[a] != ratings[b]) return ratings[a] > ratings[b];
+            return ids[a] < ids[b];
+        }
+    }
+
+    private final class ComputeTask extends RecursiveAction {
+        private final int k;
+        private final NeighborSink sink;
+        private final int from;
+        private final int to;
+
+        ComputeTask(int k, NeighborSink sink, int from, int to) {
+            this.k = k;
+            this.sink = sink;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_BATCH) {
+                Scratch scratch = new Scratch();
+                for (int o = from; o < to; o++) sink.accept(o, neighbors(o, k, scratch));
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ComputeTask(k, sink, from, mid), new ComputeTask(k, sink, mid, to));
+        }
+    }
+
+    /**
+     * Collects movies and their features; links to movies that were not added first are ignored.
+     * Not thread-safe.
+     */
+    public static final class Builder {
+
+        private final LongIntHashMap ordinals = new LongIntHashMap(1024);
+        private long[] ids = new long[1024];
+        private float[] ratings = new float[1024];
+        private long[] genres = new long[1024];
+        private int size;
+
+        private final LongIntHashMap genreBits = new LongIntHashMap();
+        private final LongIntHashMap featureKeys = new LongIntHashMap(1024);
+        private final Map<String, Integer> themeKeys = new HashMap<>();
+        private byte[] featureTypes = new byte[1024];
+        private int featureCount;
+
+        // ordinal in the high half, feature id in the low half
+        private long[] pairs = new long[4096];
+        private int pairCount;
+
+        public Builder movie(long id, double rating) {
+            if (ordinals.containsKey(id)) return this;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                ratings = Arrays.copyOf(ratings, size * 2);
+                genres = Arrays.copyOf(genres, size * 2);
+            }
+            ordinals.put(id, size);
+            ids[size] = id;
+            ratings[size] = (float) rating;
+            size++;
+            return this;
+        }
+
+        public Builder genre(long movieId, long genreId) {
+            int o = ordinals.get(movieId, -1);
+            if (o < 0) return this;
+            int bit = genreBits.get(genreId, -1);
+            if (bit < 0 && genreBits.size() < 64) {
+                bit = genreBits.size();
+                genreBits.put(genreId, bit);
+            }
+            if (bit >= 0) genres[o] |= 1L << bit;
+            else pair(o, feature(Feature.GENRE, genreId));
+            return this;
+        }
+
+        public Builder theme(long movieId, String theme) {
+            if (theme == null || theme.isBlank()) return this;
+            Integer key = themeKeys.get(theme);
+            if (key == null) {
+                key = themeKeys.size();
+                themeKeys.put(theme, key);
+            }
+            return link(Feature.THEME, movieId, key);
+        }
+
+        /** A cast member, director or studio (or any other id keyed feature) of the movie. */
+        public Builder link(Feature type, long movieId, long key) {
+            int o = ordinals.get(movieId, -1);
+            if (o >= 0) pair(o, feature(type, key));
+            return this;
+        }
+
+        public RelatedIndex build(Map<Feature, Double> weights, int maxPostings) {
+            return new RelatedIndex(this, new EnumMap<>(weights), maxPostings);
+        }
+
+        private int feature(Feature type, long key) {
+            long composite = ((long) type.ordinal() << 56) | key;
+            int f = featureKeys.get(composite, -1);
+            if (f >= 0) return f;
+            if (featureCount == featureTypes.length) featureTypes = Arrays.copyOf(featureTypes, featureCount * 2);
+            f = featureCount++;
+            featureTypes[f] = (byte) type.ordinal();
+            featureKeys.put(composite, f);
+            return f;
+        }
+
+        private void pair(int ordinal, int feature) {
+            if (pairCount == pairs.length) pairs = Arrays.copyOf(pairs, pairCount * 2);
+            pairs[pairCount++] = ((long) ordinal << 32) | feature;
+        }
+    }
+}
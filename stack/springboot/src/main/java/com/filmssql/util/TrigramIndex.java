@@ -0,0 +1,225 @@
+package com.filmssql.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable trigram inverted index over short names, with pg_trgm compatible trigrams and similarity.
+ * <p>
+ * Postings are stored in CSR form: {@code grams} is the sorted list of packed trigrams, the documents
+ * of {@code grams[g]} are {@code docs[offsets[g] .. offsets[g + 1])}, in ascending document order.
+ * Documents are sorted by id, so the ordinal of an id is found with a binary search.
+ */
+public final class TrigramIndex {
+
+    public record Entry(long id, String name, double rank, String image) {}
+
+    public record Hit(long id, String name, String image, double similarity, double rank) {}
+
+    public static final Comparator<Hit> BY_RELEVANCE = Comparator
+            .comparingDouble(Hit::similarity).reversed()
+            .thenComparing(Comparator.comparingDouble(Hit::rank).reversed())
+            .thenComparingLong(Hit::id);
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    // shared by every index, grown to the largest searched; searches run on the small search pool
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final long[] ids;
+    private final String[] names;
+    private final String[] images;
+    private final double[] ranks;
+    private final short[] gramCounts;
+
+    private final long[] grams;
+    private final int[] offsets;
+    private final int[] docs;
+
+    private TrigramIndex(List<Entry> sorted) {
+        int n = sorted.size();
+        ids = new long[n];
+        names = new String[n];
+        images = new String[n];
+        ranks = new double[n];
+        gramCounts = new short[n];
+
+        long[][] perDoc = new long[n][];
+        Set<Long> distinct = new HashSet<>();
+        for (int d = 0; d < n; d++) {
+            Entry e = sorted.get(d);
+            ids[d] = e.id();
+            names[d] = e.name();
+            images[d] = e.image();
+            ranks[d] = e.rank();
+            long[] g = trigrams(e.name());
+            perDoc[d] = g;
+            gramCounts[d] = (short) Math.min(g.length, Short.MAX_VALUE);
+            for (long x : g) distinct.add(x);
+        }
+
+        grams = new long[distinct.size()];
+        int i = 0;
+        for (Long g : distinct) grams[i++] = g;
+        Arrays.sort(grams);
+
+        offsets = new int[grams.length + 1];
+        for (long[] g : perDoc) {
+            for (long x : g) offsets[Arrays.binarySearch(grams, x) + 1]++;
+        }
+        for (int g = 0; g < grams.length; g++) offsets[g + 1] += offsets[g];
+
+        docs = new int[offsets[grams.length]];
+        int[] fill = Arrays.copyOf(offsets, grams.length);
+        for (int d = 0; d < n; d++) {
+            for (long x : perDoc[d]) docs[fill[Arrays.binarySearch(grams, x)]++] = d;
+        }
+    }
+
+    public static TrigramIndex build(List<Entry> entries) {
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingLong(Entry::id));
+        return new TrigramIndex(sorted);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public long maxId() {
+        return ids.length == 0 ? 0 : ids[ids.length - 1];
+    }
+
+    /** Ordinal of the document with the given id, or -1. */
+    public int ordinalOf(long id) {
+        int i = Arrays.binarySearch(ids, id);
+        return i >= 0 ? i : -1;
+    }
+
+    public Entry entry(int ordinal) {
+        return new Entry(ids[ordinal], names[ordinal], ranks[ordinal], images[ordinal]);
+    }
+
+    /**
+     * Top {@code limit} documents by similarity, then rank. A document qualifies when its similarity
+     * reaches {@code minSimilarity} or when it contains every trigram of the query.
+     *
+     * @param excluded ordinals to skip, may be null
+     */
+    public List<Hit> search(long[] queryGrams, int limit, double minSimilarity, BitSet excluded) {
+        if (queryGrams.length == 0 || limit <= 0 || ids.length == 0) return List.of();
+
+        Scratch s = SCRATCH.get();
+        s.reset(ids.length);
+        int touched = 0;
+        for (long q : queryGrams) {
+            int g = Arrays.binarySearch(grams, q);
+            if (g < 0) continue;
+            for (int p = offsets[g], end = offsets[g + 1]; p < end; p++) {
+                int d = docs[p];
+                if (s.counts[d]++ == 0) touched = s.touch(touched, d);
+            }
+        }
+
+        PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, BY_RELEVANCE.reversed());
+        for (int t = 0; t < touched; t++) {
+            int d = s.touched[t];
+            int shared = s.counts[d];
+            s.counts[d] = 0;
+            if (excluded != null && excluded.get(d)) continue;
+
+            double sim = (double) shared / (queryGrams.length + gramCounts[d] - shared);
+            if (sim < minSimilarity && shared < queryGrams.length) continue;
+
+            top.add(new Hit(ids[d], names[d], images[d], sim, ranks[d]));
+            if (top.size() > limit) top.poll();
+        }
+
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort(BY_RELEVANCE);
+        return hits;
+    }
+
+    /** pg_trgm similarity between two strings. */
+    public static double similarity(String a, String b) {
+        long[] ga = trigrams(a);
+        long[] gb = trigrams(b);
+        if (ga.length == 0 || gb.length == 0) return 0;
+        int shared = 0;
+        for (int i = 0, j = 0; i < ga.length && j < gb.length; ) {
+            if (ga[i] == gb[j]) { shared++; i++; j++; }
+            else if (ga[i] < gb[j]) i++;
+            else j++;
+        }
+        return (double) shared / (ga.length + gb.length - shared);
+    }
+
+    /** Lower-cased, accent-stripped form with every non alphanumeric run collapsed to one space. */
+    public static String normalize(String s) {
+        if (s == null) return "";
+        String n = MARKS.matcher(Normalizer.normalize(s, Normalizer.Form.NFD)).replaceAll("");
+        StringBuilder sb = new StringBuilder(n.length());
+        boolean space = true;
+        for (int i = 0; i < n.length(); i++) {
+            char c = Character.toLowerCase(n.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(c);
+                space = false;
+            } else if (!space) {
+                sb.append(' ');
+                space = true;
+            }
+        }
+        int len = sb.length();
+        if (len > 0 && sb.charAt(len - 1) == ' ') sb.setLength(len - 1);
+        return sb.toString();
+    }
+
+    /**
+     * Distinct trigrams of the string, sorted. Like pg_trgm every word is padded with two
+     * leading blanks and one trailing blank; each trigram is packed as three 16-bit chars.
+     */
+    public static long[] trigrams(String s) {
+        String n = normalize(s);
+        if (n.isEmpty()) return new long[0];
+
+        long[] out = new long[n.length() * 3 + 3];
+        int count = 0;
+        for (String word : n.split(" ")) {
+            String w = "  " + word + " ";
+            for (int i = 0; i + 3 <= w.length(); i++) {
+                out[count++] = ((long) w.charAt(i) << 32) | ((long) w.charAt(i + 1) << 16) | w.charAt(i + 2);
+            }
+        }
+        long[] g = Arrays.copyOf(out, count);
+        Arrays.sort(g);
+        int distinct = 0;
+        for (int i = 0; i < g.length; i++) {
+            if (i == 0 || g[i] != g[i - 1]) g[distinct++] = g[i];
+        }
+        return Arrays.copyOf(g, distinct);
+    }
+
+    /** Shared trigram count per document (back to zero after each search) and the touched documents. */
+    private static final class Scratch {
+        int[] counts = new int[0];
+        int[] touched = new int[256];
+
+        void reset(int size) {
+            if (counts.length < size) counts = new int[size];
+        }
+
+        int touch(int n, int doc) {
+            if (n == touched.length) touched = Arrays.copyOf(touched, n * 2);
+            touched[n] = doc;
+            return n + 1;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.filmssql.web.controller;
+
+import com.filmssql.domain.service.ActorService;
+import com.filmssql.web.dto.CursorPageDTO;
+import com.filmssql.web.dto.FilmographyItemDTO;
+import com.filmssql.web.support.Bulkhead;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Bulkhead(Bulkhead.LISTING)
+@RequestMapping("/api/actors")
+@RequiredArgsConstructor
+public class ActorController {
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final ActorService actorService;
+
+    // GET /api/actors/{id}/movies?sort=year|rating&size=100&cursor=... ; pass back nextCursor until it is null
+    @GetMapping("/{id}/movies")
+    public CursorPageDTO<FilmographyItemDTO> filmography(@PathVariable Long id,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "100") int size,
+                                                        @RequestParam(defaultValue = "year") String sort) {
+        return actorService.getFilmography(id, cursor, Math.max(1, Math.min(size, MAX_PAGE_SIZE)), sort);
+    }
+}
@@ -2,9 +2,14 @@ package com.filmssql.web.controller;
 
 import com.filmssql.domain.entity.ActorInfo;
 import com.filmssql.domain.repository.ActorInfoRepository;
+import com.filmssql.domain.service.ActorInfoService;
 import com.filmssql.util.ActorInfoMapper;
 import com.filmssql.web.dto.ActorInfoDTO;
+import com.filmssql.web.dto.ActorInfoInclude;
+import com.filmssql.web.dto.ActorInfoSummaryDTO;
+import com.filmssql.web.dto.CursorPageDTO;
 import com.filmssql.web.exception.NotFoundException;
+import com.filmssql.web.support.Bulkhead;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.*;
 import org.springframework.web.bind.annotation.*;
@@ -15,8 +20,10 @@ import org.springframework.web.bind.annotation.*;
 public class ActorInfoController {
 
     private final ActorInfoRepository infoRepo;
+    private final ActorInfoService actorInfoService;
 
     // GET single: /api/actors/{actorId}/info
+    @Bulkhead(Bulkhead.DETAIL)
     @GetMapping("/actors/{actorId}/info")
     public ActorInfoDTO getByActor(@PathVariable Long actorId) {
         ActorInfo info = infoRepo.findById(actorId)
@@ -25,11 +32,23 @@ public class ActorInfoController {
     }
 
     // GET list paginated: /api/actor-infos?page=0&size=20
+    @Bulkhead(Bulkhead.LISTING)
     @GetMapping("/actor-infos")
     public Page<ActorInfoDTO> list(@RequestParam(defaultValue = "0") int page,
                                    @RequestParam(defaultValue = "20") int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("actorId").ascending());
         return infoRepo.findAll(pageable).map(ActorInfoMapper::toDto);
     }
-}
 
+    // GET keyset scroll: /api/actor-infos/scroll?sort=popularity&size=50&cursor=...&include=biography
+    @Bulkhead(Bulkhead.LISTING)
+    @GetMapping("/actor-infos/scroll")
+    public CursorPageDTO<ActorInfoSummaryDTO> scroll(@RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "20") int size,
+                                                     @RequestParam(defaultValue = "actorId") String sort,
+                                                     @RequestParam(defaultValue = "") String include) {
+        int pageSize = Math.max(1, Math.min(size, 200));
+        boolean biography = ActorInfoInclude.parse(include).contains(ActorInfoInclude.BIOGRAPHY);
+        return actorInfoService.scroll(cursor, pageSize, sort, biography);
+    }
+}
@@ -0,0 +1,77 @@
+package com.filmssql.web.controller;
+
+import com.filmssql.domain.repository.MovieLink;
+import com.filmssql.domain.service.CatalogAnalytics;
+import com.filmssql.web.dto.AnalyticsDTO;
+import com.filmssql.web.dto.AnalyticsRatingDTO;
+import com.filmssql.web.dto.AnalyticsYearCountDTO;
+import com.filmssql.web.dto.RuntimeDistributionDTO;
+import com.filmssql.web.exception.BadRequestException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// figures come from a snapshot refreshed every app.analytics.refresh-interval (see snapshotAt); 503 until the first one
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private static final int MAX_TOP = 1_000;
+
+    private final CatalogAnalytics analytics;
+
+    public AnalyticsController(CatalogAnalytics analytics) {
+        this.analytics = analytics;
+    }
+
+    // GET /api/analytics/movies-per-year?by=genre&yearFrom=1950&yearTo=2020&top=20 (by: genre | country | language | studio)
+    @GetMapping("/movies-per-year")
+    public AnalyticsDTO<List<AnalyticsYearCountDTO>> moviesPerYear(@RequestParam(defaultValue = "genre") String by,
+                                                                   @RequestParam(required = false) Integer yearFrom,
+                                                                   @RequestParam(required = false) Integer yearTo,
+                                                                   @RequestParam(defaultValue = "20") int top) {
+        return analytics.moviesPerYear(link(by), yearFrom, yearTo, Math.max(1, Math.min(top, MAX_TOP)));
+    }
+
+    // GET /api/analytics/rating?by=country&minMovies=10&limit=100
+    @GetMapping("/rating")
+    public AnalyticsDTO<List<AnalyticsRatingDTO>> rating(@RequestParam(defaultValue = "country") String by,
+                                                         @RequestParam(defaultValue = "1") int minMovies,
+                                                         @RequestParam(defaultValue = "100") int limit) {
+        return analytics.ratingBy(link(by), Math.max(1, minMovies), Math.max(1, Math.min(limit, MAX_TOP)));
+    }
+
+    // GET /api/analytics/runtime?bucket=10&genre=8&yearFrom=1970&yearTo=1979 ; genre/country/language/studio are single ids
+    @GetMapping("/runtime")
+    public AnalyticsDTO<RuntimeDistributionDTO> runtime(@RequestParam(defaultValue = "10") int bucket,
+                                                        @RequestParam(required = false) Long genre,
+                                                        @RequestParam(required = false) Long country,
+                                                        @RequestParam(required = false) Long language,
+                                                        @RequestParam(required = false) Long studio,
+                                                        @RequestParam(required = false) Integer yearFrom,
+                                                        @RequestParam(required = false) Integer yearTo) {
+        if (bucket < 1 || bucket > 600) throw new BadRequestException("bucket must be between 1 and 600 minutes");
+        Map<MovieLink, Long> filters = new EnumMap<>(MovieLink.class);
+        if (genre != null) filters.put(MovieLink.GENRES, genre);
+        if (country != null) filters.put(MovieLink.COUNTRIES, country);
+        if (language != null) filters.put(MovieLink.LANGUAGES, language);
+        if (studio != null) filters.put(MovieLink.STUDIOS, studio);
+        return analytics.runtime(filters, yearFrom, yearTo, bucket);
+    }
+
+    private static MovieLink link(String by) {
+        return switch (by.toLowerCase(Locale.ROOT)) {
+            case "genre" -> MovieLink.GENRES;
+            case "country" -> MovieLink.COUNTRIES;
+            case "language" -> MovieLink.LANGUAGES;
+            case "studio" -> MovieLink.STUDIOS;
+            default -> throw new BadRequestException("Unsupported by '%s', use genre, country, language or studio".formatted(by));
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package com.filmssql.web.controller;
+
+import com.filmssql.domain.service.MovieCache;
+import com.filmssql.web.dto.CacheStatsDTO;
+import com.filmssql.web.support.MovieJsonCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final MovieCache movieCache;
+    private final MovieJsonCache movieJsonCache;
+
+    @GetMapping("/stats")
+    public List<CacheStatsDTO> stats() {
+        List<CacheStatsDTO> stats = new ArrayList<>(movieCache.stats());
+        stats.add(movieJsonCache.stats());
+        return stats;
+    }
+}
@@ -1,45 +1,198 @@
 package com.filmssql.web.controller;
 
+import com.filmssql.domain.repository.MovieLink;
+import com.filmssql.domain.service.MovieBulkService;
+import com.filmssql.domain.service.MovieFacets;
 import com.filmssql.domain.service.MovieService;
+import com.filmssql.web.dto.CursorPageDTO;
+import com.filmssql.web.dto.MovieBrowseDTO;
+import com.filmssql.web.dto.MovieBulkItemDTO;
+import com.filmssql.web.dto.MovieBulkResponseDTO;
 import com.filmssql.web.dto.MovieDTO;
+import com.filmssql.web.dto.MovieInclude;
+import com.filmssql.web.dto.MoviePreviewBatchDTO;
 import com.filmssql.web.dto.MoviePreviewDTO;
+import com.filmssql.web.exception.BadRequestException;
+import com.filmssql.web.support.Bulkhead;
+import com.filmssql.web.support.EtagResponses;
+import com.filmssql.web.support.MovieJsonCache;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/movies")
 public class MovieController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_BULK_SIZE = 10_000;
+
     private final MovieService movieService;
-    public MovieController(MovieService movieService){ this.movieService = movieService; }
+    private final MovieBulkService movieBulkService;
+    private final EtagResponses etags;
+    private final MovieJsonCache jsonCache;
+
+    public MovieController(MovieService movieService, MovieBulkService movieBulkService,
+                           EtagResponses etags, MovieJsonCache jsonCache){
+        this.movieService = movieService;
+        this.movieBulkService = movieBulkService;
+        this.etags = etags;
+        this.jsonCache = jsonCache;
+    }
 
+    // include=cast,genres limits the collections (and the queries) to those listed; default is all
+    @Bulkhead(Bulkhead.DETAIL)
     @GetMapping("/{id}")
-    public ResponseEntity<MovieDTO> get(@PathVariable Long id){
-        return ResponseEntity.ok(movieService.getDto(id));
+    public ResponseEntity<?> get(@PathVariable Long id,
+                                 @RequestParam(required = false) String include,
+                                 WebRequest request){
+        Set<MovieInclude> parts = MovieInclude.parse(include);
+        if (jsonCache.isEnabled() && parts.equals(MovieInclude.ALL)) {
+            return jsonCache.respond(request, EtagResponses.MOVIE, id, () -> movieService.getDto(id));
+        }
+        return etags.respond(request, EtagResponses.MOVIE, id, parts.toString(), () -> movieService.getDto(id, parts));
     }
 
+    @Bulkhead(Bulkhead.DETAIL)
     @GetMapping("/{id}/preview")
-    public ResponseEntity<MoviePreviewDTO> getPreview(@PathVariable Long id){
-        return ResponseEntity.ok(movieService.getPreviewDto(id));
+    public ResponseEntity<?> getPreview(@PathVariable Long id, WebRequest request){
+        if (jsonCache.isEnabled()) {
+            return jsonCache.respond(request, EtagResponses.MOVIE_PREVIEW, id, () -> movieService.getPreviewDto(id));
+        }
+        return etags.respond(request, EtagResponses.MOVIE_PREVIEW, id, () -> movieService.getPreviewDto(id));
+    }
+
+    // "more like this": movies sharing genres, themes, cast, directors and studios, most similar first
+    @Bulkhead(Bulkhead.DETAIL)
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<MoviePreviewDTO>> related(@PathVariable Long id,
+                                                         @RequestParam(defaultValue = "12") int limit){
+        return ResponseEntity.ok(movieService.getRelated(id, pageSize(limit)));
+    }
+
+    // GET /api/movies/previews?ids=1,2,3 (or POST a JSON array of ids for long lists)
+    @Bulkhead(Bulkhead.DETAIL)
+    @GetMapping("/previews")
+    public ResponseEntity<MoviePreviewBatchDTO> getPreviews(@RequestParam List<Long> ids){
+        return ResponseEntity.ok(movieService.getPreviewBatch(checkBatch(ids)));
+    }
+
+    @Bulkhead(Bulkhead.DETAIL)
+    @PostMapping("/previews")
+    public ResponseEntity<MoviePreviewBatchDTO> postPreviews(@RequestBody List<Long> ids){
+        return ResponseEntity.ok(movieService.getPreviewBatch(checkBatch(ids)));
     }
 
+    // creates (no id) or updates many movies and their links; the result lists every item in order
+    @PostMapping("/bulk")
+    public ResponseEntity<MovieBulkResponseDTO> bulk(@RequestBody List<MovieBulkItemDTO> items){
+        if (items == null || items.size() > MAX_BULK_SIZE) {
+            throw new BadRequestException("At most %d movies are accepted per bulk request".formatted(MAX_BULK_SIZE));
+        }
+        return ResponseEntity.ok(movieBulkService.write(items));
+    }
+
+    @Bulkhead(Bulkhead.LISTING)
     @GetMapping("/random")
-    public ResponseEntity<MoviePreviewDTO> random(){
-        return ResponseEntity.ok(movieService.getRandomPreviewDto());
+    public ResponseEntity<MoviePreviewDTO> random(
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) Integer decade){
+        return ResponseEntity.ok(movieService.getRandomPreviewDto(genre, decade));
     }
 
+    @Bulkhead(Bulkhead.LISTING)
     @GetMapping("/top-rated")
     public ResponseEntity<List<MoviePreviewDTO>> topRated(
             @RequestParam(defaultValue = "10") int limit) {
         return ResponseEntity.ok(movieService.getTopRated(limit));
     }
 
+    @Bulkhead(Bulkhead.LISTING)
     @GetMapping("/latest")
     public ResponseEntity<List<MoviePreviewDTO>> latest(
             @RequestParam(defaultValue = "10") int limit) {
         return ResponseEntity.ok(movieService.getLatest(limit));
     }
 
+    // keyset pagination: pass back nextCursor until it is null
+    @Bulkhead(Bulkhead.LISTING)
+    @GetMapping("/top-rated/page")
+    public ResponseEntity<CursorPageDTO<MoviePreviewDTO>> topRatedPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(movieService.getTopRatedPage(cursor, pageSize(limit)));
+    }
+
+    @Bulkhead(Bulkhead.LISTING)
+    @GetMapping("/latest/page")
+    public ResponseEntity<CursorPageDTO<MoviePreviewDTO>> latestPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(movieService.getLatestPage(cursor, pageSize(limit)));
+    }
+
+    // GET /api/movies/browse?genre=8&language=3&yearFrom=1970&yearTo=1979&ratingMin=3.5&sort=rating
+    // genre/country/language/studio take comma-separated ids, matched with any (default) or all of them
+    @Bulkhead(Bulkhead.LISTING)
+    @GetMapping("/browse")
+    public ResponseEntity<MovieBrowseDTO> browse(
+            @RequestParam(required = false) List<Long> genre,
+            @RequestParam(required = false) List<Long> country,
+            @RequestParam(required = false) List<Long> language,
+            @RequestParam(required = false) List<Long> studio,
+            @RequestParam(defaultValue = "any") String match,
+            @RequestParam(required = false) Integer yearFrom,
+            @RequestParam(required = false) Integer yearTo,
+            @RequestParam(required = false) Double ratingMin,
+            @RequestParam(required = false) Double ratingMax,
+            @RequestParam(defaultValue = "rating") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        Map<MovieLink, Set<Long>> links = new EnumMap<>(MovieLink.class);
+        putIds(links, MovieLink.GENRES, genre);
+        putIds(links, MovieLink.COUNTRIES, country);
+        putIds(links, MovieLink.LANGUAGES, language);
+        putIds(links, MovieLink.STUDIOS, studio);
+        boolean matchAll = switch (match.toLowerCase(Locale.ROOT)) {
+            case "any" -> false;
+            case "all" -> true;
+            default -> throw new BadRequestException("Unsupported match '%s', use any or all".formatted(match));
+        };
+        MovieFacets.Sort order = switch (sort.toLowerCase(Locale.ROOT)) {
+            case "rating" -> MovieFacets.Sort.RATING;
+            case "year" -> MovieFacets.Sort.YEAR;
+            default -> throw new BadRequestException("Unsupported sort '%s', use rating or year".formatted(sort));
+        };
+        MovieFacets.Filter filter = new MovieFacets.Filter(links, matchAll, yearFrom, yearTo, ratingMin, ratingMax);
+        return ResponseEntity.ok(movieService.browse(filter, order, cursor, pageSize(limit)));
+    }
+
+    private static void putIds(Map<MovieLink, Set<Long>> links, MovieLink link, List<Long> ids) {
+        if (ids == null || ids.isEmpty()) return;
+        Set<Long> distinct = new LinkedHashSet<>();
+        for (Long id : ids) {
+            if (id != null) distinct.add(id);
+        }
+        links.put(link, distinct);
+    }
+
+    private static List<Long> checkBatch(List<Long> ids) {
+        if (ids == null || ids.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("At most %d ids are accepted per batch".formatted(MAX_BATCH_SIZE));
+        }
+        return ids;
+    }
+
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
 }
@@ -1,40 +1,83 @@
 package com.filmssql.web.controller;
 
 import com.filmssql.domain.service.OscarAwardService;
+import com.filmssql.domain.service.OscarStats;
 import com.filmssql.util.Mappers;
-import com.filmssql.web.dto.OscarAwardDTO;
+import com.filmssql.web.dto.OscarLeaderboardEntryDTO;
+import com.filmssql.web.dto.OscarSummaryDTO;
+import com.filmssql.web.exception.BadRequestException;
+import com.filmssql.web.exception.NotFoundException;
+import com.filmssql.web.support.Bulkhead;
+import com.filmssql.web.support.EtagResponses;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/oscaraward")
 public class OscarAwardController {
 
+    private static final int MAX_LEADERBOARD_SIZE = 100;
+
     private final OscarAwardService oscarAwardService;
+    private final OscarStats oscarStats;
+    private final EtagResponses etags;
 
-    public OscarAwardController(OscarAwardService oscarAwardService) {
+    public OscarAwardController(OscarAwardService oscarAwardService, OscarStats oscarStats, EtagResponses etags) {
         this.oscarAwardService = oscarAwardService;
+        this.oscarStats = oscarStats;
+        this.etags = etags;
     }
 
+    @Bulkhead(Bulkhead.DETAIL)
     @GetMapping("/actor/{actor_id}")
-    public ResponseEntity<List<OscarAwardDTO>> getByActor(@PathVariable("actor_id") Long actorId) {
-        List<OscarAwardDTO> body = oscarAwardService.getByActor(actorId).stream()
-                .map(Mappers::toOscarAwardDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(body);
+    public ResponseEntity<byte[]> getByActor(@PathVariable("actor_id") Long actorId, WebRequest request) {
+        return etags.respond(request, EtagResponses.OSCAR_ACTOR, actorId, () -> Mappers.toOscarAwardDTOs(oscarAwardService.getByActor(actorId)));
     }
 
+    @Bulkhead(Bulkhead.DETAIL)
     @GetMapping("/movie/{movie_id}")
-    public ResponseEntity<List<OscarAwardDTO>> getByMovie(@PathVariable("movie_id") Long movieId) {
-        List<OscarAwardDTO> body = oscarAwardService.getByMovie(movieId).stream()
-                .map(Mappers::toOscarAwardDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(body);
+    public ResponseEntity<byte[]> getByMovie(@PathVariable("movie_id") Long movieId, WebRequest request) {
+        return etags.respond(request, EtagResponses.OSCAR_MOVIE, movieId, () -> Mappers.toOscarAwardDTOs(oscarAwardService.getByMovie(movieId)));
+    }
+
+    @GetMapping("/actor/{actor_id}/summary")
+    public OscarSummaryDTO getActorSummary(@PathVariable("actor_id") Long actorId) {
+        return oscarStats.actorSummary(actorId)
+                .orElseThrow(() -> new NotFoundException("Oscar awards for actor %d not found".formatted(actorId)));
+    }
+
+    @GetMapping("/movie/{movie_id}/summary")
+    public OscarSummaryDTO getMovieSummary(@PathVariable("movie_id") Long movieId) {
+        return oscarStats.movieSummary(movieId)
+                .orElseThrow(() -> new NotFoundException("Oscar awards for movie %d not found".formatted(movieId)));
+    }
+
+    // GET /api/oscaraward/leaderboard/actors?by=wins&limit=20 (by: wins | nominations)
+    @GetMapping("/leaderboard/actors")
+    public List<OscarLeaderboardEntryDTO> topActors(@RequestParam(defaultValue = "wins") String by,
+                                                    @RequestParam(defaultValue = "20") int limit) {
+        return oscarStats.topActors(ranking(by), Math.max(1, Math.min(limit, MAX_LEADERBOARD_SIZE)));
+    }
+
+    @GetMapping("/leaderboard/movies")
+    public List<OscarLeaderboardEntryDTO> topMovies(@RequestParam(defaultValue = "wins") String by,
+                                                    @RequestParam(defaultValue = "20") int limit) {
+        return oscarStats.topMovies(ranking(by), Math.max(1, Math.min(limit, MAX_LEADERBOARD_SIZE)));
+    }
+
+    private static OscarStats.Ranking ranking(String by) {
+        return switch (by.toLowerCase(Locale.ROOT)) {
+            case "wins" -> OscarStats.Ranking.WINS;
+            case "nominations" -> OscarStats.Ranking.NOMINATIONS;
+            default -> throw new BadRequestException("Unsupported ranking '%s', use wins or nominations".formatted(by));
+        };
     }
 }
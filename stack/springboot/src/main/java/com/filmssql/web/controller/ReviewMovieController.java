@@ -2,28 +2,31 @@ package com.filmssql.web.controller;
 
 import com.filmssql.domain.service.ReviewMovieService;
 import com.filmssql.util.Mappers;
-import com.filmssql.web.dto.ReviewMovieDTO;
+import com.filmssql.web.support.Bulkhead;
+import com.filmssql.web.support.EtagResponses;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
+@Bulkhead(Bulkhead.DETAIL)
 @RequestMapping("/api/reviewmovie")
 public class ReviewMovieController
 {
     private final ReviewMovieService reviewMovieService;
-    public ReviewMovieController(ReviewMovieService reviewMovieService){ this.reviewMovieService = reviewMovieService; }
+    private final EtagResponses etags;
+
+    public ReviewMovieController(ReviewMovieService reviewMovieService, EtagResponses etags){
+        this.reviewMovieService = reviewMovieService;
+        this.etags = etags;
+    }
 
     @GetMapping("/{movie_id}")
-    public ResponseEntity<List<ReviewMovieDTO>> get(@PathVariable("movie_id") Long movieId){
-        List<ReviewMovieDTO> body = reviewMovieService.getReviews(movieId).stream()
-                .map(Mappers::toReviewMovieDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(body);
+    public ResponseEntity<byte[]> get(@PathVariable("movie_id") Long movieId, WebRequest request){
+        return etags.respond(request, EtagResponses.REVIEWS, movieId, () -> Mappers.toReviewMovieDTOs(reviewMovieService.getReviews(movieId)));
     }
 }
@@ -1,25 +1,38 @@
 package com.filmssql.web.controller;
 
 import com.filmssql.domain.service.SearchService;
+import com.filmssql.web.dto.SearchResponseDTO;
 import com.filmssql.web.dto.SearchResultDTO;
+import com.filmssql.web.support.Bulkhead;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
 @RestController
+@Bulkhead(Bulkhead.SEARCH)
 @RequestMapping("/api/search")
 @RequiredArgsConstructor
 public class SearchController {
 
     private final SearchService searchService;
 
+    // the body stays a plain list; sources that missed the deadline are listed in X-Search-Timed-Out,
+    // sources not run because the search pool was full in X-Search-Rejected
     @GetMapping
-    public List<SearchResultDTO> search(
+    public ResponseEntity<List<SearchResultDTO>> search(
             @RequestParam String query,
             @RequestParam(defaultValue = "movie,actor") String type,
             @RequestParam(defaultValue = "10") int limit
     ) {
-        return searchService.search(query, type, limit);
+        SearchResponseDTO response = searchService.search(query, type, limit);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (response.partial()) {
+            builder.header("X-Search-Partial", "true");
+            if (!response.timedOut().isEmpty()) builder.header("X-Search-Timed-Out", String.join(",", response.timedOut()));
+            if (!response.rejected().isEmpty()) builder.header("X-Search-Rejected", String.join(",", response.rejected()));
+        }
+        return builder.body(response.results());
     }
 }
@@ -0,0 +1,31 @@
+package com.filmssql.web.dto;
+
+import com.filmssql.web.exception.BadRequestException;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Optional fields of an {@link ActorInfoSummaryDTO} that can be requested with {@code include=}.
+ * Fields not requested are left out of the response and not read from the database.
+ */
+public enum ActorInfoInclude {
+    BIOGRAPHY;
+
+    /** Parses a comma separated list such as {@code "biography"}; null or blank means none. */
+    public static Set<ActorInfoInclude> parse(String include) {
+        EnumSet<ActorInfoInclude> out = EnumSet.noneOf(ActorInfoInclude.class);
+        if (include == null || include.isBlank()) return out;
+        for (String part : include.split(",")) {
+            String p = part.trim();
+            if (p.isEmpty()) continue;
+            try {
+                out.add(valueOf(p.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unknown include '%s'".formatted(p));
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,27 @@
+package com.filmssql.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+
+public record ActorInfoSummaryDTO(
+        Long actorId,
+        String name,
+        Integer gender,
+        Double popularity,
+        LocalDate birthday,
+        LocalDate deathday,
+        String placeOfBirth,
+        String imagePath,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String biography   // only when requested
+) {
+    // constructor projection without the biography column
+    public ActorInfoSummaryDTO(Long actorId, String name, Integer gender, Double popularity,
+                               LocalDate birthday, LocalDate deathday, String placeOfBirth, String imagePath) {
+        this(actorId, name, gender, popularity, birthday, deathday, placeOfBirth, imagePath, null);
+    }
+
+    public ActorInfoSummaryDTO withBiography(String biography) {
+        return new ActorInfoSummaryDTO(actorId, name, gender, popularity, birthday, deathday, placeOfBirth, imagePath, biography);
+    }
+}
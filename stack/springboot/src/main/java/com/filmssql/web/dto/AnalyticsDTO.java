@@ -0,0 +1,9 @@
+package com.filmssql.web.dto;
+
+import java.time.Instant;
+
+public record AnalyticsDTO<T>(
+        Instant snapshotAt,     // when the in-memory snapshot the figures come from was taken
+        int movies,             // movies in that snapshot
+        T data
+) {}
@@ -0,0 +1,9 @@
+package com.filmssql.web.dto;
+
+public record AnalyticsRatingDTO(
+        Long id,
+        String label,
+        long movies,
+        long rated,             // movies with a rating
+        Double averageRating    // null when none is rated
+) {}
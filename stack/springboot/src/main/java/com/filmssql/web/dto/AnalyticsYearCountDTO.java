@@ -0,0 +1,8 @@
+package com.filmssql.web.dto;
+
+public record AnalyticsYearCountDTO(
+        int year,
+        Long id,            // genre, country, language or studio id
+        String label,
+        int count
+) {}
@@ -0,0 +1,11 @@
+package com.filmssql.web.dto;
+
+public record CacheStatsDTO(
+        String name,
+        long size,
+        long hits,
+        long misses,
+        double hitRate,
+        long evictions,
+        long evictionWeight
+) {}
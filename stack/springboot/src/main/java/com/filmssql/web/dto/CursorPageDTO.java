@@ -0,0 +1,8 @@
+package com.filmssql.web.dto;
+
+import java.util.List;
+
+public record CursorPageDTO<T>(
+        List<T> items,
+        String nextCursor   // null on the last page
+) {}
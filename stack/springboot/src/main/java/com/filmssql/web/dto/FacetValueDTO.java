@@ -0,0 +1,7 @@
+package com.filmssql.web.dto;
+
+public record FacetValueDTO(
+        String value,       // filter value: target id, decade (1970) or lower rating bound (3.5)
+        String label,
+        int count           // matching movies, with the filters of every other facet applied
+) {}
@@ -0,0 +1,11 @@
+package com.filmssql.web.dto;
+
+public record FilmographyItemDTO(
+        Long creditId,      // actors_movies row; an actor may have several credits in one movie
+        Long movieId,
+        String name,
+        Integer date,
+        Double rating,
+        String role,
+        PosterDTO poster
+) {}
@@ -0,0 +1,11 @@
+package com.filmssql.web.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record MovieBrowseDTO(
+        List<MoviePreviewDTO> items,
+        String nextCursor,                          // null on the last page
+        int total,                                  // movies matching all filters
+        Map<String, List<FacetValueDTO>> facets     // genre, country, language, studio, decade, rating; first page only
+) {}
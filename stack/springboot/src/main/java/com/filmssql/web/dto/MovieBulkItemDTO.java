@@ -0,0 +1,22 @@
+package com.filmssql.web.dto;
+
+import java.util.Set;
+
+/**
+ * One movie of a bulk write. Without an id the movie is created, otherwise it is updated and
+ * null fields keep their current value. A null id set leaves that association unchanged,
+ * an empty one clears it.
+ */
+public record MovieBulkItemDTO(
+        Long id,
+        String name,
+        Integer date,
+        String tagline,
+        String description,
+        Integer minute,
+        Double rating,
+        Set<Long> genreIds,
+        Set<Long> studioIds,
+        Set<Long> countryIds,
+        Set<Long> languageIds
+) {}
@@ -0,0 +1,10 @@
+package com.filmssql.web.dto;
+
+import java.util.List;
+
+public record MovieBulkResponseDTO(
+        int created,
+        int updated,
+        int failed,
+        List<MovieBulkResultDTO> items      // one per request item, in request order
+) {}
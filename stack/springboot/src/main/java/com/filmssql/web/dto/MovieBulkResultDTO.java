@@ -0,0 +1,14 @@
+package com.filmssql.web.dto;
+
+public record MovieBulkResultDTO(
+        int index,          // position of the item in the request
+        Long id,            // id of the created or updated movie; the requested id when failed
+        Status status,
+        String error        // why the item was rejected, null unless FAILED
+) {
+    public enum Status { CREATED, UPDATED, FAILED }
+
+    public static MovieBulkResultDTO failed(int index, Long id, String error) {
+        return new MovieBulkResultDTO(index, id, Status.FAILED, error);
+    }
+}
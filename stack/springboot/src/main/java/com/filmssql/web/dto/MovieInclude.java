@@ -0,0 +1,39 @@
+package com.filmssql.web.dto;
+
+import com.filmssql.web.exception.BadRequestException;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Collections of a {@link MovieDTO} that can be requested with {@code include=}.
+ * Collections left out are returned as {@code null} and their fetch queries are skipped.
+ */
+public enum MovieInclude {
+    THEMES, CAST, CREW, RELEASES, GENRES, STUDIOS, COUNTRIES, LANGUAGES;
+
+    public static final Set<MovieInclude> ALL = Collections.unmodifiableSet(EnumSet.allOf(MovieInclude.class));
+
+    /** Parses a comma separated list such as {@code "cast,genres"}; null or blank means everything. */
+    public static Set<MovieInclude> parse(String include) {
+        if (include == null || include.isBlank()) return ALL;
+        EnumSet<MovieInclude> out = EnumSet.noneOf(MovieInclude.class);
+        for (String part : include.split(",")) {
+            String p = part.trim();
+            if (p.isEmpty()) continue;
+            try {
+                out.add(valueOf(p.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unknown include '%s'".formatted(p));
+            }
+        }
+        return out.size() == values().length ? ALL : Collections.unmodifiableSet(out);
+    }
+
+    /** True when the base query has to join themes or releases. */
+    public static boolean needsBaseCollections(Set<MovieInclude> include) {
+        return include.contains(THEMES) || include.contains(RELEASES);
+    }
+}
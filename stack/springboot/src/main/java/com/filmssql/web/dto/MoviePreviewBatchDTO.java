@@ -0,0 +1,8 @@
+package com.filmssql.web.dto;
+
+import java.util.List;
+
+public record MoviePreviewBatchDTO(
+        List<MoviePreviewDTO> items,    // in request order, duplicates removed
+        List<Long> missing              // requested ids with no movie
+) {}
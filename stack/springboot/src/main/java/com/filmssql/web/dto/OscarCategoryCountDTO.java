@@ -0,0 +1,7 @@
+package com.filmssql.web.dto;
+
+public record OscarCategoryCountDTO(
+        String category,
+        int nominations,    // including the wins
+        int wins
+) {}
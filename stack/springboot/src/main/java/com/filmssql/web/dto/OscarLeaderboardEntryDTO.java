@@ -0,0 +1,9 @@
+package com.filmssql.web.dto;
+
+public record OscarLeaderboardEntryDTO(
+        int rank,
+        Long id,
+        String name,
+        int wins,
+        int nominations
+) {}
@@ -0,0 +1,13 @@
+package com.filmssql.web.dto;
+
+import java.util.List;
+
+public record OscarSummaryDTO(
+        Long id,                                // actor or movie id
+        String name,                            // nominee or film as written in the awards
+        int nominations,                        // including the wins
+        int wins,
+        Integer firstYear,                      // ceremony years
+        Integer lastYear,
+        List<OscarCategoryCountDTO> categories  // most nominated first
+) {}
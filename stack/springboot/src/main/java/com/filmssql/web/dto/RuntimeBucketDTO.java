@@ -0,0 +1,7 @@
+package com.filmssql.web.dto;
+
+public record RuntimeBucketDTO(
+        int from,       // minutes, inclusive
+        int to,         // minutes, exclusive
+        long count
+) {}
@@ -0,0 +1,13 @@
+package com.filmssql.web.dto;
+
+import java.util.List;
+
+public record RuntimeDistributionDTO(
+        long movies,            // matching movies with a runtime
+        Double mean,
+        Integer p25,
+        Integer median,
+        Integer p75,
+        Integer p90,
+        List<RuntimeBucketDTO> buckets
+) {}
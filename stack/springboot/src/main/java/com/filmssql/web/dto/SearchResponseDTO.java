@@ -0,0 +1,13 @@
+package com.filmssql.web.dto;
+
+import java.util.List;
+
+public record SearchResponseDTO(
+        List<SearchResultDTO> results,
+        List<String> timedOut,   // sources that missed the deadline
+        List<String> rejected    // sources the search pool had no room for; results are partial when either is not empty
+) {
+    public boolean partial() {
+        return !timedOut.isEmpty() || !rejected.isEmpty();
+    }
+}
@@ -12,4 +12,9 @@ public class SearchResultDTO {
     private String type;    // "movie" or "actor"
     private String title;
     private String imageUrl;
+    private Double score;   // trigram similarity between query and title, used to merge sources
+
+    public SearchResultDTO(Long id, String type, String title, String imageUrl) {
+        this(id, type, title, imageUrl, null);
+    }
 }
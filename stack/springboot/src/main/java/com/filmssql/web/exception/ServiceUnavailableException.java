@@ -0,0 +1,5 @@
+package com.filmssql.web.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) { super(message); }
+}
@@ -0,0 +1,22 @@
+package com.filmssql.web.support;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts an endpoint (or every endpoint of a controller) in a concurrency class of
+ * {@link BulkheadInterceptor}: calls of one class compete only with each other for its permits, so a
+ * burst of slow searches can't hold the connections that detail and listing calls need.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+    String SEARCH = "search";
+    String DETAIL = "detail";
+    String LISTING = "listing";
+
+    String value();
+}
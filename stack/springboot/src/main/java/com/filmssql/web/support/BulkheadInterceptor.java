@@ -0,0 +1,93 @@
+package com.filmssql.web.support;
+
+import com.filmssql.web.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits concurrent calls per {@link Bulkhead} class with a fair semaphore.
+ * <p>
+ * Permits default to {@code app.bulkhead.<class>.share} of the Hikari pool
+ * ({@code app.bulkhead.<class>.permits} overrides it). A call that finds none free waits at most
+ * {@code max-wait} behind at most {@code max-queue} others, and otherwise gets a 503 right away
+ * instead of queueing on the pool itself.
+ */
+@Slf4j
+@Component
+public class BulkheadInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT = BulkheadInterceptor.class.getName() + ".permit";
+
+    private record Compartment(String name, Semaphore permits, int maxQueue, long maxWaitNanos, Counter rejected) {}
+
+    private final Environment env;
+    private final MeterRegistry registry;
+    private final int poolSize;
+    private final Map<String, Compartment> compartments = new ConcurrentHashMap<>();
+
+    public BulkheadInterceptor(Environment env, MeterRegistry registry,
+                               @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+        this.env = env;
+        this.registry = registry;
+        this.poolSize = poolSize;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+        if (!(handler instanceof HandlerMethod method)) return true;
+        Bulkhead bulkhead = AnnotatedElementUtils.findMergedAnnotation(method.getMethod(), Bulkhead.class);
+        if (bulkhead == null) bulkhead = AnnotatedElementUtils.findMergedAnnotation(method.getBeanType(), Bulkhead.class);
+        if (bulkhead == null) return true;
+
+        Compartment c = compartments.computeIfAbsent(bulkhead.value(), this::create);
+        if (!c.permits().tryAcquire()) {
+            if (c.permits().getQueueLength() >= c.maxQueue()
+                    || !c.permits().tryAcquire(c.maxWaitNanos(), TimeUnit.NANOSECONDS)) {
+                c.rejected().increment();
+                throw new ServiceUnavailableException("Too many concurrent %s requests, retry shortly".formatted(c.name()));
+            }
+        }
+        request.setAttribute(PERMIT, c);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT) instanceof Compartment c) {
+            request.removeAttribute(PERMIT);
+            c.permits().release();
+        }
+    }
+
+    private Compartment create(String name) {
+        String prefix = "app.bulkhead." + name + ".";
+        double share = env.getProperty(prefix + "share", Double.class, 0.3);
+        int permits = env.getProperty(prefix + "permits", Integer.class, Math.max(1, (int) Math.round(poolSize * share)));
+        int maxQueue = env.getProperty(prefix + "max-queue", Integer.class, permits);
+        Duration maxWait = env.getProperty(prefix + "max-wait", Duration.class, Duration.ofMillis(100));
+
+        Semaphore semaphore = new Semaphore(permits, true);
+        Gauge.builder("bulkhead.available", semaphore, Semaphore::availablePermits).tag("class", name).register(registry);
+        Gauge.builder("bulkhead.queued", semaphore, Semaphore::getQueueLength).tag("class", name).register(registry);
+        Counter rejected = Counter.builder("bulkhead.rejected").tag("class", name).register(registry);
+        log.info("Bulkhead {}: {} permits, queue {}, max wait {}", name, permits, maxQueue, maxWait);
+        return new Compartment(name, semaphore, maxQueue, maxWait.toNanos(), rejected);
+    }
+}
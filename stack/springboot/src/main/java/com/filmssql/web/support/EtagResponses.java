@@ -0,0 +1,120 @@
+package com.filmssql.web.support;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.filmssql.config.ReadYourWrites;
+import com.filmssql.domain.event.MovieChangedEvent;
+import com.filmssql.domain.event.MoviesChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * ETag / If-None-Match support for read endpoints.
+ * <p>
+ * The ETag is an MD5 of the JSON payload, which is serialized once and sent as the body. It is
+ * remembered per resource (and per variant, such as a movie {@code include=} set) so that a
+ * revalidation that matches is answered with a 304 before the body is rebuilt. Movie tags are
+ * dropped on {@link MovieChangedEvent}; tags of resources without a write path in the application
+ * (reviews, awards) expire after a TTL.
+ * <p>
+ * Each resource carries a version that {@link #invalidate} bumps. A tag is only remembered if the
+ * version is unchanged since its body was built, so a write committing during the build cannot
+ * leave the old body's tag behind.
+ */
+@Component
+public class EtagResponses {
+
+    public static final String MOVIE = "movie";
+    public static final String MOVIE_PREVIEW = "movie-preview";
+    public static final String REVIEWS = "reviews";
+    public static final String OSCAR_ACTOR = "oscar-actor";
+    public static final String OSCAR_MOVIE = "oscar-movie";
+
+    private record Resource(String type, Long id) {}
+
+    private record Tags(long version, Map<String, String> byVariant) {
+        Tags(long version) {
+            this(version, new ConcurrentHashMap<>());
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Resource, Tags> tags;
+    private final AtomicLong versions = new AtomicLong();
+
+    public EtagResponses(ObjectMapper objectMapper,
+                         @Value("${app.etag.max-size:100000}") long maxSize,
+                         @Value("${app.etag.ttl:10m}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.tags = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public ResponseEntity<byte[]> respond(WebRequest request, String type, Long id, Supplier<?> body) {
+        return respond(request, type, id, "", body);
+    }
+
+    /**
+     * 304 straight from the remembered tag when it matches If-None-Match; otherwise builds and
+     * serializes the body, tags the bytes and lets Spring answer 200 or 304.
+     */
+    public ResponseEntity<byte[]> respond(WebRequest request, String type, Long id, String variant, Supplier<?> body) {
+        Resource resource = new Resource(type, id);
+        Tags known = tags.get(resource, r -> new Tags(versions.incrementAndGet()));
+        String etag = known.byVariant().get(variant);
+        if (etag != null && request.checkNotModified(etag)) return null;
+
+        Object value = MOVIE.equals(type) || MOVIE_PREVIEW.equals(type)
+                ? ReadYourWrites.onPrimaryIfWritten(id, body)
+                : body.get();
+        byte[] json = serialize(value);
+        String built = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+        // compare-and-set: remember the tag only if no invalidation happened while the body was built
+        tags.asMap().computeIfPresent(resource, (r, current) -> {
+            if (current.version() == known.version()) current.byVariant().put(variant, built);
+            return current;
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).eTag(built).body(json);
+    }
+
+    public void invalidate(String type, Long id) {
+        tags.put(new Resource(type, id), new Tags(versions.incrementAndGet()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        invalidate(MOVIE, event.movieId());
+        invalidate(MOVIE_PREVIEW, event.movieId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMoviesChanged(MoviesChangedEvent event) {
+        for (Long id : event.movieIds()) {
+            invalidate(MOVIE, id);
+            invalidate(MOVIE_PREVIEW, id);
+        }
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize response for ETag", e);
+        }
+    }
+}
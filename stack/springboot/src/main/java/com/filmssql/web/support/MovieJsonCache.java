@@ -0,0 +1,156 @@
+package com.filmssql.web.support;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.filmssql.config.ReadYourWrites;
+import com.filmssql.domain.event.MovieChangedEvent;
+import com.filmssql.domain.event.MoviesChangedEvent;
+import com.filmssql.web.dto.CacheStatsDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of movie responses already serialized to UTF-8 JSON (and optionally gzipped), active when
+ * {@code app.movies.cache.mode=bytes}. A hit is written to the response as is, with no object
+ * mapping; entries are weighed by their byte size and dropped on {@link MovieChangedEvent}.
+ */
+@Component
+public class MovieJsonCache implements MeterBinder {
+
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    private record Key(String type, Long id) {}
+
+    private record Encoded(byte[] json, byte[] gzip, String etag) {}
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final boolean gzip;
+    private final Cache<Key, Encoded> entries;
+
+    public MovieJsonCache(ObjectMapper objectMapper,
+                          @Value("${app.movies.cache.mode:object}") String mode,
+                          @Value("${app.movies.cache.gzip:true}") boolean gzip,
+                          @Value("${app.movies.cache.bytes-max-weight:268435456}") long maxBytes,
+                          @Value("${app.movies.cache.ttl:30m}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.enabled = "bytes".equalsIgnoreCase(mode);
+        this.gzip = gzip;
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key k, Encoded e) -> e.json().length + (e.gzip() != null ? e.gzip().length : 0))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Serves the cached bytes for the resource, encoding {@code body} on a miss; honours If-None-Match. */
+    public ResponseEntity<byte[]> respond(WebRequest request, String type, Long id, Supplier<?> body) {
+        Encoded e = entries.get(new Key(type, id), k -> encode(ReadYourWrites.onPrimaryIfWritten(id, body)));
+        if (request.checkNotModified(e.etag())) return null;
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(e.etag())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (e.gzip() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(e.gzip());
+        }
+        return response.body(e.json());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        entries.invalidate(new Key(EtagResponses.MOVIE, event.movieId()));
+        entries.invalidate(new Key(EtagResponses.MOVIE_PREVIEW, event.movieId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMoviesChanged(MoviesChangedEvent event) {
+        for (Long id : event.movieIds()) {
+            entries.invalidate(new Key(EtagResponses.MOVIE, id));
+            entries.invalidate(new Key(EtagResponses.MOVIE_PREVIEW, id));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, entries, "movie-json");
+    }
+
+    public CacheStatsDTO stats() {
+        CacheStats s = entries.stats();
+        return new CacheStatsDTO("movie-json", entries.estimatedSize(), s.hitCount(), s.missCount(), s.hitRate(),
+                s.evictionCount(), s.evictionWeight());
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows gzip: its weight is the one of {@code gzip} (or {@code x-gzip})
+     * when listed, else the one of {@code *}, and {@code q=0} refuses it (RFC 9110, 12.5.3).
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        double gzipQ = -1, anyQ = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            double q = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.length() > 2 && (param.charAt(0) == 'q' || param.charAt(0) == 'Q') && param.charAt(1) == '=') {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException ex) {
+                        q = 0;
+                    }
+                }
+            }
+            if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) gzipQ = Math.max(gzipQ, q);
+            else if (name.equals("*")) anyQ = Math.max(anyQ, q);
+        }
+        return (gzipQ >= 0 ? gzipQ : anyQ) > 0;
+    }
+
+    private Encoded encode(Object value) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            String etag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+            return new Encoded(json, gzip && json.length >= GZIP_MIN_BYTES ? gzip(json) : null, etag);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize movie response", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,5 @@
+-- Indexes the application's queries need beyond the tables' keys. Applied by the ingestion runner
+-- after a load; on a database filled some other way run it once, e.g. psql -d unitoDB -f indexes.sql.
+
+-- keyset of GET /api/actor-infos/scroll?sort=popularity; must match the coalesce of the query
+CREATE INDEX IF NOT EXISTS idx_actor_infos_popularity ON actor_infos ((coalesce(popularity, -1)) DESC, actor_id);
@@ -0,0 +1,55 @@
+package com.filmssql.perf;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/** {@code --key value} / {@code --flag} command line options. */
+final class Args {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    Args(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            String key = args[i].substring(2);
+            int eq = key.indexOf('=');
+            if (eq >= 0) values.put(key.substring(0, eq), key.substring(eq + 1));
+            else if (i + 1 < args.length && !args[i + 1].startsWith("--")) values.put(key, args[++i]);
+            else values.put(key, "true");
+        }
+    }
+
+    String get(String key, String def) {
+        return values.getOrDefault(key, def);
+    }
+
+    int getInt(String key, int def) {
+        String v = values.get(key);
+        return v == null ? def : Integer.parseInt(v.replace("_", ""));
+    }
+
+    long getLong(String key, long def) {
+        String v = values.get(key);
+        return v == null ? def : Long.parseLong(v.replace("_", ""));
+    }
+
+    double getDouble(String key, double def) {
+        String v = values.get(key);
+        return v == null ? def : Double.parseDouble(v);
+    }
+
+    boolean has(String key) {
+        return Boolean.parseBoolean(values.getOrDefault(key, "false"));
+    }
+
+    /** {@code 90s}, {@code 5m}, {@code 500ms} or plain seconds. */
+    Duration getDuration(String key, Duration def) {
+        String v = values.get(key);
+        if (v == null) return def;
+        if (v.endsWith("ms")) return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        if (v.endsWith("s")) return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+        if (v.endsWith("m")) return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+        return Duration.ofSeconds(Long.parseLong(v));
+    }
+}
@@ -0,0 +1,366 @@
+package com.filmssql.perf;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Fills the whole catalog schema with synthetic, reproducible data through {@code COPY}.
+ * <p>
+ * The same {@code --seed} and {@code --movies} always produce the same rows. Sizes follow skewed
+ * distributions: low movie ids are the "popular" head with more cast, crew and reviews, and low actor
+ * ids appear in many more films, so cache hit rates and query plans look like production's.
+ * <pre>
+ * mvn -Pperf compile exec:exec -Dperf.main=com.filmssql.perf.CatalogGenerator \
+ *     -Dperf.args="--url jdbc:postgresql://localhost:5432/perfDB --user postgres --password secret \
+ *                  --movies 100000 --create-schema --truncate"
+ * </pre>
+ * Options: {@code --movies} (10000), {@code --actors} (3 x movies), {@code --people} (2 x movies),
+ * {@code --seed} (42), {@code --create-schema}, {@code --truncate}, {@code --skip-indexes}.
+ */
+public final class CatalogGenerator {
+
+    private static final String[] TABLES = {
+            "genres_movies", "studios_movies", "countries_movies", "languages_movies", "oscar_awards",
+            "reviews_movies", "releases_movies", "movie_role_person", "actors_movies", "themes", "posters",
+            "actor_infos", "person", "role", "language", "country", "studio", "genre", "actor", "movies"};
+
+    private static final String[] SERIAL_TABLES = {
+            "movies", "actor", "genre", "studio", "country", "language", "role", "person", "posters", "themes",
+            "actors_movies", "movie_role_person", "releases_movies", "reviews_movies", "oscar_awards"};
+
+    private final int movies;
+    private final int actors;
+    private final int people;
+    private final int studios;
+    private final int countries;
+    private final int languages;
+    private final long seed;
+
+    CatalogGenerator(int movies, int actors, int people, long seed) {
+        this.movies = movies;
+        this.actors = actors;
+        this.people = people;
+        this.studios = Math.max(50, movies / 20);
+        this.countries = 60;
+        this.languages = 40;
+        this.seed = seed;
+    }
+
+    public static void main(String[] argv) throws Exception {
+        Args args = new Args(argv);
+        int movies = args.getInt("movies", 10_000);
+        CatalogGenerator generator = new CatalogGenerator(movies,
+                args.getInt("actors", movies * 3), args.getInt("people", movies * 2), args.getLong("seed", 42));
+
+        try (Connection conn = DriverManager.getConnection(
+                args.get("url", "jdbc:postgresql://localhost:5432/perfDB"),
+                args.get("user", "postgres"), args.get("password", ""))) {
+            if (args.has("create-schema")) runScript(conn, "/perf/schema.sql");
+            if (args.has("truncate")) {
+                try (Statement st = conn.createStatement()) {
+                    st.execute("TRUNCATE " + String.join(", ", TABLES) + " RESTART IDENTITY CASCADE");
+                }
+            }
+            conn.setAutoCommit(false);
+            long start = System.nanoTime();
+            generator.load(conn);
+            resetSequences(conn);
+            conn.commit();
+            conn.setAutoCommit(true);
+            if (!args.has("skip-indexes")) runScript(conn, "/perf/indexes.sql");
+            log("done in %.1fs", (System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    void load(Connection conn) throws SQLException {
+        CopyManager copy = conn.unwrap(PGConnection.class).getCopyAPI();
+        Loader loader = new Loader(conn, copy);
+        dictionaries(loader);
+        moviesTable(loader);
+        actorsTable(loader);
+        peopleTable(loader);
+        postersAndThemes(loader);
+        cast(loader);
+        crew(loader);
+        releases(loader);
+        reviews(loader);
+        oscars(loader);
+        joinTables(loader);
+    }
+
+    private void dictionaries(Loader loader) throws SQLException {
+        loader.copy("genre", "id, genre", w -> {
+            for (int i = 0; i < Vocabulary.GENRES.length; i++) w.row(i + 1, Vocabulary.GENRES[i]);
+        });
+        loader.copy("role", "id, role", w -> {
+            for (int i = 0; i < Vocabulary.ROLES.length; i++) w.row(i + 1, Vocabulary.ROLES[i]);
+        });
+        loader.copy("studio", "id, name", w -> {
+            for (int i = 1; i <= studios; i++) w.row(i, "Studio " + i + " Pictures");
+        });
+        loader.copy("country", "id, country", w -> {
+            for (int i = 1; i <= countries; i++) w.row(i, "Country " + i);
+        });
+        loader.copy("language", "id, language", w -> {
+            for (int i = 1; i <= languages; i++) w.row(i, "Language " + i);
+        });
+    }
+
+    private void moviesTable(Loader loader) throws SQLException {
+        SplittableRandom rnd = random(1);
+        loader.copy("movies", "id, name, date, tagline, description, minute, rating", w -> {
+            for (int id = 1; id <= movies; id++) {
+                Double rating = rnd.nextInt(100) < 15 ? null
+                        : Math.round(clamp(3.2 + gaussian(rnd) * 0.6, 0.5, 5.0) * 100) / 100.0;
+                w.row(id, Vocabulary.movieTitle(rnd),
+                        2025 - (int) (105 * Math.pow(rnd.nextDouble(), 2)),
+                        rnd.nextInt(3) == 0 ? null : Vocabulary.sentence(rnd, 4, 10),
+                        Vocabulary.sentence(rnd, 20, 60),
+                        60 + rnd.nextInt(120),
+                        rating);
+            }
+        });
+    }
+
+    private void actorsTable(Loader loader) throws SQLException {
+        SplittableRandom names = random(2);
+        loader.copy("actor", "id, name", w -> {
+            for (int id = 1; id <= actors; id++) w.row(id, Vocabulary.personName(names));
+        });
+        SplittableRandom rnd = random(3);
+        loader.copy("actor_infos",
+                "actor_id, biography, place_of_birth, birthday, name, gender, popularity, deathday, image_path", w -> {
+            for (int id = 1; id <= actors; id++) {
+                if (rnd.nextInt(10) >= 7) continue;
+                LocalDate birthday = LocalDate.of(1920 + rnd.nextInt(85), 1 + rnd.nextInt(12), 1 + rnd.nextInt(28));
+                w.row(id, Vocabulary.sentence(rnd, 30, 120), "Country " + (1 + rnd.nextInt(countries)),
+                        birthday, Vocabulary.personName(rnd), rnd.nextInt(3),
+                        Math.round(100.0 / Math.sqrt(id) * 100) / 100.0 + rnd.nextInt(5),
+                        rnd.nextInt(20) == 0 ? birthday.plusYears(40 + rnd.nextInt(50)) : null,
+                        "/" + id + ".jpg");
+            }
+        });
+    }
+
+    private void peopleTable(Loader loader) throws SQLException {
+        SplittableRandom rnd = random(4);
+        loader.copy("person", "id, name", w -> {
+            for (int id = 1; id <= people; id++) w.row(id, Vocabulary.personName(rnd));
+        });
+    }
+
+    private void postersAndThemes(Loader loader) throws SQLException {
+        SplittableRandom posters = random(5);
+        loader.copy("posters", "id, link, movie_id", w -> {
+            long id = 0;
+            for (int movie = 1; movie <= movies; movie++) {
+                if (posters.nextInt(10) == 0) continue;
+                w.row(++id, "https://posters.example.org/" + movie + ".jpg", movie);
+            }
+        });
+        SplittableRandom rnd = random(6);
+        loader.copy("themes", "id, movie_id, theme", w -> {
+            long id = 0;
+            for (int movie = 1; movie <= movies; movie++) {
+                for (int n = count(rnd, 3 * head(movie), 40); n > 0; n--) {
+                    w.row(++id, movie, Vocabulary.sentence(rnd, 2, 5));
+                }
+            }
+        });
+    }
+
+    private void cast(Loader loader) throws SQLException {
+        SplittableRandom rnd = random(7);
+        loader.copy("actors_movies", "id, movie_id, actor_id, role", w -> {
+            long id = 0;
+            for (int movie = 1; movie <= movies; movie++) {
+                for (int n = count(rnd, 12 * head(movie), 300); n > 0; n--) {
+                    w.row(++id, movie, skewed(rnd, actors), Vocabulary.pick(rnd, Vocabulary.FIRST_NAMES));
+                }
+            }
+        });
+    }
+
+    private void crew(Loader loader) throws SQLException {
+        SplittableRandom rnd = random(8);
+        Set<Long> seen = new HashSet<>();
+        loader.copy("movie_role_person", "id, movie_id, role_id, person_id", w -> {
+            long id = 0;
+            for (int movie = 1; movie <= movies; movie++) {
+                seen.clear();
+                for (int n = count(rnd, 8 * head(movie), 200); n > 0; n--) {
+                    int role = 1 + (int) (Vocabulary.ROLES.length * Math.pow(rnd.nextDouble(), 2));
+                    long person = skewed(rnd, people);
+                    if (seen.add(person * 64 + role)) w.row(++id, movie, role, person);
+                }
+            }
+        });
+    }
+
+    private void releases(Loader loader) throws SQLException {
+        SplittableRandom rnd = random(9);
+        loader.copy("releases_movies", "id, movie_id, country_id, release_date, release_type, rating", w -> {
+            long id = 0;
+            for (int movie = 1; movie <= movies; movie++) {
+                LocalDate first = LocalDate.of(1920 + rnd.nextInt(105), 1 + rnd.nextInt(12), 1 + rnd.nextInt(28));
+                for (int n = count(rnd, 4 * head(movie), 80); n > 0; n--) {
+                    w.row(++id, movie, 1 + rnd.nextInt(countries), first.plusDays(rnd.nextInt(400)),
+                            Vocabulary.pick(rnd, Vocabulary.RELEASE_TYPES), Vocabulary.pick(rnd, Vocabulary.CERTIFICATIONS));
+                }
+            }
+        });
+    }
+
+    private void reviews(Loader loader) throws SQLException {
+        SplittableRandom rnd = random(10);
+        loader.copy("reviews_movies", "id, movie_id, critic_name, top_critic, publisher_name, "
+                + "review_type, review_score, review_date, review_content", w -> {
+            long id = 0;
+            for (int movie = 1; movie <= movies; movie++) {
+                for (int n = count(rnd, 6 * head(movie), 400); n > 0; n--) {
+                    w.row(++id, movie, Vocabulary.personName(rnd), rnd.nextInt(5) == 0,
+                            "Publisher " + (1 + rnd.nextInt(300)), rnd.nextInt(3) == 0 ? "Rotten" : "Fresh",
+                            Vocabulary.pick(rnd, Vocabulary.REVIEW_SCORES),
+                            LocalDate.of(1990 + rnd.nextInt(35), 1 + rnd.nextInt(12), 1 + rnd.nextInt(28)),
+                            Vocabulary.sentence(rnd, 10, 40));
+                }
+            }
+        });
+    }
+
+    private void oscars(Loader loader) throws SQLException {
+        SplittableRandom rnd = random(11);
+        loader.copy("oscar_awards", "id, year_film, year_ceremony, category, name, film, winner, actor_id, movie_id", w -> {
+            int rows = Math.max(100, movies / 10);
+            for (int id = 1; id <= rows; id++) {
+                int year = 1928 + rnd.nextInt(97);
+                String category = Vocabulary.pick(rnd, Vocabulary.OSCAR_CATEGORIES);
+                boolean person = category.startsWith("ACT") || rnd.nextInt(3) == 0;
+                Long actor = person ? (long) skewed(rnd, Math.min(actors, movies)) : null;
+                Long movie = rnd.nextInt(10) == 0 ? null : (long) skewed(rnd, movies);
+                w.row(id, String.valueOf(year), String.valueOf(year + 1), category,
+                        person ? Vocabulary.personName(rnd) : "Studio " + (1 + rnd.nextInt(studios)) + " Pictures",
+                        Vocabulary.movieTitle(rnd), rnd.nextInt(5) == 0, actor, movie);
+            }
+        });
+    }
+
+    private void joinTables(Loader loader) throws SQLException {
+        joinTable(loader, "genres_movies", "genre_id", 12, Vocabulary.GENRES.length, 1, 3);
+        joinTable(loader, "studios_movies", "studio_id", 13, studios, 0, 3);
+        joinTable(loader, "countries_movies", "country_id", 14, countries, 1, 2);
+        joinTable(loader, "languages_movies", "language_id", 15, languages, 1, 2);
+    }
+
+    private void joinTable(Loader loader, String table, String column, int stream,
+                           int targets, int min, int max) throws SQLException {
+        SplittableRandom rnd = random(stream);
+        Set<Integer> seen = new HashSet<>();
+        loader.copy(table, "movie_id, " + column, w -> {
+            for (int movie = 1; movie <= movies; movie++) {
+                seen.clear();
+                for (int n = min + rnd.nextInt(max - min + 1); n > 0; n--) {
+                    int target = skewed(rnd, targets);
+                    if (seen.add(target)) w.row(movie, target);
+                }
+            }
+        });
+    }
+
+    // every table has its own stream, so changing one generator does not reshuffle the others
+    private SplittableRandom random(int stream) {
+        return new SplittableRandom(seed * 1_000_003L + stream);
+    }
+
+    /** Head movies (the first 5% of ids) get several times more related rows. */
+    private int head(int movieId) {
+        return movieId <= movies / 20 ? 4 : 1;
+    }
+
+    /** Geometric count with the given mean, capped. */
+    private static int count(SplittableRandom rnd, double mean, int cap) {
+        double p = 1 / (mean + 1);
+        return (int) Math.min(cap, Math.floor(Math.log(1 - rnd.nextDouble()) / Math.log(1 - p)));
+    }
+
+    /** Id in [1, n], quadratically skewed towards low ids. */
+    private static int skewed(SplittableRandom rnd, int n) {
+        double u = rnd.nextDouble();
+        return 1 + (int) (n * u * u);
+    }
+
+    private static double gaussian(SplittableRandom rnd) {
+        double u = 1 - rnd.nextDouble();
+        double v = rnd.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v);
+    }
+
+    private static double clamp(double v, double lo, double hi) {
+        return Math.max(lo, Math.min(hi, v));
+    }
+
+    private interface Rows {
+        void write(CopyWriter w) throws SQLException;
+    }
+
+    /** Copies one table and commits it, so that a failed run keeps the tables already loaded. */
+    private record Loader(Connection conn, CopyManager manager) {
+        void copy(String table, String columns, Rows rows) throws SQLException {
+            long start = System.nanoTime();
+            long count;
+            try (CopyWriter w = new CopyWriter(manager, table, columns)) {
+                rows.write(w);
+                count = w.rows();
+            }
+            conn.commit();
+            double secs = (System.nanoTime() - start) / 1e9;
+            log("%-18s %,12d rows  %6.1fs  %,10.0f rows/s", table, count, secs, count / Math.max(secs, 1e-3));
+        }
+    }
+
+    private static void resetSequences(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            for (String table : SERIAL_TABLES) {
+                st.execute("SELECT setval(pg_get_serial_sequence('%1$s', 'id'), COALESCE(MAX(id), 0) + 1, false) FROM %1$s"
+                        .formatted(table));
+            }
+        }
+    }
+
+    private static void runScript(Connection conn, String resource) throws SQLException, IOException {
+        String script;
+        try (InputStream in = CatalogGenerator.class.getResourceAsStream(resource)) {
+            if (in == null) throw new IOException("Missing resource " + resource);
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        StringBuilder sql = new StringBuilder();
+        try (Statement st = conn.createStatement()) {
+            for (String line : script.split("\n")) {
+                if (line.isBlank() || line.stripLeading().startsWith("--")) continue;
+                sql.append(line).append('\n');
+                if (line.stripTrailing().endsWith(";")) {
+                    st.execute(sql.toString());
+                    sql.setLength(0);
+                }
+            }
+        }
+        log("applied %s", resource.substring(resource.lastIndexOf('/') + 1));
+    }
+
+    static void log(String format, Object... args) {
+        System.out.println(String.format(Locale.ROOT, format, args));
+    }
+}
@@ -0,0 +1,79 @@
+package com.filmssql.perf;
+
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Streams rows into one table through {@code COPY ... FROM STDIN} in PostgreSQL text format,
+ * buffering about a megabyte between writes.
+ */
+final class CopyWriter implements AutoCloseable {
+
+    private static final int FLUSH_CHARS = 1 << 20;
+
+    private final CopyIn copy;
+    private final StringBuilder buf = new StringBuilder(FLUSH_CHARS + 4096);
+    private long rows;
+
+    CopyWriter(CopyManager manager, String table, String columns) throws SQLException {
+        this.copy = manager.copyIn("COPY " + table + " (" + columns + ") FROM STDIN");
+    }
+
+    void row(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) buf.append('\t');
+            append(values[i]);
+        }
+        buf.append('\n');
+        rows++;
+        if (buf.length() >= FLUSH_CHARS) flush();
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    private void append(Object v) {
+        if (v == null) {
+            buf.append("\\N");
+        } else if (v instanceof String s) {
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                switch (c) {
+                    case '\\' -> buf.append("\\\\");
+                    case '\t' -> buf.append("\\t");
+                    case '\n' -> buf.append("\\n");
+                    case '\r' -> buf.append("\\r");
+                    default -> buf.append(c);
+                }
+            }
+        } else if (v instanceof Boolean b) {
+            buf.append(b ? 't' : 'f');
+        } else if (v instanceof LocalDate d) {
+            buf.append(d);
+        } else {
+            buf.append(v);
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (buf.isEmpty()) return;
+        byte[] bytes = buf.toString().getBytes(StandardCharsets.UTF_8);
+        copy.writeToCopy(bytes, 0, bytes.length);
+        buf.setLength(0);
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+            copy.endCopy();
+        } finally {
+            if (copy.isActive()) copy.cancelCopy();
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.filmssql.perf;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * HTTP load test against the Spring Boot API with a weighted mix of the hot endpoints,
+ * reporting throughput and latency percentiles per endpoint.
+ * <p>
+ * Without {@code --rate} every worker sends its next request as soon as the previous one completes
+ * (closed loop). With {@code --rate} requests are scheduled at a fixed total rate and latency is
+ * measured from the scheduled start, so a stalled server shows up in the percentiles instead of
+ * silently lowering the load.
+ * <pre>
+ * mvn -Pperf compile exec:exec -Dperf.args="--base-url http://localhost:8081 --movies 100000 \
+ *     --concurrency 32 --duration 60s --warmup 15s --mix detail=50,search=15,random=10,topRated=10,reviews=15"
+ * </pre>
+ * Movie ids are drawn from {@code [1, --movies]} skewed towards low ids, matching the popular head
+ * of {@link CatalogGenerator}; search terms come from the same {@link Vocabulary}.
+ * {@code --out file.csv} also writes the summary as CSV.
+ */
+public final class LoadTestRunner {
+
+    enum Op {
+        DETAIL, SEARCH, RANDOM, TOP_RATED, REVIEWS;
+
+        static Op parse(String s) {
+            return switch (s.trim().toLowerCase(Locale.ROOT)) {
+                case "detail" -> DETAIL;
+                case "search" -> SEARCH;
+                case "random" -> RANDOM;
+                case "toprated", "top-rated" -> TOP_RATED;
+                case "reviews" -> REVIEWS;
+                default -> throw new IllegalArgumentException("Unknown operation in --mix: " + s);
+            };
+        }
+    }
+
+    private final String baseUrl;
+    private final int movies;
+    private final Op[] wheel;
+    private final HttpClient client;
+
+    LoadTestRunner(String baseUrl, int movies, Map<Op, Integer> mix) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.movies = movies;
+        List<Op> ops = new ArrayList<>();
+        mix.forEach((op, weight) -> {
+            for (int i = 0; i < weight; i++) ops.add(op);
+        });
+        if (ops.isEmpty()) throw new IllegalArgumentException("--mix has no positive weight");
+        this.wheel = ops.toArray(Op[]::new);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] argv) throws Exception {
+        Args args = new Args(argv);
+        LoadTestRunner runner = new LoadTestRunner(
+                args.get("base-url", "http://localhost:8081"),
+                args.getInt("movies", 10_000),
+                parseMix(args.get("mix", "detail=50,search=15,random=10,topRated=10,reviews=15")));
+        Duration warmup = args.getDuration("warmup", Duration.ofSeconds(15));
+        Duration duration = args.getDuration("duration", Duration.ofSeconds(60));
+        int concurrency = args.getInt("concurrency", 32);
+        double rate = args.getDouble("rate", 0);
+
+        CatalogGenerator.log("%d workers, %s, warmup %ds, measuring %ds against %s",
+                concurrency, rate > 0 ? "%.0f req/s".formatted(rate) : "closed loop",
+                warmup.toSeconds(), duration.toSeconds(), runner.baseUrl);
+        Map<Op, Recorder> results = runner.run(concurrency, rate, warmup, duration, args.getLong("seed", 7));
+        report(results, duration);
+        String out = args.get("out", null);
+        if (out != null) writeCsv(Path.of(out), results, duration);
+    }
+
+    Map<Op, Recorder> run(int concurrency, double rate, Duration warmup, Duration duration, long seed)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        // with a target rate each worker owns every concurrency-th slot of the global schedule
+        long interval = rate > 0 ? (long) (1e9 * concurrency / rate) : 0;
+
+        List<Map<Op, Recorder>> perWorker = new ArrayList<>();
+        CountDownLatch finished = new CountDownLatch(concurrency);
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            Map<Op, Recorder> recorders = new EnumMap<>(Op.class);
+            for (Op op : Op.values()) recorders.put(op, new Recorder());
+            perWorker.add(recorders);
+            SplittableRandom rnd = new SplittableRandom(seed * 1_000_003L + w);
+            long firstSlot = start + (interval > 0 ? interval * w / concurrency : 0);
+            pool.execute(() -> {
+                try {
+                    work(rnd, recorders, firstSlot, interval, measureFrom, end);
+                } finally {
+                    finished.countDown();
+                }
+            });
+        }
+        finished.await();
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+
+        Map<Op, Recorder> merged = new EnumMap<>(Op.class);
+        for (Op op : Op.values()) {
+            Recorder all = new Recorder();
+            for (Map<Op, Recorder> r : perWorker) all.merge(r.get(op));
+            merged.put(op, all);
+        }
+        return merged;
+    }
+
+    private void work(SplittableRandom rnd, Map<Op, Recorder> recorders, long firstSlot, long interval,
+                      long measureFrom, long end) {
+        long slot = firstSlot;
+        while (true) {
+            long begin;
+            if (interval > 0) {
+                long now = System.nanoTime();
+                if (slot > now) LockSupport.parkNanos(slot - now);
+                begin = slot;
+                slot += interval;
+            } else {
+                begin = System.nanoTime();
+            }
+            if (begin >= end) return;
+
+            Op op = wheel[rnd.nextInt(wheel.length)];
+            boolean ok;
+            try {
+                HttpResponse<Void> response = client.send(request(op, rnd), HttpResponse.BodyHandlers.discarding());
+                ok = response.statusCode() / 100 == 2 || response.statusCode() == 304;
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (begin >= measureFrom) recorders.get(op).record(System.nanoTime() - begin, ok);
+        }
+    }
+
+    private HttpRequest request(Op op, SplittableRandom rnd) {
+        String path = switch (op) {
+            case DETAIL -> "/api/movies/" + movieId(rnd);
+            case SEARCH -> "/api/search?limit=10&query="
+                    + URLEncoder.encode(Vocabulary.searchTerm(rnd), StandardCharsets.UTF_8);
+            case RANDOM -> "/api/movies/random";
+            case TOP_RATED -> "/api/movies/top-rated?limit=" + (rnd.nextInt(4) == 0 ? 50 : 10);
+            case REVIEWS -> "/api/reviewmovie/" + movieId(rnd);
+        };
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    private int movieId(SplittableRandom rnd) {
+        double u = rnd.nextDouble();
+        return 1 + (int) (movies * u * u);
+    }
+
+    private static Map<Op, Integer> parseMix(String mix) {
+        Map<Op, Integer> weights = new EnumMap<>(Op.class);
+        for (String part : mix.split(",")) {
+            String[] kv = part.split("=");
+            if (kv.length != 2) throw new IllegalArgumentException("Expected op=weight in --mix, got " + part);
+            weights.put(Op.parse(kv[0]), Integer.parseInt(kv[1].trim()));
+        }
+        return weights;
+    }
+
+    private static void report(Map<Op, Recorder> results, Duration duration) {
+        double secs = duration.toNanos() / 1e9;
+        CatalogGenerator.log("%n%-10s %10s %8s %9s %9s %9s %9s %9s %9s %9s",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "mean ms");
+        Recorder total = new Recorder();
+        for (Map.Entry<Op, Recorder> e : results.entrySet()) {
+            Recorder r = e.getValue();
+            total.merge(r);
+            if (r.count() > 0) print(e.getKey().name().toLowerCase(Locale.ROOT), r, secs);
+        }
+        print("total", total, secs);
+    }
+
+    private static void print(String name, Recorder r, double secs) {
+        long[] sorted = r.sorted();
+        CatalogGenerator.log("%-10s %10d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                name, r.count(), r.errors, r.count() / secs,
+                ms(percentile(sorted, 50)), ms(percentile(sorted, 90)), ms(percentile(sorted, 99)),
+                ms(percentile(sorted, 99.9)), ms(sorted.length == 0 ? 0 : sorted[sorted.length - 1]),
+                ms(r.count() == 0 ? 0 : r.sum / r.count()));
+    }
+
+    private static void writeCsv(Path file, Map<Op, Recorder> results, Duration duration) throws IOException {
+        double secs = duration.toNanos() / 1e9;
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.println("endpoint,requests,errors,rps,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+            for (Map.Entry<Op, Recorder> e : results.entrySet()) {
+                Recorder r = e.getValue();
+                long[] s = r.sorted();
+                out.println(String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f",
+                        e.getKey().name().toLowerCase(Locale.ROOT), r.count(), r.errors, r.count() / secs,
+                        ms(percentile(s, 50)), ms(percentile(s, 90)), ms(percentile(s, 99)),
+                        ms(percentile(s, 99.9)), ms(s.length == 0 ? 0 : s[s.length - 1])));
+            }
+        }
+        CatalogGenerator.log("summary written to %s", file);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int i = (int) Math.ceil(p / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, i))];
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1e6;
+    }
+
+    /** Every latency of one endpoint on one worker, in nanoseconds; not thread-safe. */
+    static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+        private long sum;
+
+        void record(long nanos, boolean ok) {
+            if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+            latencies[count++] = nanos;
+            sum += nanos;
+            if (!ok) errors++;
+        }
+
+        void merge(Recorder other) {
+            if (count + other.count > latencies.length) latencies = Arrays.copyOf(latencies, count + other.count);
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            errors += other.errors;
+            sum += other.sum;
+        }
+
+        int count() {
+            return count;
+        }
+
+        long[] sorted() {
+            long[] s = Arrays.copyOf(latencies, count);
+            Arrays.sort(s);
+            return s;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.filmssql.perf;
+
+import java.util.SplittableRandom;
+
+/**
+ * Word lists shared by the catalog generator and the load test, so that search queries
+ * hit names that exist in a generated database.
+ */
+final class Vocabulary {
+    private Vocabulary() {}
+
+    static final String[] TITLE_ADJECTIVES = {
+            "Silent", "Broken", "Last", "Hidden", "Golden", "Dark", "Wild", "Lost", "Crimson", "Frozen",
+            "Endless", "Secret", "Burning", "Distant", "Savage", "Electric", "Midnight", "Little", "Eternal", "Restless",
+            "Hollow", "Bitter", "Velvet", "Iron", "Paper", "Glass", "Quiet", "Blue", "Scarlet", "Northern"};
+
+    static final String[] TITLE_NOUNS = {
+            "River", "Garden", "Empire", "Summer", "Kingdom", "Station", "Mirror", "Harbor", "Frontier", "Promise",
+            "Shadow", "Island", "Machine", "Symphony", "Horizon", "Letter", "Storm", "Orchard", "Witness", "Carnival",
+            "Lighthouse", "Voyage", "Winter", "Circus", "Border", "Heart", "Road", "Tide", "Castle", "Detective"};
+
+    static final String[] FIRST_NAMES = {
+            "Anna", "Marco", "Julia", "Thomas", "Sofia", "Luca", "Emma", "David", "Chiara", "Michael",
+            "Laura", "Paolo", "Sarah", "James", "Elena", "Robert", "Giulia", "Daniel", "Maria", "John",
+            "Kate", "Andrea", "Olivia", "Pierre", "Ingrid", "Hiro", "Amir", "Nadia", "Viktor", "Lucia"};
+
+    static final String[] LAST_NAMES = {
+            "Rossi", "Smith", "Bianchi", "Johnson", "Moreau", "Ferrari", "Brown", "Tanaka", "Novak", "Garcia",
+            "Romano", "Miller", "Costa", "Dubois", "Kowalski", "Esposito", "Wilson", "Larsen", "Conti", "Taylor",
+            "Ricci", "Anderson", "Petrov", "Marino", "Schmidt", "Greco", "Nakamura", "Lopez", "Bruno", "Clark"};
+
+    static final String[] GENRES = {
+            "Drama", "Comedy", "Thriller", "Action", "Romance", "Horror", "Documentary", "Crime", "Adventure",
+            "Science Fiction", "Fantasy", "Mystery", "Animation", "Family", "History", "Music", "War", "Western", "TV Movie"};
+
+    static final String[] ROLES = {
+            "Director", "Producer", "Writer", "Screenplay", "Editor", "Cinematography", "Composer", "Casting",
+            "Production Design", "Art Direction", "Set Decoration", "Costume Design", "Makeup", "Sound", "Visual Effects",
+            "Stunts", "Lighting", "Camera Operator", "Executive Producer", "Co-Director"};
+
+    static final String[] RELEASE_TYPES = {"Theatrical", "Digital", "Physical", "TV", "Premiere", "Theatrical limited"};
+
+    static final String[] CERTIFICATIONS = {"G", "PG", "PG-13", "R", "NC-17", "T", "VM14", "VM18", null};
+
+    static final String[] REVIEW_SCORES = {"1/4", "2/4", "3/4", "4/4", "2/5", "3/5", "4/5", "5/5", "B", "A-", "7/10", null};
+
+    static final String[] OSCAR_CATEGORIES = {
+            "ACTOR IN A LEADING ROLE", "ACTRESS IN A LEADING ROLE", "ACTOR IN A SUPPORTING ROLE",
+            "ACTRESS IN A SUPPORTING ROLE", "DIRECTING", "BEST PICTURE", "CINEMATOGRAPHY", "FILM EDITING",
+            "MUSIC (Original Score)", "WRITING (Original Screenplay)", "WRITING (Adapted Screenplay)",
+            "COSTUME DESIGN", "SOUND", "VISUAL EFFECTS", "INTERNATIONAL FEATURE FILM", "DOCUMENTARY FEATURE"};
+
+    static final String[] SENTENCE_WORDS = {
+            "a", "the", "of", "and", "story", "family", "journey", "love", "city", "war", "secret", "past", "young",
+            "old", "friends", "must", "finds", "after", "before", "between", "world", "life", "death", "truth",
+            "night", "small", "town", "mysterious", "stranger", "discovers", "returns", "home", "years", "later"};
+
+    static String pick(SplittableRandom rnd, String[] words) {
+        return words[rnd.nextInt(words.length)];
+    }
+
+    static String movieTitle(SplittableRandom rnd) {
+        String title = "The " + pick(rnd, TITLE_ADJECTIVES) + " " + pick(rnd, TITLE_NOUNS);
+        int r = rnd.nextInt(10);
+        if (r == 0) return title + " " + (2 + rnd.nextInt(4));
+        if (r == 1) return pick(rnd, TITLE_NOUNS) + " of the " + pick(rnd, TITLE_NOUNS);
+        return title;
+    }
+
+    static String personName(SplittableRandom rnd) {
+        return pick(rnd, FIRST_NAMES) + " " + pick(rnd, LAST_NAMES);
+    }
+
+    static String sentence(SplittableRandom rnd, int minWords, int maxWords) {
+        int n = minWords + rnd.nextInt(maxWords - minWords + 1);
+        StringBuilder sb = new StringBuilder(n * 7);
+        for (int i = 0; i < n; i++) {
+            String w = pick(rnd, SENTENCE_WORDS);
+            if (i == 0) sb.append(Character.toUpperCase(w.charAt(0))).append(w, 1, w.length());
+            else sb.append(' ').append(w);
+        }
+        return sb.append('.').toString();
+    }
+
+    /** Something a user would type in the search box: a (partial) title or name word. */
+    static String searchTerm(SplittableRandom rnd) {
+        String[] source = switch (rnd.nextInt(4)) {
+            case 0 -> TITLE_ADJECTIVES;
+            case 1 -> TITLE_NOUNS;
+            case 2 -> FIRST_NAMES;
+            default -> LAST_NAMES;
+        };
+        String w = pick(rnd, source);
+        return rnd.nextInt(3) == 0 ? w.substring(0, Math.min(w.length(), 3 + rnd.nextInt(3))).toLowerCase() : w;
+    }
+}
@@ -0,0 +1,19 @@
+-- Created after the bulk load, so COPY does not maintain them row by row.
+CREATE INDEX IF NOT EXISTS idx_movies_rating        ON movies (rating DESC NULLS LAST, id);
+CREATE INDEX IF NOT EXISTS idx_movies_date          ON movies (date DESC NULLS LAST, id);
+CREATE INDEX IF NOT EXISTS idx_movies_name_trgm     ON movies USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_actor_name_trgm      ON actor USING gin (lower(name) gin_trgm_ops);
+-- keyset of GET /api/actor-infos/scroll?sort=popularity, as in src/main/resources/db/indexes.sql
+CREATE INDEX IF NOT EXISTS idx_actor_infos_popularity ON actor_infos ((coalesce(popularity, -1)) DESC, actor_id);
+CREATE INDEX IF NOT EXISTS idx_themes_movie         ON themes (movie_id);
+CREATE INDEX IF NOT EXISTS idx_actors_movies_movie  ON actors_movies (movie_id);
+CREATE INDEX IF NOT EXISTS idx_actors_movies_actor  ON actors_movies (actor_id);
+CREATE INDEX IF NOT EXISTS idx_releases_movie       ON releases_movies (movie_id);
+CREATE INDEX IF NOT EXISTS idx_reviews_movie        ON reviews_movies (movie_id);
+CREATE INDEX IF NOT EXISTS idx_oscar_actor          ON oscar_awards (actor_id);
+CREATE INDEX IF NOT EXISTS idx_oscar_movie          ON oscar_awards (movie_id);
+CREATE INDEX IF NOT EXISTS idx_genres_movies_genre  ON genres_movies (genre_id);
+CREATE INDEX IF NOT EXISTS idx_studios_movies_st    ON studios_movies (studio_id);
+CREATE INDEX IF NOT EXISTS idx_countries_movies_c   ON countries_movies (country_id);
+CREATE INDEX IF NOT EXISTS idx_languages_movies_l   ON languages_movies (language_id);
+ANALYZE;
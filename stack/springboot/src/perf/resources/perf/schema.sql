@@ -0,0 +1,101 @@
+-- Catalog schema as mapped by the JPA entities (spring.jpa.hibernate.ddl-auto=none), for perf databases.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE TABLE IF NOT EXISTS movies (
+    id          BIGSERIAL PRIMARY KEY,
+    name        VARCHAR(255) NOT NULL,
+    date        INTEGER,
+    tagline     TEXT,
+    description TEXT,
+    minute      INTEGER,
+    rating      DOUBLE PRECISION
+);
+
+CREATE TABLE IF NOT EXISTS actor (
+    id   BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS actor_infos (
+    actor_id       BIGINT PRIMARY KEY REFERENCES actor (id),
+    biography      TEXT,
+    place_of_birth TEXT,
+    birthday       DATE,
+    name           VARCHAR(255),
+    gender         INTEGER,
+    popularity     DOUBLE PRECISION,
+    deathday       DATE,
+    image_path     VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS genre    (id BIGSERIAL PRIMARY KEY, genre    VARCHAR(255) NOT NULL UNIQUE);
+CREATE TABLE IF NOT EXISTS studio   (id BIGSERIAL PRIMARY KEY, name     VARCHAR(255) NOT NULL UNIQUE);
+CREATE TABLE IF NOT EXISTS country  (id BIGSERIAL PRIMARY KEY, country  VARCHAR(255) NOT NULL UNIQUE);
+CREATE TABLE IF NOT EXISTS language (id BIGSERIAL PRIMARY KEY, language VARCHAR(255) NOT NULL UNIQUE);
+CREATE TABLE IF NOT EXISTS role     (id BIGSERIAL PRIMARY KEY, role     VARCHAR(255) NOT NULL UNIQUE);
+CREATE TABLE IF NOT EXISTS person   (id BIGSERIAL PRIMARY KEY, name     VARCHAR(255) NOT NULL);
+
+CREATE TABLE IF NOT EXISTS posters (
+    id       BIGSERIAL PRIMARY KEY,
+    link     VARCHAR(255),
+    movie_id BIGINT NOT NULL UNIQUE REFERENCES movies (id)
+);
+
+CREATE TABLE IF NOT EXISTS themes (
+    id       BIGSERIAL PRIMARY KEY,
+    movie_id BIGINT REFERENCES movies (id),
+    theme    VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS actors_movies (
+    id       BIGSERIAL PRIMARY KEY,
+    movie_id BIGINT NOT NULL REFERENCES movies (id),
+    actor_id BIGINT NOT NULL REFERENCES actor (id),
+    role     VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS movie_role_person (
+    id        BIGSERIAL PRIMARY KEY,
+    movie_id  BIGINT NOT NULL REFERENCES movies (id),
+    role_id   BIGINT NOT NULL REFERENCES role (id),
+    person_id BIGINT NOT NULL REFERENCES person (id),
+    UNIQUE (movie_id, role_id, person_id)
+);
+
+CREATE TABLE IF NOT EXISTS releases_movies (
+    id           BIGSERIAL PRIMARY KEY,
+    movie_id     BIGINT NOT NULL REFERENCES movies (id),
+    country_id   BIGINT REFERENCES country (id),
+    release_date DATE NOT NULL,
+    release_type VARCHAR(255) NOT NULL,
+    rating       VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS reviews_movies (
+    id             BIGSERIAL PRIMARY KEY,
+    movie_id       BIGINT NOT NULL REFERENCES movies (id),
+    critic_name    VARCHAR(255),
+    top_critic     BOOLEAN NOT NULL,
+    publisher_name VARCHAR(255),
+    review_type    VARCHAR(255),
+    review_score   VARCHAR(255),
+    review_date    DATE,
+    review_content TEXT
+);
+
+CREATE TABLE IF NOT EXISTS oscar_awards (
+    id            BIGSERIAL PRIMARY KEY,
+    year_film     VARCHAR(255),
+    year_ceremony VARCHAR(255),
+    category      VARCHAR(255),
+    name          VARCHAR(255),
+    film          VARCHAR(255),
+    winner        BOOLEAN,
+    actor_id      BIGINT REFERENCES actor (id),
+    movie_id      BIGINT REFERENCES movies (id)
+);
+
+CREATE TABLE IF NOT EXISTS genres_movies    (movie_id BIGINT NOT NULL REFERENCES movies (id), genre_id    BIGINT NOT NULL REFERENCES genre (id),    PRIMARY KEY (movie_id, genre_id));
+CREATE TABLE IF NOT EXISTS studios_movies   (movie_id BIGINT NOT NULL REFERENCES movies (id), studio_id   BIGINT NOT NULL REFERENCES studio (id),   PRIMARY KEY (movie_id, studio_id));
+CREATE TABLE IF NOT EXISTS countries_movies (movie_id BIGINT NOT NULL REFERENCES movies (id), country_id  BIGINT NOT NULL REFERENCES country (id),  PRIMARY KEY (movie_id, country_id));
+CREATE TABLE IF NOT EXISTS languages_movies (movie_id BIGINT NOT NULL REFERENCES movies (id), language_id BIGINT NOT NULL REFERENCES language (id), PRIMARY KEY (movie_id, language_id));
@@ -0,0 +1,78 @@
+package com.filmssql.config;
+
+import com.filmssql.FilmsqlApplication;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Needs the primary (spring.datasource.url) and a second PostgreSQL instance standing in for the replica, e.g.
+// FILMSQL_REPLICA_URL=jdbc:postgresql://localhost:5433/unitoDB ; skipped when the variable is not set.
+@SpringBootTest(classes = FilmsqlApplication.class, properties = {
+        "app.datasource.routing.enabled=true",
+        "app.datasource.routing.replica-urls=${FILMSQL_REPLICA_URL:}"})
+@EnabledIfEnvironmentVariable(named = "FILMSQL_REPLICA_URL", matches = ".+")
+class DataSourceRoutingTests {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaRouter replicaRouter;
+
+    @Value("${spring.datasource.url}")
+    private String primaryUrl;
+
+    @Value("${app.datasource.routing.replica-urls}")
+    private List<String> replicaUrls;
+
+    @AfterEach
+    void clearPin() {
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        replicaRouter.checkHealth();
+        assertEquals(replicaUrls.get(0), urlIn(true));
+        assertEquals(primaryUrl, urlIn(false));
+    }
+
+    @Test
+    void readsAfterAWriteOnTheSameThreadUseThePrimary() {
+        replicaRouter.checkHealth();
+        urlIn(false);
+        assertEquals(primaryUrl, urlIn(true));
+        ReadYourWrites.clear();
+        assertEquals(replicaUrls.get(0), urlIn(true));
+    }
+
+    @Test
+    void recentlyWrittenMoviesReloadFromThePrimary() {
+        replicaRouter.checkHealth();
+        ReadYourWrites.moviesWritten(List.of(-1L));
+        assertEquals(primaryUrl, ReadYourWrites.onPrimaryIfWritten(-1L, () -> urlIn(true)));
+        assertEquals(replicaUrls.get(0), ReadYourWrites.onPrimaryIfWritten(-2L, () -> urlIn(true)));
+    }
+
+    private String urlIn(boolean readOnly) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(readOnly);
+        return tx.execute(status -> new JdbcTemplate(dataSource)
+                .execute((ConnectionCallback<String>) con -> con.getMetaData().getURL()));
+    }
+}
@@ -0,0 +1,203 @@
+package com.filmssql.domain.service;
+
+import com.filmssql.domain.repository.MovieFeatureRepository;
+import com.filmssql.domain.repository.MovieLink;
+import com.filmssql.domain.repository.MovieLinkRepository;
+import com.filmssql.web.dto.AnalyticsRatingDTO;
+import com.filmssql.web.dto.AnalyticsYearCountDTO;
+import com.filmssql.web.dto.RuntimeBucketDTO;
+import com.filmssql.web.dto.RuntimeDistributionDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/** Aggregates over a generated snapshot, larger than one chunk, against brute-force answers. */
+class CatalogAnalyticsTests {
+
+    private static final int MOVIES = 150_000;
+
+    private record Movie(long id, Integer year, Integer minute, Double rating) {}
+
+    private final Map<Long, Movie> movies = new LinkedHashMap<>();
+    // distinct targets per movie; the link rows fed to the snapshot also hold duplicates and dangling ids
+    private final Map<MovieLink, Map<Long, Set<Long>>> links = new EnumMap<>(MovieLink.class);
+    private final Map<MovieLink, Map<Long, String>> targets = new EnumMap<>(MovieLink.class);
+    private CatalogAnalytics analytics;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(3);
+        List<Movie> rows = new ArrayList<>();
+        for (long id = 1; id <= MOVIES; id++) {
+            Movie m = new Movie(id * 3,
+                    random.nextInt(20) == 0 ? null : 1990 + random.nextInt(30),
+                    random.nextInt(15) == 0 ? null : random.nextInt(200) == 0 ? 1_500 : 60 + random.nextInt(120),
+                    random.nextInt(6) == 0 ? null : (1 + random.nextInt(9)) * 0.5);
+            movies.put(m.id(), m);
+            rows.add(m);
+        }
+        rows.add(new Movie(3, 1800, 1, 0.5));   // a second row of a movie is ignored
+
+        Map<MovieLink, List<long[]>> linkRows = new EnumMap<>(MovieLink.class);
+        for (MovieLink link : MovieLink.values()) {
+            Map<Long, String> labels = new HashMap<>();
+            int n = 5 + link.ordinal() * 4;
+            for (int k = 0; k < n; k++) labels.put(100L + k * 7, link + " " + k);
+            targets.put(link, labels);
+            List<Long> ids = new ArrayList<>(labels.keySet());
+            Map<Long, Set<Long>> perMovie = new HashMap<>();
+            List<long[]> pairs = new ArrayList<>();
+            for (Movie m : movies.values()) {
+                for (int i = random.nextInt(4); i > 0; i--) {
+                    // skewed towards the first targets so that the top-N cut matters
+                    long target = ids.get(Math.min(random.nextInt(n), random.nextInt(n)));
+                    perMovie.computeIfAbsent(m.id(), x -> new TreeSet<>()).add(target);
+                    pairs.add(new long[]{m.id(), target});
+                    if (random.nextInt(50) == 0) pairs.add(new long[]{m.id(), target});
+                }
+            }
+            pairs.add(new long[]{1, ids.get(0)});          // unknown movie
+            pairs.add(new long[]{3, 99_999});              // unknown target
+            links.put(link, perMovie);
+            linkRows.put(link, pairs);
+        }
+
+        MovieFeatureRepository features = mock(MovieFeatureRepository.class);
+        MovieLinkRepository movieLinks = mock(MovieLinkRepository.class);
+        doAnswer(inv -> {
+            MovieFeatureRepository.MovieColumnsVisitor v = inv.getArgument(0);
+            for (Movie m : rows) v.accept(m.id(), m.year(), m.minute(), m.rating());
+            return null;
+        }).when(features).forEachMovieColumns(any());
+        doAnswer(inv -> {
+            MovieFeatureRepository.LinkVisitor v = inv.getArgument(1);
+            for (long[] p : linkRows.get((MovieLink) inv.getArgument(0))) v.accept(p[0], p[1]);
+            return null;
+        }).when(features).forEachLink(any(), any());
+        when(movieLinks.findAllTargets(any())).thenAnswer(inv -> targets.get((MovieLink) inv.getArgument(0)));
+
+        analytics = new CatalogAnalytics(features, movieLinks, mock(PlatformTransactionManager.class));
+        analytics.refresh();
+    }
+
+    @Test
+    void countsMoviesPerYearForTheTopValues() {
+        int top = 4;
+        Map<Long, Long> totals = new TreeMap<>();
+        Map<List<Long>, Integer> counts = new HashMap<>();
+        links.get(MovieLink.GENRES).forEach((movieId, genres) -> {
+            Integer year = movies.get(movieId).year();
+            if (year == null || year < 1995 || year > 2010) return;
+            for (long g : genres) {
+                totals.merge(g, 1L, Long::sum);
+                counts.merge(List.of((long) year, g), 1, Integer::sum);
+            }
+        });
+        List<Long> kept = totals.keySet().stream()
+                .sorted(Comparator.comparing((Long g) -> totals.get(g)).reversed().thenComparing(g -> g))
+                .limit(top).toList();
+        List<AnalyticsYearCountDTO> expected = new ArrayList<>();
+        counts.forEach((key, count) -> {
+            if (kept.contains(key.get(1))) {
+                expected.add(new AnalyticsYearCountDTO(key.get(0).intValue(), key.get(1),
+                        targets.get(MovieLink.GENRES).get(key.get(1)), count));
+            }
+        });
+        expected.sort(Comparator.comparingInt(AnalyticsYearCountDTO::year)
+                .thenComparing(Comparator.comparingInt(AnalyticsYearCountDTO::count).reversed())
+                .thenComparingLong(AnalyticsYearCountDTO::id));
+
+        assertEquals(expected, analytics.moviesPerYear(MovieLink.GENRES, 1995, 2010, top).data());
+        assertEquals(MOVIES, analytics.moviesPerYear(MovieLink.GENRES, null, null, top).movies());
+    }
+
+    @Test
+    void averagesRatingsPerValue() {
+        int minMovies = 100;
+        Map<Long, long[]> countsById = new TreeMap<>();
+        Map<Long, Double> sums = new HashMap<>();
+        links.get(MovieLink.COUNTRIES).forEach((movieId, countries) -> {
+            Double rating = movies.get(movieId).rating();
+            for (long c : countries) {
+                long[] n = countsById.computeIfAbsent(c, x -> new long[2]);
+                n[0]++;
+                if (rating != null) {
+                    n[1]++;
+                    sums.merge(c, rating, Double::sum);
+                }
+            }
+        });
+        List<AnalyticsRatingDTO> expected = new ArrayList<>();
+        countsById.forEach((id, n) -> {
+            if (n[1] >= minMovies) {
+                expected.add(new AnalyticsRatingDTO(id, targets.get(MovieLink.COUNTRIES).get(id), n[0], n[1],
+                        sums.get(id) / n[1]));
+            }
+        });
+        expected.sort(Comparator.comparing(AnalyticsRatingDTO::averageRating, Comparator.reverseOrder())
+                .thenComparing(Comparator.comparingLong(AnalyticsRatingDTO::rated).reversed())
+                .thenComparingLong(AnalyticsRatingDTO::id));
+
+        assertEquals(expected, analytics.ratingBy(MovieLink.COUNTRIES, minMovies, 100).data());
+        assertEquals(expected.subList(0, 3), analytics.ratingBy(MovieLink.COUNTRIES, minMovies, 3).data());
+    }
+
+    @Test
+    void computesTheRuntimeDistributionOfMoviesLinkedToEveryFilter() {
+        long genre = 100, language = 107;
+        List<Integer> minutes = new ArrayList<>();
+        long sum = 0;
+        for (Movie m : movies.values()) {
+            if (m.minute() == null || m.year() == null || m.year() < 2000) continue;
+            if (!links.get(MovieLink.GENRES).getOrDefault(m.id(), Set.of()).contains(genre)) continue;
+            if (!links.get(MovieLink.LANGUAGES).getOrDefault(m.id(), Set.of()).contains(language)) continue;
+            minutes.add(Math.min(m.minute(), 1_000));
+            sum += m.minute();
+        }
+        minutes.sort(null);
+        int n = minutes.size();
+        Map<Integer, Long> buckets = new TreeMap<>();
+        for (int m : minutes) buckets.merge(m / 15 * 15, 1L, Long::sum);
+        List<RuntimeBucketDTO> expectedBuckets = new ArrayList<>();
+        for (int from = minutes.get(0) / 15 * 15; from <= minutes.get(n - 1); from += 15) {
+            expectedBuckets.add(new RuntimeBucketDTO(from, from + 15, buckets.getOrDefault(from, 0L)));
+        }
+
+        Map<MovieLink, Long> filters = new EnumMap<>(Map.of(MovieLink.GENRES, genre, MovieLink.LANGUAGES, language));
+        RuntimeDistributionDTO d = analytics.runtime(filters, 2000, null, 15).data();
+
+        assertEquals(n, d.movies());
+        assertEquals((double) sum / n, d.mean(), 1e-9);
+        assertEquals(nearestRank(minutes, 0.25), d.p25());
+        assertEquals(nearestRank(minutes, 0.5), d.median());
+        assertEquals(nearestRank(minutes, 0.75), d.p75());
+        assertEquals(nearestRank(minutes, 0.9), d.p90());
+        assertEquals(expectedBuckets, d.buckets());
+
+        RuntimeDistributionDTO none = analytics.runtime(Map.of(MovieLink.GENRES, 99_999L), null, null, 15).data();
+        assertEquals(0, none.movies());
+        assertEquals(List.of(), none.buckets());
+    }
+
+    private static int nearestRank(List<Integer> sorted, double p) {
+        return sorted.get((int) Math.max(1, Math.ceil(p * sorted.size())) - 1);
+    }
+}
@@ -0,0 +1,102 @@
+package com.filmssql.domain.service;
+
+import com.filmssql.domain.event.MoviesChangedEvent;
+import com.filmssql.domain.repository.MovieBulkRepository;
+import com.filmssql.domain.repository.MovieLinkRepository;
+import com.filmssql.web.dto.MovieBulkItemDTO;
+import com.filmssql.web.dto.MovieBulkResponseDTO;
+import com.filmssql.web.dto.MovieBulkResultDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MovieBulkServiceTests {
+
+    /** Records how each chunk's transaction ended; events are kept only when it commits. */
+    private static final class RecordingTransactions implements PlatformTransactionManager {
+        final List<String> outcomes = new ArrayList<>();
+        final List<Object> published = new ArrayList<>();
+        final List<Object> pending = new ArrayList<>();
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            pending.clear();
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            outcomes.add("commit");
+            published.addAll(pending);
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            outcomes.add("rollback");
+        }
+    }
+
+    private static MovieBulkItemDTO create(String name) {
+        return new MovieBulkItemDTO(null, name, 2001, null, null, 100, 3.5, null, null, null, null);
+    }
+
+    private static MovieBulkItemDTO update(long id, Double rating) {
+        return new MovieBulkItemDTO(id, null, null, null, null, null, rating, null, null, null, null);
+    }
+
+    @Test
+    void aFailingChunkRollsBackAloneAndReportsEachItemInItsSlot() {
+        MovieBulkRepository movies = mock(MovieBulkRepository.class);
+        AtomicLong sequence = new AtomicLong(100);
+        when(movies.nextIds(anyInt())).thenAnswer(inv -> LongStream.range(0, inv.<Integer>getArgument(0))
+                .map(i -> sequence.incrementAndGet()).boxed().toList());
+        when(movies.lockExisting(any())).thenAnswer(inv -> Set.copyOf(inv.getArgument(0)));
+        doThrow(new DataIntegrityViolationException("value too long for type character varying(255)"))
+                .when(movies).insert(argThat(rows ->
+                        rows.stream().anyMatch(r -> "Too long".equals(r.item().name()))));
+        RecordingTransactions tx = new RecordingTransactions();
+        MovieBulkService service = new MovieBulkService(movies, mock(MovieLinkRepository.class),
+                tx.pending::add, tx, 2);
+
+        MovieBulkResponseDTO response = service.write(List.of(
+                create("Heat"), update(5, 4.0),             // chunk 0: committed
+                update(6, 2.5), create("Too long"),         // chunk 1: the insert fails, the update goes with it
+                update(7, 9.0), create("Ronin")));          // chunk 2: one invalid item, the other committed
+
+        List<MovieBulkResultDTO> items = response.items();
+        assertEquals(List.of("commit", "rollback", "commit"), tx.outcomes);
+        assertEquals(new MovieBulkResultDTO(0, 101L, MovieBulkResultDTO.Status.CREATED, null), items.get(0));
+        assertEquals(new MovieBulkResultDTO(1, 5L, MovieBulkResultDTO.Status.UPDATED, null), items.get(1));
+        for (int i : new int[]{2, 3}) {
+            assertEquals(MovieBulkResultDTO.Status.FAILED, items.get(i).status());
+            assertTrue(items.get(i).error().startsWith("Batch rolled back: value too long"), items.get(i).error());
+        }
+        assertEquals(6L, items.get(2).id());
+        assertEquals(MovieBulkResultDTO.failed(4, 7L, "rating must be between 0 and 5"), items.get(4));
+        assertEquals(MovieBulkResultDTO.Status.CREATED, items.get(5).status());
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), items.stream().map(MovieBulkResultDTO::index).toList());
+        assertEquals(List.of(2, 1, 3), List.of(response.created(), response.updated(), response.failed()));
+
+        // one event per committed chunk, with the ids it wrote
+        assertEquals(List.of(new MoviesChangedEvent(Set.of(101L, 5L)), new MoviesChangedEvent(Set.of(items.get(5).id()))),
+                tx.published);
+    }
+}
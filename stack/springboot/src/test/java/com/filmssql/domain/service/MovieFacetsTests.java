@@ -0,0 +1,359 @@
+package com.filmssql.domain.service;
+
+import com.filmssql.domain.event.MovieChangedEvent;
+import com.filmssql.domain.event.MoviesChangedEvent;
+import com.filmssql.domain.repository.MovieFeatureRepository;
+import com.filmssql.domain.repository.MovieLink;
+import com.filmssql.domain.repository.MovieLinkRepository;
+import com.filmssql.domain.repository.MovieRankRow;
+import com.filmssql.domain.repository.MovieRepository;
+import com.filmssql.web.dto.FacetValueDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Facet counts and pages over a generated catalog, against brute-force answers, across the counting
+ * paths (CSR walk, per-value AND, whole catalog) and both page paths, before and after updates.
+ */
+class MovieFacetsTests {
+
+    private static final int MOVIES = 70_000;
+    private static final int FACET_LIMIT = 20;
+    private static final int PAGE = 997;
+    private static final Map<MovieLink, String> FACET_NAMES = Map.of(
+            MovieLink.GENRES, "genre", MovieLink.COUNTRIES, "country",
+            MovieLink.LANGUAGES, "language", MovieLink.STUDIOS, "studio");
+
+    // the tables the mocked repositories answer from
+    private final Map<Long, MovieRankRow> table = new TreeMap<>();
+    private final Map<MovieLink, Map<Long, Set<Long>>> links = new EnumMap<>(MovieLink.class);
+    private final Map<MovieLink, Map<Long, String>> labels = new EnumMap<>(MovieLink.class);
+    private final Random random = new Random(11);
+    // runs once inside the next rebuild, after the movie rows are read
+    private volatile Runnable duringLoad;
+    private long nextId;
+    private MovieFacets facets;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        for (MovieLink link : MovieLink.values()) {
+            Map<Long, String> targets = new HashMap<>();
+            int n = link == MovieLink.STUDIOS ? 300 : 15 + link.ordinal() * 10;
+            for (int k = 0; k < n; k++) targets.put(1_000L * (link.ordinal() + 1) + k, link + " " + k);
+            labels.put(link, targets);
+            links.put(link, new HashMap<>());
+        }
+        for (int i = 0; i < MOVIES; i++) {
+            nextId += 1 + random.nextInt(2);
+            putMovie(nextId);
+        }
+
+        MovieRepository movies = mock(MovieRepository.class);
+        MovieLinkRepository movieLinks = mock(MovieLinkRepository.class);
+        MovieFeatureRepository features = mock(MovieFeatureRepository.class);
+        when(movies.findRankRows()).thenAnswer(inv -> new ArrayList<>(table.values()));
+        when(movies.findRankRowsByIds(any())).thenAnswer(inv -> ((Collection<Long>) inv.getArgument(0)).stream()
+                .map(table::get).filter(r -> r != null).toList());
+        when(movieLinks.findLinkedIds(any(MovieLink.class), any(Collection.class))).thenAnswer(inv -> {
+            Map<Long, Set<Long>> byMovie = links.get(inv.<MovieLink>getArgument(0));
+            Map<Long, Set<Long>> linked = new HashMap<>();
+            for (Long id : inv.<Collection<Long>>getArgument(1)) {
+                if (byMovie.containsKey(id)) linked.put(id, new HashSet<>(byMovie.get(id)));
+            }
+            return linked;
+        });
+        when(movieLinks.findTargets(any(MovieLink.class), any(Collection.class))).thenAnswer(inv -> {
+            Map<Long, String> all = labels.get(inv.<MovieLink>getArgument(0));
+            Map<Long, String> found = new TreeMap<>();
+            for (Long id : inv.<Collection<Long>>getArgument(1)) {
+                if (all.containsKey(id)) found.put(id, all.get(id));
+            }
+            return found;
+        });
+        when(movieLinks.findAllTargets(any())).thenAnswer(inv -> new HashMap<>(labels.get(inv.<MovieLink>getArgument(0))));
+        doAnswer(inv -> {
+            List<long[]> rows = new ArrayList<>();
+            links.get(inv.<MovieLink>getArgument(0)).forEach((movie, targets) ->
+                    targets.forEach(t -> rows.add(new long[]{movie, t})));
+            Runnable hook = duringLoad;
+            duringLoad = null;
+            if (hook != null) hook.run();
+            MovieFeatureRepository.LinkVisitor visitor = inv.getArgument(1);
+            for (long[] r : rows) visitor.accept(r[0], r[1]);
+            return null;
+        }).when(features).forEachLink(any(), any());
+
+        facets = new MovieFacets(movies, movieLinks, features, mock(PlatformTransactionManager.class),
+                Duration.ofHours(6), FACET_LIMIT);
+    }
+
+    private void putMovie(long id) {
+        Double rating = random.nextInt(8) == 0 ? null : random.nextInt(501) / 100.0;
+        Integer year = random.nextInt(10) == 0 ? null : 1950 + random.nextInt(75);
+        table.put(id, new MovieRankRow(id, rating, year));
+        for (MovieLink link : MovieLink.values()) setLinks(link, id, random.nextInt(4));
+    }
+
+    // skewed towards the first targets, so the top-N cut of a facet matters
+    private void setLinks(MovieLink link, long id, int count) {
+        List<Long> targets = new ArrayList<>(new TreeSet<>(labels.get(link).keySet()));
+        Set<Long> chosen = new TreeSet<>();
+        for (int i = 0; i < count; i++) {
+            chosen.add(targets.get(Math.min(random.nextInt(targets.size()), random.nextInt(targets.size()))));
+        }
+        if (chosen.isEmpty()) links.get(link).remove(id);
+        else links.get(link).put(id, chosen);
+    }
+
+    private static long target(MovieLink link, int k) {
+        return 1_000L * (link.ordinal() + 1) + k;
+    }
+
+    private static MovieFacets.Filter filter(Map<MovieLink, Set<Long>> links, boolean matchAll,
+                                             Integer yearFrom, Integer yearTo, Double ratingMin, Double ratingMax) {
+        return new MovieFacets.Filter(links, matchAll, yearFrom, yearTo, ratingMin, ratingMax);
+    }
+
+    private static List<MovieFacets.Filter> filters() {
+        return List.of(
+                // whole catalog: counts read each bitmap, pages walk the precomputed order
+                filter(Map.of(), false, null, null, null, null),
+                // over 50k movies: link counts AND each value bitmap
+                filter(Map.of(), false, null, null, 0.3, null),
+                // link counts walk the CSR, pages sorted in place
+                filter(Map.of(), false, 2005, null, null, null),
+                filter(Map.of(MovieLink.GENRES, Set.of(target(MovieLink.GENRES, 0), target(MovieLink.GENRES, 3)),
+                        MovieLink.COUNTRIES, Set.of(target(MovieLink.COUNTRIES, 1))), false, null, 1990, null, null),
+                // few movies: year and rating counts read the keys of each movie
+                filter(Map.of(MovieLink.GENRES, Set.of(target(MovieLink.GENRES, 0), target(MovieLink.GENRES, 1))),
+                        true, null, null, 1.25, 3.5),
+                filter(Map.of(MovieLink.STUDIOS, Set.of(target(MovieLink.STUDIOS, 0))), false, 1980, 1989, null, null),
+                filter(Map.of(MovieLink.LANGUAGES, Set.of(999_999L)), false, null, null, null, null));
+    }
+
+    // ---- brute force over the tables ----
+
+    private static int ratingKey(MovieRankRow r) {
+        return r.rating() != null ? (int) Math.round(r.rating() * 100) : -1;
+    }
+
+    private static int yearKey(MovieRankRow r) {
+        return r.date() != null ? r.date() : -1;
+    }
+
+    private boolean matches(MovieRankRow r, MovieFacets.Filter f, String skip) {
+        for (MovieLink link : MovieLink.values()) {
+            Set<Long> values = f.links().get(link);
+            if (values == null || values.isEmpty() || FACET_NAMES.get(link).equals(skip)) continue;
+            Set<Long> linked = links.get(link).getOrDefault(r.id(), Set.of());
+            boolean ok = f.matchAll() ? linked.containsAll(values) : values.stream().anyMatch(linked::contains);
+            if (!ok) return false;
+        }
+        if (!"decade".equals(skip) && (f.yearFrom() != null || f.yearTo() != null)) {
+            int y = yearKey(r);
+            if (y < 0 || f.yearFrom() != null && y < f.yearFrom() || f.yearTo() != null && y > f.yearTo()) return false;
+        }
+        if (!"rating".equals(skip) && (f.ratingMin() != null || f.ratingMax() != null)) {
+            int k = ratingKey(r);
+            if (k < 0 || f.ratingMin() != null && k < Math.round(f.ratingMin() * 100)
+                    || f.ratingMax() != null && k > Math.round(f.ratingMax() * 100)) return false;
+        }
+        return true;
+    }
+
+    private List<MovieRankRow> matching(MovieFacets.Filter f, String skip) {
+        return table.values().stream().filter(r -> matches(r, f, skip)).toList();
+    }
+
+    private Map<String, List<FacetValueDTO>> expectedFacets(MovieFacets.Filter f) {
+        Map<String, List<FacetValueDTO>> expected = new LinkedHashMap<>();
+        for (MovieLink link : List.of(MovieLink.GENRES, MovieLink.COUNTRIES, MovieLink.LANGUAGES, MovieLink.STUDIOS)) {
+            Map<Long, Integer> counts = new HashMap<>();
+            for (MovieRankRow r : matching(f, FACET_NAMES.get(link))) {
+                links.get(link).getOrDefault(r.id(), Set.of()).forEach(t -> counts.merge(t, 1, Integer::sum));
+            }
+            expected.put(FACET_NAMES.get(link), counts.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .limit(FACET_LIMIT)
+                    .map(e -> new FacetValueDTO(e.getKey().toString(), labels.get(link).get(e.getKey()), e.getValue()))
+                    .toList());
+        }
+        Map<Integer, Integer> decades = new TreeMap<>();
+        matching(f, "decade").forEach(r -> {
+            if (r.date() != null) decades.merge(r.date() / 10 * 10, 1, Integer::sum);
+        });
+        expected.put("decade", decades.entrySet().stream()
+                .map(e -> new FacetValueDTO(e.getKey().toString(), e.getKey() + "s", e.getValue())).toList());
+        int[] bands = new int[10];
+        matching(f, "rating").forEach(r -> {
+            if (r.rating() != null) bands[Math.min(9, ratingKey(r) / 50)]++;
+        });
+        List<FacetValueDTO> ratings = new ArrayList<>();
+        for (int b = 0; b < 10; b++) {
+            String from = "%d.%d".formatted(b / 2, b % 2 * 5);
+            String to = "%d.%d".formatted((b + 1) / 2, (b + 1) % 2 * 5);
+            if (bands[b] > 0) ratings.add(new FacetValueDTO(from, from + "-" + to, bands[b]));
+        }
+        expected.put("rating", ratings);
+        return expected;
+    }
+
+    private List<Long> expectedOrder(MovieFacets.Filter f, MovieFacets.Sort sort) {
+        ToIntFunction<MovieRankRow> key = sort == MovieFacets.Sort.RATING ? MovieFacetsTests::ratingKey : MovieFacetsTests::yearKey;
+        return matching(f, null).stream()
+                .sorted(Comparator.comparingInt(key).reversed().thenComparing(MovieRankRow::id))
+                .map(MovieRankRow::id)
+                .toList();
+    }
+
+    // ---- checks ----
+
+    private void assertFacets(MovieFacets.Filter f) {
+        MovieFacets.Result first = facets.browse(f, MovieFacets.Sort.RATING, null, PAGE, true);
+        assertEquals(expectedFacets(f), first.facets(), () -> "facets of " + f);
+        assertEquals(matching(f, null).size(), first.total(), () -> "total of " + f);
+    }
+
+    private void assertPages(MovieFacets.Filter f, MovieFacets.Sort sort) {
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            MovieFacets.Result page = facets.browse(f, sort, cursor, PAGE, false);
+            assertTrue(page.ids().size() <= PAGE);
+            walked.addAll(page.ids());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        assertEquals(expectedOrder(f, sort), walked, () -> sort + " pages of " + f);
+    }
+
+    private void assertAll(boolean smallPagesOnly) {
+        for (MovieFacets.Filter f : filters()) {
+            assertFacets(f);
+            if (smallPagesOnly && matching(f, null).size() > 20_000) continue;
+            assertPages(f, MovieFacets.Sort.RATING);
+            assertPages(f, MovieFacets.Sort.YEAR);
+        }
+    }
+
+    /** Rewrites a few movies the way the write paths do and returns their ids. */
+    private Set<Long> mutate(int round) {
+        Set<Long> changed = new TreeSet<>();
+        List<Long> ids = new ArrayList<>(table.keySet());
+        for (int i = 0; i < 40; i++) {
+            long id = ids.get(random.nextInt(ids.size()));
+            MovieRankRow r = table.get(id);
+            if (r == null) continue;
+            switch (i % 4) {
+                case 0 -> table.put(id, new MovieRankRow(id, random.nextBoolean() ? null : random.nextInt(501) / 100.0, r.date()));
+                case 1 -> table.put(id, new MovieRankRow(id, r.rating(), random.nextBoolean() ? null : 1950 + random.nextInt(75)));
+                case 2 -> {
+                    for (MovieLink link : MovieLink.values()) setLinks(link, id, random.nextInt(5));
+                }
+                default -> {
+                    table.remove(id);
+                    links.values().forEach(m -> m.remove(id));
+                }
+            }
+            changed.add(id);
+        }
+        // a genre created after the build, linked to old and new movies
+        long genre = target(MovieLink.GENRES, 500 + round);
+        labels.get(MovieLink.GENRES).put(genre, "New genre " + round);
+        for (int i = 0; i < 5; i++) {
+            nextId++;
+            putMovie(nextId);
+            links.get(MovieLink.GENRES).computeIfAbsent(nextId, k -> new TreeSet<>()).add(genre);
+            changed.add(nextId);
+        }
+        long old = ids.get(random.nextInt(ids.size()));
+        if (table.containsKey(old)) {
+            links.get(MovieLink.GENRES).computeIfAbsent(old, k -> new TreeSet<>()).add(genre);
+            changed.add(old);
+        }
+        return changed;
+    }
+
+    @Test
+    void matchesBruteForceAfterABuild() {
+        assertAll(false);
+    }
+
+    @Test
+    void matchesBruteForceAfterInterleavedUpdates() {
+        assertAll(false);
+        for (int round = 0; round < 3; round++) {
+            Set<Long> changed = mutate(round);
+            if (round % 2 == 0) {
+                facets.onMoviesChanged(new MoviesChangedEvent(changed));
+            } else {
+                changed.forEach(id -> facets.onMovieChanged(new MovieChangedEvent(id)));
+            }
+            // counts and sorted-in-place pages are current right away; the precomputed orders after a refresh
+            assertAll(true);
+            facets.refresh();
+            assertAll(false);
+        }
+        // a movie removed and added back within one batch
+        long id = table.keySet().iterator().next();
+        MovieRankRow row = table.remove(id);
+        facets.onMovieChanged(new MovieChangedEvent(id));
+        table.put(id, new MovieRankRow(id, 4.99, 2024));
+        facets.onMovieChanged(new MovieChangedEvent(id));
+        facets.refresh();
+        assertAll(false);
+        assertEquals(row.id(), facets.browse(filter(Map.of(), false, 2024, 2024, 4.99, 4.99),
+                MovieFacets.Sort.RATING, null, 1, false).ids().get(0));
+    }
+
+    @Test
+    void updatesDuringARebuildDoNotWaitForItAndAreNotLost() {
+        facets.refresh();
+        Set<Long> changed = new HashSet<>();
+        duringLoad = () -> {
+            // the rebuild has read the movie rows already and holds its monitor
+            changed.addAll(mutate(7));
+            CompletableFuture<Void> commit = CompletableFuture.runAsync(() ->
+                    facets.onMoviesChanged(new MoviesChangedEvent(Set.copyOf(changed))));
+            try {
+                commit.get(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new AssertionError("update waited for the rebuild", e);
+            }
+            // served from the previous state, patched in place
+            for (MovieFacets.Filter f : filters()) assertFacets(f);
+        };
+        facets.rebuild();
+
+        assertTrue(duringLoad == null && !changed.isEmpty());
+        assertAll(true);
+        facets.refresh();
+        assertAll(false);
+    }
+}
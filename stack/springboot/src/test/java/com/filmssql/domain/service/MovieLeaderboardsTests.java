@@ -0,0 +1,165 @@
+package com.filmssql.domain.service;
+
+import com.filmssql.domain.event.MovieChangedEvent;
+import com.filmssql.domain.event.MoviesChangedEvent;
+import com.filmssql.domain.repository.MovieRankRow;
+import com.filmssql.domain.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MovieLeaderboardsTests {
+
+    // the movies table the mocked repository answers from
+    private final Map<Long, MovieRankRow> table = new TreeMap<>();
+    private MovieLeaderboards leaderboards;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MovieRepository repository = mock(MovieRepository.class);
+        when(repository.findRankRows()).thenAnswer(inv -> new ArrayList<>(table.values()));
+        when(repository.findRankRowsByIds(any())).thenAnswer(inv -> ((Collection<Long>) inv.getArgument(0)).stream()
+                .map(table::get).filter(r -> r != null).toList());
+        leaderboards = new MovieLeaderboards(repository, Duration.ofHours(1));
+    }
+
+    private void put(long id, Double rating, Integer date) {
+        table.put(id, new MovieRankRow(id, rating, date));
+    }
+
+    @Test
+    void breaksTiesByIdAcrossPageBoundaries() {
+        put(5, 4.0, 2001);
+        put(3, 4.0, 2001);
+        put(9, 4.0, 2001);
+        put(1, 3.5, 2003);
+        put(7, 4.5, null);
+
+        MovieLeaderboards.IdPage first = leaderboards.topRated(null, 2);
+        MovieLeaderboards.IdPage second = leaderboards.topRated(first.nextCursor(), 2);
+        MovieLeaderboards.IdPage third = leaderboards.topRated(second.nextCursor(), 2);
+
+        assertEquals(List.of(7L, 3L), first.ids());
+        assertEquals(List.of(5L, 9L), second.ids());
+        assertEquals(List.of(1L), third.ids());
+        assertNull(third.nextCursor());
+        assertEquals(List.of(1L, 3L, 5L, 9L), leaderboards.latest(null, 10).ids());
+    }
+
+    @Test
+    void insertsMovesAndDropsChangedMovies() {
+        put(1, 4.0, 2001);
+        put(2, 3.0, 2002);
+        put(3, 2.0, 2003);
+        leaderboards.rebuild();
+
+        put(4, 3.0, 1999);                    // insert, tied with 2
+        put(3, 4.5, 2003);                    // move up
+        put(1, null, 2001);                   // leaves top rated only
+        table.remove(2L);                     // deleted
+        leaderboards.onMoviesChanged(new MoviesChangedEvent(Set.of(1L, 2L, 3L, 4L)));
+
+        assertEquals(List.of(3L, 4L), leaderboards.topRated(null, 10).ids());
+        assertEquals(List.of(3L, 1L, 4L), leaderboards.latest(null, 10).ids());
+
+        put(2, 3.0, 2002);                    // re-added, ranks before 4 on the tie
+        leaderboards.onMovieChanged(new MovieChangedEvent(2L));
+        assertEquals(List.of(3L, 2L, 4L), leaderboards.topRated(null, 10).ids());
+    }
+
+    // a cursor taken before an update still resumes after the same (key, id), wherever the movies moved
+    @Test
+    void keepsPagingFromACursorAcrossUpdates() {
+        for (long id = 1; id <= 6; id++) put(id, 3.0, 2000);
+        MovieLeaderboards.IdPage first = leaderboards.topRated(null, 3);
+        assertEquals(List.of(1L, 2L, 3L), first.ids());
+
+        put(2, 1.0, 2000);
+        put(7, 3.0, 2000);
+        leaderboards.onMoviesChanged(new MoviesChangedEvent(Set.of(2L, 7L)));
+
+        assertEquals(List.of(4L, 5L, 6L, 7L, 2L), leaderboards.topRated(first.nextCursor(), 10).ids());
+    }
+
+    @Test
+    void matchesAFullRebuildAfterRandomBatches() {
+        Random random = new Random(42);
+        for (long id = 1; id <= 300; id++) put(id, rating(random), 1950 + random.nextInt(70));
+        leaderboards.topRated(null, 1);
+
+        for (int round = 0; round < 50; round++) {
+            Set<Long> changed = new HashSet<>();
+            for (int i = 0; i < 1 + random.nextInt(20); i++) {
+                long id = 1 + random.nextInt(350);
+                changed.add(id);
+                if (random.nextInt(5) == 0) table.remove(id);
+                else put(id, random.nextInt(6) == 0 ? null : rating(random),
+                        random.nextInt(6) == 0 ? null : 1950 + random.nextInt(70));
+            }
+            leaderboards.onMoviesChanged(new MoviesChangedEvent(changed));
+
+            assertEquals(expected(MovieRankRow::rating), walk(true));
+            assertEquals(expected(r -> r.date() != null ? r.date().doubleValue() : null), walk(false));
+        }
+    }
+
+    // a bulk batch is left to the scheduled check instead of being read on the committing thread
+    @Test
+    void leavesALargeBatchToTheScheduledRebuild() {
+        put(1, 2.0, 2001);
+        leaderboards.rebuild();
+
+        Set<Long> changed = new HashSet<>();
+        for (long id = 2; id <= 102; id++) {
+            put(id, 4.0, 2002);
+            changed.add(id);
+        }
+        leaderboards.onMoviesChanged(new MoviesChangedEvent(changed));
+        assertEquals(List.of(1L), leaderboards.topRated(null, 200).ids());
+
+        leaderboards.rebuildIfStale();
+        assertEquals(expected(MovieRankRow::rating), walk(true));
+        assertEquals(102, leaderboards.latest(null, 200).ids().size());
+    }
+
+    private static Double rating(Random random) {
+        return random.nextInt(9) * 0.5 + 0.5;  // few distinct values: many ties
+    }
+
+    private List<Long> walk(boolean topRated) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            MovieLeaderboards.IdPage page = topRated ? leaderboards.topRated(cursor, 7) : leaderboards.latest(cursor, 7);
+            ids.addAll(page.ids());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private List<Long> expected(Function<MovieRankRow, Double> key) {
+        return table.values().stream()
+                .filter(r -> key.apply(r) != null)
+                .sorted(Comparator.comparing((MovieRankRow r) -> key.apply(r)).reversed().thenComparing(MovieRankRow::id))
+                .map(MovieRankRow::id)
+                .toList();
+    }
+}
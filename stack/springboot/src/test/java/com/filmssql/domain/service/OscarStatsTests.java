@@ -0,0 +1,97 @@
+package com.filmssql.domain.service;
+
+import com.filmssql.domain.repository.OscarAwardRepository;
+import com.filmssql.domain.repository.OscarStatRow;
+import com.filmssql.web.dto.OscarLeaderboardEntryDTO;
+import com.filmssql.web.dto.OscarSummaryDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OscarStatsTests {
+
+    private static final String[] CATEGORIES = {"ACTOR", "ACTRESS", "ACTOR IN A SUPPORTING ROLE", "BEST PICTURE", null};
+
+    private static OscarStats statsOver(List<OscarStatRow> table) {
+        OscarAwardRepository repository = mock(OscarAwardRepository.class);
+        when(repository.findStatRowsAfterId(anyLong(), any())).thenAnswer(inv -> {
+            long afterId = inv.getArgument(0);
+            Pageable page = inv.getArgument(1);
+            return table.stream().filter(r -> r.id() > afterId).limit(page.getPageSize()).toList();
+        });
+        return new OscarStats(repository, Duration.ofHours(6));
+    }
+
+    private static OscarStatRow row(long id, Random random) {
+        Long actor = random.nextInt(4) == 0 ? null : (long) random.nextInt(60);
+        Long movie = random.nextInt(4) == 0 ? null : 1000L + random.nextInt(80);
+        int year = 1928 + random.nextInt(90);
+        String ceremony = random.nextBoolean() ? String.valueOf(year) : year + "/" + (year + 1) % 100;
+        return new OscarStatRow(id, actor, movie, CATEGORIES[random.nextInt(CATEGORIES.length)], ceremony,
+                random.nextInt(5) == 0, "Actor " + actor, "Film " + movie);
+    }
+
+    // the appended snapshot has to answer exactly like one built from scratch over the same rows
+    @Test
+    void appendingNewRowsMatchesAFullRebuild() {
+        Random random = new Random(11);
+        List<OscarStatRow> table = new ArrayList<>();
+        for (long id = 1; id <= 45_000; id++) table.add(row(id, random));   // more than one load batch
+        OscarStats incremental = statsOver(table);
+        incremental.rebuild();
+
+        for (int round = 0; round < 3; round++) {
+            long next = table.get(table.size() - 1).id();
+            for (int i = 0; i < 500; i++) table.add(row(next + 1 + i * 2L, random));
+            incremental.refresh();
+        }
+        OscarStats rebuilt = statsOver(table);
+        rebuilt.rebuild();
+
+        for (long actor = 0; actor < 60; actor++) {
+            assertEquals(rebuilt.actorSummary(actor), incremental.actorSummary(actor));
+        }
+        for (long movie = 1000; movie < 1080; movie++) {
+            assertEquals(rebuilt.movieSummary(movie), incremental.movieSummary(movie));
+        }
+        for (OscarStats.Ranking ranking : OscarStats.Ranking.values()) {
+            assertEquals(rebuilt.topActors(ranking, 100), incremental.topActors(ranking, 100));
+            assertEquals(rebuilt.topMovies(ranking, 100), incremental.topMovies(ranking, 100));
+        }
+        assertTrue(incremental.actorSummary(-1).isEmpty());
+    }
+
+    @Test
+    void countsPerCategoryAndYears() {
+        List<OscarStatRow> table = List.of(
+                new OscarStatRow(1L, 7L, 100L, "ACTOR", "1940", true, "Jimmy", "Film A"),
+                new OscarStatRow(2L, 7L, 101L, "ACTOR", "1938/39", false, "Jimmy", "Film B"),
+                new OscarStatRow(3L, 7L, 101L, "WRITING", "1951", false, "James", "Film B"),
+                new OscarStatRow(4L, 8L, 100L, "ACTRESS", "", true, "Ginger", "Film A"));
+        OscarStats stats = statsOver(table);
+
+        OscarSummaryDTO jimmy = stats.actorSummary(7).orElseThrow();
+        assertEquals("James", jimmy.name());
+        assertEquals(3, jimmy.nominations());
+        assertEquals(1, jimmy.wins());
+        assertEquals(1938, jimmy.firstYear());
+        assertEquals(1951, jimmy.lastYear());
+        assertEquals("ACTOR", jimmy.categories().get(0).category());
+        assertEquals(2, jimmy.categories().get(0).nominations());
+        assertEquals(List.of(7L, 8L), stats.topActors(OscarStats.Ranking.WINS, 10).stream()   // same wins: more nominations
+                .map(OscarLeaderboardEntryDTO::id).toList());
+        assertEquals(List.of(100L, 101L), stats.topMovies(OscarStats.Ranking.NOMINATIONS, 10).stream()
+                .map(OscarLeaderboardEntryDTO::id).toList());
+    }
+}
@@ -0,0 +1,94 @@
+package com.filmssql.ingest;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvReaderTests {
+
+    private static final String FILE = "\uFEFFid,Name,tagline\r\n"
+            + "1,\"Heat, 1995\",\"A Los Angeles Crime Saga\"\r\n"
+            + "\r\n"
+            + "2,\"The \"\"Godfather\"\"\",\"line one\r\nline two\"\r\n"
+            + "3,,\"\"\r\n"
+            + "4,\"ends quoted\"";
+
+    private static List<String[]> readAll(Reader in) throws IOException {
+        List<String[]> records = new ArrayList<>();
+        try (CsvReader csv = new CsvReader(in)) {
+            for (String[] r = csv.next(); r != null; r = csv.next()) records.add(r);
+        }
+        return records;
+    }
+
+    private static void assertRecords(List<String[]> records) {
+        assertEquals(4, records.size());
+        assertArrayEquals(new String[]{"1", "Heat, 1995", "A Los Angeles Crime Saga"}, records.get(0));
+        assertArrayEquals(new String[]{"2", "The \"Godfather\"", "line one\r\nline two"}, records.get(1));
+        assertArrayEquals(new String[]{"3", "", ""}, records.get(2));
+        assertArrayEquals(new String[]{"4", "ends quoted"}, records.get(3));
+    }
+
+    @Test
+    void readsQuotedSeparatorsQuotesAndLineBreaks() throws IOException {
+        assertRecords(readAll(new StringReader(FILE)));
+    }
+
+    // reads of 1 to 3 chars put every position of the file, doubled quotes included, on a buffer boundary
+    @Test
+    void readsTheSameAcrossEveryBufferBoundary() throws IOException {
+        for (int chunk = 1; chunk <= 3; chunk++) {
+            assertRecords(readAll(new TrickleReader(FILE, chunk)));
+        }
+    }
+
+    @Test
+    void resolvesColumnsCaseInsensitivelyWithoutTheBom() throws IOException {
+        try (CsvReader csv = new CsvReader(new StringReader(FILE))) {
+            assertEquals(0, csv.column("ID"));
+            assertEquals(1, csv.column("name"));
+            assertEquals(-1, csv.optionalColumn("role"));
+            assertThrows(IOException.class, () -> csv.column("role"));
+        }
+    }
+
+    @Test
+    void endsWithATrailingNewlineOrWithout() throws IOException {
+        assertEquals(1, readAll(new StringReader("id\n1\n")).size());
+        assertArrayEquals(new String[]{"1", "x"}, readAll(new StringReader("id,v\n1,x")).get(0));
+        assertArrayEquals(new String[]{"1", ""}, readAll(new StringReader("id,v\n1,")).get(0));
+        assertThrows(IOException.class, () -> new CsvReader(new StringReader("")));
+    }
+
+    private static final class TrickleReader extends Reader {
+        private final String s;
+        private final int chunk;
+        private int pos;
+
+        TrickleReader(String s, int chunk) {
+            this.s = s;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read(char[] buf, int off, int len) {
+            if (pos == s.length()) return -1;
+            int n = Math.min(Math.min(chunk, len), s.length() - pos);
+            s.getChars(pos, pos + n, buf, off);
+            pos += n;
+            return n;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.filmssql.ingest;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ValuesTests {
+
+    @Test
+    void readsPandasNumbers() {
+        assertEquals(2015L, Values.longValue("2015.0"));
+        assertEquals(2015, Values.intValue(" 2015 "));
+        assertNull(Values.longValue("2015.5"));
+        assertNull(Values.intValue("nan"));
+        assertNull(Values.intValue("NaN"));
+        assertNull(Values.intValue("3000000000"));
+        assertEquals(3.5, Values.doubleValue("3.5"));
+        assertNull(Values.doubleValue("inf"));
+        assertNull(Values.doubleValue("Infinity"));
+        assertNull(Values.doubleValue("n/a"));
+    }
+
+    @Test
+    void readsPandasBooleans() {
+        assertEquals(true, Values.bool("True"));
+        assertEquals(false, Values.bool("False"));
+        assertEquals(true, Values.bool("1.0"));
+        assertEquals(false, Values.bool("0"));
+        assertNull(Values.bool("nan"));
+        assertNull(Values.bool("maybe"));
+    }
+
+    @Test
+    void readsTextAndDates() {
+        assertNull(Values.text(""));
+        assertNull(Values.text("  "));
+        assertNull(Values.text("nan"));
+        assertEquals("Heat", Values.text(" Heat "));
+        assertEquals(Values.VARCHAR, Values.varchar("x".repeat(300)).length());
+        assertEquals(LocalDate.of(2012, 9, 24), Values.date("2012-09-24 00:00:00"));
+        assertEquals(LocalDate.of(2012, 9, 24), Values.date("2012-09-24"));
+        assertNull(Values.date("2012"));
+        assertNull(Values.date("24/09/2012"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.filmssql.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LiveTrigramIndexTests {
+
+    private static List<Long> ids(LiveTrigramIndex index, String query) {
+        return index.search(query, 10).stream().map(TrigramIndex.Hit::id).toList();
+    }
+
+    private static LiveTrigramIndex built(int mergeThreshold) {
+        LiveTrigramIndex index = new LiveTrigramIndex(mergeThreshold, 0.3);
+        index.replaceAll(List.of(
+                new TrigramIndex.Entry(1, "Alien", 4.0, null),
+                new TrigramIndex.Entry(2, "Aliens", 4.2, null),
+                new TrigramIndex.Entry(3, "Heat", 4.1, null)));
+        return index;
+    }
+
+    @Test
+    void isEmptyUntilBuilt() {
+        LiveTrigramIndex index = new LiveTrigramIndex(10, 0.3);
+
+        assertFalse(index.isReady());
+        assertEquals(List.of(), index.search("alien", 10));
+        assertThrows(IllegalStateException.class, () -> index.upsert(List.of(new TrigramIndex.Entry(1, "Alien", 0, null))));
+    }
+
+    @Test
+    void upsertAddsNewDocuments() {
+        LiveTrigramIndex index = built(10);
+
+        index.upsert(List.of(new TrigramIndex.Entry(7, "Alien: Romulus", 3.5, null)));
+
+        assertTrue(index.isReady());
+        assertEquals(4, index.size());
+        assertEquals(7, index.maxId());
+        assertEquals(List.of(1L, 2L, 7L), ids(index, "alien"));
+    }
+
+    @Test
+    void renameReplacesTheOldName() {
+        LiveTrigramIndex index = built(10);
+
+        index.upsert(List.of(new TrigramIndex.Entry(3, "Heat (1995)", 4.1, null)));
+        index.upsert(List.of(new TrigramIndex.Entry(1, "Alien 1979", 4.0, null)));
+        index.upsert(List.of(new TrigramIndex.Entry(1, "Le Huitième Passager", 4.0, null)));
+
+        assertEquals(3, index.size());
+        assertEquals(List.of(2L), ids(index, "aliens"));
+        assertEquals(List.of(1L), ids(index, "huitieme passager"));
+        assertEquals(List.of(3L), ids(index, "heat 1995"));
+    }
+
+    @Test
+    void removeDropsBaseAndDeltaDocuments() {
+        LiveTrigramIndex index = built(10);
+        index.upsert(List.of(new TrigramIndex.Entry(7, "Alien: Romulus", 3.5, null)));
+
+        index.remove(2);
+        index.remove(7);
+        index.remove(42);
+
+        assertEquals(2, index.size());
+        assertEquals(List.of(1L), ids(index, "alien"));
+    }
+
+    @Test
+    void mergesTheDeltaPastTheThreshold() {
+        LiveTrigramIndex index = built(2);
+
+        index.upsert(List.of(
+                new TrigramIndex.Entry(4, "Heat Wave", 3.0, null),
+                new TrigramIndex.Entry(5, "Heathers", 3.9, null),
+                new TrigramIndex.Entry(3, "Heat", 4.4, null)));
+        index.upsert(List.of(new TrigramIndex.Entry(2, "Aliens Director's Cut", 4.2, null)));
+
+        assertEquals(5, index.size());
+        assertEquals(5, index.maxId());
+        assertEquals(List.of(3L, 4L, 5L), ids(index, "heat"));
+        assertEquals(List.of(2L), ids(index, "director's cut"));
+        assertEquals(4.4, index.search("heat", 1).get(0).rank(), 1e-9);
+    }
+}
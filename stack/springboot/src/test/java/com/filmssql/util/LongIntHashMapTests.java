@@ -0,0 +1,80 @@
+package com.filmssql.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongIntHashMapTests {
+
+    @Test
+    void behavesLikeAHashMapThroughGrowth() {
+        LongIntHashMap map = new LongIntHashMap(2);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            // keys spaced by a power of two collide on the low bits before mixing
+            long key = random.nextBoolean() ? random.nextInt(5_000) * 1024L : random.nextLong();
+            if (key == Long.MIN_VALUE) continue;
+            map.put(key, i);
+            expected.put(key, i);
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((k, v) -> {
+            assertTrue(map.containsKey(k));
+            assertEquals(v, map.get(k, -1));
+        });
+        Map<Long, Integer> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertEquals(expected, visited);
+        assertFalse(map.containsKey(3));
+        assertEquals(-1, map.get(3, -1));
+    }
+
+    @Test
+    void overwritesWithoutGrowingTheSize() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.put(-5, 1);
+        map.put(0, 2);
+        map.put(-5, 3);
+
+        assertEquals(2, map.size());
+        assertEquals(3, map.get(-5, -1));
+        assertEquals(2, map.get(0, -1));
+    }
+
+    @Test
+    void copiesAreIndependent() {
+        LongIntHashMap map = new LongIntHashMap();
+        for (long k = 1; k <= 10; k++) map.put(k, (int) k);
+        LongIntHashMap copy = map.copy();
+
+        copy.put(1, 100);
+        for (long k = 11; k <= 100; k++) copy.put(k, (int) k);
+        map.put(2, 200);
+
+        assertEquals(10, map.size());
+        assertEquals(1, map.get(1, -1));
+        assertFalse(map.containsKey(50));
+        assertEquals(100, copy.size());
+        assertEquals(100, copy.get(1, -1));
+        assertEquals(2, copy.get(2, -1));
+    }
+
+    @Test
+    void neverContainsTheEmptyMarker() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.put(1, 1);
+
+        assertFalse(map.containsKey(Long.MIN_VALUE));
+        assertEquals(-1, map.get(Long.MIN_VALUE, -1));
+        assertThrows(IllegalArgumentException.class, () -> map.put(Long.MIN_VALUE, 1));
+    }
+}
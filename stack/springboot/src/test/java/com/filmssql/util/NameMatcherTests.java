@@ -0,0 +1,110 @@
+package com.filmssql.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class NameMatcherTests {
+
+    /**
+     * expected.csv holds what {@code resolve_id_for_name} of pythonexamples/actorinfo.py answers for
+     * 3000 generated names against actors.csv (see generate.py next to them).
+     */
+    @Test
+    void resolvesLikeThePythonResolver() throws IOException {
+        List<NameMatcher.Entry> actors = new ArrayList<>();
+        for (String[] row : readCsv("/namematcher/actors.csv")) {
+            actors.add(new NameMatcher.Entry(Long.parseLong(row[0]), row[1]));
+        }
+        NameMatcher matcher = NameMatcher.build(actors, 0.90);
+        List<String[]> expected = readCsv("/namematcher/expected.csv");
+        List<String> names = expected.stream().map(row -> row[0]).toList();
+
+        NameMatcher.Match[] matches = matcher.resolveAll(names, ForkJoinPool.commonPool());
+        int jaccard = 0;
+        for (int i = 0; i < expected.size(); i++) {
+            String[] row = expected.get(i);
+            NameMatcher.Match m = matches[i];
+            String method = m.method() == NameMatcher.Method.NONE ? "" : m.method().name().toLowerCase(Locale.ROOT);
+            String message = "name " + row[0];
+            assertEquals(row[1], m.status().name().toLowerCase(Locale.ROOT), message);
+            assertEquals(row[2], m.id() != null ? m.id().toString() : "", message);
+            assertEquals(row[3], method, message);
+            NameMatcher.Match single = matcher.resolve(row[0]);
+            assertEquals(m.id(), single.id(), message);
+            assertArrayEquals(m.candidates(), single.candidates(), message);
+            if (m.method() == NameMatcher.Method.JACCARD) jaccard++;
+        }
+        assertEquals(31, jaccard, "fixture exercises the Jaccard step");
+    }
+
+    @Test
+    void normalizesAccentsPunctuationAndCommaOrder() {
+        NameMatcher matcher = NameMatcher.build(List.of(
+                new NameMatcher.Entry(1, "Émile O'Brien"),
+                new NameMatcher.Entry(2, "Anne Marie Smith"),
+                new NameMatcher.Entry(3, "Lee Kim"),
+                new NameMatcher.Entry(4, "Kim Lee")), 0.90);
+
+        assertEquals(1L, matcher.resolve("emile o brien").id());
+        assertEquals(NameMatcher.Method.EXACT, matcher.resolve("EMILE  O'BRIEN").method());
+        assertEquals(2L, matcher.resolve("Smith, Anne Marie").id());
+        assertEquals(NameMatcher.Method.TOKEN_SET, matcher.resolve("Smith, Anne Marie").method());
+
+        assertEquals(3L, matcher.resolve("Lee, Kim").id());     // the comma is punctuation: exact before token set
+        NameMatcher.Match ambiguous = matcher.resolve("Kim Lee Kim");
+        assertEquals(NameMatcher.Status.AMBIGUOUS, ambiguous.status());
+        assertEquals(NameMatcher.Method.TOKEN_SET, ambiguous.method());
+        assertNull(ambiguous.id());
+        assertArrayEquals(new long[]{3, 4}, ambiguous.candidates());
+
+        assertEquals(NameMatcher.Status.UNMATCHED, matcher.resolve("Nobody").status());
+        assertEquals(NameMatcher.Status.UNMATCHED, matcher.resolve("  ").status());
+    }
+
+    private static List<String[]> readCsv(String resource) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                Objects.requireNonNull(NameMatcherTests.class.getResourceAsStream(resource)), StandardCharsets.UTF_8))) {
+            in.readLine();
+            for (String line = in.readLine(); line != null; line = in.readLine()) rows.add(fields(line));
+        }
+        return rows;
+    }
+
+    // RFC 4180 fields of one line; the fixtures have no line breaks inside quotes
+    private static String[] fields(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') field.append(c);
+                else if (i + 1 < line.length() && line.charAt(i + 1) == '"') field.append(line.charAt(++i));
+                else quoted = false;
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(String[]::new);
+    }
+}
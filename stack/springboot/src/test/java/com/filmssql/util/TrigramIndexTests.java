@@ -0,0 +1,86 @@
+package com.filmssql.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTests {
+
+    private static final TrigramIndex.Entry STAR_WARS = new TrigramIndex.Entry(1, "Star Wars", 3.0, null);
+    private static final TrigramIndex.Entry STAR_WARS_REMAKE = new TrigramIndex.Entry(2, "Star Wars", 4.0, "/2.jpg");
+    private static final TrigramIndex.Entry STAR_TREK = new TrigramIndex.Entry(3, "Star Trek", 4.5, null);
+    private static final TrigramIndex.Entry EPISODE = new TrigramIndex.Entry(4, "Star Wars: Episode IV", 2.0, null);
+    private static final TrigramIndex.Entry AMELIE = new TrigramIndex.Entry(5, "Le Fabuleux Destin d'Amélie Poulain", 4.0, null);
+
+    @Test
+    void similarityMatchesPgTrgm() {
+        // select similarity('word', 'two words') = 0.363636
+        assertEquals(4.0 / 11, TrigramIndex.similarity("word", "two words"), 1e-9);
+        assertEquals(1.0, TrigramIndex.similarity("Amélie", "AMELIE!"), 1e-9);
+        assertEquals(0.0, TrigramIndex.similarity("", "anything"), 1e-9);
+    }
+
+    @Test
+    void ranksBySimilarityThenRankThenId() {
+        TrigramIndex index = TrigramIndex.build(List.of(EPISODE, STAR_TREK, STAR_WARS, STAR_WARS_REMAKE, AMELIE,
+                new TrigramIndex.Entry(6, "Star Wars", 4.0, null)));
+
+        List<TrigramIndex.Hit> hits = index.search(TrigramIndex.trigrams("star wars"), 10, 0.3, null);
+
+        assertEquals(List.of(2L, 6L, 1L, 4L, 3L), hits.stream().map(TrigramIndex.Hit::id).toList());
+        assertEquals(1.0, hits.get(0).similarity(), 1e-9);
+        assertEquals("/2.jpg", hits.get(0).image());
+        for (int i = 1; i < hits.size(); i++) {
+            assertTrue(TrigramIndex.BY_RELEVANCE.compare(hits.get(i - 1), hits.get(i)) < 0);
+        }
+        assertEquals(List.of(2L, 6L), index.search(TrigramIndex.trigrams("star wars"), 2, 0.3, null)
+                .stream().map(TrigramIndex.Hit::id).toList());
+    }
+
+    @Test
+    void keepsDocumentsContainingTheWholeQueryBelowTheThreshold() {
+        TrigramIndex index = TrigramIndex.build(List.of(EPISODE, STAR_TREK, AMELIE));
+
+        List<TrigramIndex.Hit> hits = index.search(TrigramIndex.trigrams("amelie"), 10, 0.9, null);
+
+        assertEquals(List.of(5L), hits.stream().map(TrigramIndex.Hit::id).toList());
+        assertTrue(hits.get(0).similarity() < 0.9);
+    }
+
+    @Test
+    void skipsExcludedOrdinals() {
+        TrigramIndex index = TrigramIndex.build(List.of(STAR_WARS, STAR_WARS_REMAKE, STAR_TREK));
+        BitSet excluded = new BitSet();
+        excluded.set(index.ordinalOf(2));
+
+        List<TrigramIndex.Hit> hits = index.search(TrigramIndex.trigrams("star wars"), 10, 0.3, excluded);
+
+        assertEquals(List.of(1L, 3L), hits.stream().map(TrigramIndex.Hit::id).toList());
+        assertEquals(-1, index.ordinalOf(42));
+        assertEquals(3, index.maxId());
+    }
+
+    // the per-thread counts are shared by indexes of every size and must be clean after each search
+    @Test
+    void searchesOfIndexesOfDifferentSizesDoNotInterfere() {
+        List<TrigramIndex.Entry> many = new ArrayList<>();
+        for (int i = 1; i <= 2000; i++) many.add(new TrigramIndex.Entry(i, "Movie number " + i, i % 5, null));
+        TrigramIndex large = TrigramIndex.build(many);
+        TrigramIndex small = TrigramIndex.build(List.of(STAR_WARS, STAR_TREK));
+
+        List<TrigramIndex.Hit> first = large.search(TrigramIndex.trigrams("movie number 1234"), 5, 0.3, null);
+        List<TrigramIndex.Hit> smallHits = small.search(TrigramIndex.trigrams("star trek"), 5, 0.3, null);
+        BitSet excluded = new BitSet();
+        excluded.set(0, 2000, true);
+        large.search(TrigramIndex.trigrams("movie number 1234"), 5, 0.3, excluded);
+
+        assertEquals(1234L, first.get(0).id());
+        assertEquals(first, large.search(TrigramIndex.trigrams("movie number 1234"), 5, 0.3, null));
+        assertEquals(smallHits, small.search(TrigramIndex.trigrams("star trek"), 5, 0.3, null));
+    }
+}
@@ -0,0 +1,104 @@
+package com.filmssql.web.support;
+
+import com.filmssql.web.exception.GlobalExceptionHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class BulkheadInterceptorTests {
+
+    @RestController
+    @Bulkhead("test")
+    static class TestController {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @GetMapping("/slow")
+        String slow() throws InterruptedException {
+            entered.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return "slow";
+        }
+
+        @GetMapping("/fast")
+        String fast() {
+            return "fast";
+        }
+
+        @GetMapping("/failing")
+        String failing() {
+            throw new IllegalStateException("boom");
+        }
+    }
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final TestController controller = new TestController();
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("app.bulkhead.test.permits", "1")
+                .withProperty("app.bulkhead.test.max-queue", "0")
+                .withProperty("app.bulkhead.test.max-wait", "10ms");
+        // Boot's environment converts "10ms" to a Duration, a plain one does not
+        env.setConversionService(new ApplicationConversionService());
+        mvc = MockMvcBuilders.standaloneSetup(controller)
+                .addInterceptors(new BulkheadInterceptor(env, registry, 10))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    private double available() {
+        return registry.get("bulkhead.available").tag("class", "test").gauge().value();
+    }
+
+    @Test
+    void rejectsWhileThePermitIsHeldAndHandsItBackAfterCompletion() throws Exception {
+        CompletableFuture<Integer> slow = CompletableFuture.supplyAsync(() -> {
+            try {
+                return mvc.perform(get("/slow")).andReturn().getResponse().getStatus();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(controller.entered.await(10, TimeUnit.SECONDS));
+        assertEquals(0, available());
+
+        mvc.perform(get("/fast"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value(503));
+        assertEquals(1, registry.get("bulkhead.rejected").tag("class", "test").counter().count());
+
+        controller.release.countDown();
+        assertEquals(200, slow.get(10, TimeUnit.SECONDS));
+        assertEquals(1, available());
+        mvc.perform(get("/fast")).andExpect(status().isOk());
+        assertEquals(1, available());
+    }
+
+    @Test
+    void releasesThePermitWhenTheHandlerFails() throws Exception {
+        mvc.perform(get("/failing"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.error").value("boom"));
+        assertEquals(1, available());
+        mvc.perform(get("/fast")).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,41 @@
+package com.filmssql.web.support;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class MovieJsonCacheTests {
+
+    @ParameterizedTest(name = "[{0}] -> {1}")
+    @CsvSource(delimiter = '|', value = {
+            "gzip                    | true",
+            "gzip, deflate, br       | true",
+            "br;q=1.0, GZIP;q=0.5    | true",
+            "x-gzip                  | true",
+            "*                       | true",
+            "*;q=0.1, deflate        | true",
+            "gzip ; Q=0.3            | true",
+            "gzip;q=0                | false",
+            "gzip;q=0.000, *         | false",
+            "*;q=0                   | false",
+            "*, gzip;q=0             | false",
+            "gzip;q=0, gzip          | true",
+            "identity                | false",
+            "deflate, br             | false",
+            "gzipped                 | false",
+            "gzip;q=abc              | false",
+            "' '                     | false",
+    })
+    void acceptsGzipOnlyWithAPositiveWeight(String acceptEncoding, boolean expected) {
+        assertEquals(expected, MovieJsonCache.acceptsGzip(acceptEncoding));
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    void doesNotAcceptGzipWithoutTheHeader(String acceptEncoding) {
+        assertFalse(MovieJsonCache.acceptsGzip(acceptEncoding));
+    }
+}
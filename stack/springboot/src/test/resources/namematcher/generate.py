@@ -0,0 +1,36 @@
+# Regenerates actors.csv and expected.csv with the resolver of pythonexamples/actorinfo.py.
+# Run from this directory: python3 generate.py
+import csv
+import random
+import sys
+
+sys.path.insert(0, '../../../../../../pythonexamples')
+import actorinfo as A
+
+random.seed(3)
+first = ["John", "Jóhn", "Mary", "Anne", "Émile", "Lee", "Kim", "Park", "José", "Ana", "Marie-Claire", "O'Brien"]
+last = ["Smith", "Doe", "Lee", "Kim", "Müller", "Garcia", "Brown", "Park", "Dupont", "Núñez"]
+
+
+def name():
+    k = random.choice([1, 2, 2, 2, 3, 10, 11])
+    toks = [random.choice(first + last) for _ in range(k)]
+    s = " ".join(toks)
+    if random.random() < 0.1:
+        s = toks[-1] + ", " + " ".join(toks[:-1])
+    return s
+
+
+with open('actors.csv', 'w', newline='') as f:
+    w = csv.writer(f)
+    w.writerow(["id", "name"])
+    for i in range(1, 3001):
+        w.writerow([i, name()])
+norm, tok, _ = A.load_actors_index(A.Path('actors.csv'))
+with open('expected.csv', 'w', newline='') as f:
+    w = csv.writer(f)
+    w.writerow(["name", "status", "id", "method"])
+    for i in range(3000):
+        q = name()
+        st, cid, c, m = A.resolve_id_for_name(q, norm, tok)
+        w.writerow([q, st, cid, m])